@@ -0,0 +1,92 @@
+package me.prettyprint.cassandra.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.service.BatchMutation;
+import me.prettyprint.cassandra.service.BatchSizeHint;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.Mutation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds the mutation map of a batch of rows of ten columns each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchMutationBenchmark {
+
+  private static final int COLUMNS = 10;
+
+  @Param({ "1", "100", "1000" })
+  public int rows;
+
+  private final List<String> columnFamilies = Arrays.asList("Standard1");
+  private String[] keys;
+  private List<Column> columns;
+
+  @Setup
+  public void setUp() {
+    keys = new String[rows];
+    for (int i = 0; i < rows; i++) {
+      keys[i] = "key" + i;
+    }
+    columns = new ArrayList<Column>(COLUMNS);
+    for (int i = 0; i < COLUMNS; i++) {
+      columns.add(new Column(StringSerializer.get().toByteBuffer("column" + i))
+          .setValue(StringSerializer.get().toByteBuffer("value" + i)).setTimestamp(i));
+    }
+  }
+
+  @Benchmark
+  public Map<ByteBuffer, Map<String, List<Mutation>>> addInsertion() {
+    BatchMutation<String> batch = new BatchMutation<String>(StringSerializer.get());
+    for (String key : keys) {
+      for (Column column : columns) {
+        batch.addInsertion(key, columnFamilies, column);
+      }
+    }
+    return batch.getMutationMap();
+  }
+
+  @Benchmark
+  public Map<ByteBuffer, Map<String, List<Mutation>>> addInsertions() {
+    BatchMutation<String> batch = new BatchMutation<String>(StringSerializer.get());
+    for (String key : keys) {
+      batch.addInsertions(key, columnFamilies, columns);
+    }
+    return batch.getMutationMap();
+  }
+
+  @Benchmark
+  public Map<ByteBuffer, Map<String, List<Mutation>>> addInsertionWithSizeHint() {
+    BatchMutation<String> batch = new BatchMutation<String>(StringSerializer.get(),
+        new BatchSizeHint(rows, COLUMNS));
+    for (String key : keys) {
+      for (Column column : columns) {
+        batch.addInsertion(key, columnFamilies, column);
+      }
+    }
+    return batch.getMutationMap();
+  }
+}
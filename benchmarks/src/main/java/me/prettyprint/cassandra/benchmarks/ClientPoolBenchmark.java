@@ -0,0 +1,60 @@
+package me.prettyprint.cassandra.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.connection.ConcurrentHClientPool;
+import me.prettyprint.cassandra.connection.client.HClient;
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+import me.prettyprint.cassandra.service.CassandraHost;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Eight threads borrowing and releasing clients of one pool, with fewer and
+ * with more clients than threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ClientPoolBenchmark {
+
+  @Param({ "4", "50" })
+  public int maxActive;
+
+  private ConcurrentHClientPool pool;
+
+  @Setup
+  public void setUp() {
+    CassandraHost host = new CassandraHost("127.0.0.1:9160");
+    host.setMaxActive(maxActive);
+    pool = new ConcurrentHClientPool(new StubHClientFactory(), host, new CassandraClientMonitor(null));
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public HClient borrowAndRelease() {
+    HClient client = pool.borrowClient();
+    pool.releaseClient(client);
+    return client;
+  }
+}
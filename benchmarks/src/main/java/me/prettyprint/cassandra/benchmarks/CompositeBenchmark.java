@@ -0,0 +1,82 @@
+package me.prettyprint.cassandra.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.serializers.UUIDSerializer;
+import me.prettyprint.hector.api.beans.Composite;
+import me.prettyprint.hector.api.beans.DynamicComposite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Builds and serializes a three component column name, and reads one back,
+ * as a Composite and as a DynamicComposite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositeBenchmark {
+
+  private final UUID uuid = UUID.randomUUID();
+  private ByteBuffer composite;
+  private ByteBuffer dynamicComposite;
+
+  @Setup
+  public void setUp() {
+    composite = serializeComposite();
+    dynamicComposite = serializeDynamicComposite();
+  }
+
+  @Benchmark
+  public ByteBuffer serializeComposite() {
+    Composite c = new Composite();
+    c.addComponent("user", StringSerializer.get());
+    c.addComponent(42L, LongSerializer.get());
+    c.addComponent(uuid, UUIDSerializer.get());
+    return c.serialize();
+  }
+
+  @Benchmark
+  public void deserializeComposite(Blackhole blackhole) {
+    Composite c = new Composite();
+    c.setSerializersByPosition(StringSerializer.get(), LongSerializer.get(), UUIDSerializer.get());
+    c.deserialize(composite.duplicate());
+    blackhole.consume(c.get(0, StringSerializer.get()));
+    blackhole.consume(c.get(1, LongSerializer.get()));
+    blackhole.consume(c.get(2, UUIDSerializer.get()));
+  }
+
+  @Benchmark
+  public ByteBuffer serializeDynamicComposite() {
+    DynamicComposite c = new DynamicComposite();
+    c.addComponent("user", StringSerializer.get());
+    c.addComponent(42L, LongSerializer.get());
+    c.addComponent(uuid, UUIDSerializer.get());
+    return c.serialize();
+  }
+
+  @Benchmark
+  public void deserializeDynamicComposite(Blackhole blackhole) {
+    DynamicComposite c = DynamicComposite.fromByteBuffer(dynamicComposite.duplicate());
+    blackhole.consume(c.get(0));
+    blackhole.consume(c.get(1));
+    blackhole.consume(c.get(2));
+  }
+}
@@ -0,0 +1,94 @@
+package me.prettyprint.cassandra.benchmarks;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.connection.DynamicLoadBalancingPolicy;
+import me.prettyprint.cassandra.connection.HClientPool;
+import me.prettyprint.cassandra.connection.LeastActiveBalancingPolicy;
+import me.prettyprint.cassandra.connection.LoadBalancingPolicy;
+import me.prettyprint.cassandra.connection.RoundRobinBalancingPolicy;
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+import me.prettyprint.cassandra.service.CassandraHost;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Picks a pool with every load balancing policy, from all hosts and with
+ * one host excluded as after a failed attempt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBalancingPolicyBenchmark {
+
+  @Param({ "RoundRobinBalancingPolicy", "LeastActiveBalancingPolicy", "DynamicLoadBalancingPolicy" })
+  public String policy;
+
+  @Param({ "3", "12" })
+  public int hosts;
+
+  private LoadBalancingPolicy loadBalancingPolicy;
+  private Collection<HClientPool> pools;
+  private Set<CassandraHost> excludeHosts;
+
+  @Setup
+  public void setUp() {
+    if ( policy.equals("RoundRobinBalancingPolicy") ) {
+      loadBalancingPolicy = new RoundRobinBalancingPolicy();
+    } else if ( policy.equals("LeastActiveBalancingPolicy") ) {
+      loadBalancingPolicy = new LeastActiveBalancingPolicy();
+    } else if ( policy.equals("DynamicLoadBalancingPolicy") ) {
+      loadBalancingPolicy = new DynamicLoadBalancingPolicy();
+    } else {
+      throw new IllegalArgumentException("Unknown policy " + policy);
+    }
+    StubHClientFactory clientFactory = new StubHClientFactory();
+    CassandraClientMonitor monitor = new CassandraClientMonitor(null);
+    // the view HConnectionManager passes
+    ConcurrentMap<CassandraHost, HClientPool> hostPools = new ConcurrentHashMap<CassandraHost, HClientPool>();
+    for (int i = 0; i < hosts; i++) {
+      CassandraHost host = new CassandraHost("127.0.0." + (i + 1) + ":9160");
+      host.setMaxActive(6);
+      hostPools.put(host, loadBalancingPolicy.createConnection(clientFactory, host, monitor));
+    }
+    pools = hostPools.values();
+    excludeHosts = new HashSet<CassandraHost>();
+    excludeHosts.add(hostPools.keySet().iterator().next());
+  }
+
+  @TearDown
+  public void tearDown() {
+    for (HClientPool pool : pools) {
+      pool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public HClientPool getPool() {
+    return loadBalancingPolicy.getPool(pools, null);
+  }
+
+  @Benchmark
+  public HClientPool getPoolExcludingHost() {
+    return loadBalancingPolicy.getPool(pools, excludeHosts);
+  }
+}
@@ -0,0 +1,96 @@
+package me.prettyprint.cassandra.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.model.ColumnSliceImpl;
+import me.prettyprint.cassandra.model.HColumnImpl;
+import me.prettyprint.cassandra.model.RowsImpl;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.beans.Row;
+
+import org.apache.cassandra.thrift.Column;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Turns thrift results into HColumns, column slices and rows and reads them,
+ * and builds HColumns to write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBeanBenchmark {
+
+  private static final int COLUMNS = 20;
+  private static final int ROWS = 10;
+
+  private Column column;
+  private List<Column> slice;
+  private Map<String, List<Column>> rows;
+
+  @Setup
+  public void setUp() {
+    slice = new ArrayList<Column>(COLUMNS);
+    for (int i = 0; i < COLUMNS; i++) {
+      slice.add(new Column(StringSerializer.get().toByteBuffer("column" + i))
+          .setValue(LongSerializer.get().toByteBuffer((long) i)).setTimestamp(i));
+    }
+    column = slice.get(0);
+    rows = new HashMap<String, List<Column>>();
+    for (int i = 0; i < ROWS; i++) {
+      rows.put("key" + i, slice);
+    }
+  }
+
+  @Benchmark
+  public HColumn<String, Long> newHColumn() {
+    return new HColumnImpl<String, Long>("column", 42L, 1L, StringSerializer.get(), LongSerializer.get());
+  }
+
+  @Benchmark
+  public void hColumnFromThrift(Blackhole blackhole) {
+    HColumn<String, Long> c = new HColumnImpl<String, Long>(column, StringSerializer.get(), LongSerializer.get());
+    blackhole.consume(c.getName());
+    blackhole.consume(c.getValue());
+  }
+
+  @Benchmark
+  public void columnSlice(Blackhole blackhole) {
+    ColumnSliceImpl<String, Long> s = new ColumnSliceImpl<String, Long>(slice, StringSerializer.get(),
+        LongSerializer.get());
+    for (HColumn<String, Long> c : s.getColumns()) {
+      blackhole.consume(c.getName());
+      blackhole.consume(c.getValue());
+    }
+  }
+
+  @Benchmark
+  public void rows(Blackhole blackhole) {
+    RowsImpl<String, String, Long> r = new RowsImpl<String, String, Long>(rows, StringSerializer.get(),
+        LongSerializer.get());
+    for (Row<String, String, Long> row : r) {
+      for (HColumn<String, Long> c : row.getColumnSlice().getColumns()) {
+        blackhole.consume(c.getName());
+        blackhole.consume(c.getValue());
+      }
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package me.prettyprint.cassandra.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import me.prettyprint.cassandra.serializers.AsciiSerializer;
+import me.prettyprint.cassandra.serializers.BigDecimalSerializer;
+import me.prettyprint.cassandra.serializers.BigIntegerSerializer;
+import me.prettyprint.cassandra.serializers.BooleanSerializer;
+import me.prettyprint.cassandra.serializers.ByteBufferSerializer;
+import me.prettyprint.cassandra.serializers.BytesArraySerializer;
+import me.prettyprint.cassandra.serializers.CharSerializer;
+import me.prettyprint.cassandra.serializers.CompactObjectSerializer;
+import me.prettyprint.cassandra.serializers.CompositeSerializer;
+import me.prettyprint.cassandra.serializers.CompressingSerializer;
+import me.prettyprint.cassandra.serializers.DateSerializer;
+import me.prettyprint.cassandra.serializers.DoubleSerializer;
+import me.prettyprint.cassandra.serializers.DoubleTypeSerializer;
+import me.prettyprint.cassandra.serializers.DynamicCompositeSerializer;
+import me.prettyprint.cassandra.serializers.FastInfosetSerializer;
+import me.prettyprint.cassandra.serializers.FloatSerializer;
+import me.prettyprint.cassandra.serializers.FloatTypeSerializer;
+import me.prettyprint.cassandra.serializers.IntegerSerializer;
+import me.prettyprint.cassandra.serializers.JaxbSerializer;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.ObjectSerializer;
+import me.prettyprint.cassandra.serializers.PrefixedSerializer;
+import me.prettyprint.cassandra.serializers.ShortSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.serializers.TimeUUIDSerializer;
+import me.prettyprint.cassandra.serializers.UUIDSerializer;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.beans.Composite;
+import me.prettyprint.hector.api.beans.DynamicComposite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts a typical value to bytes and back with every serializer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+  private static final String TEXT = "the quick brown fox jumps over the lazy dog 0123456789";
+
+  @Param({ "AsciiSerializer", "BigDecimalSerializer", "BigIntegerSerializer", "BooleanSerializer",
+      "ByteBufferSerializer", "BytesArraySerializer", "CharSerializer", "CompactObjectSerializer",
+      "CompositeSerializer", "CompressingSerializer", "DateSerializer", "DoubleSerializer",
+      "DoubleTypeSerializer", "DynamicCompositeSerializer", "FastInfosetSerializer", "FloatSerializer",
+      "FloatTypeSerializer", "IntegerSerializer", "JaxbSerializer", "LongSerializer", "ObjectSerializer",
+      "PrefixedSerializer", "ShortSerializer", "StringSerializer", "TimeUUIDSerializer",
+      "UUIDSerializer" })
+  public String serializer;
+
+  private Serializer<Object> s;
+  private Object value;
+  private ByteBuffer bytes;
+
+  @Setup
+  public void setUp() {
+    Map<String, Object[]> samples = samples();
+    Object[] sample = samples.get(serializer);
+    if ( sample == null ) {
+      throw new IllegalArgumentException("No sample for " + serializer + ", known: " + samples.keySet());
+    }
+    s = cast(sample[0]);
+    value = sample[1];
+    bytes = s.toByteBuffer(value);
+  }
+
+  @Benchmark
+  public ByteBuffer toByteBuffer() {
+    return s.toByteBuffer(value);
+  }
+
+  @Benchmark
+  public Object fromByteBuffer() {
+    return s.fromByteBuffer(bytes.duplicate());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Serializer<Object> cast(Object serializer) {
+    return (Serializer<Object>) serializer;
+  }
+
+  private static Map<String, Object[]> samples() {
+    HashMap<String, Integer> map = new HashMap<String, Integer>();
+    map.put("first", 1);
+    map.put("second", 2);
+    StringBuilder repeated = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      repeated.append(TEXT);
+    }
+    byte[] array = new byte[64];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (byte) i;
+    }
+
+    Map<String, Object[]> samples = new LinkedHashMap<String, Object[]>();
+    samples.put("AsciiSerializer", sample(AsciiSerializer.get(), TEXT));
+    samples.put("BigDecimalSerializer", sample(BigDecimalSerializer.get(), new BigDecimal("12345.6789")));
+    samples.put("BigIntegerSerializer", sample(BigIntegerSerializer.get(),
+        BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(31))));
+    samples.put("BooleanSerializer", sample(BooleanSerializer.get(), Boolean.TRUE));
+    samples.put("ByteBufferSerializer", sample(ByteBufferSerializer.get(), ByteBuffer.wrap(array)));
+    samples.put("BytesArraySerializer", sample(BytesArraySerializer.get(), array));
+    samples.put("CharSerializer", sample(CharSerializer.get(), 'x'));
+    samples.put("CompactObjectSerializer", sample(CompactObjectSerializer.get(), map));
+    samples.put("CompositeSerializer", sample(CompositeSerializer.get(), new Composite("user", 42L)));
+    samples.put("CompressingSerializer", sample(new CompressingSerializer<String>(StringSerializer.get()),
+        repeated.toString()));
+    samples.put("DateSerializer", sample(DateSerializer.get(), new Date(1400000000000L)));
+    samples.put("DoubleSerializer", sample(DoubleSerializer.get(), Math.PI));
+    samples.put("DoubleTypeSerializer", sample(DoubleTypeSerializer.get(), Math.PI));
+    samples.put("DynamicCompositeSerializer", sample(DynamicCompositeSerializer.get(),
+        new DynamicComposite("user", 42L)));
+    samples.put("FastInfosetSerializer", sample(new FastInfosetSerializer(XmlValue.class), new XmlValue(TEXT, 42)));
+    samples.put("FloatSerializer", sample(FloatSerializer.get(), 2.5f));
+    samples.put("FloatTypeSerializer", sample(FloatTypeSerializer.get(), 2.5f));
+    samples.put("IntegerSerializer", sample(IntegerSerializer.get(), 42));
+    samples.put("JaxbSerializer", sample(new JaxbSerializer(XmlValue.class), new XmlValue(TEXT, 42)));
+    samples.put("LongSerializer", sample(LongSerializer.get(), 42L));
+    samples.put("ObjectSerializer", sample(ObjectSerializer.get(), map));
+    samples.put("PrefixedSerializer", sample(new PrefixedSerializer<String, String>("prefix",
+        StringSerializer.get(), StringSerializer.get()), TEXT));
+    samples.put("ShortSerializer", sample(ShortSerializer.get(), (short) 7));
+    samples.put("StringSerializer", sample(StringSerializer.get(), TEXT));
+    samples.put("TimeUUIDSerializer", sample(TimeUUIDSerializer.get(), new com.eaio.uuid.UUID()));
+    samples.put("UUIDSerializer", sample(UUIDSerializer.get(), UUID.randomUUID()));
+    return samples;
+  }
+
+  private static Object[] sample(Serializer<?> serializer, Object value) {
+    return new Object[] { serializer, value };
+  }
+
+  @XmlRootElement
+  public static class XmlValue {
+    public String name;
+    public int count;
+
+    public XmlValue() {
+    }
+
+    XmlValue(String name, int count) {
+      this.name = name;
+      this.count = count;
+    }
+  }
+}
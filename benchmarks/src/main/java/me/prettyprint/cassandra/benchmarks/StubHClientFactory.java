@@ -0,0 +1,94 @@
+package me.prettyprint.cassandra.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import me.prettyprint.cassandra.connection.client.HClient;
+import me.prettyprint.cassandra.connection.factory.HClientFactory;
+import me.prettyprint.cassandra.service.CassandraHost;
+
+import org.apache.cassandra.thrift.Cassandra;
+
+/**
+ * Creates clients which open no connection, so pools and load balancing
+ * policies can be measured on their own.
+ */
+public class StubHClientFactory implements HClientFactory {
+
+  @Override
+  public HClient createClient(CassandraHost ch) {
+    return new StubHClient(ch);
+  }
+
+  static final class StubHClient implements HClient {
+    private final CassandraHost cassandraHost;
+    private final long createdTime = System.currentTimeMillis();
+    private final Map<String, String> credentials = new HashMap<String, String>();
+    private boolean open;
+    private long useageStartTime;
+    private long lastSuccessTime;
+
+    StubHClient(CassandraHost cassandraHost) {
+      this.cassandraHost = cassandraHost;
+    }
+
+    public long getCreatedTime() {
+      return createdTime;
+    }
+
+    public Cassandra.Client getCassandra() {
+      throw new UnsupportedOperationException("stub client");
+    }
+
+    public Cassandra.Client getCassandra(String keyspaceNameArg) {
+      throw new UnsupportedOperationException("stub client");
+    }
+
+    public HClient close() {
+      open = false;
+      return this;
+    }
+
+    public HClient open() {
+      open = true;
+      return this;
+    }
+
+    public boolean isOpen() {
+      return open;
+    }
+
+    public void startToUse() {
+      useageStartTime = System.currentTimeMillis();
+    }
+
+    public long getSinceLastUsed() {
+      return System.currentTimeMillis() - useageStartTime;
+    }
+
+    public CassandraHost getCassandraHost() {
+      return cassandraHost;
+    }
+
+    public void setAuthenticated(Map<String, String> credentials) {
+      clearAuthentication();
+      this.credentials.putAll(credentials);
+    }
+
+    public boolean isAlreadyAuthenticated(Map<String, String> credentials) {
+      return credentials != null && this.credentials.equals(credentials);
+    }
+
+    public void clearAuthentication() {
+      credentials.clear();
+    }
+
+    public long getLastSuccessTime() {
+      return lastSuccessTime;
+    }
+
+    public void updateLastSuccessTime() {
+      lastSuccessTime = System.currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package me.prettyprint.hom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import me.prettyprint.cassandra.model.ColumnSliceImpl;
+import me.prettyprint.cassandra.model.MutatorImpl;
+import me.prettyprint.cassandra.serializers.BytesArraySerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.mutation.Mutator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Maps an entity to the mutations saving it, and a column slice back to the
+ * entity, without a cluster. In this package to reach the mapper's package
+ * private mapping methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+  private HectorObjectMapper objectMapper;
+  private CFMappingDef<Person> cfMapDef;
+  private Person person;
+  private ColumnSlice<String, byte[]> slice;
+
+  @Setup
+  public void setUp() {
+    ClassCacheMgr cacheMgr = new ClassCacheMgr();
+    cfMapDef = cacheMgr.initializeCacheForClass(Person.class);
+    objectMapper = new HectorObjectMapper(cacheMgr);
+    person = new Person("4f3a2c1e", "Ada Lovelace", "ada@example.com", 36, new Date(1400000000000L));
+
+    List<org.apache.cassandra.thrift.Column> columns = new ArrayList<org.apache.cassandra.thrift.Column>();
+    for (HColumn<String, byte[]> column : objectMapper.createColumnMap(person).values()) {
+      columns.add(new org.apache.cassandra.thrift.Column(StringSerializer.get().toByteBuffer(column.getName()))
+          .setValue(column.getValue()).setTimestamp(column.getClock()));
+    }
+    slice = new ColumnSliceImpl<String, byte[]>(columns, StringSerializer.get(), BytesArraySerializer.get());
+  }
+
+  @Benchmark
+  public Map<String, HColumn<String, byte[]>> createColumnMap() {
+    return objectMapper.createColumnMap(person);
+  }
+
+  @Benchmark
+  public Mutator<byte[]> save() {
+    // the mutator is not executed, it needs no keyspace
+    Mutator<byte[]> m = new MutatorImpl<byte[]>(null, BytesArraySerializer.get());
+    objectMapper.saveObjCollection(null, Collections.singletonList(person), m);
+    return m;
+  }
+
+  @Benchmark
+  public Person load() {
+    return objectMapper.createObject(cfMapDef, person.getId(), slice);
+  }
+
+  @Entity
+  @Table(name = "Person")
+  public static class Person {
+    @Id
+    private String id;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "age")
+    private int age;
+
+    @Column(name = "created")
+    private Date created;
+
+    public Person() {
+    }
+
+    Person(String id, String name, String email, int age, Date created) {
+      this.id = id;
+      this.name = name;
+      this.email = email;
+      this.age = age;
+      this.created = created;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getEmail() {
+      return email;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+
+    public Date getCreated() {
+      return created;
+    }
+
+    public void setCreated(Date created) {
+      this.created = created;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package me.prettyprint.cassandra.connection;
 
+import me.prettyprint.cassandra.connection.FlightRecorder.EventType;
 import me.prettyprint.cassandra.connection.client.HClient;
 import me.prettyprint.cassandra.connection.factory.HClientFactory;
 import me.prettyprint.cassandra.service.CassandraHost;
@@ -76,6 +77,7 @@ public class CassandraHostRetryService extends BackgroundCassandraHostService {
       public void run() {
         if(downedHostQueue.contains(cassandraHost) && verifyConnection(cassandraHost)) {
           if (connectionManager.addCassandraHost(cassandraHost)) {
+            connectionManager.getFlightRecorder().record(EventType.HOST_RESTORED, cassandraHost);
             listenerHandler.fireOnHostRestored(cassandraHost);
             downedHostQueue.remove(cassandraHost);
           }
@@ -149,6 +151,7 @@ public class CassandraHostRetryService extends BackgroundCassandraHostService {
         }
 
         if (connectionManager.getHosts().size() == 0) {
+          connectionManager.getFlightRecorder().record(EventType.ALL_HOSTS_DOWN, null);
           listenerHandler.fireOnAllHostsDown();
           log.info("Not checking that {} is a member of the ring since there are no live hosts", cassandraHost);
         }
@@ -169,6 +172,7 @@ public class CassandraHostRetryService extends BackgroundCassandraHostService {
           //we can't call iter.remove() based on return value of connectionManager.addCassandraHost, since
           //that returns false if an error occurs, or if the host already exists
           if(connectionManager.getHosts().contains(cassandraHost)) {
+            connectionManager.getFlightRecorder().record(EventType.HOST_RESTORED, cassandraHost);
             listenerHandler.fireOnHostRestored(cassandraHost);
             iter.remove();
           }
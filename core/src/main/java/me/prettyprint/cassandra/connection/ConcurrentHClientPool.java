@@ -8,6 +8,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import me.prettyprint.cassandra.connection.FlightRecorder.EventType;
 import me.prettyprint.cassandra.connection.client.HClient;
 import me.prettyprint.cassandra.connection.factory.HClientFactory;
 import me.prettyprint.cassandra.service.CassandraClientMonitor;
@@ -89,6 +90,7 @@ public class ConcurrentHClientPool implements HClientPool {
           cassandraClient = null;
 
           monitor.incCounter(Counter.RENEWED_IDLE_CONNECTIONS);
+          monitor.getFlightRecorder().record(EventType.IDLE_CONNECTION_RENEWED, cassandraHost, null, null, this);
 		}
       }
       if (cassandraClient != null) {
@@ -100,6 +102,7 @@ public class ConcurrentHClientPool implements HClientPool {
           cassandraClient = null;
 
           monitor.incCounter(Counter.RENEWED_TOO_LONG_CONNECTIONS);
+          monitor.getFlightRecorder().record(EventType.OLD_CONNECTION_RENEWED, cassandraHost, null, null, this);
 		}
       }
       if ( cassandraClient == null ) {
@@ -0,0 +1,216 @@
+package me.prettyprint.cassandra.connection;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.Operation;
+
+/**
+ * The last events of a cluster's connections, kept in memory for post
+ * mortems: hosts going down, suspended, restored, added and removed,
+ * retries, exhausted pools and renewed connections.
+ *
+ * Events go into a fixed ring without locks. Recording one takes a slot with
+ * an atomic increment and allocates the event; once the ring is full the
+ * oldest event is overwritten.
+ */
+public final class FlightRecorder {
+
+  public static final int DEF_SIZE = 1024;
+
+  public enum EventType {
+    HOST_DOWN,
+    HOST_RESTORED,
+    ALL_HOSTS_DOWN,
+    HOST_SUSPENDED,
+    HOST_UNSUSPENDED,
+    HOST_ADDED,
+    HOST_ADD_FAILED,
+    HOST_REMOVED,
+    RETRY,
+    POOL_EXHAUSTED,
+    IDLE_CONNECTION_RENEWED,
+    OLD_CONNECTION_RENEWED
+  }
+
+  private final AtomicReferenceArray<Event> events;
+  private final int mask;
+  private final AtomicLong sequence = new AtomicLong();
+
+  /**
+   * @param size the number of events kept, rounded up to a power of two
+   */
+  public FlightRecorder(int size) {
+    int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+    events = new AtomicReferenceArray<Event>(capacity);
+    mask = capacity - 1;
+  }
+
+  public void record(EventType type, CassandraHost host) {
+    record(type, host, null, null, null);
+  }
+
+  /**
+   * @param host may be null, as may the others
+   * @param pool the pool whose state to keep with the event
+   */
+  public void record(EventType type, CassandraHost host, Operation<?> op, Throwable exception, HClientPool pool) {
+    long seq = sequence.getAndIncrement();
+    events.lazySet((int) (seq & mask), new Event(seq, type, host, op, exception, pool));
+  }
+
+  /**
+   * @return the events kept, oldest first
+   */
+  public List<Event> getEvents() {
+    long end = sequence.get();
+    long start = Math.max(0, end - events.length());
+    List<Event> kept = new ArrayList<Event>((int) (end - start));
+    for (long seq = start; seq < end; seq++) {
+      Event event = events.get((int) (seq & mask));
+      // skips slots still being written, or already overwritten
+      if ( event != null && event.sequence == seq ) {
+        kept.add(event);
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * @return the events kept, oldest first, one per line
+   */
+  public List<String> dump() {
+    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    List<String> lines = new ArrayList<String>();
+    for (Event event : getEvents()) {
+      lines.add(event.toString(format));
+    }
+    return lines;
+  }
+
+  public void dumpTo(File file) throws IOException {
+    PrintWriter writer = new PrintWriter(new FileWriter(file));
+    try {
+      for (String line : dump()) {
+        writer.println(line);
+      }
+    } finally {
+      writer.close();
+    }
+    if ( writer.checkError() ) {
+      throw new IOException("Could not write events to " + file);
+    }
+  }
+
+  /**
+   * @return the number of events recorded so far, including those
+   *         overwritten since
+   */
+  public long getRecordedCount() {
+    return sequence.get();
+  }
+
+  public static final class Event {
+    private final long sequence;
+    private final long time;
+    private final EventType type;
+    private final String host;
+    private final String operation;
+    private final String exceptionClass;
+    private final int active;
+    private final int idle;
+    private final int blocked;
+
+    Event(long sequence, EventType type, CassandraHost host, Operation<?> op, Throwable exception,
+        HClientPool pool) {
+      this.sequence = sequence;
+      this.time = System.currentTimeMillis();
+      this.type = type;
+      this.host = host == null ? null : host.getName();
+      this.operation = op == null ? null : op.operationType + " " + op.keyspaceName
+          + (op.columnFamilyName == null ? "" : "/" + op.columnFamilyName);
+      this.exceptionClass = exception == null ? null : exception.getClass().getName();
+      this.active = pool == null ? -1 : pool.getNumActive();
+      this.idle = pool == null ? -1 : pool.getNumIdle();
+      this.blocked = pool == null ? -1 : pool.getNumBlockedThreads();
+    }
+
+    /**
+     * @return when the event was recorded, in milliseconds since the epoch
+     */
+    public long getTime() {
+      return time;
+    }
+
+    public EventType getType() {
+      return type;
+    }
+
+    /**
+     * @return the name of the host, null for events of no one host
+     */
+    public String getHost() {
+      return host;
+    }
+
+    /**
+     * @return the kind of operation and its keyspace and column family, null
+     *         for events outside of an operation
+     */
+    public String getOperation() {
+      return operation;
+    }
+
+    public String getExceptionClass() {
+      return exceptionClass;
+    }
+
+    /**
+     * @return the active connections of the host's pool, -1 when the event
+     *         has no pool
+     */
+    public int getActive() {
+      return active;
+    }
+
+    public int getIdle() {
+      return idle;
+    }
+
+    public int getBlocked() {
+      return blocked;
+    }
+
+    String toString(SimpleDateFormat format) {
+      StringBuilder s = new StringBuilder();
+      s.append(format.format(new Date(time))).append(' ').append(type);
+      if ( host != null ) {
+        s.append(" host=").append(host);
+      }
+      if ( operation != null ) {
+        s.append(" operation=").append(operation);
+      }
+      if ( exceptionClass != null ) {
+        s.append(" exception=").append(exceptionClass);
+      }
+      if ( active >= 0 ) {
+        s.append(" pool=active:").append(active).append(",idle:").append(idle).append(",blocked:").append(blocked);
+      }
+      return s.toString();
+    }
+
+    @Override
+    public String toString() {
+      return toString(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS"));
+    }
+  }
+}
@@ -4,11 +4,16 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import me.prettyprint.cassandra.connection.FlightRecorder.EventType;
 import me.prettyprint.cassandra.connection.client.HClient;
 import me.prettyprint.cassandra.connection.factory.HClientFactory;
 import me.prettyprint.cassandra.connection.factory.HClientFactoryProvider;
+import me.prettyprint.cassandra.model.NearCache;
+import me.prettyprint.cassandra.model.NegativeCache;
+import me.prettyprint.cassandra.model.ReadCoalescer;
 import me.prettyprint.cassandra.service.*;
 import me.prettyprint.cassandra.service.CassandraClientMonitor.Counter;
+import me.prettyprint.cassandra.service.OperationTimings.Phase;
 import me.prettyprint.hector.api.ClockResolution;
 import me.prettyprint.hector.api.exceptions.*;
 
@@ -31,12 +36,23 @@ public class HConnectionManager {
   private final CassandraHostConfigurator cassandraHostConfigurator;
   private final HClientFactory clientFactory;
   private HostTimeoutTracker hostTimeoutTracker;
+  private LatencyReportingService latencyReportingService;
   private final ClockResolution clock;
 
   final ExceptionsTranslator exceptionsTranslator;
   private final CassandraClientMonitor monitor;
+  private final FlightRecorder flightRecorder;
   private HOpTimer timer;
+  private final OperationLatencies operationLatencies;
+  private final boolean usePhaseHistograms;
+  private final SlowOperationLog slowOperationLog;
+  private final LargestOperations largestRequests;
+  private final LargestOperations largestResponses;
+  private final HotKeys hotKeys;
   private ConnectionManagerListenersHandler listenerHandler = new ConnectionManagerListenersHandler();
+  private final ConcurrentMap<String, NearCache> nearCaches = new ConcurrentHashMap<String, NearCache>();
+  private final ConcurrentMap<String, ReadCoalescer> readCoalescers = new ConcurrentHashMap<String, ReadCoalescer>();
+  private final ConcurrentMap<String, NegativeCache> negativeCaches = new ConcurrentHashMap<String, NegativeCache>();
 
   public HConnectionManager(String clusterName, CassandraHostConfigurator cassandraHostConfigurator) {
 
@@ -51,12 +67,14 @@ public class HConnectionManager {
       cassandraHostRetryService = new CassandraHostRetryService(this, clientFactory, cassandraHostConfigurator, listenerHandler);
     }
     monitor = JmxMonitor.getInstance().getCassandraMonitor(this);
+    flightRecorder = monitor.getFlightRecorder();
     for ( CassandraHost host : cassandraHostConfigurator.buildCassandraHosts()) {
       try {
         HClientPool hcp = loadBalancingPolicy.createConnection(clientFactory, host, monitor);
         hostPools.put(host,hcp);
       } catch (HectorTransportException hte) {
         log.error("Could not start connection pool for host {}", host);
+        flightRecorder.record(EventType.HOST_DOWN, host, null, hte, null);
         listenerHandler.fireOnHostDown(host);
         if ( cassandraHostRetryService != null ) {
           cassandraHostRetryService.add(host);
@@ -75,6 +93,17 @@ public class HConnectionManager {
     }
 
     timer = cassandraHostConfigurator.getOpTimer();
+    operationLatencies = cassandraHostConfigurator.getUseLatencyHistograms() ? new OperationLatencies() : null;
+    usePhaseHistograms = cassandraHostConfigurator.getUsePhaseHistograms();
+    slowOperationLog = new SlowOperationLog(cassandraHostConfigurator);
+    int largest = cassandraHostConfigurator.getUseByteCounting() ?
+        cassandraHostConfigurator.getLargestOperationsTracked() : 0;
+    largestRequests = largest > 0 ? new LargestOperations(largest) : null;
+    largestResponses = largest > 0 ? new LargestOperations(largest) : null;
+    hotKeys = cassandraHostConfigurator.getHotKeysTracked() > 0 ? new HotKeys(cassandraHostConfigurator) : null;
+    if ( operationLatencies != null && cassandraHostConfigurator.getLatencyReporter() != null ) {
+      latencyReportingService = new LatencyReportingService(this, cassandraHostConfigurator);
+    }
   }
 
   public void doAddNodes() {
@@ -95,15 +124,18 @@ public class HConnectionManager {
         pool = cassandraHostConfigurator.getLoadBalancingPolicy().createConnection(clientFactory, cassandraHost, monitor);
         hostPools.putIfAbsent(cassandraHost, pool);
         log.info("Added host {} to pool", cassandraHost.getName());
+        flightRecorder.record(EventType.HOST_ADDED, cassandraHost);
         listenerHandler.fireOnAddHost(cassandraHost, true, null, null);
         return true;
       } catch (HectorTransportException hte) {
         String errorMessage = "Transport exception host to HConnectionManager: " + cassandraHost;
         log.error(errorMessage, hte);
+        flightRecorder.record(EventType.HOST_ADD_FAILED, cassandraHost, null, hte, null);
         listenerHandler.fireOnAddHost(cassandraHost, false, errorMessage, hte);
       } catch (Exception ex) {
         String errorMessage = "General exception host to HConnectionManager: " + cassandraHost;
         log.error(errorMessage, ex);
+        flightRecorder.record(EventType.HOST_ADD_FAILED, cassandraHost, null, ex, null);
         listenerHandler.fireOnAddHost(cassandraHost, false, errorMessage, ex);
       }
     } else {
@@ -153,6 +185,9 @@ public class HConnectionManager {
       log.info("Remove requested on a host that was not found in active or disabled pools: {}", cassandraHost);
     }
     log.info("Remove status for CassandraHost pool {} was {}", cassandraHost, removed);
+    if ( removed ) {
+      flightRecorder.record(EventType.HOST_REMOVED, cassandraHost);
+    }
     listenerHandler.fireOnRemoveHost(cassandraHost, removed, message);
     return removed;
   }
@@ -169,6 +204,7 @@ public class HConnectionManager {
     boolean removed = pool != null;
     if ( removed ) {
       suspendedHostPools.put(cassandraHost, pool);
+      flightRecorder.record(EventType.HOST_SUSPENDED, cassandraHost, null, null, pool);
     }
     listenerHandler.fireOnSuspendHost(cassandraHost, removed);
     log.info("Suspend operation status was {} for CassandraHost {}", removed, cassandraHost);
@@ -190,6 +226,7 @@ public class HConnectionManager {
         log.error("Unsuspend called on a pool that was already active for CassandraHost {}", cassandraHost);
         pool.shutdown();
       }
+      flightRecorder.record(EventType.HOST_UNSUSPENDED, cassandraHost, null, null, pool);
     }
     listenerHandler.fireOnUnSuspendHost(cassandraHost, readded);
     log.info("UN-Suspend operation status was {} for CassandraHost {}", readded, cassandraHost);
@@ -218,7 +255,24 @@ public class HConnectionManager {
 
 
   public void operateWithFailover(Operation<?> op) throws HectorException {
+    final OperationLatency latency = operationLatencies == null ? null : operationLatencies.get(op);
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      operateWithFailover(op, latency);
+      success = true;
+    } finally {
+      if ( latency != null && usePhaseHistograms ) {
+        latency.recordPhases(op.getTimings());
+      }
+      slowOperationLog.logIfSlow(op, System.nanoTime() - start, success);
+    }
+  }
+
+  private void operateWithFailover(Operation<?> op, OperationLatency latency) throws HectorException {
     final Object timerToken = timer.start(op.stopWatchTagName);
+    final OperationTimings timings = op.getTimings();
+    boolean trace = slowOperationLog.sample();
     int retries = Math.min(op.failoverPolicy.numRetries, hostPools.size());
     HClient client = null;
     HClientPool pool = null;
@@ -227,21 +281,32 @@ public class HConnectionManager {
     Set<CassandraHost> excludeHosts = new HashSet<CassandraHost>(); // HLT.getExcludedHosts() (will be empty most times)
     // TODO start timer for limiting retry time spent
     while ( !success ) {
+      long attemptStart = 0;
       try {
         // TODO how to 'timeout' on this op when underlying pool is exhausted
         pool = getClientFromLBPolicy(excludeHosts);
+        long phaseStart = System.nanoTime();
         client = pool.borrowClient();
+        long connectionSetupStart = System.nanoTime();
+        timings.add(Phase.POOL_WAIT, connectionSetupStart - phaseStart);
         // Keyspace can be null for some system_* api calls
         if ( op.credentials != null && !op.credentials.isEmpty() && !client.isAlreadyAuthenticated(op.credentials)) {
           client.getCassandra().login(new AuthenticationRequest(op.credentials));
           client.setAuthenticated(op.credentials);
         }
         Cassandra.Client c = client.getCassandra(op.keyspaceName);
+        if ( trace ) {
+          op.setTraceSessionId(slowOperationLog.traceNextQuery(c));
+        }
+        timings.add(Phase.CONNECTION_SETUP, System.nanoTime() - connectionSetupStart);
 
+        op.attempted();
+        attemptStart = System.nanoTime();
         op.executeAndSetResult(c, pool.getCassandraHost());
         success = true;
         client.updateLastSuccessTime();
         timer.stop(timerToken, op.stopWatchTagName, true);
+        monitor.incCounter(op.successCounter);
         break;
 
       } catch (Exception ex) {
@@ -282,6 +347,7 @@ public class HConnectionManager {
           }
           excludeHosts.add(pool.getCassandraHost());
           retryable = op.failoverPolicy.shouldRetryFor(HPoolExhaustedException.class);
+          flightRecorder.record(EventType.POOL_EXHAUSTED, pool.getCassandraHost(), op, he, pool);
           monitor.incCounter(Counter.POOL_EXHAUSTED);
         } else if ( he instanceof HPoolRecoverableException ) {
           retryable = op.failoverPolicy.shouldRetryFor(HPoolRecoverableException.class);;
@@ -299,12 +365,26 @@ public class HConnectionManager {
         if ( retries <= 0 || retryable == false)
           throw he;
 
+        flightRecorder.record(EventType.RETRY, host, op, he, pool);
         log.warn("Could not fullfill request on this host {}", client);
         log.warn("Exception: ", he);
         monitor.incCounter(Counter.SKIP_HOST_SUCCESS);
         sleepBetweenHostSkips(op.failoverPolicy);
       } finally {
         --retries;
+        if ( attemptStart != 0 ) {
+          long attemptNanos = System.nanoTime() - attemptStart;
+          if ( latency != null ) {
+            latency.record(pool.getCassandraHost(), attemptNanos, success);
+            latency.recordBytes(pool.getCassandraHost(), op.getRequestBytes(), op.getResponseBytes());
+          }
+          if ( largestRequests != null ) {
+            largestRequests.offer(op, pool.getCassandraHost(), op.getRequestBytes());
+            largestResponses.offer(op, pool.getCassandraHost(), op.getResponseBytes());
+          }
+          // trace the retries of a slow attempt
+          trace = trace || slowOperationLog.isSlow(attemptNanos);
+        }
         if ( !success ) {
           monitor.incCounter(op.failCounter);
           timer.stop(timerToken, op.stopWatchTagName, false);
@@ -333,6 +413,53 @@ public class HConnectionManager {
     }
   }
 
+  /**
+   * @return the latency histograms of the operations run so far, null when
+   *         they are turned off in the {@link CassandraHostConfigurator}
+   */
+  public OperationLatencies getOperationLatencies() {
+    return operationLatencies;
+  }
+
+  /**
+   * @return the log of slow operations, whose threshold and trace sampling
+   *         can be changed at runtime
+   */
+  public SlowOperationLog getSlowOperationLog() {
+    return slowOperationLog;
+  }
+
+  /**
+   * @return the recent events of this cluster's hosts and pools
+   */
+  public FlightRecorder getFlightRecorder() {
+    return flightRecorder;
+  }
+
+  /**
+   * @return the largest requests sent so far, null when bytes are not
+   *         counted or none are tracked
+   */
+  public LargestOperations getLargestRequests() {
+    return largestRequests;
+  }
+
+  /**
+   * @return the largest responses received so far, null when bytes are not
+   *         counted or none are tracked
+   */
+  public LargestOperations getLargestResponses() {
+    return largestResponses;
+  }
+
+  /**
+   * @return the most requested row keys per column family, whose sampling
+   *         can be changed at runtime, null when none are tracked
+   */
+  public HotKeys getHotKeys() {
+    return hotKeys;
+  }
+
   public HOpTimer getTimer() {
     return timer;
   }
@@ -429,6 +556,7 @@ public class HConnectionManager {
     log.error("MARK HOST AS DOWN TRIGGERED for host {}", cassandraHost.getName());
     listenerHandler.fireOnHostDown(cassandraHost);
     HClientPool pool = hostPools.remove(cassandraHost);
+    flightRecorder.record(EventType.HOST_DOWN, cassandraHost, null, null, pool);
     if ( pool != null ) {
       log.error("Pool state on shutdown: {}", pool.getStatusAsString());
       pool.shutdown();
@@ -453,6 +581,61 @@ public class HConnectionManager {
     return clusterName;
   }
 
+  /**
+   * The near cache shared by all the keyspace instances created for the
+   * given keyspace on this connection manager. Created on first access, with
+   * no column family enabled.
+   * @param keyspaceName
+   * @return
+   */
+  public NearCache getNearCache(String keyspaceName) {
+    NearCache nearCache = nearCaches.get(keyspaceName);
+    if ( nearCache == null ) {
+      nearCache = new NearCache(monitor);
+      NearCache existing = nearCaches.putIfAbsent(keyspaceName, nearCache);
+      if ( existing != null ) {
+        nearCache = existing;
+      }
+    }
+    return nearCache;
+  }
+
+  /**
+   * The read coalescer shared by all the keyspace instances created for the
+   * given keyspace on this connection manager, see {@link #getNearCache(String)}
+   * @param keyspaceName
+   * @return
+   */
+  public ReadCoalescer getReadCoalescer(String keyspaceName) {
+    ReadCoalescer readCoalescer = readCoalescers.get(keyspaceName);
+    if ( readCoalescer == null ) {
+      readCoalescer = new ReadCoalescer(monitor);
+      ReadCoalescer existing = readCoalescers.putIfAbsent(keyspaceName, readCoalescer);
+      if ( existing != null ) {
+        readCoalescer = existing;
+      }
+    }
+    return readCoalescer;
+  }
+
+  /**
+   * The negative cache shared by all the keyspace instances created for the
+   * given keyspace on this connection manager, see {@link #getNearCache(String)}
+   * @param keyspaceName
+   * @return
+   */
+  public NegativeCache getNegativeCache(String keyspaceName) {
+    NegativeCache negativeCache = negativeCaches.get(keyspaceName);
+    if ( negativeCache == null ) {
+      negativeCache = new NegativeCache(monitor);
+      NegativeCache existing = negativeCaches.putIfAbsent(keyspaceName, negativeCache);
+      if ( existing != null ) {
+        negativeCache = existing;
+      }
+    }
+    return negativeCache;
+  }
+
   public void shutdown() {
     log.info("Shutdown called on HConnectionManager");
     if ( cassandraHostRetryService != null )
@@ -461,6 +644,8 @@ public class HConnectionManager {
       nodeAutoDiscoverService.shutdown();
     if ( hostTimeoutTracker != null )
       hostTimeoutTracker.shutdown();
+    if ( latencyReportingService != null )
+      latencyReportingService.shutdown();
 
     for (HClientPool pool : hostPools.values()) {
       try {
@@ -0,0 +1,391 @@
+package me.prettyprint.cassandra.connection;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import me.prettyprint.cassandra.service.CassandraHostConfigurator;
+import me.prettyprint.cassandra.service.OperationType;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * The most requested row keys of every column family, for reads and for
+ * writes, to tell a hot partition from a hot cluster.
+ *
+ * Only a sample of the operations is looked at. The keys of a sampled
+ * operation are counted in a Count-Min sketch, which never undercounts, and
+ * the ones estimated above the least of the current candidates replace it.
+ * Both live in fixed size atomic arrays per column family and kind of
+ * operation, so recording takes no lock and memory does not grow with the
+ * number of keys. Counts start over every window, and rates are taken over
+ * the current and the previous window.
+ */
+public final class HotKeys {
+
+  public static final int DEF_SIZE = 10;
+  public static final double DEF_SAMPLE_RATE = 0.01;
+  public static final long DEF_WINDOW_SECONDS = 60;
+
+  static final int DEPTH = 4;
+  static final int WIDTH = 512;
+
+  private final int size;
+  private final long windowNanos;
+  private volatile long sampleInterval;
+  // counted per thread, a shared counter would be a contended cache line
+  private final ThreadLocal<long[]> operations = new ThreadLocal<long[]>() {
+    @Override
+    protected long[] initialValue() {
+      return new long[1];
+    }
+  };
+  private final ConcurrentMap<String, Tracker> trackers = new ConcurrentHashMap<String, Tracker>();
+
+  public HotKeys(CassandraHostConfigurator cassandraHostConfigurator) {
+    this(cassandraHostConfigurator.getHotKeysTracked(), cassandraHostConfigurator.getHotKeySampleRate(),
+        DEF_WINDOW_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * @param size how many keys to report per column family and kind of
+   *          operation
+   * @param sampleRate the fraction of operations whose keys are counted
+   */
+  public HotKeys(int size, double sampleRate, long window, TimeUnit unit) {
+    this.size = size;
+    this.windowNanos = unit.toNanos(window);
+    setSampleRate(sampleRate);
+  }
+
+  /**
+   * @param sampleRate the fraction of operations whose keys are counted, 0
+   *          for none
+   */
+  public void setSampleRate(double sampleRate) {
+    this.sampleInterval = sampleRate <= 0 ? 0 : Math.max(1, Math.round(1 / Math.min(sampleRate, 1.0)));
+  }
+
+  public double getSampleRate() {
+    long interval = sampleInterval;
+    return interval == 0 ? 0 : 1.0 / interval;
+  }
+
+  /**
+   * Every thread samples the same fraction of its own operations.
+   * @return whether the keys of the next operation are to be recorded
+   */
+  public boolean sample() {
+    long interval = sampleInterval;
+    return interval > 0 && ++operations.get()[0] % interval == 0;
+  }
+
+  /**
+   * Counts a key of a sampled operation. Only reads and writes are tracked.
+   */
+  public void record(String keyspace, String columnFamily, OperationType operationType, ByteBuffer key) {
+    if ( columnFamily == null || key == null
+        || (operationType != OperationType.READ && operationType != OperationType.WRITE) ) {
+      return;
+    }
+    tracker(keyspace, columnFamily, operationType).record(key, System.nanoTime());
+  }
+
+  /**
+   * Counts the rows of a batch_mutate mutation map as writes, if the batch
+   * is part of the sample.
+   */
+  public void recordWrites(String keyspace, Map<ByteBuffer, ? extends Map<String, ?>> mutationMap) {
+    if ( !sample() ) {
+      return;
+    }
+    for (Map.Entry<ByteBuffer, ? extends Map<String, ?>> row : mutationMap.entrySet()) {
+      for (String columnFamily : row.getValue().keySet()) {
+        record(keyspace, columnFamily, OperationType.WRITE, row.getKey());
+      }
+    }
+  }
+
+  /**
+   * @return the hottest keys of every column family and kind of operation,
+   *         hottest first
+   */
+  public List<Entry> get() {
+    List<Entry> entries = new ArrayList<Entry>();
+    long now = System.nanoTime();
+    for (Tracker tracker : trackers.values()) {
+      entries.addAll(tracker.top(now));
+    }
+    return entries;
+  }
+
+  /**
+   * @return the hottest keys of a column family for reads or writes,
+   *         hottest first
+   */
+  public List<Entry> get(String keyspace, String columnFamily, OperationType operationType) {
+    Tracker tracker = trackers.get(name(keyspace, columnFamily, operationType));
+    return tracker == null ? Collections.<Entry>emptyList() : tracker.top(System.nanoTime());
+  }
+
+  private Tracker tracker(String keyspace, String columnFamily, OperationType operationType) {
+    String name = name(keyspace, columnFamily, operationType);
+    Tracker tracker = trackers.get(name);
+    if ( tracker == null ) {
+      Tracker created = new Tracker(keyspace, columnFamily, operationType, System.nanoTime());
+      tracker = trackers.putIfAbsent(name, created);
+      if ( tracker == null ) {
+        tracker = created;
+      }
+    }
+    return tracker;
+  }
+
+  private static String name(String keyspace, String columnFamily, OperationType operationType) {
+    return keyspace + "/" + columnFamily + "/" + operationType;
+  }
+
+  /**
+   * The sketches of the current and the previous window of a column family
+   * and kind of operation.
+   */
+  private final class Tracker {
+    private final String keyspace;
+    private final String columnFamily;
+    private final OperationType operationType;
+    private final AtomicReference<Sketch> current;
+    private volatile Sketch previous;
+
+    Tracker(String keyspace, String columnFamily, OperationType operationType, long now) {
+      this.keyspace = keyspace;
+      this.columnFamily = columnFamily;
+      this.operationType = operationType;
+      this.current = new AtomicReference<Sketch>(new Sketch(size, now));
+    }
+
+    void record(ByteBuffer key, long now) {
+      Sketch sketch = current.get();
+      if ( now - sketch.start > windowNanos ) {
+        Sketch next = new Sketch(size, now);
+        if ( current.compareAndSet(sketch, next) ) {
+          previous = sketch;
+        }
+        sketch = current.get();
+      }
+      sketch.add(key);
+    }
+
+    List<Entry> top(long now) {
+      Sketch newest = current.get();
+      Sketch oldest = previous;
+      if ( now - newest.start > 2 * windowNanos ) {
+        return Collections.emptyList();
+      }
+      if ( oldest == null || now - oldest.start > 2 * windowNanos ) {
+        oldest = null;
+      }
+      double seconds = Math.max(1, now - (oldest == null ? newest.start : oldest.start)) / 1e9;
+      long interval = Math.max(1, sampleInterval);
+
+      List<Entry> entries = new ArrayList<Entry>();
+      List<byte[]> seen = new ArrayList<byte[]>();
+      for (Sketch sketch : oldest == null ? new Sketch[] { newest } : new Sketch[] { newest, oldest }) {
+        for (int i = 0; i < sketch.candidates.length(); i++) {
+          Candidate candidate = sketch.candidates.get(i);
+          if ( candidate == null || contains(seen, candidate.key) ) {
+            continue;
+          }
+          seen.add(candidate.key);
+          long count = newest.estimate(candidate.hash)
+              + (oldest == null ? 0 : oldest.estimate(candidate.hash));
+          entries.add(new Entry(keyspace, columnFamily, operationType, candidate.key, count * interval / seconds));
+        }
+      }
+      Collections.sort(entries, Collections.reverseOrder());
+      return entries.size() > size ? new ArrayList<Entry>(entries.subList(0, size)) : entries;
+    }
+  }
+
+  private static boolean contains(List<byte[]> keys, byte[] key) {
+    for (byte[] other : keys) {
+      if ( Arrays.equals(other, key) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A Count-Min sketch of one window with the keys estimated highest so
+   * far. Concurrent updates may replace the same candidate twice or briefly
+   * keep a key in two slots; both only cost accuracy, never a lock.
+   */
+  static final class Sketch {
+    final long start;
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(DEPTH * WIDTH);
+    final AtomicReferenceArray<Candidate> candidates;
+
+    Sketch(int size, long start) {
+      this.start = start;
+      // twice the reported size, so keys on their way up are not evicted
+      // by each other before they get ahead of the cold ones
+      this.candidates = new AtomicReferenceArray<Candidate>(Math.max(1, 2 * size));
+    }
+
+    void add(ByteBuffer key) {
+      int hash = hash(key);
+      int estimate = Integer.MAX_VALUE;
+      for (int row = 0; row < DEPTH; row++) {
+        estimate = Math.min(estimate, counts.incrementAndGet(index(row, hash)));
+      }
+
+      int empty = -1;
+      int weakest = -1;
+      int weakestEstimate = Integer.MAX_VALUE;
+      Candidate weakestCandidate = null;
+      for (int i = 0; i < candidates.length(); i++) {
+        Candidate candidate = candidates.get(i);
+        if ( candidate == null ) {
+          empty = empty < 0 ? i : empty;
+        } else if ( candidate.hash == hash && candidate.matches(key) ) {
+          return;
+        } else if ( empty < 0 ) {
+          int candidateEstimate = estimate(candidate.hash);
+          if ( candidateEstimate < weakestEstimate ) {
+            weakest = i;
+            weakestEstimate = candidateEstimate;
+            weakestCandidate = candidate;
+          }
+        }
+      }
+      if ( empty >= 0 ) {
+        candidates.compareAndSet(empty, null, new Candidate(key, hash));
+      } else if ( estimate > weakestEstimate ) {
+        candidates.compareAndSet(weakest, weakestCandidate, new Candidate(key, hash));
+      }
+    }
+
+    int estimate(int hash) {
+      int estimate = Integer.MAX_VALUE;
+      for (int row = 0; row < DEPTH; row++) {
+        estimate = Math.min(estimate, counts.get(index(row, hash)));
+      }
+      return estimate;
+    }
+
+    private static int index(int row, int hash) {
+      // double hashing, the second hash being odd so every row differs
+      int h = hash + row * ((hash >>> 16) | 1);
+      return row * WIDTH + ((h ^ (h >>> 9)) & (WIDTH - 1));
+    }
+  }
+
+  static int hash(ByteBuffer key) {
+    int h = 0x9747b28c;
+    for (int i = key.position(); i < key.limit(); i++) {
+      h = (h ^ key.get(i)) * 0x5bd1e995;
+    }
+    // murmur3 finalizer, so that keys differing in their last byte spread
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  static final class Candidate {
+    final byte[] key;
+    final int hash;
+
+    Candidate(ByteBuffer key, int hash) {
+      this.key = new byte[key.remaining()];
+      key.duplicate().get(this.key);
+      this.hash = hash;
+    }
+
+    boolean matches(ByteBuffer other) {
+      if ( other.remaining() != key.length ) {
+        return false;
+      }
+      for (int i = 0; i < key.length; i++) {
+        if ( key[i] != other.get(other.position() + i) ) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  public static final class Entry implements Comparable<Entry> {
+    private final String keyspace;
+    private final String columnFamily;
+    private final OperationType operationType;
+    private final byte[] key;
+    private final double rate;
+
+    Entry(String keyspace, String columnFamily, OperationType operationType, byte[] key, double rate) {
+      this.keyspace = keyspace;
+      this.columnFamily = columnFamily;
+      this.operationType = operationType;
+      this.key = key;
+      this.rate = rate;
+    }
+
+    public String getKeyspace() {
+      return keyspace;
+    }
+
+    public String getColumnFamily() {
+      return columnFamily;
+    }
+
+    public OperationType getOperationType() {
+      return operationType;
+    }
+
+    public ByteBuffer getKey() {
+      return ByteBuffer.wrap(key).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the approximate operations per second on the key, an upper
+     *         bound give or take the sampling
+     */
+    public double getRate() {
+      return rate;
+    }
+
+    @Override
+    public int compareTo(Entry other) {
+      return Double.compare(rate, other.rate);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s/%s %s key=%s ~%.1f/s", keyspace, columnFamily, operationType, keyString(key), rate);
+    }
+
+    /**
+     * Printable keys as they are, others in hex.
+     */
+    private static String keyString(byte[] key) {
+      for (byte b : key) {
+        if ( b < 0x20 || b > 0x7e ) {
+          return "0x" + BaseEncoding.base16().lowerCase().encode(key);
+        }
+      }
+      return new String(key, Charsets.US_ASCII);
+    }
+  }
+}
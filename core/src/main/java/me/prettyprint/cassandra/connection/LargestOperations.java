@@ -0,0 +1,128 @@
+package me.prettyprint.cassandra.connection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.Operation;
+import me.prettyprint.cassandra.service.OperationType;
+
+/**
+ * The N largest requests, or responses, seen by a connection manager. Once N
+ * are kept, anything no larger than the smallest of them is turned away
+ * without taking the lock, so the common case costs one volatile read.
+ */
+public final class LargestOperations {
+
+  public static final int DEF_SIZE = 10;
+
+  private final int size;
+  private final PriorityQueue<Entry> smallestFirst;
+  private volatile long floor;
+
+  public LargestOperations(int size) {
+    this.size = size;
+    this.smallestFirst = new PriorityQueue<Entry>(size + 1);
+  }
+
+  /**
+   * Keeps the attempt of the operation on the host if it is among the
+   * largest so far.
+   */
+  public void offer(Operation<?> op, CassandraHost host, long bytes) {
+    if ( bytes <= floor ) {
+      return;
+    }
+    synchronized (smallestFirst) {
+      if ( bytes <= floor ) {
+        return;
+      }
+      smallestFirst.add(new Entry(op, host, bytes));
+      if ( smallestFirst.size() > size ) {
+        smallestFirst.poll();
+      }
+      if ( smallestFirst.size() == size ) {
+        floor = smallestFirst.peek().bytes;
+      }
+    }
+  }
+
+  /**
+   * @return the kept entries, largest first
+   */
+  public List<Entry> get() {
+    List<Entry> entries;
+    synchronized (smallestFirst) {
+      entries = new ArrayList<Entry>(smallestFirst);
+    }
+    Collections.sort(entries, Collections.reverseOrder());
+    return entries;
+  }
+
+  public static final class Entry implements Comparable<Entry> {
+    private final long bytes;
+    private final String keyspace;
+    private final String columnFamily;
+    private final OperationType operationType;
+    private final int keyCount;
+    private final String host;
+    private final long time;
+
+    Entry(Operation<?> op, CassandraHost host, long bytes) {
+      this.bytes = bytes;
+      this.keyspace = op.keyspaceName;
+      this.columnFamily = op.columnFamilyName;
+      this.operationType = op.operationType;
+      this.keyCount = op.keyCount;
+      this.host = host == null ? null : host.getName();
+      this.time = System.currentTimeMillis();
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+
+    public String getKeyspace() {
+      return keyspace;
+    }
+
+    /**
+     * @return the column family, null for operations on none or several
+     */
+    public String getColumnFamily() {
+      return columnFamily;
+    }
+
+    public OperationType getOperationType() {
+      return operationType;
+    }
+
+    public int getKeyCount() {
+      return keyCount;
+    }
+
+    public String getHost() {
+      return host;
+    }
+
+    /**
+     * @return when the attempt finished, in milliseconds since the epoch
+     */
+    public long getTime() {
+      return time;
+    }
+
+    @Override
+    public int compareTo(Entry other) {
+      return bytes < other.bytes ? -1 : (bytes == other.bytes ? 0 : 1);
+    }
+
+    @Override
+    public String toString() {
+      return bytes + "B " + operationType + " on " + keyspace + (columnFamily == null ? "" : "/" + columnFamily)
+          + (keyCount > 0 ? ", keys=" + keyCount : "") + ", host=" + host + ", at " + time;
+    }
+  }
+}
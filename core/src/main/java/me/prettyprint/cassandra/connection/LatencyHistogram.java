@@ -0,0 +1,132 @@
+package me.prettyprint.cassandra.connection;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in microseconds with fixed memory and no locks.
+ *
+ * Buckets are log-linear, as in HdrHistogram: values under 64us get a bucket
+ * each, and every power of two above is split into 32 buckets, so a
+ * percentile is off by at most 1/32 of its value. Latencies of more than
+ * about 71 minutes are counted in the last bucket.
+ *
+ * The values need not be microseconds: {@link OperationLatency} keeps the
+ * sizes of requests and responses in bytes, up to 4GB, in the same way.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final long MAX_TRACKABLE = (1L << 32) - 1;
+  private static final int BUCKETS = indexOf(MAX_TRACKABLE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  public void record(long duration, TimeUnit unit) {
+    record(unit.toMicros(duration));
+  }
+
+  /**
+   * @param micros the latency to count, negative values count as 0
+   */
+  public void record(long micros) {
+    long value = Math.max(0, micros);
+    counts.incrementAndGet(indexOf(Math.min(value, MAX_TRACKABLE)));
+    count.incrementAndGet();
+    total.addAndGet(value);
+    long current;
+    while ( value > (current = max.get()) && !max.compareAndSet(current, value) ) {
+      // another thread raised the max, retry against its value
+    }
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long n = count.get();
+    return n == 0 ? 0 : (double) total.get() / n;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the upper bound of the bucket holding the value at the given
+   *         percentile, never more than the max recorded, 0 when empty
+   */
+  public long getValueAtPercentile(double percentile) {
+    long n = count.get();
+    if ( n == 0 ) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * n));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if ( seen >= rank ) {
+        return Math.min(highestValueOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Adds the counts of another histogram to this one. Not atomic with
+   * respect to concurrent recording in the other histogram.
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      long c = other.counts.get(i);
+      if ( c != 0 ) {
+        counts.addAndGet(i, c);
+      }
+    }
+    count.addAndGet(other.count.get());
+    total.addAndGet(other.total.get());
+    long otherMax = other.max.get();
+    long current;
+    while ( otherMax > (current = max.get()) && !max.compareAndSet(current, otherMax) ) {
+      // retry
+    }
+  }
+
+  @Override
+  public String toString() {
+    return toString("us");
+  }
+
+  /**
+   * @param unit appended to every value
+   */
+  public String toString(String unit) {
+    return String.format("count=%d mean=%.0f%s p50=%d%s p99=%d%s p999=%d%s max=%d%s",
+        getCount(), getMean(), unit, getValueAtPercentile(50), unit, getValueAtPercentile(99), unit,
+        getValueAtPercentile(99.9), unit, getMax(), unit);
+  }
+
+  static int indexOf(long value) {
+    if ( value < 2 * SUB_BUCKETS ) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  static long highestValueOf(int index) {
+    if ( index < 2 * SUB_BUCKETS ) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
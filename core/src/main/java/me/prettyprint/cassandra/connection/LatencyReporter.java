@@ -0,0 +1,18 @@
+package me.prettyprint.cassandra.connection;
+
+import java.util.List;
+
+/**
+ * Receives the operation latencies of a cluster at the interval set with
+ * {@link me.prettyprint.cassandra.service.CassandraHostConfigurator#setLatencyReporter(LatencyReporter)},
+ * for instance to forward them to a metrics system.
+ */
+public interface LatencyReporter {
+
+  /**
+   * @param clusterName
+   * @param latencies the latencies of every operation since the cluster was
+   *          created, the histograms are cumulative
+   */
+  void report(String clusterName, List<OperationLatency> latencies);
+}
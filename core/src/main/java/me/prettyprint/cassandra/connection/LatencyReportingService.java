@@ -0,0 +1,54 @@
+package me.prettyprint.cassandra.connection;
+
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.service.CassandraHostConfigurator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the operation latencies of a connection manager to the configured
+ * {@link LatencyReporter} every latencyReportIntervalInSeconds.
+ */
+public class LatencyReportingService extends BackgroundCassandraHostService {
+
+  private static final Logger log = LoggerFactory.getLogger(LatencyReportingService.class);
+
+  public static final int DEF_REPORT_INTERVAL = 60;
+
+  private final LatencyReporter reporter;
+
+  public LatencyReportingService(HConnectionManager connectionManager,
+      CassandraHostConfigurator cassandraHostConfigurator) {
+    super(connectionManager, cassandraHostConfigurator);
+    this.reporter = cassandraHostConfigurator.getLatencyReporter();
+    this.retryDelayInSeconds = cassandraHostConfigurator.getLatencyReportIntervalInSeconds();
+    sf = executor.scheduleWithFixedDelay(new Reporter(), retryDelayInSeconds, retryDelayInSeconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  void shutdown() {
+    log.info("Latency reporting service shutting down...");
+    sf.cancel(true);
+    executor.shutdown();
+  }
+
+  @Override
+  void applyRetryDelay() {
+    sf.cancel(false);
+    sf = executor.scheduleWithFixedDelay(new Reporter(), retryDelayInSeconds, retryDelayInSeconds, TimeUnit.SECONDS);
+  }
+
+  class Reporter implements Runnable {
+
+    @Override
+    public void run() {
+      try {
+        reporter.report(connectionManager.getClusterName(), connectionManager.getOperationLatencies().getAll());
+      } catch (Throwable t) {
+        log.error("Latency reporter failed", t);
+      }
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package me.prettyprint.cassandra.connection;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import com.yammer.metrics.core.MetricName;
@@ -14,6 +16,7 @@ public class MetricsOpTimer implements HOpTimer {
   private final TimeUnit durationUnit;
   private final TimeUnit rateUnit;
   private final String clusterName;
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
 
   public MetricsOpTimer(final MetricsRegistry metricsRegistry, final String clusterName,
       final TimeUnit durationUnit, final TimeUnit rateUnit) {
@@ -32,8 +35,11 @@ public class MetricsOpTimer implements HOpTimer {
 
   @Override
   public Object start(final String tagName) {
-    final Timer timer = metricsRegistry.newTimer(new MetricName(clusterName, TIMER_TYPE, tagName),
-        durationUnit, rateUnit);
+    Timer timer = timers.get(tagName);
+    if ( timer == null ) {
+      timer = metricsRegistry.newTimer(new MetricName(clusterName, TIMER_TYPE, tagName), durationUnit, rateUnit);
+      timers.putIfAbsent(tagName, timer);
+    }
     return timer.time();
   }
 
@@ -0,0 +1,80 @@
+package me.prettyprint.cassandra.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import me.prettyprint.cassandra.service.Operation;
+import me.prettyprint.cassandra.service.OperationType;
+
+/**
+ * The {@link OperationLatency} of every keyspace, column family and kind of
+ * operation run through a connection manager. Resolving one takes two
+ * lookups of strings, whose hashes are cached, and allocates nothing once it
+ * exists.
+ *
+ * Each latency holds {@link LatencyHistogram}s of about 7KB: one for all
+ * hosts, one per host and one per phase of the operations.
+ */
+public final class OperationLatencies {
+
+  private static final int OPERATION_TYPES = OperationType.values().length;
+
+  private final ConcurrentMap<String, ConcurrentMap<String, AtomicReferenceArray<OperationLatency>>> keyspaces =
+      new ConcurrentHashMap<String, ConcurrentMap<String, AtomicReferenceArray<OperationLatency>>>();
+
+  public OperationLatency get(Operation<?> op) {
+    return get(op.keyspaceName, op.columnFamilyName, op.operationType);
+  }
+
+  /**
+   * @param keyspace null for operations outside of a keyspace
+   * @param columnFamily null for operations on none or several column families
+   */
+  public OperationLatency get(String keyspace, String columnFamily, OperationType operationType) {
+    String ks = keyspace == null ? "" : keyspace;
+    String cf = columnFamily == null ? "" : columnFamily;
+    ConcurrentMap<String, AtomicReferenceArray<OperationLatency>> columnFamilies = keyspaces.get(ks);
+    if ( columnFamilies == null ) {
+      columnFamilies = new ConcurrentHashMap<String, AtomicReferenceArray<OperationLatency>>();
+      ConcurrentMap<String, AtomicReferenceArray<OperationLatency>> existing = keyspaces.putIfAbsent(ks, columnFamilies);
+      if ( existing != null ) {
+        columnFamilies = existing;
+      }
+    }
+    AtomicReferenceArray<OperationLatency> byType = columnFamilies.get(cf);
+    if ( byType == null ) {
+      byType = new AtomicReferenceArray<OperationLatency>(OPERATION_TYPES);
+      AtomicReferenceArray<OperationLatency> existing = columnFamilies.putIfAbsent(cf, byType);
+      if ( existing != null ) {
+        byType = existing;
+      }
+    }
+    OperationLatency latency = byType.get(operationType.ordinal());
+    if ( latency == null ) {
+      byType.compareAndSet(operationType.ordinal(), null, new OperationLatency(ks, cf, operationType));
+      latency = byType.get(operationType.ordinal());
+    }
+    return latency;
+  }
+
+  /**
+   * @return every latency recorded so far
+   */
+  public List<OperationLatency> getAll() {
+    List<OperationLatency> all = new ArrayList<OperationLatency>();
+    for (ConcurrentMap<String, AtomicReferenceArray<OperationLatency>> columnFamilies : keyspaces.values()) {
+      for (AtomicReferenceArray<OperationLatency> byType : columnFamilies.values()) {
+        for (int i = 0; i < OPERATION_TYPES; i++) {
+          OperationLatency latency = byType.get(i);
+          if ( latency != null && latency.getHistogram().getCount() > 0 ) {
+            all.add(latency);
+          }
+        }
+      }
+    }
+    return all;
+  }
+}
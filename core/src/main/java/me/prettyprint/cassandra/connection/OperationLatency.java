@@ -0,0 +1,228 @@
+package me.prettyprint.cassandra.connection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.OperationTimings;
+import me.prettyprint.cassandra.service.OperationTimings.Phase;
+import me.prettyprint.cassandra.service.OperationType;
+
+/**
+ * Latencies of one kind of operation on one column family, over all hosts and
+ * per host. Obtained once from {@link OperationLatencies}, after which
+ * recording only touches the histograms: the few hosts of a cluster are
+ * found by a scan of a copy on write array rather than a map lookup.
+ *
+ * With byte counting on it also keeps the sizes of requests and responses,
+ * and how many bytes went to and came from each host. The histograms of the
+ * phases and of the sizes are only created once something is recorded in
+ * them, so they take no memory while phase timing or byte counting is off.
+ */
+public final class OperationLatency {
+
+  private static final Phase[] PHASES = Phase.values();
+  private static final int REQUEST_BYTES = PHASES.length;
+  private static final int RESPONSE_BYTES = PHASES.length + 1;
+
+  private final String keyspace;
+  private final String columnFamily;
+  private final OperationType operationType;
+  private final LatencyHistogram histogram = new LatencyHistogram();
+  private final AtomicLong failures = new AtomicLong();
+  /** the phases, then the request and response sizes, created on first use */
+  private final AtomicReferenceArray<LatencyHistogram> optional =
+      new AtomicReferenceArray<LatencyHistogram>(PHASES.length + 2);
+  private volatile HostLatency[] hosts = new HostLatency[0];
+
+  OperationLatency(String keyspace, String columnFamily, OperationType operationType) {
+    this.keyspace = keyspace;
+    this.columnFamily = columnFamily;
+    this.operationType = operationType;
+  }
+
+  /**
+   * Records one attempt of the operation on the given host.
+   */
+  public void record(CassandraHost host, long nanos, boolean success) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    HostLatency hostLatency = forHost(host);
+    histogram.record(micros);
+    hostLatency.histogram.record(micros);
+    if ( !success ) {
+      failures.incrementAndGet();
+      hostLatency.failures.incrementAndGet();
+    }
+  }
+
+  /**
+   * Records the phases of one operation, over all its attempts.
+   */
+  public void recordPhases(OperationTimings timings) {
+    for (Phase phase : PHASES) {
+      long nanos = timings.get(phase);
+      if ( nanos > 0 ) {
+        optional(phase.ordinal()).record(TimeUnit.NANOSECONDS.toMicros(nanos));
+      }
+    }
+  }
+
+  /**
+   * Records the size of one attempt of the operation on the given host.
+   * Attempts which sent and received nothing, as when bytes are not counted,
+   * are left out.
+   */
+  public void recordBytes(CassandraHost host, long sent, long received) {
+    if ( sent == 0 && received == 0 ) {
+      return;
+    }
+    HostLatency hostLatency = forHost(host);
+    optional(REQUEST_BYTES).record(sent);
+    optional(RESPONSE_BYTES).record(received);
+    hostLatency.bytesSent.addAndGet(sent);
+    hostLatency.bytesReceived.addAndGet(received);
+  }
+
+  private LatencyHistogram optional(int index) {
+    LatencyHistogram histogram = optional.get(index);
+    if ( histogram == null ) {
+      LatencyHistogram created = new LatencyHistogram();
+      histogram = optional.compareAndSet(index, null, created) ? created : optional.get(index);
+    }
+    return histogram;
+  }
+
+  private HostLatency forHost(CassandraHost host) {
+    HostLatency[] current = hosts;
+    for (HostLatency hostLatency : current) {
+      if ( hostLatency.host == host ) {
+        return hostLatency;
+      }
+    }
+    for (HostLatency hostLatency : current) {
+      if ( hostLatency.host.equals(host) ) {
+        return hostLatency;
+      }
+    }
+    return addHost(host);
+  }
+
+  private synchronized HostLatency addHost(CassandraHost host) {
+    for (HostLatency hostLatency : hosts) {
+      if ( hostLatency.host.equals(host) ) {
+        return hostLatency;
+      }
+    }
+    HostLatency[] grown = new HostLatency[hosts.length + 1];
+    System.arraycopy(hosts, 0, grown, 0, hosts.length);
+    HostLatency hostLatency = new HostLatency(host);
+    grown[hosts.length] = hostLatency;
+    hosts = grown;
+    return hostLatency;
+  }
+
+  public String getKeyspace() {
+    return keyspace;
+  }
+
+  /**
+   * @return the column family, or an empty string for operations on none or
+   *         on several column families
+   */
+  public String getColumnFamily() {
+    return columnFamily;
+  }
+
+  public OperationType getOperationType() {
+    return operationType;
+  }
+
+  /**
+   * @return the latencies of attempts on all hosts, in microseconds
+   */
+  public LatencyHistogram getHistogram() {
+    return histogram;
+  }
+
+  /**
+   * @return the time operations spent in the given phase, in microseconds,
+   *         or null if none did. Operations which spent none in it are not
+   *         counted.
+   */
+  public LatencyHistogram getPhaseHistogram(Phase phase) {
+    return optional.get(phase.ordinal());
+  }
+
+  public long getFailures() {
+    return failures.get();
+  }
+
+  /**
+   * @return the sizes of requests, in bytes, or null if none was counted
+   */
+  public LatencyHistogram getRequestBytes() {
+    return optional.get(REQUEST_BYTES);
+  }
+
+  /**
+   * @return the sizes of responses, in bytes, or null if none was counted
+   */
+  public LatencyHistogram getResponseBytes() {
+    return optional.get(RESPONSE_BYTES);
+  }
+
+  public Map<CassandraHost, LatencyHistogram> getHostHistograms() {
+    Map<CassandraHost, LatencyHistogram> histograms = new LinkedHashMap<CassandraHost, LatencyHistogram>();
+    for (HostLatency hostLatency : hosts) {
+      histograms.put(hostLatency.host, hostLatency.histogram);
+    }
+    return histograms;
+  }
+
+  public long getFailures(CassandraHost host) {
+    for (HostLatency hostLatency : hosts) {
+      if ( hostLatency.host.equals(host) ) {
+        return hostLatency.failures.get();
+      }
+    }
+    return 0;
+  }
+
+  public long getBytesSent(CassandraHost host) {
+    for (HostLatency hostLatency : hosts) {
+      if ( hostLatency.host.equals(host) ) {
+        return hostLatency.bytesSent.get();
+      }
+    }
+    return 0;
+  }
+
+  public long getBytesReceived(CassandraHost host) {
+    for (HostLatency hostLatency : hosts) {
+      if ( hostLatency.host.equals(host) ) {
+        return hostLatency.bytesReceived.get();
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return keyspace + "/" + columnFamily + " " + operationType + " " + histogram + " failures=" + failures.get();
+  }
+
+  private static final class HostLatency {
+    final CassandraHost host;
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final AtomicLong failures = new AtomicLong();
+    final AtomicLong bytesSent = new AtomicLong();
+    final AtomicLong bytesReceived = new AtomicLong();
+
+    HostLatency(CassandraHost host) {
+      this.host = host;
+    }
+  }
+}
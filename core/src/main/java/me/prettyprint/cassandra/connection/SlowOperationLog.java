@@ -0,0 +1,193 @@
+package me.prettyprint.cassandra.connection;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.prettyprint.cassandra.serializers.UUIDSerializer;
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.CassandraHostConfigurator;
+import me.prettyprint.cassandra.service.Operation;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.apache.cassandra.thrift.SliceRange;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the operations of a connection manager which take longer than a
+ * threshold, at most a given number of times per second, and decides which
+ * operations are traced on the server with trace_next_query: a sample of all
+ * of them, and every retry after an attempt which was slow.
+ *
+ * The trace session of a logged operation is in its log entry, so the trace
+ * can be read from system_traces.events.
+ */
+public class SlowOperationLog {
+
+  private static final Logger log = LoggerFactory.getLogger(SlowOperationLog.class);
+
+  private volatile long thresholdNanos;
+  private volatile int maxLogsPerSecond;
+  private volatile long traceInterval;
+
+  // counted per thread, a shared counter would be a contended cache line
+  private final ThreadLocal<long[]> operations = new ThreadLocal<long[]>() {
+    @Override
+    protected long[] initialValue() {
+      return new long[1];
+    }
+  };
+  private final AtomicLong currentSecond = new AtomicLong();
+  private final AtomicInteger loggedThisSecond = new AtomicInteger();
+  private final AtomicLong suppressed = new AtomicLong();
+
+  public SlowOperationLog(CassandraHostConfigurator cassandraHostConfigurator) {
+    setThresholdMillis(cassandraHostConfigurator.getSlowOperationThresholdMillis());
+    setMaxLogsPerSecond(cassandraHostConfigurator.getSlowOperationLogsPerSecond());
+    setTraceSampleRate(cassandraHostConfigurator.getTraceSampleRate());
+  }
+
+  /**
+   * @param thresholdMillis operations taking longer are logged, 0 turns the
+   *          log off
+   */
+  public void setThresholdMillis(long thresholdMillis) {
+    this.thresholdNanos = thresholdMillis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+  }
+
+  public long getThresholdMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+  }
+
+  public void setMaxLogsPerSecond(int maxLogsPerSecond) {
+    this.maxLogsPerSecond = maxLogsPerSecond;
+  }
+
+  /**
+   * @param traceSampleRate the fraction of operations to trace, 0 for none.
+   *          Tracing costs the server a lot more than the extra round trip
+   *          it costs the client, keep it low.
+   */
+  public void setTraceSampleRate(double traceSampleRate) {
+    this.traceInterval = traceSampleRate <= 0 ? 0 : Math.max(1, Math.round(1 / Math.min(traceSampleRate, 1.0)));
+  }
+
+  public boolean isSlow(long nanos) {
+    long threshold = thresholdNanos;
+    return threshold > 0 && nanos > threshold;
+  }
+
+  /**
+   * Every thread samples the same fraction of its own operations.
+   * @return whether the next operation is part of the trace sample
+   */
+  public boolean sample() {
+    long interval = traceInterval;
+    return interval > 0 && ++operations.get()[0] % interval == 0;
+  }
+
+  /**
+   * Asks the server to trace the next query on this connection.
+   * @return the trace session id, null when the server does not trace
+   */
+  public UUID traceNextQuery(Cassandra.Client cassandra) throws TException {
+    try {
+      ByteBuffer session = cassandra.trace_next_query();
+      return UUIDSerializer.get().fromByteBuffer(session);
+    } catch (TApplicationException e) {
+      // servers before 1.2 do not know trace_next_query
+      log.warn("Server does not support tracing, turning trace sampling off: {}", e.getMessage());
+      traceInterval = 0;
+      return null;
+    }
+  }
+
+  /**
+   * Logs the operation if it took longer than the threshold and this second's
+   * quota of log entries is not used up yet.
+   * @return whether the operation was logged as slow
+   */
+  public boolean logIfSlow(Operation<?> op, long nanos, boolean success) {
+    if ( !isSlow(nanos) ) {
+      if ( op.getTraceSessionId() != null && log.isDebugEnabled() ) {
+        log.debug("Traced {}: trace session {}", describe(op, nanos, success), op.getTraceSessionId());
+      }
+      return false;
+    }
+    if ( !log.isWarnEnabled() || !acquire() ) {
+      return false;
+    }
+    long notLogged = suppressed.getAndSet(0);
+    log.warn("Slow {}{}{}", new Object[] { describe(op, nanos, success),
+        op.getTraceSessionId() == null ? "" : ", trace session " + op.getTraceSessionId(),
+        notLogged == 0 ? "" : " (" + notLogged + " slow operations not logged)" });
+    return true;
+  }
+
+  private boolean acquire() {
+    long second = System.nanoTime() / TimeUnit.SECONDS.toNanos(1);
+    long current = currentSecond.get();
+    if ( second != current && currentSecond.compareAndSet(current, second) ) {
+      loggedThisSecond.set(0);
+    }
+    if ( loggedThisSecond.incrementAndGet() > maxLogsPerSecond ) {
+      suppressed.incrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  static String describe(Operation<?> op, long nanos, boolean success) {
+    StringBuilder s = new StringBuilder();
+    s.append(op.operationType).append(" on ").append(op.keyspaceName);
+    if ( op.columnFamilyName != null ) {
+      s.append('/').append(op.columnFamilyName);
+    }
+    s.append(success ? " took " : " failed after ").append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms");
+    if ( op.keyCount > 0 ) {
+      s.append(", keys=").append(op.keyCount);
+    }
+    if ( op.slicePredicate != null ) {
+      s.append(", predicate=");
+      summarize(op.slicePredicate, s);
+    }
+    CassandraHost host = op.getCassandraHost();
+    s.append(", host=").append(host == null ? "[none]" : host.getName());
+    s.append(", attempts=").append(op.getAttempts());
+    s.append(", ").append(op.getTimings());
+    return s.toString();
+  }
+
+  private static void summarize(SlicePredicate predicate, StringBuilder s) {
+    if ( predicate.isSetColumn_names() ) {
+      s.append(predicate.getColumn_names().size()).append(" columns");
+    } else if ( predicate.isSetSlice_range() ) {
+      SliceRange range = predicate.getSlice_range();
+      s.append("range(");
+      bound(range.bufferForStart(), s);
+      s.append("..");
+      bound(range.bufferForFinish(), s);
+      s.append(", count=").append(range.getCount());
+      if ( range.isReversed() ) {
+        s.append(", reversed");
+      }
+      s.append(')');
+    } else {
+      s.append("none");
+    }
+  }
+
+  private static void bound(ByteBuffer bound, StringBuilder s) {
+    if ( bound == null || !bound.hasRemaining() ) {
+      s.append('-');
+    } else {
+      s.append(bound.remaining()).append('B');
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package me.prettyprint.cassandra.connection.client;
+
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * Counts the bytes written to and read from the transport it wraps. Below a
+ * framed transport it counts what goes over the wire, frame headers
+ * included.
+ *
+ * A connection is used by one thread at a time, so the counts are plain
+ * fields.
+ */
+public class CountingTransport extends TTransport {
+
+  private final TTransport transport;
+  private long bytesWritten;
+  private long bytesRead;
+
+  public CountingTransport(TTransport transport) {
+    this.transport = transport;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return transport.isOpen();
+  }
+
+  @Override
+  public boolean peek() {
+    return transport.peek();
+  }
+
+  @Override
+  public void open() throws TTransportException {
+    transport.open();
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws TTransportException {
+    int read = transport.read(buf, off, len);
+    if ( read > 0 ) {
+      bytesRead += read;
+    }
+    return read;
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) throws TTransportException {
+    transport.write(buf, off, len);
+    bytesWritten += len;
+  }
+
+  @Override
+  public void flush() throws TTransportException {
+    transport.flush();
+  }
+
+  /**
+   * @return the bytes written since the connection was opened
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * @return the bytes read since the connection was opened
+   */
+  public long getBytesRead() {
+    return bytesRead;
+  }
+}
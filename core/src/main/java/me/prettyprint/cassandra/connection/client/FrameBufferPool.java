@@ -0,0 +1,130 @@
+package me.prettyprint.cassandra.connection.client;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.prettyprint.cassandra.utils.Assert;
+
+/**
+ * Byte arrays for Thrift frames, in power of two size classes, shared by the
+ * connections of the process. Arrays bigger than the largest class are
+ * allocated and dropped as usual. All classes together keep at most a fixed
+ * number of bytes worth of arrays around, so a burst of large requests does
+ * not pin memory forever.
+ */
+public final class FrameBufferPool {
+
+  public static final int MIN_CLASS_SIZE = 4096;
+  public static final int DEFAULT_MAX_CLASS_SIZE = 4 * 1024 * 1024;
+  public static final long DEFAULT_RETAINED_BYTES = 16 * 1024 * 1024;
+
+  private static final FrameBufferPool INSTANCE = new FrameBufferPool(DEFAULT_MAX_CLASS_SIZE,
+      DEFAULT_RETAINED_BYTES);
+
+  private static final ConcurrentMap<List<Long>, FrameBufferPool> POOLS =
+      new ConcurrentHashMap<List<Long>, FrameBufferPool>();
+
+  private final Queue<byte[]>[] free;
+  private final AtomicLong retainedBytes = new AtomicLong();
+  private final long maxRetainedBytes;
+  private final int maxClassSize;
+
+  /**
+   * @param maxClassSize the largest array kept for reuse, a power of two of at
+   *          least {@link #MIN_CLASS_SIZE}
+   * @param maxRetainedBytes the most bytes kept for reuse, over all classes
+   */
+  @SuppressWarnings("unchecked")
+  public FrameBufferPool(int maxClassSize, long maxRetainedBytes) {
+    Assert.isTrue(maxClassSize >= MIN_CLASS_SIZE && Integer.bitCount(maxClassSize) == 1,
+        "maxClassSize must be a power of two of at least " + MIN_CLASS_SIZE);
+    Assert.isTrue(maxRetainedBytes >= 0, "maxRetainedBytes must not be negative");
+    this.maxClassSize = maxClassSize;
+    this.maxRetainedBytes = maxRetainedBytes;
+    int classes = Integer.numberOfTrailingZeros(maxClassSize / MIN_CLASS_SIZE) + 1;
+    this.free = new Queue[classes];
+    for (int i = 0; i < classes; i++) {
+      free[i] = new ConcurrentLinkedQueue<byte[]>();
+    }
+  }
+
+  /**
+   * @return the pool with the default limits, shared by the process
+   */
+  public static FrameBufferPool get() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return the pool with these limits, shared by the process
+   */
+  public static FrameBufferPool get(int maxClassSize, long maxRetainedBytes) {
+    if ( maxClassSize == DEFAULT_MAX_CLASS_SIZE && maxRetainedBytes == DEFAULT_RETAINED_BYTES ) {
+      return INSTANCE;
+    }
+    List<Long> limits = Arrays.asList((long) maxClassSize, maxRetainedBytes);
+    FrameBufferPool pool = POOLS.get(limits);
+    if ( pool == null ) {
+      pool = new FrameBufferPool(maxClassSize, maxRetainedBytes);
+      FrameBufferPool existing = POOLS.putIfAbsent(limits, pool);
+      if ( existing != null ) {
+        pool = existing;
+      }
+    }
+    return pool;
+  }
+
+  /**
+   * @return an array of at least size bytes, its contents undefined
+   */
+  public byte[] acquire(int size) {
+    int index = classOf(size);
+    if ( index < 0 ) {
+      return new byte[size];
+    }
+    byte[] buffer = free[index].poll();
+    if ( buffer == null ) {
+      return new byte[MIN_CLASS_SIZE << index];
+    }
+    retainedBytes.addAndGet(-buffer.length);
+    return buffer;
+  }
+
+  /**
+   * Hands an array obtained from {@link #acquire(int)} back. Nothing may
+   * reference it afterwards.
+   */
+  public void release(byte[] buffer) {
+    int index = classOf(buffer.length);
+    if ( index < 0 || buffer.length != MIN_CLASS_SIZE << index ) {
+      return;
+    }
+    if ( retainedBytes.addAndGet(buffer.length) <= maxRetainedBytes ) {
+      free[index].offer(buffer);
+    } else {
+      retainedBytes.addAndGet(-buffer.length);
+    }
+  }
+
+  /**
+   * @return the number of bytes held for reuse
+   */
+  public long getRetainedBytes() {
+    return retainedBytes.get();
+  }
+
+  private int classOf(int size) {
+    if ( size > maxClassSize ) {
+      return -1;
+    }
+    if ( size <= MIN_CLASS_SIZE ) {
+      return 0;
+    }
+    return 32 - Integer.numberOfLeadingZeros((size - 1) / MIN_CLASS_SIZE);
+  }
+}
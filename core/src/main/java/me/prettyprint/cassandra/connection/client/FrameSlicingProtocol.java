@@ -0,0 +1,115 @@
+package me.prettyprint.cassandra.connection.client;
+
+import java.nio.ByteBuffer;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.transport.TTransport;
+
+/**
+ * TBinaryProtocol reads binary fields as slices of a framed transport's
+ * buffer. This keeps track of whether it did for the current message, and
+ * when it did not hands the frame of a {@link PooledFramedTransport} back
+ * to its pool at the end of the message.
+ *
+ * It also adds up the time between the end of each request and the start of
+ * its response, and the time spent reading responses. With a framed
+ * transport the whole response has been received when reading starts;
+ * without one, reading includes receiving all but its first bytes.
+ *
+ * Given the {@link CountingTransport} of the connection, it also hands out
+ * the bytes sent and received so far.
+ */
+public class FrameSlicingProtocol extends TBinaryProtocol {
+
+  private boolean sliced;
+  private long requestWritten;
+  private long responseStarted;
+  private long responseRead;
+  private long networkNanos;
+  private long deserializationNanos;
+  private final CountingTransport counter;
+
+  public FrameSlicingProtocol(TTransport transport) {
+    this(transport, null);
+  }
+
+  /**
+   * @param counter counts the bytes of the connection, may be null
+   */
+  public FrameSlicingProtocol(TTransport transport, CountingTransport counter) {
+    super(transport);
+    this.counter = counter;
+  }
+
+  @Override
+  public void writeMessageEnd() {
+    super.writeMessageEnd();
+    requestWritten = System.nanoTime();
+  }
+
+  @Override
+  public TMessage readMessageBegin() throws TException {
+    TMessage message = super.readMessageBegin();
+    responseStarted = System.nanoTime();
+    networkNanos += responseStarted - requestWritten;
+    return message;
+  }
+
+  @Override
+  public ByteBuffer readBinary() throws TException {
+    sliced = true;
+    return super.readBinary();
+  }
+
+  @Override
+  public void readMessageEnd() {
+    super.readMessageEnd();
+    if ( !sliced && trans_ instanceof PooledFramedTransport ) {
+      ((PooledFramedTransport) trans_).releaseFrame();
+    }
+    sliced = false;
+    responseRead = System.nanoTime();
+    deserializationNanos += responseRead - responseStarted;
+  }
+
+  /**
+   * @return the nanoseconds spent waiting for responses since the connection
+   *         was opened
+   */
+  public long getNetworkNanos() {
+    return networkNanos;
+  }
+
+  /**
+   * @return the nanoseconds spent reading responses since the connection was
+   *         opened
+   */
+  public long getDeserializationNanos() {
+    return deserializationNanos;
+  }
+
+  /**
+   * @return the {@link System#nanoTime()} at which the last response was read
+   */
+  public long getLastResponseRead() {
+    return responseRead;
+  }
+
+  /**
+   * @return the bytes sent since the connection was opened, 0 when they are
+   *         not counted
+   */
+  public long getBytesWritten() {
+    return counter == null ? 0 : counter.getBytesWritten();
+  }
+
+  /**
+   * @return the bytes received since the connection was opened, 0 when they
+   *         are not counted
+   */
+  public long getBytesRead() {
+    return counter == null ? 0 : counter.getBytesRead();
+  }
+}
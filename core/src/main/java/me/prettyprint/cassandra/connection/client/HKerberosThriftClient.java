@@ -85,7 +85,7 @@ public class HKerberosThriftClient extends HThriftClient implements HClient {
 
     // TODO (patricioe) What should I do with it ?
     // KerberosHelper.getSourcePrinciple(clientContext));
-    transport = maybeWrapWithTFramedTransport(socket);
+    transport = maybeWrapWithTFramedTransport(maybeWrapWithCountingTransport(socket));
 
     try {
       transport.open();
@@ -119,7 +119,7 @@ public class HSaslThriftClient extends HThriftClient implements HClient {
         throw new HectorTransportException("Kerberos context couldn't be established with client: ", e);
       }
 
-      transport = maybeWrapWithTFramedTransport(transport);
+      transport = maybeWrapWithTFramedTransport(maybeWrapWithCountingTransport(transport));
 
       return this;
     }
@@ -16,7 +16,6 @@ import org.apache.cassandra.thrift.Cassandra;
 import org.apache.cassandra.thrift.InvalidRequestException;
 import org.apache.commons.lang.StringUtils;
 import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.transport.TFramedTransport;
 import org.apache.thrift.transport.TSSLTransportFactory;
 import org.apache.thrift.transport.TSocket;
@@ -55,6 +54,7 @@ public class HThriftClient implements HClient {
   private long useageStartTime;
 
   protected TTransport transport;
+  private CountingTransport countingTransport;
   protected Cassandra.Client cassandraClient;
   private TSSLTransportParameters params;
   
@@ -93,7 +93,7 @@ public class HThriftClient implements HClient {
       throw new IllegalStateException("getCassandra called on client that was not open. You should not have gotten here.");
     }
     if ( cassandraClient == null ) {
-      cassandraClient = new Cassandra.Client(new TBinaryProtocol(transport));
+      cassandraClient = new Cassandra.Client(new FrameSlicingProtocol(transport, countingTransport));
     }
     return cassandraClient;
   }
@@ -169,7 +169,7 @@ public class HThriftClient implements HClient {
       }
     }
 
-    transport = maybeWrapWithTFramedTransport(socket);
+    transport = maybeWrapWithTFramedTransport(maybeWrapWithCountingTransport(socket));
 
     // If using SSL, the socket will already be connected, and TFramedTransport and
     // TSocket just wind up calling socket.isConnected(), so check this before calling
@@ -189,8 +189,26 @@ public class HThriftClient implements HClient {
     return this;
   }
 
+  /**
+   * Wraps the transport to count the bytes of each operation when
+   * {@link CassandraHost#getUseByteCounting()}. Goes below any framing.
+   */
+  protected TTransport maybeWrapWithCountingTransport(TTransport transport) {
+    if (cassandraHost.getUseByteCounting()) {
+      countingTransport = new CountingTransport(transport);
+      return countingTransport;
+    }
+    countingTransport = null;
+    return transport;
+  }
+
   protected TTransport maybeWrapWithTFramedTransport(TTransport transport) {
     if (cassandraHost.getUseThriftFramedTransport()) {
+      if (cassandraHost.getUsePooledFrameBuffers()) {
+        return new PooledFramedTransport(transport, cassandraHost.getMaxFrameSize(),
+            FrameBufferPool.get(cassandraHost.getFrameBufferMaxClassSize(),
+                cassandraHost.getFrameBufferRetainedBytes()));
+      }
       return new TFramedTransport(transport, cassandraHost.getMaxFrameSize());
     } else {
       return transport;
@@ -0,0 +1,165 @@
+package me.prettyprint.cassandra.connection.client;
+
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * A framed transport, compatible with {@link TFramedTransport}, whose frame
+ * arrays come from a {@link FrameBufferPool} rather than being allocated for
+ * every response and kept, grown to the largest request, for the life of the
+ * connection.
+ *
+ * Reads expose the frame through {@link #getBuffer()}, so TBinaryProtocol
+ * hands out binary fields as slices of it without copying. The frame can
+ * then only go back to the pool once the protocol reports, through
+ * {@link #releaseFrame()}, that it handed out no slice of it. Frames whose
+ * slices live on in the results are left to the garbage collector.
+ */
+public class PooledFramedTransport extends TTransport {
+
+  private static final int HEADER_SIZE = 4;
+
+  private final TTransport transport;
+  private final int maxLength;
+  private final FrameBufferPool pool;
+  private final byte[] header = new byte[HEADER_SIZE];
+
+  private byte[] writeBuffer;
+  private int writeLength = HEADER_SIZE;
+
+  private byte[] frame;
+  private int framePosition;
+  private int frameLimit;
+
+  public PooledFramedTransport(TTransport transport, int maxLength) {
+    this(transport, maxLength, FrameBufferPool.get());
+  }
+
+  public PooledFramedTransport(TTransport transport, int maxLength, FrameBufferPool pool) {
+    this.transport = transport;
+    this.maxLength = maxLength;
+    this.pool = pool;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return transport.isOpen();
+  }
+
+  @Override
+  public void open() throws TTransportException {
+    transport.open();
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+    releaseWriteBuffer();
+    frame = null;
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws TTransportException {
+    if ( frameLimit - framePosition == 0 ) {
+      readFrame();
+    }
+    int n = Math.min(len, frameLimit - framePosition);
+    System.arraycopy(frame, framePosition, buf, off, n);
+    framePosition += n;
+    return n;
+  }
+
+  @Override
+  public byte[] getBuffer() {
+    return frame;
+  }
+
+  @Override
+  public int getBufferPosition() {
+    return framePosition;
+  }
+
+  @Override
+  public int getBytesRemainingInBuffer() {
+    return frameLimit - framePosition;
+  }
+
+  @Override
+  public void consumeBuffer(int len) {
+    framePosition += len;
+  }
+
+  /**
+   * Returns the current frame to the pool once it has been read entirely.
+   * Must only be called when nothing references the frame any more.
+   */
+  public void releaseFrame() {
+    if ( frame != null && framePosition == frameLimit ) {
+      pool.release(frame);
+      frame = null;
+      framePosition = 0;
+      frameLimit = 0;
+    }
+  }
+
+  private void readFrame() throws TTransportException {
+    transport.readAll(header, 0, HEADER_SIZE);
+    int size = TFramedTransport.decodeFrameSize(header);
+    if ( size < 0 ) {
+      throw new TTransportException("Read a negative frame size (" + size + ")!");
+    }
+    if ( size > maxLength ) {
+      throw new TTransportException("Frame size (" + size + ") larger than max length (" + maxLength + ")!");
+    }
+    // the previous frame may still be referenced, it was not released
+    frame = pool.acquire(size);
+    transport.readAll(frame, 0, size);
+    framePosition = 0;
+    frameLimit = size;
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) throws TTransportException {
+    int needed = writeLength + len;
+    if ( writeBuffer == null || writeBuffer.length < needed ) {
+      byte[] larger = pool.acquire(needed);
+      if ( writeBuffer != null ) {
+        System.arraycopy(writeBuffer, HEADER_SIZE, larger, HEADER_SIZE, writeLength - HEADER_SIZE);
+        pool.release(writeBuffer);
+      }
+      writeBuffer = larger;
+    }
+    System.arraycopy(buf, off, writeBuffer, writeLength, len);
+    writeLength = needed;
+  }
+
+  @Override
+  public void flush() throws TTransportException {
+    if ( writeBuffer == null ) {
+      TFramedTransport.encodeFrameSize(0, header);
+      transport.write(header, 0, HEADER_SIZE);
+      transport.flush();
+      return;
+    }
+    TFramedTransport.encodeFrameSize(writeLength - HEADER_SIZE, writeBuffer);
+    try {
+      transport.write(writeBuffer, 0, writeLength);
+      transport.flush();
+    } finally {
+      writeLength = HEADER_SIZE;
+      // keep a small buffer for the next request, large ones go back
+      if ( writeBuffer.length > FrameBufferPool.MIN_CLASS_SIZE ) {
+        releaseWriteBuffer();
+      }
+    }
+  }
+
+  private void releaseWriteBuffer() {
+    if ( writeBuffer != null ) {
+      pool.release(writeBuffer);
+      writeBuffer = null;
+    }
+    writeLength = HEADER_SIZE;
+  }
+}
@@ -0,0 +1,106 @@
+package me.prettyprint.cassandra.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
+
+import org.apache.cassandra.thrift.Column;
+
+/**
+ * Base of the column slices of a LongType column family which keep names,
+ * clocks and values in primitive arrays rather than one {@link HColumnImpl}
+ * and a few boxed numbers per column. Names are kept in the order they were
+ * returned in.
+ */
+public abstract class AbstractLongColumnSlice {
+
+  private final long[] names;
+  private final long[] clocks;
+  private final int[] ttls;
+  private final boolean reversed;
+
+  protected AbstractLongColumnSlice(List<Column> columns, boolean reversed) {
+    Assert.notNull(columns, "columns is null");
+    int size = columns.size();
+    this.names = new long[size];
+    this.clocks = new long[size];
+    this.reversed = reversed;
+    int[] ttls = null;
+    for (int i = 0; i < size; i++) {
+      Column column = columns.get(i);
+      names[i] = longAt(column.name, "name");
+      clocks[i] = column.timestamp;
+      if ( column.isSetTtl() ) {
+        if ( ttls == null ) {
+          ttls = new int[size];
+        }
+        ttls[i] = column.ttl;
+      }
+    }
+    this.ttls = ttls;
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  public boolean isEmpty() {
+    return names.length == 0;
+  }
+
+  public long getName(int index) {
+    return names[index];
+  }
+
+  /**
+   * @return a copy of the names
+   */
+  public long[] getNames() {
+    return names.clone();
+  }
+
+  public long getClock(int index) {
+    return clocks[index];
+  }
+
+  /**
+   * @return the ttl of the column, 0 if it has none
+   */
+  public int getTtl(int index) {
+    return ttls == null ? 0 : ttls[index];
+  }
+
+  /**
+   * @return the position of the column with the given name, or a negative
+   *         number if the slice does not have it
+   */
+  public int indexOf(long name) {
+    if ( !reversed ) {
+      return Arrays.binarySearch(names, name);
+    }
+    int low = 0;
+    int high = names.length - 1;
+    while ( low <= high ) {
+      int mid = (low + high) >>> 1;
+      long midName = names[mid];
+      if ( midName > name ) {
+        low = mid + 1;
+      } else if ( midName < name ) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  protected static long longAt(ByteBuffer bytes, String what) {
+    if ( bytes == null || bytes.remaining() != 8 ) {
+      throw new HectorSerializationException("Column " + what + " is not a long");
+    }
+    return bytes.getLong(bytes.position());
+  }
+}
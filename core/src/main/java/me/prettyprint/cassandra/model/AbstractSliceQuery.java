@@ -4,6 +4,7 @@ import java.util.Collection;
 
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 import me.prettyprint.hector.api.query.Query;
 
 import org.apache.cassandra.thrift.SlicePredicate;
@@ -19,6 +20,8 @@ import org.apache.cassandra.thrift.SlicePredicate;
 public abstract class AbstractSliceQuery<K,N,V,T> extends AbstractQuery<K,N,V,T> implements Query<T> {
 
   protected final HSlicePredicate<N> slicePredicate;
+  protected boolean lazyResults;
+  protected ComparatorType lazyNameComparator;
 
   public AbstractSliceQuery(Keyspace k, Serializer<K> keySerializer, Serializer<N> nameSerializer, Serializer<V> valueSerializer) {
     super(k, keySerializer, nameSerializer, valueSerializer);
@@ -60,6 +63,37 @@ public abstract class AbstractSliceQuery<K,N,V,T> extends AbstractQuery<K,N,V,T>
     return this;
   }
 
+  /**
+   * Return result beans which keep the thrift columns as received and only
+   * deserialize names and values when they are accessed. Columns are looked up
+   * by name scanning their serialized form. Worthwhile on wide slices where
+   * only a few columns are read. Only the queries which honour it make it
+   * public.
+   * @see LazyColumnSliceImpl
+   * @see LazyRowsImpl
+   */
+  protected AbstractSliceQuery<K,N,V,T> setLazyResults(boolean lazyResults) {
+    this.lazyResults = lazyResults;
+    this.lazyNameComparator = null;
+    return this;
+  }
+
+  /**
+   * Lazy results whose columns are looked up by name with a binary search
+   * over their serialized form, ordered by the given comparator type, which
+   * must be the one of the column family.
+   * @param nameComparator the comparator type of the column family
+   * @see #setLazyResults(boolean)
+   */
+  protected AbstractSliceQuery<K,N,V,T> setLazyResults(ComparatorType nameComparator) {
+    this.lazyResults = true;
+    this.lazyNameComparator = nameComparator;
+    return this;
+  }
+
+  public boolean isLazyResults() {
+    return lazyResults;
+  }
 
   public Collection<N> getColumnNames() {
     return slicePredicate.getColumnNames();
@@ -1,10 +1,6 @@
 package me.prettyprint.cassandra.model;
 
 import java.nio.ByteBuffer;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 
 import me.prettyprint.cassandra.serializers.StringSerializer;
 import me.prettyprint.cassandra.service.Operation;
@@ -14,10 +10,8 @@ import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.exceptions.HectorException;
 import me.prettyprint.hector.api.query.QueryResult;
 
-import org.apache.cassandra.thrift.Column;
 import org.apache.cassandra.thrift.Compression;
 import org.apache.cassandra.thrift.CqlResult;
-import org.apache.cassandra.thrift.CqlRow;
 import org.apache.cassandra.thrift.Cassandra.Client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -122,16 +116,15 @@ public class CqlQuery<K, N, V> extends AbstractBasicQuery<K, N, CqlRows<K,N,V>>
                 rows = new CqlRows<K, N, V>();
                 break;
 
+              case INT:
+                rows = new CqlRows<K, N, V>(result, keySerializer, columnNameSerializer,
+                    valueSerializer, suppressKeyInColumns);
+                break;
+
               default:
                 if ( result.getRowsSize() > 0 ) {
-                  LinkedHashMap<ByteBuffer, List<Column>> ret = new LinkedHashMap<ByteBuffer, List<Column>>(result.getRowsSize());
-                  
-                  for (Iterator<CqlRow> rowsIter = result.getRowsIterator(); rowsIter.hasNext(); ) {
-                    CqlRow row = rowsIter.next();
-                    ret.put(ByteBuffer.wrap(row.getKey()), filterKeyColumn(row));
-                  }
-                  Map<K, List<Column>> thriftRet = keySerializer.fromBytesMap(ret);
-                  rows = new CqlRows<K, N, V>((LinkedHashMap<K, List<Column>>)thriftRet, columnNameSerializer, valueSerializer);
+                  rows = new CqlRows<K, N, V>(result, keySerializer, columnNameSerializer,
+                      valueSerializer, suppressKeyInColumns);
                 }
                 break;
               }
@@ -142,21 +135,5 @@ public class CqlQuery<K, N, V> extends AbstractBasicQuery<K, N, CqlRows<K,N,V>>
           }
         
         }), this);
-  }  
-  
-  /*
-   * Trims the first column from the row if it's name is equal to "KEY"
-   */
-  private List<Column> filterKeyColumn(CqlRow row) {
-    if ( suppressKeyInColumns && row.isSetColumns() && row.columns.size() > 0) {
-      Iterator<Column> columnsIterator = row.getColumnsIterator();
-      Column column = columnsIterator.next();
-      if ( column.name.duplicate().equals(KEY_BB) ) {
-        columnsIterator.remove();  
-      }      
-    }
-    return row.getColumns();
   }
-
-  private static ByteBuffer KEY_BB = StringSerializer.get().toByteBuffer("KEY");
 }
@@ -1,65 +1,329 @@
 package me.prettyprint.cassandra.model;
 
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 
 import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.SerializerTypeInferer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.utils.Assert;
 import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.beans.HColumn;
 import me.prettyprint.hector.api.beans.Row;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 
 import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.CqlMetadata;
+import org.apache.cassandra.thrift.CqlResult;
 import org.apache.cassandra.thrift.CqlResultType;
+import org.apache.cassandra.thrift.CqlRow;
 
 /**
  * Row wrapper specific to the multi-type results capable from a CqlQuery.
- * This is a bit more convoluted than I would like, put most of this API 
+ * This is a bit more convoluted than I would like, put most of this API
  * is still moving around, so we will stick with the overloading for now.
- * 
+ *
+ * The rows are a view over the thrift {@link CqlResult}: nothing is copied
+ * when the result arrives, and keys and column slices are only decoded when
+ * a row is first accessed. Rows are kept in the order (and with the
+ * multiplicity) returned by the server, so a CQL3 result with several rows
+ * sharing a partition key yields all of them.
+ *
+ * When the server returns CQL3 metadata, {@link #getValueSerializer(Object)}
+ * and {@link #getTypedValue(HColumn)} decode a column according to its
+ * declared validator rather than the query's value serializer.
+ *
+ * The rows of the deprecated map constructor are decoded up front, as
+ * {@link OrderedRowsImpl} does.
+ *
  * @author zznate
  */
-public final class CqlRows<K, N, V> extends OrderedRowsImpl<K, N, V> {
+public class CqlRows<K, N, V> extends OrderedRowsImpl<K, N, V> {
+
+  private static final ByteBuffer KEY_BB = StringSerializer.get().toByteBuffer("KEY");
+  private static final ByteBuffer COUNT_BB = StringSerializer.get().toByteBuffer("count");
 
   private final CqlResultType resultType;
-  private int count;
-  
+  private final List<CqlRow> thriftRows;
+  private final CqlMetadata schema;
+  private final int num;
+  private final Serializer<K> keySerializer;
+  private final Serializer<N> nameSerializer;
+  private final Serializer<V> valueSerializer;
+  private final boolean suppressKeyInColumns;
+  private final Row<K, N, V>[] decodedRows;
+  private final List<Row<K, N, V>> lazyRows;
+  private final int legacyCount;
+
+  /**
+   * Constructed for {@link CqlResultType#ROWS} and {@link CqlResultType#INT}
+   * @param result the thrift result, which is wrapped rather than copied
+   * @param keySerializer
+   * @param nameSerializer
+   * @param valueSerializer
+   * @param suppressKeyInColumns hide a leading "KEY" column from each row
+   */
+  @SuppressWarnings("unchecked")
+  public CqlRows(CqlResult result, Serializer<K> keySerializer,
+      Serializer<N> nameSerializer, Serializer<V> valueSerializer,
+      boolean suppressKeyInColumns) {
+    Assert.noneNull(result, keySerializer, nameSerializer, valueSerializer);
+    this.resultType = result.getType();
+    this.thriftRows = result.isSetRows() ? result.getRows() : Collections.<CqlRow>emptyList();
+    this.schema = result.isSetSchema() ? result.getSchema() : null;
+    this.num = result.isSetNum() ? result.getNum() : 0;
+    this.keySerializer = keySerializer;
+    this.nameSerializer = nameSerializer;
+    this.valueSerializer = valueSerializer;
+    this.suppressKeyInColumns = suppressKeyInColumns;
+    this.decodedRows = new Row[thriftRows.size()];
+    this.lazyRows = new LazyRowList();
+    this.legacyCount = 0;
+  }
+
   /**
-   * Constructed for {@link CqlResultType#ROWS}
+   * Constructed for {@link CqlResultType#ROWS} from rows already decoded
    * @param thriftRet
    * @param nameSerializer
    * @param valueSerializer
-   * @param resultType
+   * @deprecated use {@link #CqlRows(CqlResult, Serializer, Serializer, Serializer, boolean)},
+   *             which wraps the thrift result without copying it and keeps
+   *             rows sharing a key
    */
+  @Deprecated
   public CqlRows(LinkedHashMap<K, List<Column>> thriftRet,
       Serializer<N> nameSerializer, Serializer<V> valueSerializer) {
     super(thriftRet, nameSerializer, valueSerializer);
     this.resultType = CqlResultType.ROWS;
-    // test for a count object. eeewww.
-    
-    if ( getCount() == 1 ) {
-      Row row = iterator().next();
-      if ( row.getColumnSlice().getColumnByName("count") != null ) {   
-        count = LongSerializer.get().fromByteBuffer(row.getColumnSlice().getColumnByName("count").getValueBytes()).intValue();
+    this.thriftRows = null;
+    this.schema = null;
+    this.num = 0;
+    this.keySerializer = null;
+    this.nameSerializer = nameSerializer;
+    this.valueSerializer = valueSerializer;
+    this.suppressKeyInColumns = false;
+    this.decodedRows = null;
+    this.lazyRows = null;
+    int count = 0;
+    if ( rowsList.size() == 1 ) {
+      for (HColumn<N, V> column : rowsList.get(0).getColumnSlice().getColumns()) {
+        if ( COUNT_BB.equals(column.getNameBytes()) && column.getValueBytes() != null ) {
+          count = LongSerializer.get().fromByteBuffer(column.getValueBytes()).intValue();
+        }
       }
     }
+    this.legacyCount = count;
   }
-  
-  
+
   /**
    * Constructed as empty for {@link CqlResultType#VOID}
    */
+  @SuppressWarnings("unchecked")
   public CqlRows() {
-    super();
-    this.resultType = CqlResultType.VOID;    
+    this.resultType = CqlResultType.VOID;
+    this.thriftRows = Collections.emptyList();
+    this.schema = null;
+    this.num = 0;
+    this.keySerializer = null;
+    this.nameSerializer = null;
+    this.valueSerializer = null;
+    this.suppressKeyInColumns = false;
+    this.decodedRows = new Row[0];
+    this.lazyRows = Collections.emptyList();
+    this.legacyCount = 0;
   }
 
   /**
-   * Will throw an IllegalArgumentException if called on a query that was not
-   * {@link CqlResultType#INT}
+   * Returns the count for a {@link CqlResultType#INT} result, or for a
+   * single-row result holding a "count" column (as returned by
+   * <code>SELECT COUNT(*)</code>). Returns 0 otherwise.
    * @return
    */
   public int getAsCount() {
-    
-    return count;
+    if ( thriftRows == null ) {
+      return legacyCount;
+    }
+    if ( resultType == CqlResultType.INT ) {
+      return num;
+    }
+    if ( thriftRows.size() == 1 && thriftRows.get(0).isSetColumns() ) {
+      for (Column column : thriftRows.get(0).getColumns()) {
+        if ( column.isSetValue() && COUNT_BB.equals(column.name) ) {
+          return LongSerializer.get().fromByteBuffer(column.value.duplicate()).intValue();
+        }
+      }
+    }
+    return 0;
+  }
+
+  public CqlResultType getResultType() {
+    return resultType;
+  }
+
+  /**
+   * Preserves rows order
+   * @return an unmodifiable list of Rows, decoded on access
+   */
+  @Override
+  public List<Row<K, N, V>> getList() {
+    return thriftRows == null ? super.getList() : lazyRows;
+  }
+
+  @Override
+  public Row<K, N, V> peekLast() {
+    if ( thriftRows == null ) {
+      return super.peekLast();
+    }
+    return thriftRows.size() > 0 ? lazyRows.get(thriftRows.size() - 1) : null;
+  }
+
+  /**
+   * Scans the rows comparing serialized keys, so only the matching row is
+   * decoded. When several rows share a key the first one is returned.
+   */
+  @Override
+  public Row<K, N, V> getByKey(K key) {
+    if ( thriftRows == null ) {
+      return super.getByKey(key);
+    }
+    if ( key == null || thriftRows.isEmpty() ) {
+      return null;
+    }
+    ByteBuffer keyBytes = keySerializer.toByteBuffer(key);
+    for (int i = 0; i < thriftRows.size(); i++) {
+      if ( keyBytes.equals(thriftRows.get(i).bufferForKey()) ) {
+        return lazyRows.get(i);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public int getCount() {
+    return thriftRows == null ? super.getCount() : thriftRows.size();
+  }
+
+  @Override
+  public Iterator<Row<K, N, V>> iterator() {
+    return thriftRows == null ? super.iterator() : lazyRows.iterator();
+  }
+
+  /**
+   * The serializer for the validator the server declared for this column in
+   * the CQL3 result metadata, falling back to the default value type of the
+   * result and finally to the value serializer supplied with the query.
+   * @param columnName
+   * @return
+   */
+  public Serializer<?> getValueSerializer(N columnName) {
+    return valueSerializerFor(nameSerializer.toByteBuffer(columnName));
+  }
+
+  /**
+   * Decodes the value of the given column according to the CQL3 result
+   * metadata. See {@link #getValueSerializer(Object)}.
+   * @param column a column of one of these rows
+   * @return
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getTypedValue(HColumn<N, V> column) {
+    ByteBuffer value = column.getValueBytes();
+    if ( value == null ) {
+      return null;
+    }
+    return (T) valueSerializerFor(column.getNameBytes()).fromByteBuffer(value);
+  }
+
+  private Serializer<?> valueSerializerFor(ByteBuffer name) {
+    if ( schema == null ) {
+      return valueSerializer;
+    }
+    String type = null;
+    if ( schema.isSetValue_types() ) {
+      type = schema.getValue_types().get(name);
+    }
+    if ( type == null ) {
+      type = schema.getDefault_value_type();
+    }
+    return type == null ? valueSerializer :
+      SerializerTypeInferer.getSerializerForComparator(ComparatorType.getByClassName(type));
+  }
+
+  /*
+   * Trims the first column from the row if it's name is equal to "KEY". The
+   * thrift list is only viewed, never modified.
+   */
+  private List<Column> filterKeyColumn(CqlRow row) {
+    if ( !row.isSetColumns() ) {
+      return Collections.emptyList();
+    }
+    List<Column> columns = row.getColumns();
+    if ( suppressKeyInColumns && columns.size() > 0 && KEY_BB.equals(columns.get(0).name) ) {
+      return columns.subList(1, columns.size());
+    }
+    return columns;
+  }
+
+  @Override
+  public String toString() {
+    return "CqlRows(" + resultType + "," + getList() + ")";
+  }
+
+  private final class LazyRowList extends AbstractList<Row<K, N, V>> {
+
+    @Override
+    public Row<K, N, V> get(int index) {
+      Row<K, N, V> row = decodedRows[index];
+      if ( row == null ) {
+        row = new LazyCqlRow(thriftRows.get(index));
+        decodedRows[index] = row;
+      }
+      return row;
+    }
+
+    @Override
+    public int size() {
+      return thriftRows.size();
+    }
+  }
+
+  /*
+   * Defers key and column decoding until first requested
+   */
+  private final class LazyCqlRow implements Row<K, N, V> {
+
+    private final CqlRow thriftRow;
+    private K key;
+    private ColumnSlice<N, V> columnSlice;
+
+    LazyCqlRow(CqlRow thriftRow) {
+      this.thriftRow = thriftRow;
+    }
+
+    @Override
+    public K getKey() {
+      if ( key == null && thriftRow.isSetKey() ) {
+        key = keySerializer.fromByteBuffer(thriftRow.bufferForKey().duplicate());
+      }
+      return key;
+    }
+
+    @Override
+    public ColumnSlice<N, V> getColumnSlice() {
+      if ( columnSlice == null ) {
+        columnSlice = new ColumnSliceImpl<N, V>(filterKeyColumn(thriftRow), nameSerializer, valueSerializer);
+      }
+      return columnSlice;
+    }
+
+    @Override
+    public String toString() {
+      return "Row(" + getKey() + "," + getColumnSlice() + ")";
+    }
   }
-  
 }
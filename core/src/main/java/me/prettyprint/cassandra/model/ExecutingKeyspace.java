@@ -1,20 +1,28 @@
 package me.prettyprint.cassandra.model;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import me.prettyprint.cassandra.connection.HConnectionManager;
+import me.prettyprint.cassandra.connection.HotKeys;
 import me.prettyprint.cassandra.service.ExceptionsTranslator;
 import me.prettyprint.cassandra.service.ExceptionsTranslatorImpl;
 import me.prettyprint.cassandra.service.FailoverPolicy;
 import me.prettyprint.cassandra.service.KeyspaceService;
 import me.prettyprint.cassandra.service.KeyspaceServiceImpl;
 import me.prettyprint.cassandra.service.Operation;
+import me.prettyprint.cassandra.service.OperationType;
 import me.prettyprint.cassandra.utils.Assert;
 import me.prettyprint.hector.api.ConsistencyLevelPolicy;
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.exceptions.HectorException;
 import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.SlicePredicate;
 
 /**
  * Thread Safe
@@ -103,6 +111,113 @@ public class ExecutingKeyspace implements Keyspace {
     return operation.getExecutionResult();
   }
 
+  /**
+   * The near cache of this keyspace, see {@link NearCache#enable(String, long, long, java.util.concurrent.TimeUnit)}
+   * to turn it on for a column family.
+   * @return
+   */
+  public NearCache getNearCache() {
+    return connectionManager.getNearCache(keyspace);
+  }
+
+  /**
+   * The read coalescer of this keyspace, see {@link ReadCoalescer#enable(String)}
+   * to turn it on for a column family.
+   * @return
+   */
+  public ReadCoalescer getReadCoalescer() {
+    return connectionManager.getReadCoalescer(keyspace);
+  }
+
+  /**
+   * The negative cache of this keyspace, see
+   * {@link NegativeCache#enable(String, int, double, long, java.util.concurrent.TimeUnit)}
+   * to turn it on for a column family.
+   * @return
+   */
+  public NegativeCache getNegativeCache() {
+    return connectionManager.getNegativeCache(keyspace);
+  }
+
+  /**
+   * Drops what the near and negative caches hold for the rows of a mutation map
+   */
+  public void invalidateReads(Map<ByteBuffer, ? extends Map<String, ?>> mutationMap) {
+    getNearCache().invalidate(mutationMap);
+    getNegativeCache().invalidate(mutationMap);
+  }
+
+  /**
+   * Counts the rows of a mutation map towards the hot keys of their column
+   * families, when the write is sampled
+   */
+  public void recordWrites(Map<ByteBuffer, ? extends Map<String, ?>> mutationMap) {
+    HotKeys hotKeys = connectionManager.getHotKeys();
+    if ( hotKeys != null ) {
+      hotKeys.recordWrites(keyspace, mutationMap);
+    }
+  }
+
+  /**
+   * Drops what the near and negative caches hold for a row
+   */
+  public void invalidateReads(String columnFamily, ByteBuffer key) {
+    getNearCache().invalidate(columnFamily, key);
+    getNegativeCache().invalidate(columnFamily, key);
+  }
+
+  /**
+   * @return true if reads of the column family go through any of the
+   * negative cache, near cache or read coalescer
+   */
+  public boolean isReadThrough(String columnFamily) {
+    return getNegativeCache().isEnabled(columnFamily) || getNearCache().isEnabled(columnFamily)
+        || getReadCoalescer().isEnabled(columnFamily);
+  }
+
+  /**
+   * Issues a slice or column read of a single row. The read is answered by
+   * the {@link NegativeCache} or the {@link NearCache} when they can, else it
+   * is issued through the {@link ReadCoalescer}, at the read consistency level
+   * of the column family, and its result added to both caches.
+   *
+   * Only the caller which actually issues the read caches its result, stamped
+   * before the read started. Callers joining it may arrive after a write
+   * invalidated the row, their own stamps would pass off the older result as
+   * current.
+   * @param columnFamily
+   * @param key serialized row key
+   * @param predicate the predicate of the read, identifying it in the caches
+   * @param read issues the read to the cluster
+   * @return the columns read, not shared with other callers
+   */
+  public List<Column> readThrough(final String columnFamily, final ByteBuffer key, final SlicePredicate predicate,
+      final Callable<List<Column>> read) {
+    final NegativeCache negativeCache = getNegativeCache();
+    if ( negativeCache.isKnownEmpty(columnFamily, key, predicate) ) {
+      return new ArrayList<Column>(0);
+    }
+    final NearCache nearCache = getNearCache();
+    List<Column> columns = nearCache.get(columnFamily, key, predicate);
+    if ( columns == null ) {
+      columns = getReadCoalescer().read(columnFamily, key, predicate,
+          consistencyLevelPolicy.get(OperationType.READ, columnFamily), new Callable<List<Column>>() {
+            @Override
+            public List<Column> call() throws Exception {
+              long nearStamp = nearCache.stamp(columnFamily, key);
+              long negativeStamp = negativeCache.stamp();
+              List<Column> columns = read.call();
+              nearCache.put(columnFamily, key, predicate, columns, nearStamp);
+              if ( columns != null && columns.isEmpty() ) {
+                negativeCache.putEmpty(columnFamily, key, predicate, negativeStamp);
+              }
+              return columns;
+            }
+          });
+    }
+    return columns;
+  }
+
   public ExceptionsTranslator getExceptionsTranslator() {
     return exceptionTranslator;
   }
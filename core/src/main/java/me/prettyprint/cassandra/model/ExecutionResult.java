@@ -1,6 +1,7 @@
 package me.prettyprint.cassandra.model;
 
 import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.OperationTimings;
 import me.prettyprint.hector.api.ResultStatus;
 
 
@@ -17,14 +18,20 @@ public class ExecutionResult<T> implements ResultStatus {
   private final T value;
   private final long execTime;
   private final CassandraHost cassandraHost;
+  private final OperationTimings timings;
   
   protected static final String BASE_MSG_FORMAT = "%s took (%dus) for query (%s) on host: %s";
   private static final int MICRO_DENOM = 1000;
 
   public ExecutionResult(T value, long execTime, CassandraHost cassandraHost) {
+    this(value, execTime, cassandraHost, new OperationTimings());
+  }
+
+  public ExecutionResult(T value, long execTime, CassandraHost cassandraHost, OperationTimings timings) {
     this.value = value;
     this.execTime = execTime;
     this.cassandraHost = cassandraHost;
+    this.timings = timings;
   }
 
   /**
@@ -66,5 +73,10 @@ public class ExecutionResult<T> implements ResultStatus {
     return this.cassandraHost;
   }
 
+  @Override
+  public OperationTimings getTimings() {
+    return timings;
+  }
+
 
 }
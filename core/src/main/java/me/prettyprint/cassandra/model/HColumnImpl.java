@@ -5,6 +5,7 @@ import static me.prettyprint.cassandra.utils.Assert.notNull;
 import java.nio.ByteBuffer;
 
 import me.prettyprint.cassandra.serializers.SerializerTypeInferer;
+import me.prettyprint.cassandra.utils.ByteBufferSlab;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.HColumn;
 
@@ -41,6 +42,22 @@ public final class HColumnImpl<N,V> implements HColumn<N, V> {
     this.column.setTimestamp(clock);
   }
 
+  /**
+   * Serializes the name and value into the given slab, which may be shared
+   * with other columns of the same batch.
+   */
+  public HColumnImpl(N name, V value, long clock, Serializer<N> nameSerializer,
+      Serializer<V> valueSerializer, ByteBufferSlab slab) {
+    this(nameSerializer, valueSerializer);
+    notNull(name, "name is null");
+    notNull(value, "value is null");
+    notNull(slab, "slab is null");
+
+    this.column = new Column(slab.serialize(name, nameSerializer));
+    this.column.setValue(slab.serialize(value, valueSerializer));
+    this.column.setTimestamp(clock);
+  }
+
   public HColumnImpl(N name, V value, long clock, int ttl,
 		Serializer<N> nameSerializer, Serializer<V> valueSerializer) {
 	  this(name, value, clock, nameSerializer, valueSerializer);
@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.List;
 
 import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.cassandra.utils.ByteBufferSlab;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.exceptions.HectorException;
 
@@ -148,6 +149,14 @@ public final class HSlicePredicate<N> {
     return this;
   }
 
+  /**
+   * @return true if this is a range predicate returning columns in reversed
+   * comparator order
+   */
+  public boolean isReversed() {
+    return predicateType == PredicateType.Range && reversed;
+  }
+
   public Collection<N> getColumnNames() {
     return Collections.unmodifiableCollection(columnNames);
   }
@@ -190,11 +199,8 @@ public final class HSlicePredicate<N> {
   }
 
   private List<ByteBuffer> toThriftColumnNames(Collection<N> clms) {
-    List<ByteBuffer> ret = new ArrayList<ByteBuffer>(clms.size());
-    for (N name : clms) {
-      ret.add(columnNameSerializer.toByteBuffer(name));
-    }
-    return ret;
+    // all the names share one buffer
+    return ByteBufferSlab.pack(clms, columnNameSerializer);
   }
 
   @Override
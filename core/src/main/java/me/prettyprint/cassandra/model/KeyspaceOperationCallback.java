@@ -1,6 +1,8 @@
 package me.prettyprint.cassandra.model;
 
 import me.prettyprint.cassandra.service.KeyspaceService;
+import me.prettyprint.cassandra.service.OperationTimings;
+import me.prettyprint.cassandra.service.OperationTimings.Phase;
 import me.prettyprint.hector.api.exceptions.HectorException;
 
 /**
@@ -18,8 +20,12 @@ public abstract class KeyspaceOperationCallback<T> {
     long start = System.nanoTime();
     T value = null;
     value = doInKeyspace(ks);
+    long execTime = System.nanoTime() - start;
 
-    return new ExecutionResult<T>(value, System.nanoTime() - start, ks.getCassandraHost());
+    // whatever the operations did not account for went to converting their results
+    OperationTimings timings = ks.getTimings();
+    timings.add(Phase.CONVERSION, execTime - timings.getTotal());
+    return new ExecutionResult<T>(value, execTime, ks.getCassandraHost(), timings);
   }
 
 }
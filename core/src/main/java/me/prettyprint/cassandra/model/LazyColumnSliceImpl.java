@@ -0,0 +1,157 @@
+package me.prettyprint.cassandra.model;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.cassandra.utils.ByteComparators;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+import org.apache.cassandra.thrift.Column;
+
+/**
+ * A {@link ColumnSlice} which keeps the thrift columns exactly as they were
+ * returned. Nothing is decoded or wrapped up front: {@link HColumn}s are
+ * created the first time a position is read and names and values are only
+ * deserialized when asked for.
+ *
+ * {@link #getColumnByName(Object)} serializes the requested name once. When
+ * the comparator type of the column family is given the raw names are binary
+ * searched with its byte comparator (see {@link ByteComparators}), otherwise
+ * they are scanned for byte equality: the comparator type of the name
+ * serializer cannot be relied on, most serializers default to BytesType
+ * whatever the column family they read. Either way no other column name is
+ * deserialized.
+ *
+ * @param <N> column name type
+ * @param <V> column value type
+ */
+public final class LazyColumnSliceImpl<N, V> implements ColumnSlice<N, V> {
+
+  private final List<Column> tColumns;
+  private final Serializer<N> nameSerializer;
+  private final Serializer<V> valueSerializer;
+  private final Comparator<ByteBuffer> nameComparator;
+  private final HColumn<N, V>[] columns;
+  private final List<HColumn<N, V>> columnsList;
+
+  public LazyColumnSliceImpl(List<Column> tColumns, Serializer<N> nameSerializer,
+      Serializer<V> valueSerializer) {
+    this(tColumns, nameSerializer, valueSerializer, null, false);
+  }
+
+  /**
+   * @param tColumns the thrift columns, in the order returned by the server
+   * @param nameSerializer
+   * @param valueSerializer
+   * @param comparatorType the comparator of the column family, null to scan
+   *          the names instead of binary searching them
+   * @param reversed true if the slice was requested in reversed order
+   */
+  @SuppressWarnings("unchecked")
+  public LazyColumnSliceImpl(List<Column> tColumns, Serializer<N> nameSerializer,
+      Serializer<V> valueSerializer, ComparatorType comparatorType, boolean reversed) {
+    Assert.noneNull(tColumns, nameSerializer, valueSerializer);
+    this.tColumns = tColumns;
+    this.nameSerializer = nameSerializer;
+    this.valueSerializer = valueSerializer;
+    Comparator<ByteBuffer> comparator = ByteComparators.forType(comparatorType);
+    this.nameComparator = comparator != null && reversed ? Collections.reverseOrder(comparator) : comparator;
+    this.columns = new HColumn[tColumns.size()];
+    this.columnsList = new LazyColumnList();
+  }
+
+  /**
+   *
+   * @return an unmodifiable list of the columns, wrapped on access
+   */
+  @Override
+  public List<HColumn<N, V>> getColumns() {
+    return columnsList;
+  }
+
+  @Override
+  public HColumn<N, V> getColumnByName(N columnName) {
+    if ( columnName == null ) {
+      return null;
+    }
+    return getColumnByNameBytes(nameSerializer.toByteBuffer(columnName));
+  }
+
+  /**
+   * Looks a column up by its serialized name
+   * @param nameBytes
+   * @return the column or null if it is not part of this slice
+   */
+  public HColumn<N, V> getColumnByNameBytes(ByteBuffer nameBytes) {
+    int index = indexOf(nameBytes);
+    return index < 0 ? null : columnsList.get(index);
+  }
+
+  /**
+   * Decodes the names of all the columns, in slice order
+   * @return
+   */
+  public List<N> getColumnNames() {
+    List<N> names = new ArrayList<N>(tColumns.size());
+    for (Column column : tColumns) {
+      names.add(nameSerializer.fromByteBuffer(column.name.duplicate()));
+    }
+    return names;
+  }
+
+  private int indexOf(ByteBuffer nameBytes) {
+    if ( nameComparator == null ) {
+      for (int i = 0; i < tColumns.size(); i++) {
+        if ( nameBytes.equals(tColumns.get(i).name) ) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    int low = 0;
+    int high = tColumns.size() - 1;
+    while ( low <= high ) {
+      int mid = (low + high) >>> 1;
+      int cmp = nameComparator.compare(tColumns.get(mid).name, nameBytes);
+      if ( cmp < 0 ) {
+        low = mid + 1;
+      } else if ( cmp > 0 ) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ColumnSlice(%s)", columnsList.toString());
+  }
+
+  private final class LazyColumnList extends AbstractList<HColumn<N, V>> {
+
+    @Override
+    public HColumn<N, V> get(int index) {
+      HColumn<N, V> column = columns[index];
+      if ( column == null ) {
+        column = new HColumnImpl<N, V>(tColumns.get(index), nameSerializer, valueSerializer);
+        columns[index] = column;
+      }
+      return column;
+    }
+
+    @Override
+    public int size() {
+      return tColumns.size();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package me.prettyprint.cassandra.model;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.beans.OrderedRows;
+import me.prettyprint.hector.api.beans.Row;
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+import org.apache.cassandra.thrift.Column;
+
+/**
+ * Rows returned by multiget_slice and get_range_slices when lazy results are
+ * requested. The map returned by the thrift call is kept as is, keyed by the
+ * serialized row keys: {@link #getByKey(Object)} serializes the key and looks
+ * it up directly, row keys are only deserialized when {@link Row#getKey()} is
+ * called and each row's columns are exposed through a
+ * {@link LazyColumnSliceImpl}.
+ *
+ * Rows are iterated in the order of the underlying map, which is the token
+ * order for range slices.
+ *
+ * @param <K> row key type
+ * @param <N> column name type
+ * @param <V> column value type
+ */
+public final class LazyRowsImpl<K, N, V> implements OrderedRows<K, N, V> {
+
+  private final Map<ByteBuffer, List<Column>> thriftRet;
+  private final Serializer<K> keySerializer;
+  private final Serializer<N> nameSerializer;
+  private final Serializer<V> valueSerializer;
+  private final ComparatorType nameComparator;
+  private final boolean reversed;
+  private Map<ByteBuffer, Row<K, N, V>> decodedRows;
+  private List<Row<K, N, V>> rowsList;
+
+  /**
+   * @param nameComparator the comparator of the column family, null to scan
+   *          the column names of a row instead of binary searching them
+   * @param reversed true if the slices were requested in reversed order
+   */
+  public LazyRowsImpl(Map<ByteBuffer, List<Column>> thriftRet, Serializer<K> keySerializer,
+      Serializer<N> nameSerializer, Serializer<V> valueSerializer, ComparatorType nameComparator,
+      boolean reversed) {
+    Assert.noneNull(thriftRet, keySerializer, nameSerializer, valueSerializer);
+    this.thriftRet = thriftRet;
+    this.keySerializer = keySerializer;
+    this.nameSerializer = nameSerializer;
+    this.valueSerializer = valueSerializer;
+    this.nameComparator = nameComparator;
+    this.reversed = reversed;
+  }
+
+  @Override
+  public Row<K, N, V> getByKey(K key) {
+    if ( key == null ) {
+      return null;
+    }
+    return rowFor(keySerializer.toByteBuffer(key));
+  }
+
+  @Override
+  public int getCount() {
+    return thriftRet.size();
+  }
+
+  @Override
+  public Iterator<Row<K, N, V>> iterator() {
+    return getList().iterator();
+  }
+
+  /**
+   * Preserves rows order
+   * @return an unmodifiable list of Rows, decoded on access
+   */
+  @Override
+  public List<Row<K, N, V>> getList() {
+    if ( rowsList == null ) {
+      final List<ByteBuffer> keys = new ArrayList<ByteBuffer>(thriftRet.keySet());
+      rowsList = new AbstractList<Row<K, N, V>>() {
+        @Override
+        public Row<K, N, V> get(int index) {
+          return rowFor(keys.get(index));
+        }
+
+        @Override
+        public int size() {
+          return keys.size();
+        }
+      };
+    }
+    return rowsList;
+  }
+
+  @Override
+  public Row<K, N, V> peekLast() {
+    return thriftRet.isEmpty() ? null : getList().get(thriftRet.size() - 1);
+  }
+
+  private Row<K, N, V> rowFor(ByteBuffer keyBytes) {
+    if ( decodedRows == null ) {
+      decodedRows = new HashMap<ByteBuffer, Row<K, N, V>>();
+    }
+    Row<K, N, V> row = decodedRows.get(keyBytes);
+    if ( row == null ) {
+      List<Column> columns = thriftRet.get(keyBytes);
+      if ( columns == null ) {
+        return null;
+      }
+      row = new LazyRow(keyBytes, columns);
+      decodedRows.put(keyBytes, row);
+    }
+    return row;
+  }
+
+  @Override
+  public String toString() {
+    return "Rows(" + getList() + ")";
+  }
+
+  private final class LazyRow implements Row<K, N, V> {
+
+    private final ByteBuffer keyBytes;
+    private final ColumnSlice<N, V> columnSlice;
+    private K key;
+
+    LazyRow(ByteBuffer keyBytes, List<Column> columns) {
+      this.keyBytes = keyBytes;
+      this.columnSlice = new LazyColumnSliceImpl<N, V>(columns, nameSerializer, valueSerializer, nameComparator, reversed);
+    }
+
+    @Override
+    public K getKey() {
+      if ( key == null ) {
+        key = keySerializer.fromByteBuffer(keyBytes.duplicate());
+      }
+      return key;
+    }
+
+    @Override
+    public ColumnSlice<N, V> getColumnSlice() {
+      return columnSlice;
+    }
+
+    @Override
+    public String toString() {
+      return "Row(" + getKey() + "," + columnSlice + ")";
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package me.prettyprint.cassandra.model;
+
+import java.util.List;
+
+import org.apache.cassandra.thrift.Column;
+
+/**
+ * A slice of columns with long names and double values, such as the points of
+ * a time series, decoded straight from the thrift columns into parallel
+ * arrays.
+ */
+public final class LongDoubleColumnSlice extends AbstractLongColumnSlice {
+
+  private final double[] values;
+
+  public LongDoubleColumnSlice(List<Column> columns, boolean reversed) {
+    super(columns, reversed);
+    values = new double[columns.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Double.longBitsToDouble(longAt(columns.get(i).value, "value"));
+    }
+  }
+
+  public double getValue(int index) {
+    return values[index];
+  }
+
+  /**
+   * @return the value of the named column, or defaultValue if the slice does
+   *         not have it
+   */
+  public double getValue(long name, double defaultValue) {
+    int index = indexOf(name);
+    return index < 0 ? defaultValue : values[index];
+  }
+
+  /**
+   * @return a copy of the values
+   */
+  public double[] getValues() {
+    return values.clone();
+  }
+}
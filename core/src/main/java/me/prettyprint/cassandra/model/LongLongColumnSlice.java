@@ -0,0 +1,43 @@
+package me.prettyprint.cassandra.model;
+
+import java.util.List;
+
+import org.apache.cassandra.thrift.Column;
+
+/**
+ * A slice of columns with long names and long values, such as the points of
+ * a time series, decoded straight from the thrift columns into parallel
+ * arrays.
+ */
+public final class LongLongColumnSlice extends AbstractLongColumnSlice {
+
+  private final long[] values;
+
+  public LongLongColumnSlice(List<Column> columns, boolean reversed) {
+    super(columns, reversed);
+    values = new long[columns.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = longAt(columns.get(i).value, "value");
+    }
+  }
+
+  public long getValue(int index) {
+    return values[index];
+  }
+
+  /**
+   * @return the value of the named column, or defaultValue if the slice does
+   *         not have it
+   */
+  public long getValue(long name, long defaultValue) {
+    int index = indexOf(name);
+    return index < 0 ? defaultValue : values[index];
+  }
+
+  /**
+   * @return a copy of the values
+   */
+  public long[] getValues() {
+    return values.clone();
+  }
+}
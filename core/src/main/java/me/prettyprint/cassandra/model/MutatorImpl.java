@@ -1,11 +1,15 @@
 package me.prettyprint.cassandra.model;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import me.prettyprint.cassandra.model.thrift.ThriftConverter;
 import me.prettyprint.cassandra.model.thrift.ThriftFactory;
 import me.prettyprint.cassandra.serializers.TypeInferringSerializer;
 import me.prettyprint.cassandra.service.*;
+import me.prettyprint.cassandra.utils.Assert;
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.HColumn;
@@ -16,6 +20,7 @@ import me.prettyprint.hector.api.exceptions.HectorException;
 import me.prettyprint.hector.api.mutation.MutationResult;
 import me.prettyprint.hector.api.mutation.Mutator;
 import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.Column;
 import org.apache.cassandra.thrift.Deletion;
 import org.apache.cassandra.thrift.SlicePredicate;
 
@@ -30,6 +35,9 @@ import org.apache.cassandra.thrift.SlicePredicate;
  *
  * The class is not thread-safe.
  *
+ * Executed mutations invalidate the rows they touch in the keyspace's
+ * {@link NearCache} and {@link NegativeCache}.
+ *
  * @author Ran Tavory
  * @author zznate
  * @author patricioe
@@ -101,29 +109,37 @@ public final class MutatorImpl<K> implements Mutator<K> {
   @Override
   public <SN,N> MutationResult subDelete(final K key, final String cf, final SN supercolumnName,
       final N columnName, final Serializer<SN> sNameSerializer, final Serializer<N> nameSerializer) {
-    return new MutationResultImpl(keyspace.doExecute(new KeyspaceOperationCallback<Void>() {
-      @Override
-      public Void doInKeyspace(KeyspaceService ks) throws HectorException {
-        ks.remove(keySerializer.toByteBuffer(key), ThriftFactory.createSuperColumnPath(cf,
-            supercolumnName, columnName, sNameSerializer, nameSerializer));
-        return null;
-      }
-    }));
-  }  
-  
-  @Override
-  public <SN> MutationResult superDelete(final K key, final String cf, final SN supercolumnName, 
-      final Serializer<SN> sNameSerializer) {
-    return new MutationResultImpl(keyspace.doExecute(new KeyspaceOperationCallback<Void>() {
+    try {
+      return new MutationResultImpl(keyspace.doExecute(new KeyspaceOperationCallback<Void>() {
         @Override
         public Void doInKeyspace(KeyspaceService ks) throws HectorException {
-          // Remove a Super Column.
-          ks.remove(
-              keySerializer.toByteBuffer(key), 
-              ThriftFactory.createSuperColumnPath(cf, supercolumnName, sNameSerializer));
+          ks.remove(keySerializer.toByteBuffer(key), ThriftFactory.createSuperColumnPath(cf,
+              supercolumnName, columnName, sNameSerializer, nameSerializer));
           return null;
         }
       }));
+    } finally {
+      keyspace.invalidateReads(cf, keySerializer.toByteBuffer(key));
+    }
+  }  
+  
+  @Override
+  public <SN> MutationResult superDelete(final K key, final String cf, final SN supercolumnName, 
+      final Serializer<SN> sNameSerializer) {
+    try {
+      return new MutationResultImpl(keyspace.doExecute(new KeyspaceOperationCallback<Void>() {
+          @Override
+          public Void doInKeyspace(KeyspaceService ks) throws HectorException {
+            // Remove a Super Column.
+            ks.remove(
+                keySerializer.toByteBuffer(key), 
+                ThriftFactory.createSuperColumnPath(cf, supercolumnName, sNameSerializer));
+            return null;
+          }
+        }));
+    } finally {
+      keyspace.invalidateReads(cf, keySerializer.toByteBuffer(key));
+    }
   }
   
   /**
@@ -171,6 +187,60 @@ public final class MutatorImpl<K> implements Mutator<K> {
     return this;
   }
 
+  @Override
+  public Mutator<K> addInsertions(K key, String cf, long[] names, long[] values) {
+    return addInsertions(key, cf, names, values, keyspace.createClock(), 0);
+  }
+
+  @Override
+  public Mutator<K> addInsertions(K key, String cf, long[] names, long[] values, long clock, int ttl) {
+    Assert.isTrue(names.length == values.length, "names and values differ in length");
+    ByteBuffer slab = ByteBuffer.allocate(names.length * 16);
+    for (int i = 0; i < names.length; i++) {
+      slab.putLong(names[i]).putLong(values[i]);
+    }
+    return addLongColumns(key, cf, slab, names.length, clock, ttl);
+  }
+
+  @Override
+  public Mutator<K> addInsertions(K key, String cf, long[] names, double[] values) {
+    return addInsertions(key, cf, names, values, keyspace.createClock(), 0);
+  }
+
+  @Override
+  public Mutator<K> addInsertions(K key, String cf, long[] names, double[] values, long clock, int ttl) {
+    Assert.isTrue(names.length == values.length, "names and values differ in length");
+    ByteBuffer slab = ByteBuffer.allocate(names.length * 16);
+    for (int i = 0; i < names.length; i++) {
+      slab.putLong(names[i]).putLong(Double.doubleToRawLongBits(values[i]));
+    }
+    return addLongColumns(key, cf, slab, names.length, clock, ttl);
+  }
+
+  /**
+   * Adds the columns whose 8 byte names and values alternate in slab
+   */
+  private Mutator<K> addLongColumns(K key, String cf, ByteBuffer slab, int count, long clock, int ttl) {
+    List<Column> columns = new ArrayList<Column>(count);
+    for (int i = 0; i < count; i++) {
+      Column column = new Column(longAt(slab, i * 16));
+      column.setValue(longAt(slab, i * 16 + 8));
+      column.setTimestamp(clock);
+      if (ttl > 0) {
+        column.setTtl(ttl);
+      }
+      columns.add(column);
+    }
+    getPendingMutations().addInsertions(key, Arrays.asList(cf), columns);
+    return this;
+  }
+
+  private static ByteBuffer longAt(ByteBuffer slab, int offset) {
+    ByteBuffer bytes = slab.duplicate();
+    bytes.limit(offset + 8).position(offset);
+    return bytes;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -240,14 +310,20 @@ public final class MutatorImpl<K> implements Mutator<K> {
     }
     final BatchMutation<K> mutations = pendingMutations.makeCopy();
     pendingMutations = null;
-    return new MutationResultImpl(keyspace.doExecuteOperation(new Operation<Void>(OperationType.WRITE) {
-      @Override
-      public Void execute(Cassandra.Client cassandra) throws Exception {
-        cassandra.batch_mutate(mutations.getMutationMap(),
-          ThriftConverter.consistencyLevel(consistencyLevelPolicy.get(operationType)));
-        return null;
-      }
-    }));
+    keyspace.recordWrites(mutations.getMutationMap());
+    try {
+      return new MutationResultImpl(keyspace.doExecuteOperation(new Operation<Void>(OperationType.WRITE) {
+        @Override
+        public Void execute(Cassandra.Client cassandra) throws Exception {
+          cassandra.batch_mutate(mutations.getMutationMap(),
+            ThriftConverter.consistencyLevel(consistencyLevelPolicy.get(operationType)));
+          return null;
+        }
+      }));
+    } finally {
+      // also on failure, the write may have been applied anyway
+      keyspace.invalidateReads(mutations.getMutationMap());
+    }
 
   }
 
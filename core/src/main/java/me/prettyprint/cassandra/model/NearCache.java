@@ -0,0 +1,263 @@
+package me.prettyprint.cassandra.model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+import me.prettyprint.cassandra.service.CassandraClientMonitor.Counter;
+import me.prettyprint.cassandra.utils.Assert;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.SlicePredicate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * A client side cache of slice and column reads, shared by all the
+ * {@link ExecutingKeyspace}s of a keyspace on one connection manager. Caching
+ * is off by default and is enabled one column family at a time with
+ * {@link #enable(String, long, long, TimeUnit)}.
+ *
+ * Entries are keyed by (column family, row key, predicate) and hold the thrift
+ * columns as returned by the server, so every read builds fresh result beans
+ * around them. Each column family is bounded by the approximate size in bytes
+ * of its cached columns, evicting the least recently used rows first, and
+ * entries expire a fixed time after they were loaded.
+ *
+ * Writes executed by a {@link MutatorImpl} on the same keyspace invalidate
+ * every cached predicate of the rows they touch. A read which was in flight
+ * while one of its rows was written does not populate the cache, so a result
+ * fetched before the write can't be stored after the invalidation. Writes made
+ * by other processes are only picked up when entries expire.
+ */
+public final class NearCache {
+
+  private static final int STRIPES = 256;
+  private static final int COLUMN_OVERHEAD = 48;
+
+  private final ConcurrentMap<String, ColumnFamilyCache> caches = new ConcurrentHashMap<String, ColumnFamilyCache>();
+  private final CassandraClientMonitor monitor;
+
+  public NearCache(CassandraClientMonitor monitor) {
+    this.monitor = monitor;
+  }
+
+  /**
+   * Start caching reads of the given column family, replacing any cache
+   * previously enabled for it.
+   * @param columnFamily
+   * @param maxWeightInBytes upper bound of the approximate size of the cached columns
+   * @param ttl how long an entry is served after it was read from the cluster
+   * @param unit unit of the ttl
+   */
+  public void enable(String columnFamily, long maxWeightInBytes, long ttl, TimeUnit unit) {
+    Assert.notNull(columnFamily, "columnFamily is null");
+    Assert.isTrue(maxWeightInBytes > 0, "maxWeightInBytes must be positive");
+    Assert.isTrue(ttl > 0, "ttl must be positive");
+    caches.put(columnFamily, new ColumnFamilyCache(maxWeightInBytes, ttl, unit));
+  }
+
+  public void disable(String columnFamily) {
+    caches.remove(columnFamily);
+  }
+
+  public boolean isEnabled(String columnFamily) {
+    return columnFamily != null && caches.containsKey(columnFamily);
+  }
+
+  /**
+   * Drops every cached entry, leaving caching enabled
+   */
+  public void invalidateAll() {
+    for (ColumnFamilyCache cache : caches.values()) {
+      cache.rows.invalidateAll();
+    }
+  }
+
+  /**
+   * Drops every cached predicate of the row
+   */
+  public void invalidate(String columnFamily, ByteBuffer key) {
+    ColumnFamilyCache cache = caches.get(columnFamily);
+    if ( cache != null ) {
+      cache.invalidate(key);
+    }
+  }
+
+  /**
+   * Invalidates all the rows of a batch_mutate mutation map
+   */
+  public void invalidate(Map<ByteBuffer, ? extends Map<String, ?>> mutationMap) {
+    if ( caches.isEmpty() ) {
+      return;
+    }
+    for (Map.Entry<ByteBuffer, ? extends Map<String, ?>> row : mutationMap.entrySet()) {
+      for (String columnFamily : row.getValue().keySet()) {
+        invalidate(columnFamily, row.getKey());
+      }
+    }
+  }
+
+  /**
+   * Marks the start of a read of the row. The returned stamp has to be handed
+   * back to {@link #put(String, ByteBuffer, SlicePredicate, List, long)}.
+   */
+  public long stamp(String columnFamily, ByteBuffer key) {
+    ColumnFamilyCache cache = caches.get(columnFamily);
+    return cache == null ? 0 : cache.generations.get(cache.stripe(key));
+  }
+
+  /**
+   * @return copies of the cached columns, or null if the read is not cached
+   */
+  public List<Column> get(String columnFamily, ByteBuffer key, SlicePredicate predicate) {
+    ColumnFamilyCache cache = caches.get(columnFamily);
+    if ( cache == null ) {
+      return null;
+    }
+    CachedRow row = cache.rows.getIfPresent(key);
+    List<Column> columns = row == null ? null : row.slices.get(predicate);
+    if ( columns == null ) {
+      incCounter(Counter.NEAR_CACHE_MISS);
+      return null;
+    }
+    incCounter(Counter.NEAR_CACHE_HIT);
+    return copyOf(columns);
+  }
+
+  /**
+   * Caches the result of a read started at the given stamp, unless the row
+   * was written in the meantime.
+   */
+  public void put(String columnFamily, ByteBuffer key, SlicePredicate predicate, List<Column> columns, long stamp) {
+    ColumnFamilyCache cache = caches.get(columnFamily);
+    if ( cache == null || columns == null ) {
+      return;
+    }
+    List<Column> copy = copyOf(columns);
+    // copy the key and predicate, callers are free to reuse them
+    ByteBuffer keyCopy = ByteBuffer.allocate(key.remaining());
+    keyCopy.put(key.duplicate()).flip();
+    CachedRow previous = cache.rows.getIfPresent(keyCopy);
+    Map<SlicePredicate, List<Column>> slices = previous == null
+        ? new HashMap<SlicePredicate, List<Column>>(4)
+        : new HashMap<SlicePredicate, List<Column>>(previous.slices);
+    slices.put(new SlicePredicate(predicate), Collections.unmodifiableList(copy));
+    int stripe = cache.stripe(keyCopy);
+    if ( cache.generations.get(stripe) == stamp ) {
+      cache.rows.put(keyCopy, new CachedRow(slices));
+      // a write which raced the put either bumped the generation by now or
+      // invalidates the row after it
+      if ( cache.generations.get(stripe) != stamp ) {
+        cache.rows.invalidate(keyCopy);
+      }
+    }
+  }
+
+  public long getHitCount() {
+    return monitor == null ? 0 : monitor.getNearCacheHitCount();
+  }
+
+  public long getMissCount() {
+    return monitor == null ? 0 : monitor.getNearCacheMissCount();
+  }
+
+  /**
+   * @return number of rows cached for the column family
+   */
+  public long size(String columnFamily) {
+    ColumnFamilyCache cache = caches.get(columnFamily);
+    return cache == null ? 0 : cache.rows.size();
+  }
+
+  private void incCounter(Counter counter) {
+    if ( monitor != null ) {
+      monitor.incCounter(counter);
+    }
+  }
+
+  /**
+   * Copies the thrift columns so that the {@link HColumnImpl}s built around
+   * them can be modified without affecting other readers
+   */
+  static List<Column> copyOf(List<Column> columns) {
+    List<Column> copy = new ArrayList<Column>(columns.size());
+    for (Column column : columns) {
+      copy.add(copyOf(column));
+    }
+    return copy;
+  }
+
+  private static Column copyOf(Column column) {
+    // buffers are shared, they are only ever read through duplicates
+    Column copy = new Column(column.name);
+    copy.setValue(column.value);
+    if ( column.isSetTimestamp() ) {
+      copy.setTimestamp(column.timestamp);
+    }
+    if ( column.isSetTtl() ) {
+      copy.setTtl(column.ttl);
+    }
+    return copy;
+  }
+
+  private static final class ColumnFamilyCache {
+
+    private final Cache<ByteBuffer, CachedRow> rows;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    ColumnFamilyCache(long maxWeight, long ttl, TimeUnit unit) {
+      rows = CacheBuilder.newBuilder()
+          .maximumWeight(maxWeight)
+          .weigher(new Weigher<ByteBuffer, CachedRow>() {
+            @Override
+            public int weigh(ByteBuffer key, CachedRow row) {
+              return key.remaining() + row.weight;
+            }
+          })
+          .expireAfterWrite(ttl, unit)
+          .build();
+    }
+
+    int stripe(ByteBuffer key) {
+      return (key.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    void invalidate(ByteBuffer key) {
+      generations.incrementAndGet(stripe(key));
+      rows.invalidate(key);
+    }
+  }
+
+  private static final class CachedRow {
+
+    private final Map<SlicePredicate, List<Column>> slices;
+    private final int weight;
+
+    CachedRow(Map<SlicePredicate, List<Column>> slices) {
+      this.slices = slices;
+      int w = 0;
+      for (Collection<Column> columns : slices.values()) {
+        for (Column column : columns) {
+          w += COLUMN_OVERHEAD + remaining(column.name) + remaining(column.value);
+        }
+      }
+      this.weight = w;
+    }
+
+    private static int remaining(ByteBuffer buffer) {
+      return buffer == null ? 0 : buffer.remaining();
+    }
+  }
+}
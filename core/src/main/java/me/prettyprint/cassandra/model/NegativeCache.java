@@ -0,0 +1,260 @@
+package me.prettyprint.cassandra.model;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+import me.prettyprint.cassandra.service.CassandraClientMonitor.Counter;
+import me.prettyprint.cassandra.utils.Assert;
+
+import org.apache.cassandra.thrift.SlicePredicate;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.PrimitiveSink;
+
+/**
+ * Remembers reads which came back empty so that repeating them within a
+ * bounded staleness is answered locally. Meant for lookups of keys which
+ * mostly don't exist, such as dedupe probes: the filter holds (row key,
+ * predicate) pairs in a fixed amount of memory, however many distinct keys
+ * are probed.
+ *
+ * Each enabled column family keeps two Bloom filters, the current one being
+ * filled and the previous one. The previous filter is dropped and the
+ * current one takes its place every half staleness, so an empty result is
+ * served for at least half and at most the full staleness bound.
+ *
+ * Being a Bloom filter, a read which was never seen empty is answered as
+ * empty with the configured false positive probability. Column families
+ * where that is not acceptable should not enable it.
+ *
+ * Writes executed through a {@link MutatorImpl} on the same keyspace take
+ * precedence over the filters, so a row written locally is not reported
+ * missing because of a read made before the write. They are remembered as
+ * the time of the latest write to each of a fixed number of stripes of row
+ * keys, which also hides the empty reads of the other rows of the stripe:
+ * column families written to faster than that get few hits, but memory
+ * does not grow with the writes. Writes made by other processes are picked
+ * up when the filters roll over.
+ */
+public final class NegativeCache {
+
+  private static final int WRITE_STRIPES = 4096;
+
+  private final ConcurrentMap<String, ColumnFamilyFilter> filters = new ConcurrentHashMap<String, ColumnFamilyFilter>();
+  private final CassandraClientMonitor monitor;
+
+  public NegativeCache(CassandraClientMonitor monitor) {
+    this.monitor = monitor;
+  }
+
+  /**
+   * Start remembering empty reads of the given column family, replacing any
+   * filter previously enabled for it.
+   * @param columnFamily
+   * @param expectedInsertions number of distinct empty reads expected in half the staleness
+   * @param fpp desired false positive probability at that number of insertions
+   * @param staleness how long an empty result may be served after it was read
+   * @param unit unit of the staleness
+   */
+  public void enable(String columnFamily, int expectedInsertions, double fpp, long staleness, TimeUnit unit) {
+    Assert.notNull(columnFamily, "columnFamily is null");
+    Assert.isTrue(expectedInsertions > 0, "expectedInsertions must be positive");
+    Assert.isTrue(fpp > 0.0 && fpp < 1.0, "fpp must be between 0 and 1");
+    Assert.isTrue(staleness > 0, "staleness must be positive");
+    filters.put(columnFamily, new ColumnFamilyFilter(expectedInsertions, fpp, unit.toNanos(staleness)));
+  }
+
+  public void disable(String columnFamily) {
+    filters.remove(columnFamily);
+  }
+
+  public boolean isEnabled(String columnFamily) {
+    return columnFamily != null && filters.containsKey(columnFamily);
+  }
+
+  /**
+   * @return true if the read came back empty within the staleness bound
+   */
+  public boolean isKnownEmpty(String columnFamily, ByteBuffer key, SlicePredicate predicate) {
+    ColumnFamilyFilter filter = filters.get(columnFamily);
+    if ( filter == null || !filter.mightContain(new Read(key, predicate)) ) {
+      return false;
+    }
+    if ( filter.writtenSince(key, filter.oldestStart()) ) {
+      return false;
+    }
+    if ( monitor != null ) {
+      monitor.incCounter(Counter.NEGATIVE_CACHE_HIT);
+    }
+    return true;
+  }
+
+  /**
+   * Marks the start of a read, to be handed back to
+   * {@link #putEmpty(String, ByteBuffer, SlicePredicate, long)}
+   */
+  public long stamp() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Remembers a read which came back empty, unless its row was written
+   * after the read started.
+   */
+  public void putEmpty(String columnFamily, ByteBuffer key, SlicePredicate predicate, long stamp) {
+    ColumnFamilyFilter filter = filters.get(columnFamily);
+    // reads older than the filters may have missed a write already forgotten
+    if ( filter == null || stamp - filter.oldestStart() < 0 || filter.writtenSince(key, stamp) ) {
+      return;
+    }
+    filter.put(new Read(key, predicate));
+  }
+
+  /**
+   * Records a write to the row, so that none of its reads is answered empty
+   * from the filters built so far
+   */
+  public void invalidate(String columnFamily, ByteBuffer key) {
+    ColumnFamilyFilter filter = filters.get(columnFamily);
+    if ( filter != null ) {
+      filter.written(key);
+    }
+  }
+
+  /**
+   * Records the writes of all the rows of a batch_mutate mutation map
+   */
+  public void invalidate(Map<ByteBuffer, ? extends Map<String, ?>> mutationMap) {
+    if ( filters.isEmpty() ) {
+      return;
+    }
+    for (Map.Entry<ByteBuffer, ? extends Map<String, ?>> row : mutationMap.entrySet()) {
+      for (String columnFamily : row.getValue().keySet()) {
+        invalidate(columnFamily, row.getKey());
+      }
+    }
+  }
+
+  private static final class Read {
+    private final ByteBuffer key;
+    private final int predicateHash;
+
+    Read(ByteBuffer key, SlicePredicate predicate) {
+      this.key = key;
+      this.predicateHash = predicate.hashCode();
+    }
+  }
+
+  private enum ReadFunnel implements Funnel<Read> {
+    INSTANCE;
+
+    @Override
+    public void funnel(Read read, PrimitiveSink into) {
+      ByteBuffer key = read.key;
+      if ( key.hasArray() ) {
+        into.putBytes(key.array(), key.arrayOffset() + key.position(), key.remaining());
+      } else {
+        for (int i = key.position(); i < key.limit(); i++) {
+          into.putByte(key.get(i));
+        }
+      }
+      into.putInt(read.predicateHash);
+    }
+  }
+
+  private static final class ColumnFamilyFilter {
+
+    private final int expectedInsertions;
+    private final double fpp;
+    private final long stalenessNanos;
+    private final long halfStalenessNanos;
+    private final AtomicLongArray writes = new AtomicLongArray(WRITE_STRIPES);
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    ColumnFamilyFilter(int expectedInsertions, double fpp, long stalenessNanos) {
+      this.expectedInsertions = expectedInsertions;
+      this.fpp = fpp;
+      this.stalenessNanos = stalenessNanos;
+      this.halfStalenessNanos = Math.max(1, stalenessNanos / 2);
+      long now = System.nanoTime();
+      this.current = new Generation(BloomFilter.create(ReadFunnel.INSTANCE, expectedInsertions, fpp), now);
+      // no stripe was written since any read this filter can be handed
+      for (int i = 0; i < WRITE_STRIPES; i++) {
+        writes.set(i, now - 1);
+      }
+    }
+
+    boolean mightContain(Read read) {
+      long now = roll();
+      if ( current.filter.mightContain(read) ) {
+        return true;
+      }
+      // everything in the previous filter was read after it started
+      Generation prev = previous;
+      return prev != null && now - prev.start < stalenessNanos && prev.filter.mightContain(read);
+    }
+
+    void put(Read read) {
+      roll();
+      Generation gen = current;
+      synchronized (gen) {
+        gen.filter.put(read);
+      }
+    }
+
+    long oldestStart() {
+      Generation prev = previous;
+      return prev != null ? prev.start : current.start;
+    }
+
+    void written(ByteBuffer key) {
+      int stripe = stripe(key);
+      long now = System.nanoTime();
+      long writtenAt;
+      do {
+        writtenAt = writes.get(stripe);
+      } while ( writtenAt - now < 0 && !writes.compareAndSet(stripe, writtenAt, now) );
+    }
+
+    boolean writtenSince(ByteBuffer key, long since) {
+      return writes.get(stripe(key)) - since >= 0;
+    }
+
+    private static int stripe(ByteBuffer key) {
+      return (key.hashCode() & 0x7fffffff) % WRITE_STRIPES;
+    }
+
+    private long roll() {
+      long now = System.nanoTime();
+      if ( now - current.start < halfStalenessNanos ) {
+        return now;
+      }
+      synchronized (this) {
+        Generation gen = current;
+        if ( now - gen.start < halfStalenessNanos ) {
+          return now;
+        }
+        previous = gen;
+        current = new Generation(BloomFilter.create(ReadFunnel.INSTANCE, expectedInsertions, fpp), now);
+      }
+      return now;
+    }
+  }
+
+  private static final class Generation {
+    private final BloomFilter<Read> filter;
+    private final long start;
+
+    Generation(BloomFilter<Read> filter, long start) {
+      this.filter = filter;
+      this.start = start;
+    }
+  }
+}
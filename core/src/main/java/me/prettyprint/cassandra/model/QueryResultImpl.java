@@ -20,7 +20,7 @@ public final class QueryResultImpl<T> extends ExecutionResult<T> implements Quer
   }
 
   public QueryResultImpl(ExecutionResult<T> res, Query<T> query) {
-    super(res.get(), res.getExecutionTimeNano(), res.getHostUsed());
+    super(res.get(), res.getExecutionTimeNano(), res.getHostUsed(), res.getTimings());
     this.query = query;
   }
 
@@ -0,0 +1,128 @@
+package me.prettyprint.cassandra.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+import me.prettyprint.cassandra.service.CassandraClientMonitor.Counter;
+import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.hector.api.HConsistencyLevel;
+import me.prettyprint.hector.api.exceptions.HectorException;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.SlicePredicate;
+
+/**
+ * Collapses identical slice and column reads issued concurrently into a single
+ * request to the cluster. While a read of (column family, row key, predicate,
+ * consistency level) is in flight, threads issuing the same read wait for it
+ * and share its result instead of borrowing their own connection. Threads
+ * which arrive after the read completed issue a new one.
+ *
+ * Coalescing is off by default and is enabled one column family at a time.
+ * Only reads go through here, writes are never coalesced. Every caller gets
+ * its own copies of the thrift columns, and all of them see the exception of
+ * the shared read if it failed.
+ */
+public final class ReadCoalescer {
+
+  private final Set<String> columnFamilies =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  private final ConcurrentMap<List<Object>, FutureTask<List<Column>>> inFlight =
+      new ConcurrentHashMap<List<Object>, FutureTask<List<Column>>>();
+  private final CassandraClientMonitor monitor;
+
+  public ReadCoalescer(CassandraClientMonitor monitor) {
+    this.monitor = monitor;
+  }
+
+  public void enable(String columnFamily) {
+    Assert.notNull(columnFamily, "columnFamily is null");
+    columnFamilies.add(columnFamily);
+  }
+
+  public void disable(String columnFamily) {
+    columnFamilies.remove(columnFamily);
+  }
+
+  public boolean isEnabled(String columnFamily) {
+    return columnFamily != null && columnFamilies.contains(columnFamily);
+  }
+
+  /**
+   * Runs the read, or waits for the identical one already in flight
+   * @param columnFamily
+   * @param key serialized row key
+   * @param predicate the predicate of the read
+   * @param consistencyLevel the consistency level the read is executed at
+   * @param read issues the read to the cluster
+   * @return the columns read
+   */
+  public List<Column> read(String columnFamily, ByteBuffer key, SlicePredicate predicate,
+      HConsistencyLevel consistencyLevel, Callable<List<Column>> read) {
+    if ( !isEnabled(columnFamily) ) {
+      return call(read);
+    }
+    List<Object> id = Arrays.<Object>asList(columnFamily, key, predicate, consistencyLevel);
+    FutureTask<List<Column>> task = new FutureTask<List<Column>>(read);
+    FutureTask<List<Column>> running = inFlight.putIfAbsent(id, task);
+    if ( running == null ) {
+      try {
+        task.run();
+      } finally {
+        inFlight.remove(id, task);
+      }
+      return copyOf(result(task));
+    }
+    if ( monitor != null ) {
+      monitor.incCounter(Counter.COALESCED_READS);
+    }
+    return copyOf(result(running));
+  }
+
+  /**
+   * @return number of distinct reads currently in flight
+   */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private static List<Column> copyOf(List<Column> columns) {
+    return columns == null ? null : NearCache.copyOf(columns);
+  }
+
+  private static List<Column> call(Callable<List<Column>> read) {
+    try {
+      return read.call();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HectorException(e);
+    }
+  }
+
+  private static List<Column> result(FutureTask<List<Column>> task) {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HectorException(e);
+    } catch (ExecutionException e) {
+      if ( e.getCause() instanceof RuntimeException ) {
+        throw (RuntimeException) e.getCause();
+      }
+      if ( e.getCause() instanceof Error ) {
+        throw (Error) e.getCause();
+      }
+      throw new HectorException(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package me.prettyprint.cassandra.model.thrift;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import me.prettyprint.cassandra.model.AbstractSliceQuery;
+import me.prettyprint.cassandra.model.KeyspaceOperationCallback;
+import me.prettyprint.cassandra.model.QueryResultImpl;
+import me.prettyprint.cassandra.serializers.ByteBufferSerializer;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.service.KeyspaceService;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.exceptions.HectorException;
+import me.prettyprint.hector.api.query.QueryResult;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.ColumnParent;
+import org.apache.cassandra.thrift.SlicePredicate;
+
+/**
+ * A get_slice query on a LongType column family whose result keeps the
+ * columns in primitive arrays, see
+ * {@link me.prettyprint.cassandra.model.AbstractLongColumnSlice}.
+ *
+ * @param <K> row key type
+ * @param <T> slice type
+ */
+public abstract class AbstractLongSliceQuery<K, T> extends AbstractSliceQuery<K, Long, ByteBuffer, T> {
+
+  private K key;
+
+  protected AbstractLongSliceQuery(Keyspace k, Serializer<K> keySerializer) {
+    super(k, keySerializer, LongSerializer.get(), ByteBufferSerializer.get());
+  }
+
+  public AbstractLongSliceQuery<K, T> setKey(K key) {
+    this.key = key;
+    return this;
+  }
+
+  public AbstractLongSliceQuery<K, T> setRange(long start, long finish, boolean reversed, int count) {
+    slicePredicate.setRange(start, finish, reversed, count);
+    return this;
+  }
+
+  @Override
+  public AbstractLongSliceQuery<K, T> setColumnFamily(String cf) {
+    super.setColumnFamily(cf);
+    return this;
+  }
+
+  @Override
+  public QueryResult<T> execute() {
+    return new QueryResultImpl<T>(keyspace.doExecute(
+        new KeyspaceOperationCallback<T>() {
+          @Override
+          public T doInKeyspace(final KeyspaceService ks) throws HectorException {
+            final ByteBuffer keyBytes = keySerializer.toByteBuffer(key);
+            final SlicePredicate predicate = getPredicate();
+            List<Column> thriftRet = keyspace.readThrough(columnFamilyName, keyBytes, predicate,
+                new Callable<List<Column>>() {
+                  @Override
+                  public List<Column> call() {
+                    return ks.getSlice(keyBytes, new ColumnParent(columnFamilyName), predicate);
+                  }
+                });
+            return toSlice(thriftRet, slicePredicate.isReversed());
+          }
+        }), this);
+  }
+
+  protected abstract T toSlice(List<Column> columns, boolean reversed);
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" + key + "," + toStringInternal() + ")";
+  }
+}
@@ -1,5 +1,10 @@
 package me.prettyprint.cassandra.model.thrift;
 
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
 import me.prettyprint.cassandra.model.AbstractColumnQuery;
 import me.prettyprint.cassandra.model.HColumnImpl;
 import me.prettyprint.cassandra.model.KeyspaceOperationCallback;
@@ -16,6 +21,7 @@ import me.prettyprint.hector.api.query.ColumnQuery;
 import me.prettyprint.hector.api.query.QueryResult;
 
 import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.SlicePredicate;
 
 /**
  * Thrift implementation of the ColumnQuery type.
@@ -52,14 +58,35 @@ public class ThriftColumnQuery<K, N, V> extends AbstractColumnQuery<K, N, V> imp
         keyspace.doExecute(new KeyspaceOperationCallback<HColumn<N, V>>() {
 
           @Override
-          public HColumn<N, V> doInKeyspace(KeyspaceService ks) throws HectorException {
-            try {
-              Column thriftColumn = ks.getColumn(keySerializer.toByteBuffer(key),
-                  ThriftFactory.createColumnPath(columnFamilyName, name, columnNameSerializer));
-              return new HColumnImpl<N, V>(thriftColumn, columnNameSerializer, valueSerializer);
-            } catch (HNotFoundException e) {
-              return null;
+          public HColumn<N, V> doInKeyspace(final KeyspaceService ks) throws HectorException {
+            final ByteBuffer keyBytes = keySerializer.toByteBuffer(key);
+            if ( !keyspace.isReadThrough(columnFamilyName) ) {
+              try {
+                Column thriftColumn = ks.getColumn(keyBytes,
+                    ThriftFactory.createColumnPath(columnFamilyName, name, columnNameSerializer));
+                return new HColumnImpl<N, V>(thriftColumn, columnNameSerializer, valueSerializer);
+              } catch (HNotFoundException e) {
+                return null;
+              }
             }
+            // read through the caches as a slice of that single name, a
+            // missing column being an empty slice
+            SlicePredicate predicate = new SlicePredicate();
+            predicate.addToColumn_names(columnNameSerializer.toByteBuffer(name));
+            List<Column> columns = keyspace.readThrough(columnFamilyName, keyBytes, predicate,
+                new Callable<List<Column>>() {
+                  @Override
+                  public List<Column> call() {
+                    try {
+                      return Collections.singletonList(ks.getColumn(keyBytes,
+                          ThriftFactory.createColumnPath(columnFamilyName, name, columnNameSerializer)));
+                    } catch (HNotFoundException e) {
+                      return Collections.emptyList();
+                    }
+                  }
+                });
+            return columns.isEmpty() ? null
+                : new HColumnImpl<N, V>(columns.get(0), columnNameSerializer, valueSerializer);
           }
         }), this);
   }
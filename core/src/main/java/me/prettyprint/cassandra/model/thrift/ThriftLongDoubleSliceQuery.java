@@ -0,0 +1,26 @@
+package me.prettyprint.cassandra.model.thrift;
+
+import java.util.List;
+
+import me.prettyprint.cassandra.model.LongDoubleColumnSlice;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.Serializer;
+
+import org.apache.cassandra.thrift.Column;
+
+/**
+ * A get_slice query returning a {@link LongDoubleColumnSlice}
+ *
+ * @param <K> row key type
+ */
+public final class ThriftLongDoubleSliceQuery<K> extends AbstractLongSliceQuery<K, LongDoubleColumnSlice> {
+
+  public ThriftLongDoubleSliceQuery(Keyspace k, Serializer<K> keySerializer) {
+    super(k, keySerializer);
+  }
+
+  @Override
+  protected LongDoubleColumnSlice toSlice(List<Column> columns, boolean reversed) {
+    return new LongDoubleColumnSlice(columns, reversed);
+  }
+}
@@ -0,0 +1,26 @@
+package me.prettyprint.cassandra.model.thrift;
+
+import java.util.List;
+
+import me.prettyprint.cassandra.model.LongLongColumnSlice;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.Serializer;
+
+import org.apache.cassandra.thrift.Column;
+
+/**
+ * A get_slice query returning a {@link LongLongColumnSlice}
+ *
+ * @param <K> row key type
+ */
+public final class ThriftLongLongSliceQuery<K> extends AbstractLongSliceQuery<K, LongLongColumnSlice> {
+
+  public ThriftLongLongSliceQuery(Keyspace k, Serializer<K> keySerializer) {
+    super(k, keySerializer);
+  }
+
+  @Override
+  protected LongLongColumnSlice toSlice(List<Column> columns, boolean reversed) {
+    return new LongLongColumnSlice(columns, reversed);
+  }
+}
@@ -8,6 +8,7 @@ import java.util.Map;
 
 import me.prettyprint.cassandra.model.AbstractSliceQuery;
 import me.prettyprint.cassandra.model.KeyspaceOperationCallback;
+import me.prettyprint.cassandra.model.LazyRowsImpl;
 import me.prettyprint.cassandra.model.QueryResultImpl;
 import me.prettyprint.cassandra.model.RowsImpl;
 import me.prettyprint.cassandra.service.KeyspaceService;
@@ -15,6 +16,7 @@ import me.prettyprint.cassandra.utils.Assert;
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.Rows;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 import me.prettyprint.hector.api.exceptions.HectorException;
 import me.prettyprint.hector.api.query.MultigetSliceQuery;
 import me.prettyprint.hector.api.query.QueryResult;
@@ -65,8 +67,12 @@ public final class ThriftMultigetSliceQuery<K, N, V> extends AbstractSliceQuery<
                 keysList.add(keySerializer.toByteBuffer(k));
             }
             ColumnParent columnParent = new ColumnParent(columnFamilyName);
-            Map<K, List<Column>> thriftRet = keySerializer.fromBytesMap(
-                ks.multigetSlice(keysList, columnParent, getPredicate()));
+            Map<ByteBuffer, List<Column>> rawRet = ks.multigetSlice(keysList, columnParent, getPredicate());
+            if ( lazyResults ) {
+              return new LazyRowsImpl<K, N, V>(rawRet, keySerializer, columnNameSerializer, valueSerializer,
+                  lazyNameComparator, slicePredicate.isReversed());
+            }
+            Map<K, List<Column>> thriftRet = keySerializer.fromBytesMap(rawRet);
             return new RowsImpl<K, N, V>(thriftRet, columnNameSerializer, valueSerializer);
           }
         }), this);
@@ -90,6 +96,18 @@ public final class ThriftMultigetSliceQuery<K, N, V> extends AbstractSliceQuery<
     return (MultigetSliceQuery<K, N, V>) super.setRange(start, finish, reversed, count);
   }
 
+  @Override
+  public ThriftMultigetSliceQuery<K, N, V> setLazyResults(boolean lazyResults) {
+    super.setLazyResults(lazyResults);
+    return this;
+  }
+
+  @Override
+  public ThriftMultigetSliceQuery<K, N, V> setLazyResults(ComparatorType nameComparator) {
+    super.setLazyResults(nameComparator);
+    return this;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public MultigetSliceQuery<K, N, V> setColumnFamily(String cf) {
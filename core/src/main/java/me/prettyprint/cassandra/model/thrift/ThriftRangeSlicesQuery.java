@@ -1,5 +1,6 @@
 package me.prettyprint.cassandra.model.thrift;
 
+import java.nio.ByteBuffer;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -7,6 +8,7 @@ import java.util.Map;
 import me.prettyprint.cassandra.model.AbstractSliceQuery;
 import me.prettyprint.cassandra.model.HKeyRange;
 import me.prettyprint.cassandra.model.KeyspaceOperationCallback;
+import me.prettyprint.cassandra.model.LazyRowsImpl;
 import me.prettyprint.cassandra.model.OrderedRowsImpl;
 import me.prettyprint.cassandra.model.QueryResultImpl;
 import me.prettyprint.cassandra.service.KeyspaceService;
@@ -14,6 +16,7 @@ import me.prettyprint.cassandra.utils.Assert;
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.OrderedRows;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 import me.prettyprint.hector.api.exceptions.HectorException;
 import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.RangeSlicesQuery;
@@ -77,8 +80,12 @@ public final class ThriftRangeSlicesQuery<K, N,V> extends AbstractSliceQuery<K,
           @Override
           public OrderedRows<K, N,V > doInKeyspace(KeyspaceService ks) throws HectorException {
             ColumnParent columnParent = new ColumnParent(columnFamilyName);
-            Map<K, List<Column>> thriftRet = keySerializer.fromBytesMap(
-                ks.getRangeSlices(columnParent, getPredicate(), keyRange.toThrift()));
+            Map<ByteBuffer, List<Column>> rawRet = ks.getRangeSlices(columnParent, getPredicate(), keyRange.toThrift());
+            if ( lazyResults ) {
+              return new LazyRowsImpl<K,N,V>(rawRet, keySerializer, columnNameSerializer, valueSerializer,
+                  lazyNameComparator, slicePredicate.isReversed());
+            }
+            Map<K, List<Column>> thriftRet = keySerializer.fromBytesMap(rawRet);
             return new OrderedRowsImpl<K,N,V>((LinkedHashMap<K, List<Column>>) thriftRet, columnNameSerializer, valueSerializer);
           }
         }), this);
@@ -113,6 +120,18 @@ public final class ThriftRangeSlicesQuery<K, N,V> extends AbstractSliceQuery<K,
     return this;
   }
   
+  @Override
+  public ThriftRangeSlicesQuery<K, N, V> setLazyResults(boolean lazyResults) {
+    super.setLazyResults(lazyResults);
+    return this;
+  }
+
+  @Override
+  public ThriftRangeSlicesQuery<K, N, V> setLazyResults(ComparatorType nameComparator) {
+    super.setLazyResults(nameComparator);
+    return this;
+  }
+
   @Override
   public ThriftRangeSlicesQuery<K, N, V> addEqualsExpression(N columnName, V columnValue) {
     keyRange.addToExpressions(new IndexExpression(columnNameSerializer.toByteBuffer(columnName),
@@ -1,21 +1,26 @@
 package me.prettyprint.cassandra.model.thrift;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import me.prettyprint.cassandra.model.AbstractSliceQuery;
 import me.prettyprint.cassandra.model.ColumnSliceImpl;
 import me.prettyprint.cassandra.model.KeyspaceOperationCallback;
+import me.prettyprint.cassandra.model.LazyColumnSliceImpl;
 import me.prettyprint.cassandra.model.QueryResultImpl;
 import me.prettyprint.cassandra.service.KeyspaceService;
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 import me.prettyprint.hector.api.exceptions.HectorException;
 import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.SliceQuery;
 
 import org.apache.cassandra.thrift.Column;
 import org.apache.cassandra.thrift.ColumnParent;
+import org.apache.cassandra.thrift.SlicePredicate;
 
 /**
  * A query for the thrift call get_slice
@@ -48,9 +53,20 @@ public final class ThriftSliceQuery<K, N, V> extends AbstractSliceQuery<K, N, V,
     return new QueryResultImpl<ColumnSlice<N, V>>(keyspace.doExecute(
         new KeyspaceOperationCallback<ColumnSlice<N, V>>() {
           @Override
-          public ColumnSlice<N, V> doInKeyspace(KeyspaceService ks) throws HectorException {
-            ColumnParent columnParent = new ColumnParent(columnFamilyName);
-            List<Column> thriftRet = ks.getSlice(keySerializer.toByteBuffer(key), columnParent, getPredicate());
+          public ColumnSlice<N, V> doInKeyspace(final KeyspaceService ks) throws HectorException {
+            final ByteBuffer keyBytes = keySerializer.toByteBuffer(key);
+            final SlicePredicate predicate = getPredicate();
+            List<Column> thriftRet = keyspace.readThrough(columnFamilyName, keyBytes, predicate,
+                new Callable<List<Column>>() {
+                  @Override
+                  public List<Column> call() {
+                    return ks.getSlice(keyBytes, new ColumnParent(columnFamilyName), predicate);
+                  }
+                });
+            if ( lazyResults ) {
+              return new LazyColumnSliceImpl<N, V>(thriftRet, columnNameSerializer, valueSerializer,
+                  lazyNameComparator, slicePredicate.isReversed());
+            }
             return new ColumnSliceImpl<N, V>(thriftRet, columnNameSerializer, valueSerializer);
           }
         }), this);
@@ -73,6 +89,18 @@ public final class ThriftSliceQuery<K, N, V> extends AbstractSliceQuery<K, N, V,
     return (SliceQuery<K, N, V>) super.setRange(start, finish, reversed, count);
   }
 
+  @Override
+  public ThriftSliceQuery<K, N, V> setLazyResults(boolean lazyResults) {
+    super.setLazyResults(lazyResults);
+    return this;
+  }
+
+  @Override
+  public ThriftSliceQuery<K, N, V> setLazyResults(ComparatorType nameComparator) {
+    super.setLazyResults(nameComparator);
+    return this;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public SliceQuery<K, N, V> setColumnFamily(String cf) {
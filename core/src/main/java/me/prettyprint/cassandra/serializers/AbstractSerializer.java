@@ -11,19 +11,24 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.cassandra.utils.ByteBufferSlab;
+import me.prettyprint.hector.api.BufferSerializer;
 import me.prettyprint.hector.api.ddl.ComparatorType;
 
 /**
  * A base class for serializer implementations. Takes care of the default
  * implementations of to/fromBytesList and to/fromBytesMap. Extenders of this
- * class only need to implement the toBytes and fromBytes.
+ * class only need to implement the toBytes and fromBytes. The
+ * {@link BufferSerializer} methods fall back to them, and are worth
+ * overriding where a value can be written without an intermediate buffer:
+ * the bulk toBytesList, toBytesSet and toBytesMap then write all the
+ * elements into one buffer and hand out slices of it.
  * 
  * @author Ed Anuff
  * 
  * @param <T>
  */
-public abstract class AbstractSerializer<T> implements Serializer<T> {
+public abstract class AbstractSerializer<T> implements BufferSerializer<T> {
 
   @Override
   public abstract ByteBuffer toByteBuffer(T obj);
@@ -53,6 +58,39 @@ public abstract class AbstractSerializer<T> implements Serializer<T> {
   @Override
   public abstract T fromByteBuffer(ByteBuffer byteBuffer);
 
+  @Override
+  public int serializedSize(T obj) {
+    ByteBuffer bb = toByteBuffer(obj);
+    return bb == null ? 0 : bb.remaining();
+  }
+
+  @Override
+  public int writeTo(T obj, ByteBuffer out) {
+    ByteBuffer bb = toByteBuffer(obj);
+    if (bb == null) {
+      return 0;
+    }
+    int length = bb.remaining();
+    out.put(bb.duplicate());
+    return length;
+  }
+
+  @Override
+  public T read(ByteBuffer buffer, int offset, int length) {
+    return fromByteBuffer(slice(buffer, offset, length));
+  }
+
+  /**
+   * @return a view of length bytes of buffer at the absolute offset
+   */
+  static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer slice = buffer.duplicate();
+    slice.clear();
+    slice.position(offset);
+    slice.limit(offset + length);
+    return slice;
+  }
+
   /*
    * public T fromByteBuffer(ByteBuffer byteBuffer) { return
    * fromBytes(byteBuffer.array()); }
@@ -65,9 +103,7 @@ public abstract class AbstractSerializer<T> implements Serializer<T> {
   public Set<ByteBuffer> toBytesSet(List<T> list) {
     Set<ByteBuffer> bytesList = new HashSet<ByteBuffer>(
         computeInitialHashSize(list.size()));
-    for (T s : list) {
-      bytesList.add(toByteBuffer(s));
-    }
+    bytesList.addAll(ByteBufferSlab.pack(list, this));
     return bytesList;
   }
 
@@ -82,11 +118,7 @@ public abstract class AbstractSerializer<T> implements Serializer<T> {
 
   @Override
   public List<ByteBuffer> toBytesList(List<T> list) {
-    List<ByteBuffer> bytesList = new ArrayList<ByteBuffer>(list.size());
-    for (T s : list) {
-      bytesList.add(toByteBuffer(s));
-    }
-    return bytesList;
+    return ByteBufferSlab.pack(list, this);
   }
 
   @Override
@@ -102,8 +134,14 @@ public abstract class AbstractSerializer<T> implements Serializer<T> {
   public <V> Map<ByteBuffer, V> toBytesMap(Map<T, V> map) {
     Map<ByteBuffer, V> bytesMap = new LinkedHashMap<ByteBuffer, V>(
         computeInitialHashSize(map.size()));
-    for (Entry<T, V> entry : map.entrySet()) {
-      bytesMap.put(toByteBuffer(entry.getKey()), entry.getValue());
+    List<Entry<T, V>> entries = new ArrayList<Entry<T, V>>(map.entrySet());
+    List<T> keys = new ArrayList<T>(entries.size());
+    for (Entry<T, V> entry : entries) {
+      keys.add(entry.getKey());
+    }
+    List<ByteBuffer> bytes = ByteBufferSlab.pack(keys, this);
+    for (int i = 0; i < entries.size(); i++) {
+      bytesMap.put(bytes.get(i), entries.get(i).getValue());
     }
     return bytesMap;
   }
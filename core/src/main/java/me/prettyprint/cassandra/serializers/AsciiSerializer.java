@@ -3,7 +3,6 @@ package me.prettyprint.cassandra.serializers;
 import static me.prettyprint.hector.api.ddl.ComparatorType.ASCIITYPE;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
 
 import me.prettyprint.hector.api.ddl.ComparatorType;
 
@@ -15,20 +14,37 @@ import me.prettyprint.hector.api.ddl.ComparatorType;
  */
 public final class AsciiSerializer extends AbstractSerializer<String> {
 
-  private static final String US_ASCII = "US-ASCII";
   private static final AsciiSerializer instance = new AsciiSerializer();
-  private static final Charset charset = Charset.forName(US_ASCII);
+
+  private final NameCache names;
+
+  public AsciiSerializer() {
+    this.names = null;
+  }
+
+  private AsciiSerializer(NameCache names) {
+    this.names = names;
+  }
 
   public static AsciiSerializer get() {
     return instance;
   }
 
+  /**
+   * The ascii counterpart of {@link StringSerializer#interning(int)}.
+   */
+  public static AsciiSerializer interning(int capacity) {
+    return new AsciiSerializer(new NameCache(capacity, true));
+  }
+
   @Override
   public String fromByteBuffer(ByteBuffer byteBuffer) {
     if (byteBuffer == null) {
       return null;
     }
-    return charset.decode(byteBuffer).toString();
+    String s = read(byteBuffer, byteBuffer.position(), byteBuffer.remaining());
+    byteBuffer.position(byteBuffer.limit());
+    return s;
   }
 
   @Override
@@ -36,7 +52,33 @@ public final class AsciiSerializer extends AbstractSerializer<String> {
     if (obj == null) {
       return null;
     }
-    return ByteBuffer.wrap(obj.getBytes(charset));
+    ByteBuffer bb = ByteBuffer.allocate(serializedSize(obj));
+    writeTo(obj, bb);
+    bb.flip();
+    return bb;
+  }
+
+  @Override
+  public int serializedSize(String obj) {
+    return obj == null ? 0 : obj.length();
+  }
+
+  @Override
+  public int writeTo(String obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    int start = out.position();
+    StringCodec.writeAscii(obj, out);
+    return out.position() - start;
+  }
+
+  @Override
+  public String read(ByteBuffer buffer, int offset, int length) {
+    if (names != null) {
+      return names.read(buffer, offset, length);
+    }
+    return StringCodec.readAscii(buffer, offset, length);
   }
 
   @Override
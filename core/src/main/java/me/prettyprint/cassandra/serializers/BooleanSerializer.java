@@ -37,4 +37,26 @@ public final class BooleanSerializer extends AbstractSerializer<Boolean> {
     return b == (byte) 1;
   }
 
+  @Override
+  public int serializedSize(Boolean obj) {
+    return obj == null ? 0 : 1;
+  }
+
+  @Override
+  public int writeTo(Boolean obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.put(obj ? (byte) 1 : (byte) 0);
+    return 1;
+  }
+
+  @Override
+  public Boolean read(ByteBuffer buffer, int offset, int length) {
+    if (length < 1) {
+      return null;
+    }
+    return buffer.get(offset) == (byte) 1;
+  }
+
 }
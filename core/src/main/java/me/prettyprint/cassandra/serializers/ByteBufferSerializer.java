@@ -57,4 +57,25 @@ public final class ByteBufferSerializer extends AbstractSerializer<ByteBuffer>{
   public <V> Map<ByteBuffer, V> fromBytesMap(Map<ByteBuffer, V> map) {
     return map;
   }
+
+  @Override
+  public int serializedSize(ByteBuffer obj) {
+    return obj == null ? 0 : obj.remaining();
+  }
+
+  @Override
+  public int writeTo(ByteBuffer obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    int length = obj.remaining();
+    out.put(obj.duplicate());
+    return length;
+  }
+
+  @Override
+  public ByteBuffer read(ByteBuffer buffer, int offset, int length) {
+    return slice(buffer, offset, length);
+  }
+
 }
@@ -36,4 +36,26 @@ public final class BytesArraySerializer extends AbstractSerializer<byte[]>
     byteBuffer.get(bytes, 0, bytes.length);
     return bytes;
   }
+
+  @Override
+  public int serializedSize(byte[] obj) {
+    return obj == null ? 0 : obj.length;
+  }
+
+  @Override
+  public int writeTo(byte[] obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.put(obj);
+    return obj.length;
+  }
+
+  @Override
+  public byte[] read(ByteBuffer buffer, int offset, int length) {
+    byte[] bytes = new byte[length];
+    slice(buffer, offset, length).get(bytes);
+    return bytes;
+  }
+
 }
@@ -34,4 +34,23 @@ public class CharSerializer extends AbstractSerializer<Character> {
 
 	}
 
-}
\ No newline at end of file
+	@Override
+	public int serializedSize(Character obj) {
+		return obj == null ? 0 : 2;
+	}
+
+	@Override
+	public int writeTo(Character obj, ByteBuffer out) {
+		if (obj == null) {
+			return 0;
+		}
+		out.putChar(obj);
+		return 2;
+	}
+
+	@Override
+	public Character read(ByteBuffer buffer, int offset, int length) {
+		return buffer.getChar(offset);
+	}
+
+}
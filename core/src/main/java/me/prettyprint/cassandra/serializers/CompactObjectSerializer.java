@@ -0,0 +1,622 @@
+package me.prettyprint.cassandra.serializers;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
+
+/**
+ * A compact replacement for {@link ObjectSerializer}. Instead of the stream
+ * header and class descriptors of Java serialization, every value starts with
+ * a varint type id:
+ * <ul>
+ * <li>boxed primitives, String, byte[], UUID, Date, BigInteger, BigDecimal
+ * and the common List, Set and Map implementations have built-in ids.
+ * Integral numbers are written as zigzag varints.</li>
+ * <li>Other classes are registered with {@link #register(Class, int)} under
+ * an id of at least {@link #FIRST_USER_TYPE_ID}. Their non static, non
+ * transient fields, including inherited ones, are looked up once at
+ * registration. Each field is written as the hash of its name, the length of
+ * its value and the value. Enums are written by constant name.</li>
+ * <li>Serializable classes which are not registered are embedded with Java
+ * serialization, so registration can be done one class at a time.</li>
+ * </ul>
+ *
+ * Fields can be added to or removed from a registered class: fields missing
+ * from a value keep the value given by the no-arg constructor, fields the
+ * class no longer has are skipped. Renaming a field or changing its type is
+ * not supported. Readers and writers must register the same ids.
+ *
+ * Values written by {@link ObjectSerializer} are still read, so a column
+ * family can be switched over without rewriting it. Object graphs must not
+ * have cycles.
+ */
+public final class CompactObjectSerializer extends AbstractSerializer<Object> {
+
+  public static final int FIRST_USER_TYPE_ID = 64;
+
+  private static final CompactObjectSerializer INSTANCE = new CompactObjectSerializer();
+
+  private static final byte FORMAT_V1 = 1;
+  // first byte of a Java serialization stream, STREAM_MAGIC
+  private static final byte JAVA_STREAM_MAGIC = (byte) 0xac;
+
+  private static final int NULL = 0;
+  private static final int JAVA = 1;
+  private static final int STRING = 2;
+  private static final int LONG = 3;
+  private static final int INTEGER = 4;
+  private static final int SHORT = 5;
+  private static final int BYTE = 6;
+  private static final int BOOLEAN = 7;
+  private static final int DOUBLE = 8;
+  private static final int FLOAT = 9;
+  private static final int CHARACTER = 10;
+  private static final int BYTES = 11;
+  private static final int UUID_ID = 12;
+  private static final int DATE = 13;
+  private static final int BIG_INTEGER = 14;
+  private static final int BIG_DECIMAL = 15;
+  private static final int ARRAY_LIST = 16;
+  private static final int LINKED_LIST = 17;
+  private static final int HASH_SET = 18;
+  private static final int LINKED_HASH_SET = 19;
+  private static final int TREE_SET = 20;
+  private static final int HASH_MAP = 21;
+  private static final int LINKED_HASH_MAP = 22;
+  private static final int TREE_MAP = 23;
+
+  private static final Map<Class<?>, Integer> BUILT_IN = new HashMap<Class<?>, Integer>();
+  static {
+    BUILT_IN.put(String.class, STRING);
+    BUILT_IN.put(Long.class, LONG);
+    BUILT_IN.put(Integer.class, INTEGER);
+    BUILT_IN.put(Short.class, SHORT);
+    BUILT_IN.put(Byte.class, BYTE);
+    BUILT_IN.put(Boolean.class, BOOLEAN);
+    BUILT_IN.put(Double.class, DOUBLE);
+    BUILT_IN.put(Float.class, FLOAT);
+    BUILT_IN.put(Character.class, CHARACTER);
+    BUILT_IN.put(byte[].class, BYTES);
+    BUILT_IN.put(UUID.class, UUID_ID);
+    BUILT_IN.put(Date.class, DATE);
+    BUILT_IN.put(BigInteger.class, BIG_INTEGER);
+    BUILT_IN.put(BigDecimal.class, BIG_DECIMAL);
+    BUILT_IN.put(ArrayList.class, ARRAY_LIST);
+    BUILT_IN.put(LinkedList.class, LINKED_LIST);
+    BUILT_IN.put(HashSet.class, HASH_SET);
+    BUILT_IN.put(LinkedHashSet.class, LINKED_HASH_SET);
+    BUILT_IN.put(TreeSet.class, TREE_SET);
+    BUILT_IN.put(HashMap.class, HASH_MAP);
+    BUILT_IN.put(LinkedHashMap.class, LINKED_HASH_MAP);
+    BUILT_IN.put(TreeMap.class, TREE_MAP);
+  }
+
+  private final ConcurrentMap<Class<?>, Registration> byClass = new ConcurrentHashMap<Class<?>, Registration>();
+  private final ConcurrentMap<Integer, Registration> byId = new ConcurrentHashMap<Integer, Registration>();
+  private final ObjectSerializer javaSerializer;
+
+  public CompactObjectSerializer() {
+    javaSerializer = ObjectSerializer.get();
+  }
+
+  /**
+   * @param cl - the classloader to use when reading Java serialized values
+   */
+  public CompactObjectSerializer(ClassLoader cl) {
+    javaSerializer = new ObjectSerializer(cl);
+  }
+
+  /**
+   * The shared instance, used by the object mapper for collection items.
+   * Classes registered on it are registered for every user of the instance.
+   */
+  public static CompactObjectSerializer get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers a class, which needs a no-arg constructor unless it is an
+   * enum, under the given type id. Registering the same class under the same
+   * id again does nothing.
+   * @return this serializer
+   */
+  public CompactObjectSerializer register(Class<?> type, int typeId) {
+    Assert.notNull(type, "type is null");
+    Assert.isTrue(typeId >= FIRST_USER_TYPE_ID, "type ids below " + FIRST_USER_TYPE_ID + " are reserved");
+    Assert.isTrue(!BUILT_IN.containsKey(type), type.getName() + " is built in");
+    synchronized (byId) {
+      Registration byType = byClass.get(type);
+      Registration existing = byId.get(typeId);
+      if ( byType != null && byType == existing ) {
+        return this;
+      }
+      Assert.isTrue(byType == null, type.getName() + " is already registered as " + (byType != null ? byType.id : 0));
+      Assert.isTrue(existing == null, "type id " + typeId + " is already registered for "
+          + (existing != null ? existing.type.getName() : null));
+      Registration registration = new Registration(type, typeId);
+      byId.put(typeId, registration);
+      byClass.put(type, registration);
+    }
+    return this;
+  }
+
+  public boolean isRegistered(Class<?> type) {
+    return BUILT_IN.containsKey(type) || byClass.containsKey(type);
+  }
+
+  @Override
+  public ByteBuffer toByteBuffer(Object obj) {
+    Output out = new Output();
+    out.writeByte(FORMAT_V1);
+    writeValue(out, obj);
+    return ByteBuffer.wrap(out.buf, 0, out.count);
+  }
+
+  @Override
+  public Object fromByteBuffer(ByteBuffer bytes) {
+    if ((bytes == null) || !bytes.hasRemaining()) {
+      return null;
+    }
+    byte format = bytes.get(bytes.position());
+    if ( format == JAVA_STREAM_MAGIC ) {
+      return javaSerializer.fromByteBuffer(bytes);
+    }
+    if ( format != FORMAT_V1 ) {
+      throw new HectorSerializationException("Unknown object format " + format);
+    }
+    bytes.get();
+    try {
+      return readValue(bytes);
+    } catch (RuntimeException e) {
+      if ( e instanceof HectorSerializationException ) {
+        throw e;
+      }
+      throw new HectorSerializationException(e);
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private void writeValue(Output out, Object value) {
+    if ( value == null ) {
+      out.writeVarint(NULL);
+      return;
+    }
+    Integer builtIn = BUILT_IN.get(value.getClass());
+    if ( builtIn == null ) {
+      // constants with a body are subclasses of their enum
+      Class<?> type = value instanceof Enum ? ((Enum<?>) value).getDeclaringClass() : value.getClass();
+      Registration registration = byClass.get(type);
+      if ( registration != null ) {
+        out.writeVarint(registration.id);
+        registration.write(this, out, value);
+      } else if ( value instanceof Serializable ) {
+        out.writeVarint(JAVA);
+        byte[] bytes = javaSerializer.toBytes(value);
+        out.writeVarint(bytes.length);
+        out.writeBytes(bytes);
+      } else {
+        throw new HectorSerializationException(value.getClass().getName()
+            + " is neither registered nor Serializable");
+      }
+      return;
+    }
+    int typeId = builtIn;
+    out.writeVarint(typeId);
+    switch (typeId) {
+    case STRING:
+      out.writeString((String) value);
+      break;
+    case LONG:
+      out.writeVarlong(zigzag((Long) value));
+      break;
+    case INTEGER:
+      out.writeVarint(zigzag((Integer) value));
+      break;
+    case SHORT:
+      out.writeVarint(zigzag((Short) value));
+      break;
+    case BYTE:
+      out.writeByte((Byte) value);
+      break;
+    case BOOLEAN:
+      out.writeByte((Boolean) value ? 1 : 0);
+      break;
+    case DOUBLE:
+      out.writeLong(Double.doubleToRawLongBits((Double) value));
+      break;
+    case FLOAT:
+      out.writeInt(Float.floatToRawIntBits((Float) value));
+      break;
+    case CHARACTER:
+      out.writeVarint((Character) value);
+      break;
+    case BYTES:
+      byte[] bytes = (byte[]) value;
+      out.writeVarint(bytes.length);
+      out.writeBytes(bytes);
+      break;
+    case UUID_ID:
+      UUID uuid = (UUID) value;
+      out.writeLong(uuid.getMostSignificantBits());
+      out.writeLong(uuid.getLeastSignificantBits());
+      break;
+    case DATE:
+      out.writeVarlong(zigzag(((Date) value).getTime()));
+      break;
+    case BIG_INTEGER:
+      byte[] magnitude = ((BigInteger) value).toByteArray();
+      out.writeVarint(magnitude.length);
+      out.writeBytes(magnitude);
+      break;
+    case BIG_DECIMAL:
+      BigDecimal decimal = (BigDecimal) value;
+      out.writeVarint(zigzag(decimal.scale()));
+      byte[] unscaled = decimal.unscaledValue().toByteArray();
+      out.writeVarint(unscaled.length);
+      out.writeBytes(unscaled);
+      break;
+    case HASH_MAP:
+    case LINKED_HASH_MAP:
+    case TREE_MAP:
+      Map<Object, Object> map = (Map) value;
+      out.writeVarint(map.size());
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+        writeValue(out, entry.getKey());
+        writeValue(out, entry.getValue());
+      }
+      break;
+    default:
+      Collection<Object> collection = (Collection) value;
+      out.writeVarint(collection.size());
+      for (Object item : collection) {
+        writeValue(out, item);
+      }
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private Object readValue(ByteBuffer in) {
+    int typeId = readVarint(in);
+    switch (typeId) {
+    case NULL:
+      return null;
+    case JAVA:
+      int length = readVarint(in);
+      Object obj = javaSerializer.fromByteBuffer(slice(in, length));
+      in.position(in.position() + length);
+      return obj;
+    case STRING:
+      return readString(in);
+    case LONG:
+      return unzigzag(readVarlong(in));
+    case INTEGER:
+      return unzigzag(readVarint(in));
+    case SHORT:
+      return (short) unzigzag(readVarint(in));
+    case BYTE:
+      return in.get();
+    case BOOLEAN:
+      return in.get() != 0;
+    case DOUBLE:
+      return Double.longBitsToDouble(in.getLong());
+    case FLOAT:
+      return Float.intBitsToFloat(in.getInt());
+    case CHARACTER:
+      return (char) readVarint(in);
+    case BYTES:
+      return readBytes(in);
+    case UUID_ID:
+      return new UUID(in.getLong(), in.getLong());
+    case DATE:
+      return new Date(unzigzag(readVarlong(in)));
+    case BIG_INTEGER:
+      return new BigInteger(readBytes(in));
+    case BIG_DECIMAL:
+      int scale = unzigzag(readVarint(in));
+      return new BigDecimal(new BigInteger(readBytes(in)), scale);
+    case ARRAY_LIST:
+      return readCollection(in, new ArrayList());
+    case LINKED_LIST:
+      return readCollection(in, new LinkedList());
+    case HASH_SET:
+      return readCollection(in, new HashSet());
+    case LINKED_HASH_SET:
+      return readCollection(in, new LinkedHashSet());
+    case TREE_SET:
+      return readCollection(in, new TreeSet());
+    case HASH_MAP:
+      return readMap(in, new HashMap());
+    case LINKED_HASH_MAP:
+      return readMap(in, new LinkedHashMap());
+    case TREE_MAP:
+      return readMap(in, new TreeMap());
+    default:
+      Registration registration = byId.get(typeId);
+      if ( registration == null ) {
+        throw new HectorSerializationException("Unknown type id " + typeId);
+      }
+      return registration.read(this, in);
+    }
+  }
+
+  private Collection<Object> readCollection(ByteBuffer in, Collection<Object> collection) {
+    int size = readVarint(in);
+    for (int i = 0; i < size; i++) {
+      collection.add(readValue(in));
+    }
+    return collection;
+  }
+
+  private Map<Object, Object> readMap(ByteBuffer in, Map<Object, Object> map) {
+    int size = readVarint(in);
+    for (int i = 0; i < size; i++) {
+      Object key = readValue(in);
+      map.put(key, readValue(in));
+    }
+    return map;
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = readVarint(in);
+    String s = StringSerializer.get().read(in, in.position(), length);
+    in.position(in.position() + length);
+    return s;
+  }
+
+  private static byte[] readBytes(ByteBuffer in) {
+    byte[] bytes = new byte[readVarint(in)];
+    in.get(bytes);
+    return bytes;
+  }
+
+  private static int readVarint(ByteBuffer in) {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = in.get();
+      value |= (b & 0x7f) << shift;
+      if ( b >= 0 ) {
+        return value;
+      }
+    }
+    throw new HectorSerializationException("Malformed varint");
+  }
+
+  private static long readVarlong(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < 70; shift += 7) {
+      byte b = in.get();
+      value |= (long) (b & 0x7f) << shift;
+      if ( b >= 0 ) {
+        return value;
+      }
+    }
+    throw new HectorSerializationException("Malformed varint");
+  }
+
+  private static ByteBuffer slice(ByteBuffer in, int length) {
+    ByteBuffer slice = in.duplicate();
+    slice.limit(in.position() + length);
+    return slice;
+  }
+
+  private static int zigzag(int v) {
+    return (v << 1) ^ (v >> 31);
+  }
+
+  private static long zigzag(long v) {
+    return (v << 1) ^ (v >> 63);
+  }
+
+  private static int unzigzag(int v) {
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+  private static long unzigzag(long v) {
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+  /**
+   * How a registered class is written: by constant name for an enum, by
+   * field otherwise.
+   */
+  private static final class Registration {
+    private final Class<?> type;
+    private final int id;
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+    private final int[] fieldHashes;
+    private final Map<Integer, Field> fieldsByHash;
+
+    Registration(Class<?> type, int id) {
+      this.type = type;
+      this.id = id;
+      if ( type.isEnum() ) {
+        constructor = null;
+        fields = new Field[0];
+        fieldHashes = new int[0];
+        fieldsByHash = null;
+        return;
+      }
+      try {
+        constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+      } catch (NoSuchMethodException e) {
+        throw new IllegalArgumentException(type.getName() + " has no no-arg constructor", e);
+      }
+      List<Field> found = new ArrayList<Field>();
+      fieldsByHash = new HashMap<Integer, Field>();
+      for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          int modifiers = field.getModifiers();
+          if ( Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic() ) {
+            continue;
+          }
+          Field clash = fieldsByHash.put(field.getName().hashCode(), field);
+          Assert.isTrue(clash == null, type.getName() + " fields " + field + " and " + clash
+              + " cannot be told apart");
+          field.setAccessible(true);
+          found.add(field);
+        }
+      }
+      fields = found.toArray(new Field[found.size()]);
+      fieldHashes = new int[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        fieldHashes[i] = fields[i].getName().hashCode();
+      }
+    }
+
+    void write(CompactObjectSerializer serializer, Output out, Object value) {
+      if ( constructor == null ) {
+        out.writeString(((Enum<?>) value).name());
+        return;
+      }
+      out.writeVarint(fields.length);
+      for (int i = 0; i < fields.length; i++) {
+        out.writeInt(fieldHashes[i]);
+        int start = out.count;
+        try {
+          serializer.writeValue(out, fields[i].get(value));
+        } catch (IllegalAccessException e) {
+          throw new HectorSerializationException(e);
+        }
+        out.insertVarint(start, out.count - start);
+      }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    Object read(CompactObjectSerializer serializer, ByteBuffer in) {
+      if ( constructor == null ) {
+        String name = readString(in);
+        try {
+          return Enum.valueOf((Class) type, name);
+        } catch (IllegalArgumentException e) {
+          throw new HectorSerializationException("Unknown " + type.getName() + " constant " + name, e);
+        }
+      }
+      try {
+        Object obj = constructor.newInstance();
+        int count = readVarint(in);
+        for (int i = 0; i < count; i++) {
+          Field field = fieldsByHash.get(in.getInt());
+          int length = readVarint(in);
+          if ( field == null ) {
+            // removed since the value was written
+            in.position(in.position() + length);
+            continue;
+          }
+          Object value = serializer.readValue(in);
+          if ( value != null || !field.getType().isPrimitive() ) {
+            field.set(obj, value);
+          }
+        }
+        return obj;
+      } catch (HectorSerializationException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new HectorSerializationException("Cannot read " + type.getName(), e);
+      }
+    }
+  }
+
+  /**
+   * A growable byte array with the varint writes of the format
+   */
+  private static final class Output {
+    private byte[] buf = new byte[64];
+    private int count;
+
+    void writeByte(int b) {
+      ensure(1);
+      buf[count++] = (byte) b;
+    }
+
+    void writeVarint(int v) {
+      ensure(5);
+      while ( (v & ~0x7f) != 0 ) {
+        buf[count++] = (byte) ((v & 0x7f) | 0x80);
+        v >>>= 7;
+      }
+      buf[count++] = (byte) v;
+    }
+
+    void writeVarlong(long v) {
+      ensure(10);
+      while ( (v & ~0x7fL) != 0 ) {
+        buf[count++] = (byte) ((v & 0x7f) | 0x80);
+        v >>>= 7;
+      }
+      buf[count++] = (byte) v;
+    }
+
+    void writeInt(int v) {
+      ensure(4);
+      buf[count++] = (byte) (v >>> 24);
+      buf[count++] = (byte) (v >>> 16);
+      buf[count++] = (byte) (v >>> 8);
+      buf[count++] = (byte) v;
+    }
+
+    void writeLong(long v) {
+      writeInt((int) (v >>> 32));
+      writeInt((int) v);
+    }
+
+    void writeBytes(byte[] bytes) {
+      ensure(bytes.length);
+      System.arraycopy(bytes, 0, buf, count, bytes.length);
+      count += bytes.length;
+    }
+
+    void writeString(String s) {
+      StringSerializer se = StringSerializer.get();
+      int length = se.serializedSize(s);
+      writeVarint(length);
+      ensure(length);
+      se.writeTo(s, ByteBuffer.wrap(buf, count, length));
+      count += length;
+    }
+
+    /**
+     * Inserts a varint at the given offset, moving what was written after it
+     */
+    void insertVarint(int offset, int v) {
+      int end = count;
+      writeVarint(v);
+      int width = count - end;
+      byte[] varint = new byte[width];
+      System.arraycopy(buf, end, varint, 0, width);
+      System.arraycopy(buf, offset, buf, offset + width, end - offset);
+      System.arraycopy(varint, 0, buf, offset, width);
+    }
+
+    private void ensure(int n) {
+      if ( count + n > buf.length ) {
+        byte[] grown = new byte[Math.max(buf.length * 2, count + n)];
+        System.arraycopy(buf, 0, grown, 0, count);
+        buf = grown;
+      }
+    }
+  }
+}
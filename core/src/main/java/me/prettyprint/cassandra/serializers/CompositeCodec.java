@@ -0,0 +1,453 @@
+package me.prettyprint.cassandra.serializers;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.cassandra.utils.ByteComparators;
+import me.prettyprint.hector.api.BufferSerializer;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.beans.AbstractComposite.ComponentEquality;
+import me.prettyprint.hector.api.beans.Composite;
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+/**
+ * Encodes, decodes and compares the serialized form of {@link Composite}
+ * column names of a fixed layout, built once per column family from the
+ * serializers of its components.
+ *
+ * Unlike {@link Composite} it keeps no per value state: values are written
+ * straight into a caller provided buffer, components are decoded from their
+ * offsets in the serialized name only when asked for, and two serialized
+ * names are compared component by component on their bytes, the way
+ * CompositeType orders them, without building any object.
+ *
+ * Components are written without intermediate buffers when their serializer
+ * is a {@link BufferSerializer}, other types go through their serializer's
+ * {@link Serializer#toByteBuffer(Object)}. A codec built from the comparator
+ * types of the column family compares components with their
+ * {@link ByteComparators}. One built from serializers uses the comparator of
+ * the type each serializer writes: most of them only inherit BytesType, so
+ * integers, floating point numbers and booleans are mapped to theirs. Where
+ * there is no byte comparator the deserialized values are compared.
+ *
+ * Instances are immutable and thread safe.
+ */
+public final class CompositeCodec implements Comparator<ByteBuffer> {
+
+  private enum Kind { LONG, INT32, UUID, BYTES, OTHER }
+
+  private static final String REVERSED_TYPE = "ReversedType(";
+
+  private final Serializer<?>[] serializers;
+  private final Kind[] kinds;
+  private final Comparator<ByteBuffer>[] comparators;
+  private final boolean[] reversed;
+
+  private CompositeCodec(Serializer<?>[] serializers, Comparator<ByteBuffer>[] comparators, boolean[] reversed) {
+    this.serializers = serializers;
+    this.comparators = comparators;
+    this.reversed = reversed;
+    this.kinds = new Kind[serializers.length];
+    for (int i = 0; i < serializers.length; i++) {
+      Serializer<?> s = serializers[i];
+      kinds[i] = s instanceof LongSerializer ? Kind.LONG
+          : s instanceof IntegerSerializer ? Kind.INT32
+          : s instanceof UUIDSerializer ? Kind.UUID
+          : s instanceof ByteBufferSerializer ? Kind.BYTES
+          : Kind.OTHER;
+    }
+  }
+
+  /**
+   * A codec for composites made of the given components, in order
+   */
+  @SuppressWarnings("unchecked")
+  public static CompositeCodec of(Serializer<?>... serializers) {
+    Assert.isTrue(serializers.length > 0, "a composite needs at least one component");
+    Assert.noneNull((Object[]) serializers);
+    Comparator<ByteBuffer>[] comparators = new Comparator[serializers.length];
+    for (int i = 0; i < serializers.length; i++) {
+      comparators[i] = comparatorOf(serializers[i]);
+    }
+    return new CompositeCodec(serializers.clone(), comparators, new boolean[serializers.length]);
+  }
+
+  /**
+   * A codec for composites of the given comparator types, in order, as
+   * declared in the CompositeType of the column family. Components declared
+   * with ReversedType are compared in reverse. Values are read and written
+   * with the serializer matching each type, see
+   * {@link SerializerTypeInferer#getSerializerForComparator(ComparatorType)}.
+   */
+  @SuppressWarnings("unchecked")
+  public static CompositeCodec of(ComparatorType... componentTypes) {
+    Assert.isTrue(componentTypes.length > 0, "a composite needs at least one component");
+    Assert.noneNull((Object[]) componentTypes);
+    Serializer<?>[] serializers = new Serializer<?>[componentTypes.length];
+    Comparator<ByteBuffer>[] comparators = new Comparator[componentTypes.length];
+    boolean[] reversed = new boolean[componentTypes.length];
+    for (int i = 0; i < componentTypes.length; i++) {
+      String typeName = componentTypes[i].getTypeName();
+      if ( typeName.startsWith(REVERSED_TYPE) && typeName.endsWith(")") ) {
+        typeName = typeName.substring(REVERSED_TYPE.length(), typeName.length() - 1);
+        reversed[i] = true;
+      }
+      ComparatorType type = ComparatorType.getByClassName(typeName);
+      serializers[i] = SerializerTypeInferer.getSerializerForComparator(type);
+      comparators[i] = ByteComparators.forTypeName(typeName);
+      if ( comparators[i] == null ) {
+        comparators[i] = comparatorOf(serializers[i]);
+      }
+    }
+    return new CompositeCodec(serializers, comparators, reversed);
+  }
+
+  /**
+   * A codec for composites of the given comparator types, by class or short
+   * name such as "LongType" or "ReversedType(UTF8Type)"
+   */
+  public static CompositeCodec of(String... componentTypes) {
+    ComparatorType[] types = new ComparatorType[componentTypes.length];
+    for (int i = 0; i < componentTypes.length; i++) {
+      types[i] = ComparatorType.getByClassName(componentTypes[i]);
+    }
+    return of(types);
+  }
+
+  public static CompositeCodec of(List<Serializer<?>> serializers) {
+    return of(serializers.toArray(new Serializer<?>[serializers.size()]));
+  }
+
+  /**
+   * A codec for the same components, where the given ones are declared with
+   * ReversedType in the column family comparator
+   * @param positions positions of the reversed components
+   */
+  public CompositeCodec reversed(int... positions) {
+    boolean[] r = reversed.clone();
+    for (int position : positions) {
+      r[position] = true;
+    }
+    return new CompositeCodec(serializers, comparators, r);
+  }
+
+  public int size() {
+    return serializers.length;
+  }
+
+  /**
+   * Number of bytes taken by the serialized composite
+   */
+  public int serializedSize(Object... values) {
+    checkArity(values);
+    int size = 0;
+    for (int i = 0; i < values.length; i++) {
+      size += 3 + componentSize(i, values[i]);
+    }
+    return size;
+  }
+
+  /**
+   * Serializes the values into a new buffer of the exact size. Fewer values
+   * than components may be given.
+   */
+  public ByteBuffer encode(Object... values) {
+    ByteBuffer out = ByteBuffer.allocate(serializedSize(values));
+    writeTo(out, ComponentEquality.EQUAL, values);
+    out.flip();
+    return out;
+  }
+
+  /**
+   * Serializes the values at the position of the given buffer, advancing it
+   * @return the number of bytes written
+   * @throws java.nio.BufferOverflowException if the buffer is too small
+   */
+  public int writeTo(ByteBuffer out, Object... values) {
+    return writeTo(out, ComponentEquality.EQUAL, values);
+  }
+
+  /**
+   * Serializes the values at the position of the given buffer, with the
+   * given end of component byte on the last one. Fewer values than
+   * components may be given to build slice bounds.
+   * @return the number of bytes written
+   */
+  public int writeTo(ByteBuffer out, ComponentEquality lastEquality, Object... values) {
+    checkArity(values);
+    int start = out.position();
+    for (int i = 0; i < values.length; i++) {
+      writeComponent(out, i, values[i]);
+      out.put(i == values.length - 1 ? lastEquality.toByte() : ComponentEquality.EQUAL.toByte());
+    }
+    return out.position() - start;
+  }
+
+  /**
+   * Deserializes one component, reading no other
+   * @param serialized a serialized composite, left untouched
+   * @param index position of the component
+   * @return the value, or null if the composite has fewer components
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T decode(ByteBuffer serialized, int index) {
+    int offset = offsetOf(serialized, index);
+    if ( offset < 0 ) {
+      return null;
+    }
+    int length = shortAt(serialized, offset);
+    int valueStart = offset + 2;
+    switch (kinds[index]) {
+    case LONG:
+      return (T) Long.valueOf(serialized.getLong(valueStart));
+    case INT32:
+      return (T) Integer.valueOf(serialized.getInt(valueStart));
+    case UUID:
+      return (T) new UUID(serialized.getLong(valueStart), serialized.getLong(valueStart + 8));
+    default:
+      return (T) read(index, serialized, valueStart, length);
+    }
+  }
+
+  /**
+   * @return the serialized value of one component, sharing the content of
+   * the composite, or null if the composite has fewer components
+   */
+  public ByteBuffer componentBytes(ByteBuffer serialized, int index) {
+    int offset = offsetOf(serialized, index);
+    return offset < 0 ? null : slice(serialized, offset + 2, shortAt(serialized, offset));
+  }
+
+  /**
+   * Lazily decoding view over a serialized composite. The offsets of the
+   * components are found on the first access, values are deserialized on
+   * every call to {@link Decoded#get(int)}.
+   */
+  public Decoded wrap(ByteBuffer serialized) {
+    return new Decoded(serialized);
+  }
+
+  /**
+   * Orders two serialized composites the way CompositeType does
+   */
+  @Override
+  public int compare(ByteBuffer o1, ByteBuffer o2) {
+    if ( o1 == null || !o1.hasRemaining() ) {
+      return o2 == null || !o2.hasRemaining() ? 0 : -1;
+    }
+    if ( o2 == null || !o2.hasRemaining() ) {
+      return 1;
+    }
+    int p1 = o1.position();
+    int p2 = o2.position();
+    int l1 = o1.limit();
+    int l2 = o2.limit();
+    int i = 0;
+    while ( p1 < l1 && p2 < l2 ) {
+      int len1 = shortAt(o1, p1);
+      int len2 = shortAt(o2, p2);
+      int position = Math.min(i, serializers.length - 1);
+      int cmp = compareComponent(position, o1, p1 + 2, len1, o2, p2 + 2, len2);
+      if ( reversed[position] ) {
+        cmp = -cmp;
+      }
+      if ( cmp != 0 ) {
+        return cmp;
+      }
+      p1 += 2 + len1;
+      p2 += 2 + len2;
+      byte e1 = o1.get(p1++);
+      byte e2 = o2.get(p2++);
+      if ( e1 < 0 ) {
+        if ( e2 >= 0 ) {
+          return -1;
+        }
+      } else if ( e1 > 0 ) {
+        if ( e2 <= 0 ) {
+          return 1;
+        }
+      } else if ( e2 != 0 ) {
+        return -e2;
+      }
+      i++;
+    }
+    if ( p1 >= l1 ) {
+      return p2 >= l2 ? 0 : -1;
+    }
+    return 1;
+  }
+
+  @Override
+  public String toString() {
+    return "CompositeCodec(" + Arrays.toString(serializers) + ")";
+  }
+
+  public final class Decoded {
+
+    private final ByteBuffer serialized;
+    private int[] offsets;
+
+    private Decoded(ByteBuffer serialized) {
+      this.serialized = serialized;
+    }
+
+    public int size() {
+      return offsets().length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index) {
+      int offset = offsets()[index];
+      int length = shortAt(serialized, offset);
+      return (T) read(index, serialized, offset + 2, length);
+    }
+
+    public ByteBuffer getBytes(int index) {
+      int offset = offsets()[index];
+      return slice(serialized, offset + 2, shortAt(serialized, offset));
+    }
+
+    public ComponentEquality getEquality(int index) {
+      int offset = offsets()[index];
+      return ComponentEquality.fromByte(serialized.get(offset + 2 + shortAt(serialized, offset)));
+    }
+
+    private int[] offsets() {
+      if ( offsets == null ) {
+        int[] found = new int[serializers.length];
+        int count = 0;
+        int p = serialized.position();
+        while ( p < serialized.limit() && count < found.length ) {
+          found[count++] = p;
+          p += 2 + shortAt(serialized, p) + 1;
+        }
+        offsets = count == found.length ? found : Arrays.copyOf(found, count);
+      }
+      return offsets;
+    }
+  }
+
+  /**
+   * The comparator of the type written by a serializer. Most serializers
+   * report the BytesType they inherit whatever they write.
+   */
+  private static Comparator<ByteBuffer> comparatorOf(Serializer<?> serializer) {
+    if ( serializer instanceof IntegerSerializer ) {
+      return ByteComparators.INT32;
+    }
+    if ( serializer instanceof FloatSerializer || serializer instanceof FloatTypeSerializer ) {
+      return ByteComparators.FLOAT;
+    }
+    if ( serializer instanceof DoubleSerializer || serializer instanceof DoubleTypeSerializer ) {
+      return ByteComparators.DOUBLE;
+    }
+    if ( serializer instanceof BooleanSerializer ) {
+      return ByteComparators.BOOLEAN;
+    }
+    if ( serializer instanceof ShortSerializer ) {
+      // no Cassandra type, compare the values
+      return null;
+    }
+    return ByteComparators.forType(serializer.getComparatorType());
+  }
+
+  private void checkArity(Object[] values) {
+    Assert.isTrue(values.length > 0 && values.length <= serializers.length,
+        "expected 1 to " + serializers.length + " values");
+  }
+
+  @SuppressWarnings("unchecked")
+  private int componentSize(int index, Object value) {
+    switch (kinds[index]) {
+    case LONG:
+      return 8;
+    case INT32:
+      return 4;
+    case UUID:
+      return 16;
+    case BYTES:
+      return ((ByteBuffer) value).remaining();
+    default:
+      if ( serializers[index] instanceof BufferSerializer ) {
+        return ((BufferSerializer<Object>) serializers[index]).serializedSize(value);
+      }
+      return ((Serializer<Object>) serializers[index]).toByteBuffer(value).remaining();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeComponent(ByteBuffer out, int index, Object value) {
+    Assert.notNull(value, "null composite component");
+    switch (kinds[index]) {
+    case LONG:
+      out.putShort((short) 8).putLong((Long) value);
+      break;
+    case INT32:
+      out.putShort((short) 4).putInt((Integer) value);
+      break;
+    case UUID:
+      UUID uuid = (UUID) value;
+      out.putShort((short) 16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+      break;
+    case BYTES:
+      ByteBuffer bytes = (ByteBuffer) value;
+      out.putShort((short) bytes.remaining()).put(bytes.duplicate());
+      break;
+    default:
+      if ( serializers[index] instanceof BufferSerializer ) {
+        BufferSerializer<Object> serializer = (BufferSerializer<Object>) serializers[index];
+        out.putShort((short) serializer.serializedSize(value));
+        serializer.writeTo(value, out);
+      } else {
+        ByteBuffer serialized = ((Serializer<Object>) serializers[index]).toByteBuffer(value);
+        out.putShort((short) serialized.remaining()).put(serialized);
+      }
+    }
+  }
+
+  private Object read(int index, ByteBuffer serialized, int offset, int length) {
+    if ( serializers[index] instanceof BufferSerializer ) {
+      return ((BufferSerializer<?>) serializers[index]).read(serialized, offset, length);
+    }
+    return serializers[index].fromByteBuffer(slice(serialized, offset, length));
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private int compareComponent(int position, ByteBuffer o1, int start1, int len1,
+      ByteBuffer o2, int start2, int len2) {
+    Comparator<ByteBuffer> comparator = comparators[position];
+    if ( comparator != null ) {
+      return ByteComparators.compare(comparator, o1, start1, len1, o2, start2, len2);
+    }
+    ByteBuffer c1 = slice(o1, start1, len1);
+    ByteBuffer c2 = slice(o2, start2, len2);
+    Comparable v1 = (Comparable) serializers[position].fromByteBuffer(c1);
+    return v1.compareTo(serializers[position].fromByteBuffer(c2));
+  }
+
+  private int offsetOf(ByteBuffer serialized, int index) {
+    int p = serialized.position();
+    for (int i = 0; i < index; i++) {
+      if ( p >= serialized.limit() ) {
+        return -1;
+      }
+      p += 2 + shortAt(serialized, p) + 1;
+    }
+    return p < serialized.limit() ? p : -1;
+  }
+
+  private static int shortAt(ByteBuffer bb, int index) {
+    return ((bb.get(index) & 0xFF) << 8) | (bb.get(index + 1) & 0xFF);
+  }
+
+  private static ByteBuffer slice(ByteBuffer bb, int start, int length) {
+    ByteBuffer copy = bb.duplicate();
+    copy.limit(start + length);
+    copy.position(start);
+    return copy;
+  }
+}
@@ -0,0 +1,336 @@
+package me.prettyprint.cassandra.serializers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import me.prettyprint.cassandra.utils.Assert;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * Wraps another serializer and compresses the values it writes. Every value
+ * starts with a one byte header:
+ * <ul>
+ * <li>0: the value follows as written by the wrapped serializer. Values
+ * which are neither compressed with the dictionary nor as big as the
+ * threshold, or which did not shrink, are kept this way.</li>
+ * <li>1: the original length as an int, then an LZ4 block.</li>
+ * <li>2: the original length as an int, then a zlib stream deflated with the
+ * shared dictionary.</li>
+ * </ul>
+ *
+ * Small values hardly compress on their own, so when a dictionary is given,
+ * values up to {@link #getDictionaryMaxSize()} bytes are deflated against it
+ * instead, whatever the threshold. A dictionary made of byte sequences common to the values, see
+ * {@link #trainDictionary(Iterable, Serializer, int)}, lets a value of a few
+ * hundred bytes be written as references into it. Readers must be given the
+ * same dictionary.
+ *
+ * LZ4 comes from the optional net.jpountz.lz4 dependency, which must be on
+ * the classpath once values reach the threshold. Compressed values do not
+ * sort like the wrapped type, so this should only wrap column values.
+ * Values written before the column family was wrapped have no header and
+ * cannot be read through it.
+ *
+ * Stored values are not trusted: the original length must be one the
+ * compressed bytes can expand to, and no more than {@link #MAX_VALUE_SIZE},
+ * before anything is allocated, LZ4 blocks are read with the safe
+ * decompressor, and a value which does not expand to exactly that length is
+ * rejected with a {@link HectorSerializationException}.
+ *
+ * @param <T>
+ */
+public final class CompressingSerializer<T> extends AbstractSerializer<T> {
+
+  public static final int DEFAULT_THRESHOLD = 1024;
+  public static final int DEFAULT_DICTIONARY_MAX_SIZE = 4096;
+  /** well above any value a thrift frame can carry */
+  public static final int MAX_VALUE_SIZE = 256 * 1024 * 1024;
+
+  private static final byte RAW = 0;
+  private static final byte LZ4 = 1;
+  private static final byte DEFLATE = 2;
+  private static final int HEADER_SIZE = 5;
+  private static final int SEGMENT_SIZE = 16;
+  // the most a byte of LZ4 block or of deflate stream can expand to
+  private static final int LZ4_MAX_RATIO = 255;
+  private static final int DEFLATE_MAX_RATIO = 1032;
+
+  private final Serializer<T> serializer;
+  private final int threshold;
+  private final byte[] dictionary;
+  private final int dictionaryAdler;
+  private final int dictionaryMaxSize;
+
+  private final ThreadLocal<Deflater> deflaters = new ThreadLocal<Deflater>() {
+    @Override
+    protected Deflater initialValue() {
+      return new Deflater(Deflater.BEST_SPEED);
+    }
+  };
+
+  private final ThreadLocal<Inflater> inflaters = new ThreadLocal<Inflater>() {
+    @Override
+    protected Inflater initialValue() {
+      return new Inflater();
+    }
+  };
+
+  public CompressingSerializer(Serializer<T> serializer) {
+    this(serializer, DEFAULT_THRESHOLD);
+  }
+
+  public CompressingSerializer(Serializer<T> serializer, int threshold) {
+    this(serializer, threshold, null, 0);
+  }
+
+  /**
+   * @param threshold values smaller than this many bytes are not compressed
+   *          with LZ4, the dictionary applies below it too
+   * @param dictionary shared dictionary for values up to dictionaryMaxSize,
+   *          or null for none
+   * @param dictionaryMaxSize values of up to this many bytes are deflated
+   *          against the dictionary, bigger ones go through LZ4
+   */
+  public CompressingSerializer(Serializer<T> serializer, int threshold, byte[] dictionary,
+      int dictionaryMaxSize) {
+    Assert.notNull(serializer, "serializer is null");
+    Assert.isTrue(threshold > 0, "threshold must be positive");
+    Assert.isTrue(dictionary == null || dictionary.length > 0, "dictionary is empty");
+    this.serializer = serializer;
+    this.threshold = threshold;
+    this.dictionary = dictionary == null ? null : dictionary.clone();
+    this.dictionaryMaxSize = dictionary == null ? 0 : dictionaryMaxSize;
+    Adler32 adler = new Adler32();
+    if ( dictionary != null ) {
+      adler.update(dictionary);
+    }
+    this.dictionaryAdler = (int) adler.getValue();
+  }
+
+  public int getThreshold() {
+    return threshold;
+  }
+
+  public int getDictionaryMaxSize() {
+    return dictionaryMaxSize;
+  }
+
+  @Override
+  public ByteBuffer toByteBuffer(T obj) {
+    ByteBuffer value = serializer.toByteBuffer(obj);
+    if ( value == null ) {
+      return null;
+    }
+    int length = value.remaining();
+    ByteBuffer compressed = null;
+    if ( (dictionary != null && length <= dictionaryMaxSize) || length >= threshold ) {
+      byte[] src;
+      int srcOffset;
+      if ( value.hasArray() ) {
+        src = value.array();
+        srcOffset = value.arrayOffset() + value.position();
+      } else {
+        src = new byte[length];
+        value.duplicate().get(src);
+        srcOffset = 0;
+      }
+      compressed = length <= dictionaryMaxSize ? deflate(src, srcOffset, length) : lz4(src, srcOffset, length);
+    }
+    if ( compressed != null ) {
+      return compressed;
+    }
+    ByteBuffer raw = ByteBuffer.allocate(length + 1);
+    raw.put(RAW).put(value.duplicate()).flip();
+    return raw;
+  }
+
+  @Override
+  public T fromByteBuffer(ByteBuffer bytes) {
+    if ( bytes == null || !bytes.hasRemaining() ) {
+      return null;
+    }
+    byte header = bytes.get();
+    if ( header == RAW ) {
+      return serializer.fromByteBuffer(bytes);
+    }
+    if ( header != LZ4 && header != DEFLATE ) {
+      throw new HectorSerializationException("Unknown compression header " + header);
+    }
+    if ( bytes.remaining() < HEADER_SIZE - 1 ) {
+      throw new HectorSerializationException("Truncated compressed value");
+    }
+    int length = bytes.getInt();
+    int srcLength = bytes.remaining();
+    long maxLength = (long) srcLength * (header == LZ4 ? LZ4_MAX_RATIO : DEFLATE_MAX_RATIO) + HEADER_SIZE;
+    if ( length < 0 || length > Math.min(maxLength, MAX_VALUE_SIZE) ) {
+      throw new HectorSerializationException("Corrupt compressed value, " + srcLength
+          + " bytes cannot hold an original length of " + length);
+    }
+    byte[] src;
+    int srcOffset;
+    if ( bytes.hasArray() ) {
+      src = bytes.array();
+      srcOffset = bytes.arrayOffset() + bytes.position();
+    } else {
+      src = new byte[srcLength];
+      bytes.duplicate().get(src);
+      srcOffset = 0;
+    }
+    bytes.position(bytes.limit());
+    byte[] value = new byte[length];
+    if ( header == LZ4 ) {
+      int decompressed;
+      try {
+        decompressed = Lz4.decompressor.decompress(src, srcOffset, srcLength, value, 0, length);
+      } catch (LZ4Exception e) {
+        throw new HectorSerializationException(e);
+      }
+      if ( decompressed != length ) {
+        throw new HectorSerializationException("Corrupt compressed value, expanded to " + decompressed
+            + " bytes instead of " + length);
+      }
+    } else {
+      inflate(src, srcOffset, srcLength, value);
+    }
+    return serializer.fromByteBuffer(ByteBuffer.wrap(value));
+  }
+
+  private ByteBuffer lz4(byte[] src, int offset, int length) {
+    LZ4Compressor compressor = Lz4.compressor;
+    byte[] out = new byte[HEADER_SIZE + compressor.maxCompressedLength(length)];
+    try {
+      int compressed = compressor.compress(src, offset, length, out, HEADER_SIZE);
+      return withHeader(LZ4, out, length, compressed);
+    } catch (LZ4Exception e) {
+      throw new HectorSerializationException(e);
+    }
+  }
+
+  private ByteBuffer deflate(byte[] src, int offset, int length) {
+    Deflater deflater = deflaters.get();
+    deflater.reset();
+    deflater.setDictionary(dictionary);
+    deflater.setInput(src, offset, length);
+    deflater.finish();
+    // anything that does not fit in the original size is not worth keeping
+    byte[] out = new byte[HEADER_SIZE + length];
+    int compressed = 0;
+    while ( !deflater.finished() && HEADER_SIZE + compressed < out.length ) {
+      compressed += deflater.deflate(out, HEADER_SIZE + compressed, out.length - HEADER_SIZE - compressed);
+    }
+    return deflater.finished() ? withHeader(DEFLATE, out, length, compressed) : null;
+  }
+
+  private void inflate(byte[] src, int offset, int length, byte[] value) {
+    Inflater inflater = inflaters.get();
+    inflater.reset();
+    inflater.setInput(src, offset, length);
+    try {
+      int inflated = 0;
+      while ( !inflater.finished() ) {
+        int n = inflater.inflate(value, inflated, value.length - inflated);
+        inflated += n;
+        if ( n > 0 ) {
+          continue;
+        }
+        if ( inflater.needsDictionary() ) {
+          if ( dictionary == null || inflater.getAdler() != dictionaryAdler ) {
+            throw new HectorSerializationException("Value was compressed with another dictionary");
+          }
+          inflater.setDictionary(dictionary);
+        } else if ( inflated == value.length ) {
+          break;
+        } else {
+          throw new HectorSerializationException("Corrupt compressed value");
+        }
+      }
+      if ( inflated != value.length ) {
+        throw new HectorSerializationException("Corrupt compressed value, expanded to " + inflated
+            + " bytes instead of " + value.length);
+      }
+    } catch (DataFormatException e) {
+      throw new HectorSerializationException(e);
+    }
+  }
+
+  private static ByteBuffer withHeader(byte format, byte[] out, int length, int compressed) {
+    if ( HEADER_SIZE + compressed >= length + 1 ) {
+      return null;
+    }
+    ByteBuffer bb = ByteBuffer.wrap(out, 0, HEADER_SIZE + compressed);
+    bb.put(0, format);
+    bb.putInt(1, length);
+    return bb;
+  }
+
+  /**
+   * Builds a dictionary out of the 16 byte sequences which occur most often
+   * across the sample values, the most common ones last where deflate
+   * reaches them with the shortest distances.
+   * @param samples values representative of what will be written
+   * @param size maximum size of the dictionary, at most 32KB are used by deflate
+   * @return the dictionary, empty if the samples have nothing in common
+   */
+  public static <T> byte[] trainDictionary(Iterable<T> samples, Serializer<T> serializer, int size) {
+    Assert.isTrue(size > 0, "size must be positive");
+    final Map<ByteBuffer, int[]> counts = new HashMap<ByteBuffer, int[]>();
+    for (T sample : samples) {
+      ByteBuffer bytes = serializer.toByteBuffer(sample);
+      if ( bytes == null ) {
+        continue;
+      }
+      for (int i = bytes.position(); i + SEGMENT_SIZE <= bytes.limit(); i += SEGMENT_SIZE / 4) {
+        ByteBuffer segment = bytes.duplicate();
+        segment.position(i).limit(i + SEGMENT_SIZE);
+        int[] count = counts.get(segment);
+        if ( count == null ) {
+          counts.put(segment.slice(), new int[] { 1 });
+        } else {
+          count[0]++;
+        }
+      }
+    }
+    List<ByteBuffer> common = new ArrayList<ByteBuffer>();
+    for (Map.Entry<ByteBuffer, int[]> entry : counts.entrySet()) {
+      if ( entry.getValue()[0] > 1 ) {
+        common.add(entry.getKey());
+      }
+    }
+    Collections.sort(common, new Comparator<ByteBuffer>() {
+      @Override
+      public int compare(ByteBuffer a, ByteBuffer b) {
+        return counts.get(b)[0] - counts.get(a)[0];
+      }
+    });
+    int segments = Math.min(common.size(), size / SEGMENT_SIZE);
+    byte[] dictionary = new byte[segments * SEGMENT_SIZE];
+    for (int i = 0; i < segments; i++) {
+      common.get(i).duplicate().get(dictionary, (segments - 1 - i) * SEGMENT_SIZE, SEGMENT_SIZE);
+    }
+    return dictionary;
+  }
+
+  /**
+   * Loads LZ4 the first time a value is big enough to need it
+   */
+  private static final class Lz4 {
+    private static final LZ4Factory factory = LZ4Factory.fastestInstance();
+    static final LZ4Compressor compressor = factory.fastCompressor();
+    static final LZ4SafeDecompressor decompressor = factory.safeDecompressor();
+  }
+}
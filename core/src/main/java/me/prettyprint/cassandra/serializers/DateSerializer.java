@@ -35,4 +35,24 @@ public final class DateSerializer extends AbstractSerializer<Date> {
     }
     return new Date(LONG_SERIALIZER.fromByteBuffer(bytes));
   }
+
+  @Override
+  public int serializedSize(Date obj) {
+    return obj == null ? 0 : 8;
+  }
+
+  @Override
+  public int writeTo(Date obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.putLong(obj.getTime());
+    return 8;
+  }
+
+  @Override
+  public Date read(ByteBuffer buffer, int offset, int length) {
+    return new Date(buffer.getLong(offset));
+  }
+
 }
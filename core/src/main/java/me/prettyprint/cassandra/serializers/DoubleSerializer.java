@@ -1,9 +1,11 @@
 package me.prettyprint.cassandra.serializers;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 import me.prettyprint.cassandra.serializers.AbstractSerializer;
 import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
 
 /**
  * Uses LongSerializer via translating Doubles to and from raw long bytes form.
@@ -32,5 +34,45 @@ public class DoubleSerializer extends AbstractSerializer<Double> {
     return l == null ? null : Double.longBitsToDouble (l);
   }
 
-}
+  @Override
+  public int serializedSize(Double obj) {
+    return obj == null ? 0 : 8;
+  }
+
+  @Override
+  public int writeTo(Double obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.putLong(Double.doubleToRawLongBits(obj));
+    return 8;
+  }
+
+  @Override
+  public Double read(ByteBuffer buffer, int offset, int length) {
+    if (length < 8) {
+      return null;
+    }
+    return Double.longBitsToDouble(buffer.getLong(offset));
+  }
 
+  /**
+   * Reads doubles, such as the values of a slice, into a primitive array.
+   * @param values array to read into, reused when it is long enough
+   * @return values, or a new array if it was null or too short
+   */
+  public double[] fromBytesList(List<ByteBuffer> list, double[] values) {
+    if (values == null || values.length < list.size()) {
+      values = new double[list.size()];
+    }
+    for (int i = 0; i < list.size(); i++) {
+      ByteBuffer bytes = list.get(i);
+      if (bytes == null || bytes.remaining() < 8) {
+        throw new HectorSerializationException("Expected 8 bytes for a double at index " + i);
+      }
+      values[i] = Double.longBitsToDouble(bytes.getLong(bytes.position()));
+    }
+    return values;
+  }
+
+}
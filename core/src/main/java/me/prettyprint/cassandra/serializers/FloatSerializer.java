@@ -25,4 +25,23 @@ public class FloatSerializer extends AbstractSerializer<Float> {
     return Float.intBitsToFloat(IntegerSerializer.get().fromByteBuffer(bytes));
   }
 
+  @Override
+  public int serializedSize(Float obj) {
+    return obj == null ? 0 : 4;
+  }
+
+  @Override
+  public int writeTo(Float obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.putInt(Float.floatToRawIntBits(obj));
+    return 4;
+  }
+
+  @Override
+  public Float read(ByteBuffer buffer, int offset, int length) {
+    return Float.intBitsToFloat(buffer.getInt(offset));
+  }
+
 }
@@ -1,6 +1,9 @@
 package me.prettyprint.cassandra.serializers;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
 
 /**
  * Converts bytes to Integer and vice versa
@@ -43,4 +46,42 @@ public final class IntegerSerializer extends AbstractSerializer<Integer> {
     return bb.getInt();
   }
 
+  @Override
+  public int serializedSize(Integer obj) {
+    return obj == null ? 0 : 4;
+  }
+
+  @Override
+  public int writeTo(Integer obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.putInt(obj);
+    return 4;
+  }
+
+  @Override
+  public Integer read(ByteBuffer buffer, int offset, int length) {
+    return buffer.getInt(offset);
+  }
+
+  /**
+   * Reads a list of ints without boxing them.
+   * @param values array to read into, reused when it is long enough
+   * @return values, or a new array if it was null or too short
+   */
+  public int[] fromBytesList(List<ByteBuffer> list, int[] values) {
+    if (values == null || values.length < list.size()) {
+      values = new int[list.size()];
+    }
+    for (int i = 0; i < list.size(); i++) {
+      ByteBuffer bytes = list.get(i);
+      if (bytes == null || bytes.remaining() < 4) {
+        throw new HectorSerializationException("Expected 4 bytes for an int at index " + i);
+      }
+      values[i] = bytes.getInt(bytes.position());
+    }
+    return values;
+  }
+
 }
@@ -3,8 +3,10 @@ package me.prettyprint.cassandra.serializers;
 import static me.prettyprint.hector.api.ddl.ComparatorType.LONGTYPE;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 import me.prettyprint.hector.api.ddl.ComparatorType;
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
 
 /**
  * Converts bytes to Long and vise a versa
@@ -42,4 +44,46 @@ public final class LongSerializer extends AbstractSerializer<Long> {
     return LONGTYPE;
   }
 
+  @Override
+  public int serializedSize(Long obj) {
+    return obj == null ? 0 : 8;
+  }
+
+  @Override
+  public int writeTo(Long obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.putLong(obj);
+    return 8;
+  }
+
+  @Override
+  public Long read(ByteBuffer buffer, int offset, int length) {
+    if (length < 8) {
+      return null;
+    }
+    return buffer.getLong(offset);
+  }
+
+  /**
+   * Reads a list of longs, such as column names or counter values, without
+   * a Long per element.
+   * @param values array to read into, reused when it is long enough
+   * @return values, or a new array if it was null or too short
+   */
+  public long[] fromBytesList(List<ByteBuffer> list, long[] values) {
+    if (values == null || values.length < list.size()) {
+      values = new long[list.size()];
+    }
+    for (int i = 0; i < list.size(); i++) {
+      ByteBuffer bytes = list.get(i);
+      if (bytes == null || bytes.remaining() < 8) {
+        throw new HectorSerializationException("Expected 8 bytes for a long at index " + i);
+      }
+      values[i] = bytes.getLong(bytes.position());
+    }
+    return values;
+  }
+
 }
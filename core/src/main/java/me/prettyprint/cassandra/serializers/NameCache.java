@@ -0,0 +1,87 @@
+package me.prettyprint.cassandra.serializers;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import me.prettyprint.cassandra.utils.Assert;
+
+/**
+ * Remembers the strings decoded from recently seen column names, keyed by
+ * their bytes. Slots are picked by hash and overwritten on collision, so the
+ * cache never grows past its capacity and needs no lock: an entry is
+ * immutable and is published as a whole.
+ */
+final class NameCache {
+
+  /** Longer names are decoded every time, they are unlikely to repeat */
+  static final int MAX_NAME_LENGTH = 128;
+
+  private final AtomicReferenceArray<Entry> entries;
+  private final int mask;
+  private final boolean ascii;
+
+  NameCache(int capacity, boolean ascii) {
+    Assert.isTrue(capacity > 0 && capacity <= 1 << 20, "capacity must be between 1 and 2^20");
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.entries = new AtomicReferenceArray<Entry>(size);
+    this.mask = size - 1;
+    this.ascii = ascii;
+  }
+
+  /**
+   * @return the string for the length bytes of buffer at the absolute offset,
+   *         decoded only if they were not seen recently
+   */
+  String read(ByteBuffer buffer, int offset, int length) {
+    if (length > MAX_NAME_LENGTH) {
+      return decode(buffer, offset, length);
+    }
+    int hash = 1;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + buffer.get(i);
+    }
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    Entry entry = entries.get(slot);
+    if (entry != null && entry.hash == hash && entry.matches(buffer, offset, length)) {
+      return entry.value;
+    }
+    String value = decode(buffer, offset, length);
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(offset + i);
+    }
+    entries.lazySet(slot, new Entry(bytes, hash, value));
+    return value;
+  }
+
+  private String decode(ByteBuffer buffer, int offset, int length) {
+    return ascii ? StringCodec.readAscii(buffer, offset, length) : StringCodec.readUtf8(buffer, offset, length);
+  }
+
+  private static final class Entry {
+    final byte[] bytes;
+    final int hash;
+    final String value;
+
+    Entry(byte[] bytes, int hash, String value) {
+      this.bytes = bytes;
+      this.hash = hash;
+      this.value = value;
+    }
+
+    boolean matches(ByteBuffer buffer, int offset, int length) {
+      if (bytes.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (bytes[i] != buffer.get(offset + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
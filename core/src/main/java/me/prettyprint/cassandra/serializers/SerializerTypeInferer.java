@@ -10,6 +10,7 @@ import java.util.UUID;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.DynamicComposite;
 import me.prettyprint.hector.api.beans.Composite;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 
 /**
  * Utility class that infers the concrete Serializer needed to turn a value into
@@ -104,6 +105,55 @@ public class SerializerTypeInferer {
     return serializer;
   }
 
+  /**
+   * Finds the serializer matching a Cassandra validator or comparator, such as
+   * those reported in the CQL3 result metadata. Types with no built-in
+   * equivalent fall back to {@link ByteBufferSerializer}.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public static <T> Serializer<T> getSerializerForComparator(ComparatorType comparatorType) {
+    Serializer serializer = ByteBufferSerializer.get();
+    if (comparatorType == null) {
+      return serializer;
+    }
+    String className = comparatorType.getClassName();
+    if (className.startsWith(ComparatorType.REVERSEDTYPE.getClassName() + "(")) {
+      return getSerializerForComparator(ComparatorType.getByClassName(
+          className.substring(className.indexOf('(') + 1, className.lastIndexOf(')'))));
+    }
+    if (comparatorType.equals(ComparatorType.UTF8TYPE)) {
+      serializer = StringSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.ASCIITYPE)) {
+      serializer = AsciiSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.LONGTYPE)
+        || comparatorType.equals(ComparatorType.COUNTERTYPE)) {
+      serializer = LongSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.INT32TYPE)) {
+      serializer = IntegerSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.INTEGERTYPE)) {
+      serializer = BigIntegerSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.DECIMALTYPE)) {
+      serializer = BigDecimalSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.BOOLEANTYPE)) {
+      serializer = BooleanSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.DOUBLETYPE)) {
+      serializer = DoubleSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.FLOATTYPE)) {
+      serializer = FloatSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.DATETYPE)) {
+      serializer = DateSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.UUIDTYPE)
+        || comparatorType.equals(ComparatorType.TIMEUUIDTYPE)
+        || comparatorType.equals(ComparatorType.LEXICALUUIDTYPE)) {
+      serializer = UUIDSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.COMPOSITETYPE)) {
+      serializer = CompositeSerializer.get();
+    } else if (comparatorType.equals(ComparatorType.DYNAMICCOMPOSITETYPE)) {
+      serializer = DynamicCompositeSerializer.get();
+    }
+    return serializer;
+  }
+
   public static boolean isSerializable(Class<?> clazz) {
     return isImplementedBy(clazz, Serializable.class) || isImplementedBy(clazz, Externalizable.class);
   }
@@ -34,4 +34,23 @@ public final class ShortSerializer extends AbstractSerializer<Short> {
     return in;
   }
 
+  @Override
+  public int serializedSize(Short obj) {
+    return obj == null ? 0 : 2;
+  }
+
+  @Override
+  public int writeTo(Short obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.putShort(obj);
+    return 2;
+  }
+
+  @Override
+  public Short read(ByteBuffer buffer, int offset, int length) {
+    return buffer.getShort(offset);
+  }
+
 }
@@ -0,0 +1,192 @@
+package me.prettyprint.cassandra.serializers;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Encodes and decodes strings directly between a String and a ByteBuffer for
+ * {@link StringSerializer} and {@link AsciiSerializer}, without the
+ * intermediate byte[] of String.getBytes or the CharBuffer of
+ * Charset.decode. Malformed input is replaced the same way those do: '?' for
+ * a lone surrogate or a non ASCII char written as ASCII, U+FFFD for bytes
+ * which do not decode.
+ */
+final class StringCodec {
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  // scratch arrays bigger than this are not kept around by the thread
+  private static final int MAX_SCRATCH = 8192;
+
+  private static final ThreadLocal<char[]> scratch = new ThreadLocal<char[]>() {
+    @Override
+    protected char[] initialValue() {
+      return new char[256];
+    }
+  };
+
+  private static final ThreadLocal<CharsetDecoder> utf8Decoder = new ThreadLocal<CharsetDecoder>() {
+    @Override
+    protected CharsetDecoder initialValue() {
+      return UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+  };
+
+  private StringCodec() {
+  }
+
+  static int utf8Length(String s) {
+    int length = s.length();
+    int size = length;
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        continue;
+      }
+      if (c < 0x800) {
+        size += 1;
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+        // four bytes for two chars
+        size += 2;
+        i++;
+      } else if (!isSurrogate(c)) {
+        size += 2;
+      }
+    }
+    return size;
+  }
+
+  static int writeUtf8(String s, ByteBuffer out) {
+    int length = s.length();
+    int start = out.position();
+    if (out.hasArray()) {
+      byte[] array = out.array();
+      int base = out.arrayOffset();
+      int pos = start;
+      int i = 0;
+      // ASCII fast path, stopping at the first multi-byte char
+      int asciiEnd = Math.min(length, out.remaining());
+      for (; i < asciiEnd; i++) {
+        char c = s.charAt(i);
+        if (c >= 0x80) {
+          break;
+        }
+        array[base + pos++] = (byte) c;
+      }
+      out.position(pos);
+      if (i == length) {
+        return pos - start;
+      }
+      writeUtf8(s, i, out);
+    } else {
+      writeUtf8(s, 0, out);
+    }
+    return out.position() - start;
+  }
+
+  private static void writeUtf8(String s, int from, ByteBuffer out) {
+    int length = s.length();
+    for (int i = from; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        out.put((byte) c);
+      } else if (c < 0x800) {
+        out.put((byte) (0xc0 | (c >> 6)));
+        out.put((byte) (0x80 | (c & 0x3f)));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, s.charAt(++i));
+        out.put((byte) (0xf0 | (cp >> 18)));
+        out.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+        out.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+        out.put((byte) (0x80 | (cp & 0x3f)));
+      } else if (isSurrogate(c)) {
+        out.put((byte) '?');
+      } else {
+        out.put((byte) (0xe0 | (c >> 12)));
+        out.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+        out.put((byte) (0x80 | (c & 0x3f)));
+      }
+    }
+  }
+
+  static String readUtf8(ByteBuffer buffer, int offset, int length) {
+    char[] chars = scratch(length);
+    // ASCII fast path, a UTF-8 string never has more chars than bytes
+    int i = 0;
+    if (buffer.hasArray()) {
+      byte[] array = buffer.array();
+      int base = buffer.arrayOffset() + offset;
+      for (; i < length; i++) {
+        byte b = array[base + i];
+        if (b < 0) {
+          break;
+        }
+        chars[i] = (char) b;
+      }
+    } else {
+      for (; i < length; i++) {
+        byte b = buffer.get(offset + i);
+        if (b < 0) {
+          break;
+        }
+        chars[i] = (char) b;
+      }
+    }
+    if (i == length) {
+      return new String(chars, 0, length);
+    }
+    ByteBuffer in = AbstractSerializer.slice(buffer, offset + i, length - i);
+    CharBuffer out = CharBuffer.wrap(chars, i, chars.length - i);
+    CharsetDecoder decoder = utf8Decoder.get();
+    decoder.reset();
+    decoder.decode(in, out, true);
+    decoder.flush(out);
+    return new String(chars, 0, out.position());
+  }
+
+  static void writeAscii(String s, ByteBuffer out) {
+    int length = s.length();
+    if (out.hasArray() && out.remaining() >= length) {
+      byte[] array = out.array();
+      int base = out.arrayOffset() + out.position();
+      for (int i = 0; i < length; i++) {
+        char c = s.charAt(i);
+        array[base + i] = c < 0x80 ? (byte) c : (byte) '?';
+      }
+      out.position(out.position() + length);
+    } else {
+      for (int i = 0; i < length; i++) {
+        char c = s.charAt(i);
+        out.put(c < 0x80 ? (byte) c : (byte) '?');
+      }
+    }
+  }
+
+  static String readAscii(ByteBuffer buffer, int offset, int length) {
+    char[] chars = scratch(length);
+    for (int i = 0; i < length; i++) {
+      byte b = buffer.get(offset + i);
+      chars[i] = b >= 0 ? (char) b : '\uFFFD';
+    }
+    return new String(chars, 0, length);
+  }
+
+  private static char[] scratch(int length) {
+    char[] chars = scratch.get();
+    if (chars.length >= length) {
+      return chars;
+    }
+    chars = new char[length];
+    if (length <= MAX_SCRATCH) {
+      scratch.set(chars);
+    }
+    return chars;
+  }
+
+  private static boolean isSurrogate(char c) {
+    return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+  }
+}
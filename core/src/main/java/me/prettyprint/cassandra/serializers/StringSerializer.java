@@ -3,7 +3,6 @@ package me.prettyprint.cassandra.serializers;
 import static me.prettyprint.hector.api.ddl.ComparatorType.UTF8TYPE;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
 
 import me.prettyprint.hector.api.ddl.ComparatorType;
 
@@ -16,20 +15,41 @@ import me.prettyprint.hector.api.ddl.ComparatorType;
  */
 public final class StringSerializer extends AbstractSerializer<String> {
 
-  private static final String UTF_8 = "UTF-8";
   private static final StringSerializer instance = new StringSerializer();
-  private static final Charset charset = Charset.forName(UTF_8);
+
+  private final NameCache names;
+
+  public StringSerializer() {
+    this.names = null;
+  }
+
+  private StringSerializer(NameCache names) {
+    this.names = names;
+  }
 
   public static StringSerializer get() {
     return instance;
   }
 
+  /**
+   * Creates a serializer which keeps the strings of up to capacity recently
+   * read names and hands them out again instead of decoding the same bytes.
+   * Meant as the name serializer of a column family whose rows repeat the
+   * same column names; use one per column family.
+   */
+  public static StringSerializer interning(int capacity) {
+    return new StringSerializer(new NameCache(capacity, false));
+  }
+
   @Override
   public ByteBuffer toByteBuffer(String obj) {
     if (obj == null) {
       return null;
     }
-    return ByteBuffer.wrap(obj.getBytes(charset));
+    ByteBuffer bb = ByteBuffer.allocate(serializedSize(obj));
+    writeTo(obj, bb);
+    bb.flip();
+    return bb;
   }
 
   @Override
@@ -37,7 +57,32 @@ public final class StringSerializer extends AbstractSerializer<String> {
     if (byteBuffer == null) {
       return null;
     }
-    return charset.decode(byteBuffer).toString();
+    String s = read(byteBuffer, byteBuffer.position(), byteBuffer.remaining());
+    byteBuffer.position(byteBuffer.limit());
+    return s;
+  }
+
+  @Override
+  public int serializedSize(String obj) {
+    return obj == null ? 0 : StringCodec.utf8Length(obj);
+  }
+
+  @Override
+  public int writeTo(String obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    int start = out.position();
+    StringCodec.writeUtf8(obj, out);
+    return out.position() - start;
+  }
+
+  @Override
+  public String read(ByteBuffer buffer, int offset, int length) {
+    if (names != null) {
+      return names.read(buffer, offset, length);
+    }
+    return StringCodec.readUtf8(buffer, offset, length);
   }
 
   @Override
@@ -53,4 +53,24 @@ public final class UUIDSerializer extends AbstractSerializer<UUID> {
     return UUIDTYPE;
   }
 
+  @Override
+  public int serializedSize(UUID obj) {
+    return obj == null ? 0 : 16;
+  }
+
+  @Override
+  public int writeTo(UUID obj, ByteBuffer out) {
+    if (obj == null) {
+      return 0;
+    }
+    out.putLong(obj.getMostSignificantBits());
+    out.putLong(obj.getLeastSignificantBits());
+    return 16;
+  }
+
+  @Override
+  public UUID read(ByteBuffer buffer, int offset, int length) {
+    return new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+  }
+
 }
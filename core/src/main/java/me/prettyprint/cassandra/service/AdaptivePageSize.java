@@ -0,0 +1,162 @@
+package me.prettyprint.cassandra.service;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.beans.HCounterColumn;
+import me.prettyprint.hector.api.beans.Row;
+
+/**
+ * Sizes the pages of a paging iterator from the ones fetched so far, so that
+ * wide rows are fetched a few at a time and narrow ones many at a time.
+ *
+ * After every page the size moves toward the number of rows, or columns,
+ * which would have taken the target latency and the target number of bytes,
+ * whichever is less: down right away, up at most twice as many and only
+ * after a full page. A page which times out is retried at half the size,
+ * and the scan only fails once it keeps timing out at the smallest size.
+ *
+ * The latency of a page includes the round trip, keep the target well above
+ * it. The bytes are those of the column names and values returned, the
+ * response is a little larger. Meant for the one iterator it is given to,
+ * not to be shared.
+ */
+public class AdaptivePageSize {
+
+  public static final long DEF_TARGET_LATENCY_MILLIS = 100;
+  /** well below the 15MB default thrift frame size of Cassandra */
+  public static final long DEF_TARGET_BYTES = 2 * 1024 * 1024;
+  public static final int DEF_MAX_TIMEOUTS = 3;
+
+  private static final int COUNTER_VALUE_BYTES = 8;
+
+  private final int minSize;
+  private final int maxSize;
+  private int size;
+  private long targetNanos = TimeUnit.MILLISECONDS.toNanos(DEF_TARGET_LATENCY_MILLIS);
+  private long targetBytes = DEF_TARGET_BYTES;
+  private int maxTimeouts = DEF_MAX_TIMEOUTS;
+  private int timeoutsAtMinSize;
+
+  /**
+   * @param initialSize the size of the first page
+   * @param minSize the smallest size pages shrink to
+   * @param maxSize the largest size pages grow to
+   */
+  public AdaptivePageSize(int initialSize, int minSize, int maxSize) {
+    if ( minSize < 1 || initialSize < minSize || maxSize < initialSize ) {
+      throw new IllegalArgumentException("Page sizes must be 1 <= min <= initial <= max, were " + minSize + ", "
+          + initialSize + ", " + maxSize);
+    }
+    this.size = initialSize;
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param targetLatencyMillis how long a page should take, 100ms by default
+   */
+  public AdaptivePageSize setTargetLatencyMillis(long targetLatencyMillis) {
+    this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+    return this;
+  }
+
+  /**
+   * @param targetBytes how many bytes of names and values a page should
+   *          hold, 2MB by default
+   */
+  public AdaptivePageSize setTargetBytes(long targetBytes) {
+    this.targetBytes = targetBytes;
+    return this;
+  }
+
+  /**
+   * @param maxTimeouts how many pages in a row may time out at the smallest
+   *          size before the scan fails, 3 by default
+   */
+  public AdaptivePageSize setMaxTimeouts(int maxTimeouts) {
+    this.maxTimeouts = maxTimeouts;
+    return this;
+  }
+
+  /**
+   * @return the number of rows, or columns, to ask for in the next page
+   */
+  public int getPageSize() {
+    return size;
+  }
+
+  /**
+   * Adjusts the size after a page came back.
+   * @param items the rows or columns in the page
+   * @param nanos how long the page took
+   * @param bytes the bytes of the page
+   */
+  public void pageFetched(int items, long nanos, long bytes) {
+    timeoutsAtMinSize = 0;
+    if ( items == 0 ) {
+      return;
+    }
+    double scale = Double.MAX_VALUE;
+    if ( nanos > 0 ) {
+      scale = (double) targetNanos / nanos;
+    }
+    if ( bytes > 0 ) {
+      scale = Math.min(scale, (double) targetBytes / bytes);
+    }
+    double ideal = items * scale;
+    if ( ideal < size ) {
+      size = (int) Math.max(minSize, ideal);
+    } else if ( items >= size ) {
+      size = (int) Math.min(maxSize, Math.min(2L * size, ideal));
+    }
+  }
+
+  /**
+   * Halves the size after a page timed out.
+   * @return true if the page should be fetched again, false if it timed out
+   *         at the smallest size too many times in a row
+   */
+  public boolean timedOut() {
+    if ( size > minSize ) {
+      size = Math.max(minSize, size / 2);
+      return true;
+    }
+    return ++timeoutsAtMinSize <= maxTimeouts;
+  }
+
+  static <N, V> long bytesOfColumns(List<HColumn<N, V>> columns) {
+    long bytes = 0;
+    for (HColumn<N, V> column : columns) {
+      bytes += remaining(column.getNameBytes()) + remaining(column.getValueBytes());
+    }
+    return bytes;
+  }
+
+  static <N> long bytesOfCounterColumns(List<HCounterColumn<N>> columns) {
+    long bytes = 0;
+    for (HCounterColumn<N> column : columns) {
+      bytes += remaining(column.getNameBytes()) + COUNTER_VALUE_BYTES;
+    }
+    return bytes;
+  }
+
+  static <K, N, V> long bytesOfRows(List<Row<K, N, V>> rows) {
+    long bytes = 0;
+    for (Row<K, N, V> row : rows) {
+      bytes += bytesOfColumns(row.getColumnSlice().getColumns());
+    }
+    return bytes;
+  }
+
+  private static int remaining(ByteBuffer buffer) {
+    return buffer == null ? 0 : buffer.remaining();
+  }
+
+  @Override
+  public String toString() {
+    return "AdaptivePageSize<size=" + size + "&min=" + minSize + "&max=" + maxSize + ">";
+  }
+}
@@ -7,6 +7,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import me.prettyprint.cassandra.utils.ByteBufferSlab;
 import me.prettyprint.hector.api.Serializer;
 
 import org.apache.cassandra.thrift.Column;
@@ -33,6 +34,8 @@ public final class BatchMutation<K> {
 
   private final Map<ByteBuffer,Map<String,List<Mutation>>> mutationMap;
   private final Serializer<K> keySerializer;
+  // row keys of the batch are packed together
+  private final ByteBufferSlab keySlab = new ByteBufferSlab(1024);
   private BatchSizeHint sizeHint;
 
   public BatchMutation(Serializer<K> serializer, BatchSizeHint sizeHint) {
@@ -67,6 +70,29 @@ public final class BatchMutation<K> {
     return this;
   }
   
+  /**
+   * Add Column insertions (or updates) of the same row to the batch mutation
+   * request, looking the row up once for all of them.
+   */
+  public BatchMutation<K> addInsertions(K key, List<String> columnFamilies, List<Column> columns) {
+    List<Mutation> mutations = new ArrayList<Mutation>(columns.size());
+    for (Column column : columns) {
+      Mutation mutation = new Mutation();
+      mutation.setColumn_or_supercolumn(new ColumnOrSuperColumn().setColumn(column));
+      mutations.add(mutation);
+    }
+    Map<String, List<Mutation>> innerMutationMap = getInnerMutationMap(key);
+    for (String columnFamily : columnFamilies) {
+      List<Mutation> mutList = innerMutationMap.get(columnFamily);
+      if (mutList == null) {
+        mutList = new ArrayList<Mutation>(mutations.size());
+        innerMutationMap.put(columnFamily, mutList);
+      }
+      mutList.addAll(mutations);
+    }
+    return this;
+  }
+
   /**
    * Add a SuperColumn insertion (or update) to the batch mutation request.
    */
@@ -128,10 +154,11 @@ public final class BatchMutation<K> {
   
 
   private Map<String, List<Mutation>> getInnerMutationMap(K key) {
-    Map<String, List<Mutation>> innerMutationMap = mutationMap.get(keySerializer.toByteBuffer(key));
+    ByteBuffer keyBytes = keySlab.serialize(key, keySerializer);
+    Map<String, List<Mutation>> innerMutationMap = mutationMap.get(keyBytes);
     if (innerMutationMap == null) {
       innerMutationMap = new HashMap<String, List<Mutation>>();
-      mutationMap.put(keySerializer.toByteBuffer(key), innerMutationMap);
+      mutationMap.put(keyBytes, innerMutationMap);
     }
     return innerMutationMap;
   }
@@ -1,5 +1,7 @@
 package me.prettyprint.cassandra.service;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
@@ -9,8 +11,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
+import me.prettyprint.cassandra.connection.FlightRecorder;
 import me.prettyprint.cassandra.connection.HClientPool;
 import me.prettyprint.cassandra.connection.HConnectionManager;
+import me.prettyprint.cassandra.connection.HotKeys;
+import me.prettyprint.cassandra.connection.LargestOperations;
+import me.prettyprint.cassandra.connection.LatencyHistogram;
+import me.prettyprint.cassandra.connection.OperationLatencies;
+import me.prettyprint.cassandra.connection.OperationLatency;
+import me.prettyprint.cassandra.service.OperationTimings.Phase;
 import me.prettyprint.hector.api.exceptions.HectorTransportException;
 
 import org.slf4j.Logger;
@@ -22,6 +31,7 @@ public class CassandraClientMonitor implements CassandraClientMonitorMBean {
   private final Map<Counter, AtomicLong> counters;
 
   private final HConnectionManager connectionManager;
+  private final FlightRecorder flightRecorder = new FlightRecorder(FlightRecorder.DEF_SIZE);
 
   /**
    * List of available JMX counts
@@ -41,7 +51,15 @@ public class CassandraClientMonitor implements CassandraClientMonitorMBean {
     /** Connection time errors - unable to connect to host or something... */
     CONNECT_ERROR,
     RENEWED_IDLE_CONNECTIONS,
-    RENEWED_TOO_LONG_CONNECTIONS
+    RENEWED_TOO_LONG_CONNECTIONS,
+    /** Reads answered by the near cache */
+    NEAR_CACHE_HIT,
+    /** Reads of near cached column families which went to the cluster */
+    NEAR_CACHE_MISS,
+    /** Reads which waited for an identical read in flight instead of going to the cluster */
+    COALESCED_READS,
+    /** Reads answered as empty by the negative cache */
+    NEGATIVE_CACHE_HIT
   }
 
   public CassandraClientMonitor(HConnectionManager connectionManager) {
@@ -259,4 +277,135 @@ public class CassandraClientMonitor implements CassandraClientMonitorMBean {
   public int getNumRenewedTooLongConnections() {
     return counters.get(Counter.RENEWED_TOO_LONG_CONNECTIONS).intValue();
   }
+
+  @Override
+  public long getNearCacheHitCount() {
+    return counters.get(Counter.NEAR_CACHE_HIT).longValue();
+  }
+
+  @Override
+  public long getNearCacheMissCount() {
+    return counters.get(Counter.NEAR_CACHE_MISS).longValue();
+  }
+
+  @Override
+  public double getNearCacheHitRatio() {
+    long hits = getNearCacheHitCount();
+    long requests = hits + getNearCacheMissCount();
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+
+  @Override
+  public long getCoalescedReadCount() {
+    return counters.get(Counter.COALESCED_READS).longValue();
+  }
+
+  @Override
+  public long getNegativeCacheHitCount() {
+    return counters.get(Counter.NEGATIVE_CACHE_HIT).longValue();
+  }
+
+  @Override
+  public List<String> getOperationLatencies() {
+    List<String> stats = new ArrayList<String>();
+    OperationLatencies latencies = connectionManager.getOperationLatencies();
+    if ( latencies == null ) {
+      return stats;
+    }
+    for (OperationLatency latency : latencies.getAll()) {
+      stats.add(latency.toString());
+      for (Map.Entry<CassandraHost, LatencyHistogram> host : latency.getHostHistograms().entrySet()) {
+        stats.add("  " + host.getKey().getName() + " " + host.getValue() + " failures="
+            + latency.getFailures(host.getKey()));
+      }
+      for (Phase phase : Phase.values()) {
+        LatencyHistogram histogram = latency.getPhaseHistogram(phase);
+        if ( histogram != null ) {
+          stats.add("  " + phase.name().toLowerCase() + " " + histogram);
+        }
+      }
+    }
+    return stats;
+  }
+
+  @Override
+  public List<String> getOperationBytes() {
+    List<String> stats = new ArrayList<String>();
+    OperationLatencies latencies = connectionManager.getOperationLatencies();
+    if ( latencies == null ) {
+      return stats;
+    }
+    for (OperationLatency latency : latencies.getAll()) {
+      LatencyHistogram requestBytes = latency.getRequestBytes();
+      LatencyHistogram responseBytes = latency.getResponseBytes();
+      if ( requestBytes == null || responseBytes == null ) {
+        continue;
+      }
+      stats.add(latency.getKeyspace() + "/" + latency.getColumnFamily() + " " + latency.getOperationType());
+      stats.add("  request " + requestBytes.toString("B"));
+      stats.add("  response " + responseBytes.toString("B"));
+      for (CassandraHost host : latency.getHostHistograms().keySet()) {
+        stats.add("  " + host.getName() + " sent=" + latency.getBytesSent(host) + "B received="
+            + latency.getBytesReceived(host) + "B");
+      }
+    }
+    return stats;
+  }
+
+  @Override
+  public List<String> getLargestRequests() {
+    return toStrings(connectionManager.getLargestRequests());
+  }
+
+  @Override
+  public List<String> getLargestResponses() {
+    return toStrings(connectionManager.getLargestResponses());
+  }
+
+  @Override
+  public List<String> getHotKeys() {
+    List<String> stats = new ArrayList<String>();
+    HotKeys hotKeys = connectionManager.getHotKeys();
+    if ( hotKeys != null ) {
+      for (HotKeys.Entry entry : hotKeys.get()) {
+        stats.add(entry.toString());
+      }
+    }
+    return stats;
+  }
+
+  /**
+   * @return the recent events of the cluster's hosts and pools, shared by
+   *         the connection managers of the cluster
+   */
+  public FlightRecorder getFlightRecorder() {
+    return flightRecorder;
+  }
+
+  @Override
+  public List<String> getFlightRecorderEvents() {
+    return flightRecorder.dump();
+  }
+
+  @Override
+  public boolean dumpFlightRecorder(String fileName) {
+    try {
+      flightRecorder.dumpTo(new File(fileName));
+      log.info("Dumped flight recorder events to {}", fileName);
+      return true;
+    } catch (IOException e) {
+      log.error("Could not dump flight recorder events to " + fileName, e);
+      return false;
+    }
+  }
+
+  private static List<String> toStrings(LargestOperations largest) {
+    List<String> stats = new ArrayList<String>();
+    if ( largest != null ) {
+      for (LargestOperations.Entry entry : largest.get()) {
+        stats.add(entry.toString());
+      }
+    }
+    return stats;
+  }
 }
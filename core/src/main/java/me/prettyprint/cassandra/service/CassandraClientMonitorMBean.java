@@ -164,4 +164,73 @@ public interface CassandraClientMonitorMBean {
    * Total number of connections created due to previous too long connections.
    */
   int getNumRenewedTooLongConnections();
+
+  /**
+   * Number of reads served by the near cache of column families which have one enabled.
+   */
+  long getNearCacheHitCount();
+
+  /**
+   * Number of reads of near cached column families which had to go to the cluster.
+   */
+  long getNearCacheMissCount();
+
+  /**
+   * Ratio of near cache hits to near cached reads, 1.0 before any such read.
+   */
+  double getNearCacheHitRatio();
+
+  /**
+   * Number of reads which shared the result of an identical read already in flight.
+   */
+  long getCoalescedReadCount();
+
+  /**
+   * Number of reads answered as empty by the negative cache, without going to the cluster.
+   */
+  long getNegativeCacheHitCount();
+
+  /**
+   * Latency percentiles of every keyspace, column family and kind of
+   * operation, over all hosts, per host and per phase, in microseconds. Empty
+   * when latency histograms are turned off.
+   */
+  List<String> getOperationLatencies();
+
+  /**
+   * Request and response sizes of every keyspace, column family and kind of
+   * operation, and the bytes sent to and received from each host. Empty when
+   * latency histograms or byte counting are turned off.
+   */
+  List<String> getOperationBytes();
+
+  /**
+   * The largest requests sent so far, largest first.
+   */
+  List<String> getLargestRequests();
+
+  /**
+   * The largest responses received so far, largest first.
+   */
+  List<String> getLargestResponses();
+
+  /**
+   * The most requested row keys of every column family, for reads and for
+   * writes, hottest first, with their approximate operations per second
+   * over the last minute or two. Empty when hot keys are not tracked.
+   */
+  List<String> getHotKeys();
+
+  /**
+   * The recent events of the hosts and pools, oldest first: hosts going
+   * down, suspended, restored, added and removed, retries, exhausted pools
+   * and renewed connections.
+   */
+  List<String> getFlightRecorderEvents();
+
+  /**
+   * Writes the recent events of the hosts and pools to the given file.
+   * @return true if they were written
+   */
+  boolean dumpFlightRecorder(String fileName);
 }
@@ -3,6 +3,8 @@ package me.prettyprint.cassandra.service;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 
+import me.prettyprint.cassandra.connection.client.FrameBufferPool;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +35,17 @@ public final class CassandraHost {
    */
   public static final int DEFAULT_MAX_FRAME_SIZE = 0x7FFFFFFF;
 
+  /**
+   * By default, framed transports take their frame buffers from a shared pool
+   * (see {@link me.prettyprint.cassandra.connection.client.PooledFramedTransport}).
+   */
+  public static final boolean DEFAULT_USE_POOLED_FRAME_BUFFERS = true;
+
+  /**
+   * By default, the bytes each operation sends and receives are counted.
+   */
+  public static final boolean DEFAULT_USE_BYTE_COUNTING = true;
+
   /**
    * The default max wait time when exhausted happens, default value is negative, which means
    * it'll block indefinitely.
@@ -70,6 +83,10 @@ public final class CassandraHost {
   private int cassandraThriftSocketTimeout;
   private boolean useThriftFramedTransport = DEFAULT_USE_FRAMED_THRIFT_TRANSPORT;
   private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+  private boolean usePooledFrameBuffers = DEFAULT_USE_POOLED_FRAME_BUFFERS;
+  private int frameBufferMaxClassSize = FrameBufferPool.DEFAULT_MAX_CLASS_SIZE;
+  private long frameBufferRetainedBytes = FrameBufferPool.DEFAULT_RETAINED_BYTES;
+  private boolean useByteCounting = DEFAULT_USE_BYTE_COUNTING;
   private boolean useSocketKeepalive;
   private long maxConnectTimeMillis = DEFAULT_MAX_CONNECT_TIME;
   private long maxLastSuccessTimeMillis = DEFAULT_MAX_LAST_SUCCESS_TIME;
@@ -207,6 +224,38 @@ public final class CassandraHost {
       this.maxFrameSize = maxFrameSize;
   }
 
+  public boolean getUsePooledFrameBuffers() {
+    return usePooledFrameBuffers;
+  }
+
+  public void setUsePooledFrameBuffers(boolean usePooledFrameBuffers) {
+    this.usePooledFrameBuffers = usePooledFrameBuffers;
+  }
+
+  public int getFrameBufferMaxClassSize() {
+    return frameBufferMaxClassSize;
+  }
+
+  public void setFrameBufferMaxClassSize(int frameBufferMaxClassSize) {
+    this.frameBufferMaxClassSize = frameBufferMaxClassSize;
+  }
+
+  public long getFrameBufferRetainedBytes() {
+    return frameBufferRetainedBytes;
+  }
+
+  public void setFrameBufferRetainedBytes(long frameBufferRetainedBytes) {
+    this.frameBufferRetainedBytes = frameBufferRetainedBytes;
+  }
+
+  public boolean getUseByteCounting() {
+    return useByteCounting;
+  }
+
+  public void setUseByteCounting(boolean useByteCounting) {
+    this.useByteCounting = useByteCounting;
+  }
+
   public static String parseHostFromUrl(String urlPort) {
     return urlPort.lastIndexOf(':') > 0 ? urlPort.substring(0, urlPort.lastIndexOf(':')) : urlPort;
   }
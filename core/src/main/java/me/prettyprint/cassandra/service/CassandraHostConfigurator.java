@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import me.prettyprint.cassandra.connection.*;
+import me.prettyprint.cassandra.connection.client.FrameBufferPool;
 import me.prettyprint.cassandra.connection.factory.HClientFactory;
 import me.prettyprint.cassandra.connection.factory.HThriftClientFactoryImpl;
 import me.prettyprint.hector.api.ClockResolution;
@@ -29,6 +30,10 @@ public final class CassandraHostConfigurator implements Serializable {
   private int cassandraThriftSocketTimeout;
   private boolean useThriftFramedTransport = CassandraHost.DEFAULT_USE_FRAMED_THRIFT_TRANSPORT;
   private int maxFrameSize = CassandraHost.DEFAULT_MAX_FRAME_SIZE;
+  private boolean usePooledFrameBuffers = CassandraHost.DEFAULT_USE_POOLED_FRAME_BUFFERS;
+  private int frameBufferMaxClassSize = FrameBufferPool.DEFAULT_MAX_CLASS_SIZE;
+  private long frameBufferRetainedBytes = FrameBufferPool.DEFAULT_RETAINED_BYTES;
+  private boolean useByteCounting = CassandraHost.DEFAULT_USE_BYTE_COUNTING;
 
   private boolean retryDownedHosts = true;
   private int retryDownedHostsQueueSize = CassandraHostRetryService.DEF_QUEUE_SIZE;
@@ -47,6 +52,16 @@ public final class CassandraHostConfigurator implements Serializable {
   private boolean runAutoDiscoveryAtStartup = false;
   private boolean useSocketKeepalive = false;
   private HOpTimer opTimer = new NullOpTimer();
+  private boolean useLatencyHistograms = true;
+  private boolean usePhaseHistograms = true;
+  private LatencyReporter latencyReporter;
+  private int latencyReportIntervalInSeconds = LatencyReportingService.DEF_REPORT_INTERVAL;
+  private long slowOperationThresholdMillis = 0;
+  private int slowOperationLogsPerSecond = 10;
+  private double traceSampleRate = 0;
+  private int largestOperationsTracked = LargestOperations.DEF_SIZE;
+  private int hotKeysTracked = HotKeys.DEF_SIZE;
+  private double hotKeySampleRate = HotKeys.DEF_SAMPLE_RATE;
   private Class<? extends HClientFactory> clientFactoryClass = HThriftClientFactoryImpl.class;
   private long maxConnectTimeMillis = CassandraHost.DEFAULT_MAX_CONNECT_TIME;
   private long maxLastSuccessTimeMillis = CassandraHost.DEFAULT_MAX_LAST_SUCCESS_TIME;
@@ -86,6 +101,10 @@ public final class CassandraHostConfigurator implements Serializable {
     cassandraHost.setMaxExhaustedTimeBeforeMarkingAsDown(maxExhaustedTimeBeforeMarkingAsDown);
     cassandraHost.setUseThriftFramedTransport(useThriftFramedTransport);
     cassandraHost.setMaxFrameSize(maxFrameSize);
+    cassandraHost.setUsePooledFrameBuffers(usePooledFrameBuffers);
+    cassandraHost.setFrameBufferMaxClassSize(frameBufferMaxClassSize);
+    cassandraHost.setFrameBufferRetainedBytes(frameBufferRetainedBytes);
+    cassandraHost.setUseByteCounting(useByteCounting);
     cassandraHost.setUseSocketKeepalive(useSocketKeepalive);
     cassandraHost.setMaxConnectTimeMillis(maxConnectTimeMillis);
     cassandraHost.setMaxLastSuccessTimeMillis(maxLastSuccessTimeMillis);
@@ -167,6 +186,128 @@ public final class CassandraHostConfigurator implements Serializable {
   public void setOpTimer(HOpTimer opTimer) {
 	  this.opTimer = opTimer;
   }
+
+  public boolean getUseLatencyHistograms() {
+    return useLatencyHistograms;
+  }
+
+  /**
+   * Record the latency of every operation attempt in histograms per keyspace,
+   * column family, kind of operation and host, exposed through JMX.
+   * ON by default.
+   */
+  public void setUseLatencyHistograms(boolean useLatencyHistograms) {
+    this.useLatencyHistograms = useLatencyHistograms;
+  }
+
+  public boolean getUsePhaseHistograms() {
+    return usePhaseHistograms;
+  }
+
+  /**
+   * Along with the latency histograms, keep one histogram per phase of the
+   * operations, see {@link OperationTimings.Phase}. ON by default, turn it
+   * off to save memory with many column families.
+   */
+  public void setUsePhaseHistograms(boolean usePhaseHistograms) {
+    this.usePhaseHistograms = usePhaseHistograms;
+  }
+
+  public LatencyReporter getLatencyReporter() {
+    return latencyReporter;
+  }
+
+  /**
+   * Periodically hand the latency histograms to the given reporter, see
+   * {@link #setLatencyReportIntervalInSeconds(int)}. Needs latency
+   * histograms to be on.
+   */
+  public void setLatencyReporter(LatencyReporter latencyReporter) {
+    this.latencyReporter = latencyReporter;
+  }
+
+  public int getLatencyReportIntervalInSeconds() {
+    return latencyReportIntervalInSeconds;
+  }
+
+  public void setLatencyReportIntervalInSeconds(int latencyReportIntervalInSeconds) {
+    this.latencyReportIntervalInSeconds = latencyReportIntervalInSeconds;
+  }
+
+  public long getSlowOperationThresholdMillis() {
+    return slowOperationThresholdMillis;
+  }
+
+  /**
+   * Log operations taking longer than this, with their keyspace, column
+   * family, keys, predicate, host, attempts and phase timings. Attempts this
+   * slow are retried with server side tracing on. 0, the default, turns the
+   * log off. Can be changed at runtime through
+   * {@link HConnectionManager#getSlowOperationLog()}.
+   */
+  public void setSlowOperationThresholdMillis(long slowOperationThresholdMillis) {
+    this.slowOperationThresholdMillis = slowOperationThresholdMillis;
+  }
+
+  public int getSlowOperationLogsPerSecond() {
+    return slowOperationLogsPerSecond;
+  }
+
+  /**
+   * At most this many slow operations are logged every second, 10 by default.
+   */
+  public void setSlowOperationLogsPerSecond(int slowOperationLogsPerSecond) {
+    this.slowOperationLogsPerSecond = slowOperationLogsPerSecond;
+  }
+
+  public double getTraceSampleRate() {
+    return traceSampleRate;
+  }
+
+  /**
+   * The fraction of operations to run with trace_next_query, so their trace
+   * session shows up in the slow operation log. 0 by default.
+   */
+  public void setTraceSampleRate(double traceSampleRate) {
+    this.traceSampleRate = traceSampleRate;
+  }
+
+  public int getLargestOperationsTracked() {
+    return largestOperationsTracked;
+  }
+
+  /**
+   * How many of the largest requests and of the largest responses are kept
+   * for JMX, when byte counting is on. 10 by default, 0 keeps none.
+   */
+  public void setLargestOperationsTracked(int largestOperationsTracked) {
+    this.largestOperationsTracked = largestOperationsTracked;
+  }
+
+  public int getHotKeysTracked() {
+    return hotKeysTracked;
+  }
+
+  /**
+   * How many of the most requested row keys are kept for JMX per column
+   * family, for reads and for writes. 10 by default, 0 turns hot key
+   * tracking off.
+   */
+  public void setHotKeysTracked(int hotKeysTracked) {
+    this.hotKeysTracked = hotKeysTracked;
+  }
+
+  public double getHotKeySampleRate() {
+    return hotKeySampleRate;
+  }
+
+  /**
+   * The fraction of operations whose row keys are counted to find the hot
+   * ones. 0.01 by default, see {@link HConnectionManager#getHotKeys()}.
+   */
+  public void setHotKeySampleRate(double hotKeySampleRate) {
+    this.hotKeySampleRate = hotKeySampleRate;
+  }
   
   @Override
   public String toString() {
@@ -188,10 +329,20 @@ public final class CassandraHostConfigurator implements Serializable {
     s.append(useThriftFramedTransport);
     s.append("&maxFrameSize=");
     s.append(maxFrameSize);
+    s.append("&usePooledFrameBuffers=");
+    s.append(usePooledFrameBuffers);
+    s.append("&frameBufferMaxClassSize=");
+    s.append(frameBufferMaxClassSize);
+    s.append("&frameBufferRetainedBytes=");
+    s.append(frameBufferRetainedBytes);
+    s.append("&useByteCounting=");
+    s.append(useByteCounting);
     s.append("&retryDownedHosts=");
     s.append(retryDownedHosts);
     s.append("&opTimer=");
     s.append(opTimer);    
+    s.append("&useLatencyHistograms=");
+    s.append(useLatencyHistograms);
     s.append(">");
     return s.toString();
   }
@@ -220,6 +371,61 @@ public final class CassandraHostConfigurator implements Serializable {
     this.maxFrameSize = maxFrameSize;
   }
 
+  public boolean getUsePooledFrameBuffers() {
+    return usePooledFrameBuffers;
+  }
+
+  /**
+   * Take the read and write buffers of framed transports from a pool shared
+   * by all connections instead of allocating a new array for every response.
+   * ON by default. The pool keeps arrays of up to
+   * {@link #setFrameBufferMaxClassSize(int)} bytes for reuse, and holds on to
+   * at most {@link #setFrameBufferRetainedBytes(long)} bytes of them, 16MB by
+   * default, for as long as the process lives. Clusters configured with the
+   * same limits share a pool.
+   */
+  public void setUsePooledFrameBuffers(boolean usePooledFrameBuffers) {
+    this.usePooledFrameBuffers = usePooledFrameBuffers;
+  }
+
+  public int getFrameBufferMaxClassSize() {
+    return frameBufferMaxClassSize;
+  }
+
+  /**
+   * The largest frame buffer kept for reuse when frame buffers are pooled, a
+   * power of two of at least 4KB. Larger frames get arrays of their own. 4MB
+   * by default.
+   */
+  public void setFrameBufferMaxClassSize(int frameBufferMaxClassSize) {
+    this.frameBufferMaxClassSize = frameBufferMaxClassSize;
+  }
+
+  public long getFrameBufferRetainedBytes() {
+    return frameBufferRetainedBytes;
+  }
+
+  /**
+   * The most bytes of frame buffers, over all sizes, kept for reuse when frame
+   * buffers are pooled. 16MB by default.
+   */
+  public void setFrameBufferRetainedBytes(long frameBufferRetainedBytes) {
+    this.frameBufferRetainedBytes = frameBufferRetainedBytes;
+  }
+
+  public boolean getUseByteCounting() {
+    return useByteCounting;
+  }
+
+  /**
+   * Count the bytes every operation sends and receives, below any framing.
+   * With latency histograms on they are kept in histograms per keyspace,
+   * column family, kind of operation and host. ON by default.
+   */
+  public void setUseByteCounting(boolean useByteCounting) {
+    this.useByteCounting = useByteCounting;
+  }
+
   public static ClockResolution getClockResolution() {
     return CassandraHostConfigurator.clockResolution;
   }
@@ -5,7 +5,10 @@ import com.google.common.collect.PeekingIterator;
 import java.util.Iterator;
 import java.util.List;
 import me.prettyprint.cassandra.service.template.SliceFilter;
+import me.prettyprint.hector.api.beans.ColumnSlice;
 import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
+import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.SliceQuery;
 
 /**
@@ -26,6 +29,7 @@ public class ColumnSliceIterator<K, N, V> implements Iterator<HColumn<N, V>> {
 	private boolean reversed;
 	private int count = DEFAULT_COUNT;
 	private int columns = 0;
+	private AdaptivePageSize pageSize = null;
 
 	/**
 	 * Constructor
@@ -101,10 +105,23 @@ public class ColumnSliceIterator<K, N, V> implements Iterator<HColumn<N, V>> {
 		return this;
 	}
 
+	/**
+	 * Size the pages from the latency and size of the ones fetched so far,
+	 * instead of fetching count columns at a time, and fetch a page which
+	 * timed out again with fewer columns.
+	 *
+	 * @param pageSize Sizes the pages of this iterator only
+	 * @return &lt;this&gt;
+	 */
+	public ColumnSliceIterator<K, N, V> setAdaptivePageSize(AdaptivePageSize pageSize) {
+		this.pageSize = pageSize;
+		return this;
+	}
+
 	@Override
 	public boolean hasNext() {
 		if (iterator == null) {
-			iterator = Iterators.peekingIterator(query.execute().get().getColumns().iterator());
+			iterator = Iterators.peekingIterator(fetch().iterator());
 		} else if (!iterator.hasNext() && columns == count) {  // only need to do another query if maximum columns were retrieved
 			refresh();
 		}
@@ -137,7 +154,7 @@ public class ColumnSliceIterator<K, N, V> implements Iterator<HColumn<N, V>> {
 	private void refresh() {
 		query.setRange(start, finish.function(), reversed, count);
 			columns = 0;
-			List<HColumn<N, V>> list = query.execute().get().getColumns();
+			List<HColumn<N, V>> list = fetch();
 			iterator = Iterators.peekingIterator(list.iterator());
 
 			if (iterator.hasNext()) {
@@ -151,6 +168,28 @@ public class ColumnSliceIterator<K, N, V> implements Iterator<HColumn<N, V>> {
 			}
 	}
 
+	private List<HColumn<N, V>> fetch() {
+		while (true) {
+			if (pageSize != null) {
+				// one more after the first page, whose first column is the last of the previous page
+				count = iterator == null ? pageSize.getPageSize() : pageSize.getPageSize() + 1;
+				query.setRange(start, finish.function(), reversed, count);
+			}
+			try {
+				QueryResult<ColumnSlice<N, V>> result = query.execute();
+				List<HColumn<N, V>> list = result.get().getColumns();
+				if (pageSize != null) {
+					pageSize.pageFetched(list.size(), result.getExecutionTimeNano(), AdaptivePageSize.bytesOfColumns(list));
+				}
+				return list;
+			} catch (HTimedOutException e) {
+				if (pageSize == null || !pageSize.timedOut()) {
+					throw e;
+				}
+			}
+		}
+	}
+
 	/**
 	 * When iterating over a ColumnSlice, it may be desirable to move the finish
 	 * point for each query. This interface allows for a user defined function
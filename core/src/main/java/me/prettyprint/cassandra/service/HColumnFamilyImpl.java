@@ -62,6 +62,7 @@ public class HColumnFamilyImpl<K,N> implements HColumnFamily<K, N> {
   private Map<ByteBuffer, List<ColumnOrSuperColumn>> rows;
   private CassandraHost lastHostUsed;
   private long lastExecutionTime;
+  private OperationTimings lastTimings = new OperationTimings();
   
 
   public HColumnFamilyImpl(Keyspace keyspace, String columnFamilyName, Serializer<K> keySerializer, Serializer<N> columnNameSerializer) {
@@ -288,13 +289,14 @@ public class HColumnFamilyImpl<K,N> implements HColumnFamily<K, N> {
     }
   }
   
-  private void applyResultStatus(long execTime, CassandraHost cassandraHost) {
+  private void applyResultStatus(long execTime, CassandraHost cassandraHost, OperationTimings timings) {
     lastExecutionTime = execTime;
     lastHostUsed = cassandraHost;
+    lastTimings = timings;
   }
   
   private void doExecuteSlice() {
-    keyspace.doExecuteOperation(new Operation<Column>(OperationType.READ) {
+    keyspace.doExecuteOperation(new Operation<Column>(OperationType.READ, columnFamilyName) {
       @Override
       public Column execute(Cassandra.Client cassandra) throws HectorException {
         
@@ -307,7 +309,7 @@ public class HColumnFamilyImpl<K,N> implements HColumnFamily<K, N> {
           List<ColumnOrSuperColumn> cosclist = cassandra.get_slice(keySerializer.toByteBuffer(key), columnParent,
             activeSlicePredicate.toThrift(), 
             ThriftConverter.consistencyLevel(consistencyLevelPolicy.get(operationType)));
-          applyResultStatus(execTime, getCassandraHost());
+          applyResultStatus(execTime, getCassandraHost(), getTimings());
           applyToRow(key, cosclist);
           if ( queryLogger.isDebugEnabled() ) {
             queryLogger.debug("Execution took {} microseconds on host {}\n----------", lastExecutionTime, lastHostUsed);
@@ -324,7 +326,7 @@ public class HColumnFamilyImpl<K,N> implements HColumnFamily<K, N> {
   
 
   private void doExecuteMultigetSlice() {
-    keyspace.doExecuteOperation(new Operation<Column>(OperationType.READ) {
+    keyspace.doExecuteOperation(new Operation<Column>(OperationType.READ, columnFamilyName) {
       @Override
       public Column execute(Cassandra.Client cassandra) throws HectorException {
         try {          
@@ -335,7 +337,7 @@ public class HColumnFamilyImpl<K,N> implements HColumnFamily<K, N> {
           rows = cassandra.multiget_slice(keySerializer.toBytesList(_keys), columnParent, activeSlicePredicate.toThrift(), 
               ThriftConverter.consistencyLevel(consistencyLevelPolicy.get(operationType)));
 
-          applyResultStatus(execTime, getCassandraHost());
+          applyResultStatus(execTime, getCassandraHost(), getTimings());
           
           if ( queryLogger.isDebugEnabled() ) {
             queryLogger.debug("Execution took {} microseconds on host {}\n----------", lastExecutionTime, lastHostUsed);
@@ -356,4 +358,9 @@ public class HColumnFamilyImpl<K,N> implements HColumnFamily<K, N> {
     return lastExecutionTime;
   }
 
+  @Override
+  public OperationTimings getTimings() {
+    return lastTimings;
+  }
+
 }
@@ -1,8 +1,12 @@
 package me.prettyprint.cassandra.service;
 
 import java.util.Iterator;
+import java.util.List;
 import me.prettyprint.cassandra.model.IndexedSlicesQuery;
+import me.prettyprint.hector.api.beans.OrderedRows;
 import me.prettyprint.hector.api.beans.Row;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
+import me.prettyprint.hector.api.query.QueryResult;
 
 /**
  * This class will soon be removed, use {@link RangeSlicesIterator} instead.<br>
@@ -18,6 +22,7 @@ public class IndexedSlicesIterator<K, N, V> implements Iterator<Row<K, N, V>> {
 	private K startKey;
 	private Iterator<Row<K, N, V>> iterator;
 	private int rows = 0;
+	private AdaptivePageSize pageSize = null;
 
 	public IndexedSlicesIterator(IndexedSlicesQuery<K, N, V> query, K startKey) {
 		this.query = query;
@@ -26,14 +31,27 @@ public class IndexedSlicesIterator<K, N, V> implements Iterator<Row<K, N, V>> {
 		this.query.setStartKey(startKey);
 	}
 
+	/**
+	 * Size the pages from the latency and size of the ones fetched so far,
+	 * instead of fetching the row count of the query at a time, and fetch a
+	 * page which timed out again with fewer rows.
+	 *
+	 * @param pageSize Sizes the pages of this iterator only
+	 */
+	public IndexedSlicesIterator<K, N, V> setAdaptivePageSize(AdaptivePageSize pageSize) {
+		this.pageSize = pageSize;
+
+		return this;
+	}
+
 	@Override
 	public boolean hasNext() {
 		if (iterator == null) {
 			// First time through
-			iterator = query.execute().get().getList().iterator();
+			iterator = fetch();
 		} else if (!iterator.hasNext() && rows == query.getRowCount()) {  // only need to do another query if maximum rows were retrieved
 			query.setStartKey(startKey);
-			iterator = query.execute().get().getList().iterator();
+			iterator = fetch();
 			rows = 0;
 			
 			if (iterator.hasNext()) {
@@ -58,4 +76,25 @@ public class IndexedSlicesIterator<K, N, V> implements Iterator<Row<K, N, V>> {
 	public void remove() {
 		iterator.remove();
 	}
+
+	private Iterator<Row<K, N, V>> fetch() {
+		while (true) {
+			if (pageSize != null) {
+				// one more after the first page, whose first row is the last of the previous page
+				query.setRowCount(iterator == null ? pageSize.getPageSize() : pageSize.getPageSize() + 1);
+			}
+			try {
+				QueryResult<OrderedRows<K, N, V>> result = query.execute();
+				List<Row<K, N, V>> list = result.get().getList();
+				if (pageSize != null) {
+					pageSize.pageFetched(list.size(), result.getExecutionTimeNano(), AdaptivePageSize.bytesOfRows(list));
+				}
+				return list.iterator();
+			} catch (HTimedOutException e) {
+				if (pageSize == null || !pageSize.timedOut()) {
+					throw e;
+				}
+			}
+		}
+	}
 }
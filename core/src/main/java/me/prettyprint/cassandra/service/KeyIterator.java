@@ -7,6 +7,7 @@ import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.OrderedRows;
 import me.prettyprint.hector.api.beans.Row;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
 import me.prettyprint.hector.api.factory.HFactory;
 import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.RangeSlicesQuery;
@@ -36,6 +37,7 @@ public class KeyIterator<K> implements Iterable<K> {
   private K endKey;
   private boolean firstRun = true;
   private int rowCount = MAX_ROW_COUNT_DEFAULT;
+  private AdaptivePageSize pageSize;
 
   private Iterator<K> keyIterator = new Iterator<K>() {
     @Override
@@ -93,6 +95,12 @@ public class KeyIterator<K> implements Iterable<K> {
   * When pulling deprecated methods out, do not remove this but change it to private constructor
   */
   public KeyIterator(Keyspace keyspace, String columnFamily, Serializer<K> serializer, K start, K end, int maxRowCount) {
+    this(keyspace, columnFamily, serializer, start, end, maxRowCount, null);
+  }
+
+  private KeyIterator(Keyspace keyspace, String columnFamily, Serializer<K> serializer, K start, K end,
+      int maxRowCount, AdaptivePageSize pageSize) {
+    this.pageSize = pageSize;
     query = HFactory
       .createRangeSlicesQuery(keyspace, serializer, stringSerializer, stringSerializer)
       .setColumnFamily(columnFamily)
@@ -112,8 +120,7 @@ public class KeyIterator<K> implements Iterable<K> {
         query.setRowCount(rowCount);
     }
     rowsIterator = null;
-    QueryResult<OrderedRows<K, String, String>> result = query.execute();
-    OrderedRows<K, String, String> rows = (result != null) ? result.get() : null;
+    OrderedRows<K, String, String> rows = fetch();
     rowsIterator = (rows != null) ? rows.iterator() : null;
 
     // we'll skip this first one, since it is the same as the last one from previous time we executed
@@ -129,6 +136,28 @@ public class KeyIterator<K> implements Iterable<K> {
     }
   }
 
+  private OrderedRows<K, String, String> fetch() {
+    while (true) {
+      if (pageSize != null) {
+        // one more than the page after the first, whose first row is the last of the previous page
+        query.setRowCount(firstRun ? pageSize.getPageSize() : pageSize.getPageSize() + 1);
+      }
+      try {
+        QueryResult<OrderedRows<K, String, String>> result = query.execute();
+        OrderedRows<K, String, String> rows = (result != null) ? result.get() : null;
+        if (pageSize != null && rows != null) {
+          pageSize.pageFetched(rows.getCount(), result.getExecutionTimeNano(),
+              AdaptivePageSize.bytesOfRows(rows.getList()));
+        }
+        return rows;
+      } catch (HTimedOutException e) {
+        if (pageSize == null || !pageSize.timedOut()) {
+          throw e;
+        }
+      }
+    }
+  }
+
   @Override
   public Iterator<K> iterator() {
     return keyIterator;
@@ -145,6 +174,7 @@ public class KeyIterator<K> implements Iterable<K> {
     private K start;
     private K end;
     private Integer maxRowCount;
+    private AdaptivePageSize pageSize;
 
     public Builder(Keyspace keyspace, String columnFamily, Serializer<K> serializer) {
       this.keyspace = keyspace;
@@ -167,6 +197,16 @@ public class KeyIterator<K> implements Iterable<K> {
       return this;
     }
 
+    /**
+     * Size the pages from the latency and size of the ones fetched so far
+     * instead of fetching maxRowCount rows at a time, and fetch a page which
+     * timed out again with fewer rows.
+     */
+    public Builder<K> adaptivePageSize(AdaptivePageSize pageSize) {
+      this.pageSize = pageSize;
+      return this;
+    }
+
     public KeyIterator<K> build() {
       return new KeyIterator<K>(this);
     }
@@ -175,7 +215,7 @@ public class KeyIterator<K> implements Iterable<K> {
 
   protected KeyIterator(Builder<K> builder) {
     this(builder.keyspace, builder.columnFamily, builder.serializer, builder.start, builder.end,
-            builder.maxRowCount == null? MAX_ROW_COUNT_DEFAULT : builder.maxRowCount);
+            builder.maxRowCount == null? MAX_ROW_COUNT_DEFAULT : builder.maxRowCount, builder.pageSize);
   }
 }
 
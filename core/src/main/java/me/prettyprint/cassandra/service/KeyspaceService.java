@@ -282,4 +282,9 @@ public interface KeyspaceService {
   String getName();
 
   CassandraHost getCassandraHost();
+
+  /**
+   * @return the phases of all the operations run by this instance
+   */
+  OperationTimings getTimings();
 }
@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 
 import me.prettyprint.cassandra.connection.HConnectionManager;
+import me.prettyprint.cassandra.connection.HotKeys;
 import me.prettyprint.cassandra.model.thrift.ThriftConverter;
 import me.prettyprint.cassandra.serializers.StringSerializer;
 import me.prettyprint.hector.api.ConsistencyLevelPolicy;
@@ -57,6 +58,8 @@ public class KeyspaceServiceImpl implements KeyspaceService {
 
   private CassandraHost cassandraHost;
 
+  private final OperationTimings timings = new OperationTimings();
+
   private final FailoverPolicy failoverPolicy;
 
   private final Map<String, String> credentials;
@@ -100,7 +103,11 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         return null;
       }
     };
-    operateWithFailover(op);
+    HotKeys hotKeys = connectionManager.getHotKeys();
+    if ( hotKeys != null ) {
+      hotKeys.recordWrites(keyspaceName, mutationMap);
+    }
+    operateWithFailover(op, singleColumnFamily(mutationMap), mutationMap.size(), null);
   }
 
 
@@ -123,21 +130,72 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), key, predicate);
     return op.getResult();
   }
 
 
-  private void operateWithFailover(Operation<?> op) throws HectorException {
-    connectionManager.operateWithFailover(op);
+  private void operateWithFailover(Operation<?> op, String columnFamily, ByteBuffer key,
+      SlicePredicate predicate) throws HectorException {
+    HotKeys hotKeys = connectionManager.getHotKeys();
+    if ( hotKeys != null && hotKeys.sample() ) {
+      hotKeys.record(keyspaceName, columnFamily, op.operationType, key);
+    }
+    operateWithFailover(op, columnFamily, 1, predicate);
+  }
+
+  private void operateWithFailover(Operation<?> op, String columnFamily, List<ByteBuffer> keys,
+      SlicePredicate predicate) throws HectorException {
+    HotKeys hotKeys = connectionManager.getHotKeys();
+    if ( hotKeys != null && hotKeys.sample() ) {
+      for (ByteBuffer key : keys) {
+        hotKeys.record(keyspaceName, columnFamily, op.operationType, key);
+      }
+    }
+    operateWithFailover(op, columnFamily, keys.size(), predicate);
+  }
+
+  private void operateWithFailover(Operation<?> op, String columnFamily, int keyCount,
+      SlicePredicate predicate) throws HectorException {
+    op.columnFamilyName = columnFamily;
+    op.keyCount = keyCount;
+    op.slicePredicate = predicate;
+    try {
+      connectionManager.operateWithFailover(op);
+    } finally {
+      timings.add(op.getTimings());
+    }
     this.cassandraHost = op.getCassandraHost();
   }
 
+  /**
+   * @return the column family all the mutations go to, null when they span
+   *         several
+   */
+  private static String singleColumnFamily(Map<ByteBuffer,Map<String,List<Mutation>>> mutationMap) {
+    String columnFamily = null;
+    for (Map<String,List<Mutation>> mutations : mutationMap.values()) {
+      for (String cf : mutations.keySet()) {
+        if ( columnFamily == null ) {
+          columnFamily = cf;
+        } else if ( !columnFamily.equals(cf) ) {
+          return null;
+        }
+      }
+    }
+    return columnFamily;
+  }
+
   @Override
   public CassandraHost getCassandraHost() {
     return this.cassandraHost;
   }
 
+  @Override
+  public OperationTimings getTimings() {
+    return timings;
+  }
+
 
   @Override
   public Map<ByteBuffer, List<Column>> getRangeSlices(final ColumnParent columnParent,
@@ -165,7 +223,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       };
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), keyRange.getCount(), predicate);
     return op.getResult();
   }
 
@@ -196,7 +254,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       };
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), keyRange.getCount(), predicate);
     return op.getResult();
   }
 
@@ -228,7 +286,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), keyRange.getCount(), predicate);
     return op.getResult();
   }
 
@@ -259,7 +317,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), keyRange.getCount(), predicate);
     return op.getResult();
   }
 
@@ -287,7 +345,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), key, predicate);
     return op.getResult();
   }
 
@@ -328,7 +386,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), key, predicate);
     return op.getResult();
   }
 
@@ -358,7 +416,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
       }
 
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnPath.getColumn_family(), key, null);
     if (op.hasException()) {
       throw op.getException();
     }
@@ -401,7 +459,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnPath.getColumn_family(), key, null);
     return op.getResult();
   }
 
@@ -434,7 +492,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), key, predicate);
     return op.getResult();
   }
 
@@ -469,7 +527,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), key, predicate);
     return op.getResult();
   }
 
@@ -489,7 +547,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), key, null);
   }
 
   @Override
@@ -507,7 +565,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
           }
         }
       };
-      operateWithFailover(op);
+      operateWithFailover(op, columnParent.getColumn_family(), key, null);
   }
 
   @Override
@@ -564,7 +622,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(getCount);
+    operateWithFailover(getCount, columnParent.getColumn_family(), keys, predicate);
     return getCount.getResult();
 
   }
@@ -591,7 +649,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(getCount);
+    operateWithFailover(getCount, columnParent.getColumn_family(), keys, predicate);
     return getCount.getResult();
 
   }
@@ -671,7 +729,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(getCount);
+    operateWithFailover(getCount, columnParent.getColumn_family(), keys, predicate);
     return getCount.getResult();
 
   }
@@ -713,7 +771,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(getCount);
+    operateWithFailover(getCount, columnParent.getColumn_family(), keys, predicate);
     return getCount.getResult();
 
   }
@@ -746,7 +804,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       };
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), indexClause.getCount(), predicate);
     return op.getResult();
   }
 
@@ -770,7 +828,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnParent.getColumn_family(), keys, slicePredicate);
     return op.getResult();
   }
 
@@ -789,7 +847,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
       }
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnPath.getColumn_family(), key, null);
   }
 
   @Override
@@ -806,7 +864,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
           }
         }
       };
-      operateWithFailover(op);
+      operateWithFailover(op, columnPath.getColumn_family(), key, null);
   }
 
   @Override
@@ -855,7 +913,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
       }
 
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnPath.getColumn_family(), key, null);
     if (op.hasException()) {
       throw op.getException();
     }
@@ -881,7 +939,7 @@ public class KeyspaceServiceImpl implements KeyspaceService {
         }
 
     };
-    operateWithFailover(op);
+    operateWithFailover(op, columnPath.getColumn_family(), key, null);
     if (op.hasException()) {
       throw op.getException();
     }
@@ -2,13 +2,17 @@ package me.prettyprint.cassandra.service;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.UUID;
 
+import me.prettyprint.cassandra.connection.client.FrameSlicingProtocol;
 import me.prettyprint.cassandra.model.ExecutionResult;
+import me.prettyprint.cassandra.service.OperationTimings.Phase;
 import me.prettyprint.cassandra.service.CassandraClientMonitor.Counter;
 import me.prettyprint.hector.api.ConsistencyLevelPolicy;
 import me.prettyprint.hector.api.exceptions.HectorException;
 
 import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.SlicePredicate;
 
 /**
  * Defines an operation performed on cassandra
@@ -23,6 +27,9 @@ public abstract class Operation<T> {
   /** Counts failed attempts */
   public final Counter failCounter;
 
+  /** Counts operations which succeeded */
+  public final Counter successCounter;
+
   /** The stopwatch used to measure operation performance */
   public final String stopWatchTagName;
 
@@ -30,6 +37,15 @@ public abstract class Operation<T> {
   public ConsistencyLevelPolicy consistencyLevelPolicy;
   
   public String keyspaceName;
+
+  /** The column family operated on, null when unknown or several */
+  public String columnFamilyName;
+
+  /** The number of rows operated on, or at most read by a range, 0 when unknown */
+  public int keyCount;
+
+  /** The predicate of slice reads, for logging */
+  public SlicePredicate slicePredicate;
   
 
   public Map<String, String> credentials;
@@ -38,15 +54,27 @@ public abstract class Operation<T> {
   private HectorException exception;
   private CassandraHost cassandraHost;
   protected long execTime;
+  private final OperationTimings timings = new OperationTimings();
+  private int attempts;
+  private long requestBytes;
+  private long responseBytes;
+  private UUID traceSessionId;
   public final OperationType operationType;
   
   public Operation(OperationType operationType) {
     this.failCounter = (operationType == OperationType.READ) ? Counter.READ_FAIL :
       Counter.WRITE_FAIL;
+    this.successCounter = (operationType == OperationType.READ) ? Counter.READ_SUCCESS :
+      Counter.WRITE_SUCCESS;
     this.operationType = operationType;
     this.stopWatchTagName = operationType.name();
   }
 
+  public Operation(OperationType operationType, String columnFamilyName) {
+    this(operationType);
+    this.columnFamilyName = columnFamilyName;
+  }
+
   public Operation(OperationType operationType, Map<String, String> credentials) {
     this(operationType, FailoverPolicy.ON_FAIL_TRY_ALL_AVAILABLE, null, credentials);
   }
@@ -58,6 +86,8 @@ public abstract class Operation<T> {
   public Operation(OperationType operationType, FailoverPolicy failoverPolicy, String keyspaceName, Map<String, String> credentials) {
     this.failCounter = (operationType == OperationType.READ) ? Counter.READ_FAIL :
       Counter.WRITE_FAIL;
+    this.successCounter = (operationType == OperationType.READ) ? Counter.READ_SUCCESS :
+      Counter.WRITE_SUCCESS;
     this.operationType = operationType;
     this.stopWatchTagName = operationType.name();
     this.failoverPolicy = failoverPolicy;
@@ -90,7 +120,14 @@ public abstract class Operation<T> {
   }
   
   public ExecutionResult<T> getExecutionResult() {
-    return new ExecutionResult<T>(result, execTime, cassandraHost);
+    return new ExecutionResult<T>(result, execTime, cassandraHost, timings);
+  }
+
+  /**
+   * @return the time spent in each phase of this operation so far
+   */
+  public OperationTimings getTimings() {
+    return timings;
   }
 
   /**
@@ -100,9 +137,55 @@ public abstract class Operation<T> {
 
   public void executeAndSetResult(Cassandra.Client cassandra, CassandraHost cassandraHost) throws Exception {
     this.cassandraHost = cassandraHost;
+    FrameSlicingProtocol protocol = cassandra.getInputProtocol() instanceof FrameSlicingProtocol ?
+        (FrameSlicingProtocol) cassandra.getInputProtocol() : null;
+    long network = protocol == null ? 0 : protocol.getNetworkNanos();
+    long deserialization = protocol == null ? 0 : protocol.getDeserializationNanos();
+    long written = protocol == null ? 0 : protocol.getBytesWritten();
+    long read = protocol == null ? 0 : protocol.getBytesRead();
     long startTime = System.nanoTime();
-    setResult(execute(cassandra));
-    execTime = System.nanoTime() - startTime;
+    try {
+      setResult(execute(cassandra));
+    } finally {
+      long endTime = System.nanoTime();
+      execTime = endTime - startTime;
+      addExecuteTimings(protocol, network, deserialization, startTime, endTime);
+      if ( protocol != null ) {
+        requestBytes = protocol.getBytesWritten() - written;
+        responseBytes = protocol.getBytesRead() - read;
+      }
+    }
+  }
+
+  /**
+   * @return the bytes the last attempt sent, 0 when they are not counted
+   */
+  public long getRequestBytes() {
+    return requestBytes;
+  }
+
+  /**
+   * @return the bytes the last attempt received, 0 when they are not counted
+   */
+  public long getResponseBytes() {
+    return responseBytes;
+  }
+
+  private void addExecuteTimings(FrameSlicingProtocol protocol, long network, long deserialization,
+      long startTime, long endTime) {
+    if ( protocol == null ) {
+      timings.add(Phase.NETWORK, endTime - startTime);
+      return;
+    }
+    network = protocol.getNetworkNanos() - network;
+    deserialization = protocol.getDeserializationNanos() - deserialization;
+    if ( protocol.getLastResponseRead() - startTime > 0 ) {
+      // building the result from the response
+      deserialization += endTime - protocol.getLastResponseRead();
+    }
+    timings.add(Phase.NETWORK, network);
+    timings.add(Phase.DESERIALIZATION, deserialization);
+    timings.add(Phase.SERIALIZATION, endTime - startTime - network - deserialization);
   }
 
   public void setException(HectorException e) {
@@ -120,6 +203,29 @@ public abstract class Operation<T> {
   public CassandraHost getCassandraHost() {
     return this.cassandraHost;
   }
+
+  /**
+   * Counts one more attempt at running this operation on a host.
+   */
+  public void attempted() {
+    attempts++;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  /**
+   * @return the id of the server side trace session of the last attempt, null
+   *         when it was not traced
+   */
+  public UUID getTraceSessionId() {
+    return traceSessionId;
+  }
+
+  public void setTraceSessionId(UUID traceSessionId) {
+    this.traceSessionId = traceSessionId;
+  }
   
 }
 
@@ -0,0 +1,68 @@
+package me.prettyprint.cassandra.service;
+
+/**
+ * Where the time of an operation went, in nanoseconds per {@link Phase},
+ * summed over the attempts of the operation. Filled in by the thread running
+ * the operation and not meant to be shared while it does.
+ */
+public final class OperationTimings {
+
+  public enum Phase {
+    /** Waiting for a connection from the pool of the chosen host */
+    POOL_WAIT,
+    /** Logging in and setting the keyspace of the connection, when needed */
+    CONNECTION_SETUP,
+    /**
+     * Building and writing the request, and any other work of the operation
+     * outside of the Thrift round trip
+     */
+    SERIALIZATION,
+    /** From the request being written until the response has been received */
+    NETWORK,
+    /** Reading the Thrift response and turning it into the operation result */
+    DESERIALIZATION,
+    /** Converting the operation result into the result of the query */
+    CONVERSION
+  }
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private final long[] nanos = new long[PHASES.length];
+
+  public void add(Phase phase, long phaseNanos) {
+    nanos[phase.ordinal()] += Math.max(0, phaseNanos);
+  }
+
+  public void add(OperationTimings other) {
+    for (int i = 0; i < nanos.length; i++) {
+      nanos[i] += other.nanos[i];
+    }
+  }
+
+  public long get(Phase phase) {
+    return nanos[phase.ordinal()];
+  }
+
+  /**
+   * @return the sum of all phases
+   */
+  public long getTotal() {
+    long total = 0;
+    for (long phaseNanos : nanos) {
+      total += phaseNanos;
+    }
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder s = new StringBuilder("OperationTimings<");
+    for (Phase phase : PHASES) {
+      if ( phase.ordinal() > 0 ) {
+        s.append('&');
+      }
+      s.append(phase.name().toLowerCase()).append('=').append(nanos[phase.ordinal()] / 1000).append("us");
+    }
+    return s.append('>').toString();
+  }
+}
@@ -3,8 +3,12 @@ package me.prettyprint.cassandra.service;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
 import java.util.Iterator;
+import java.util.List;
 import me.prettyprint.cassandra.service.template.SliceFilter;
+import me.prettyprint.hector.api.beans.OrderedRows;
 import me.prettyprint.hector.api.beans.Row;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
+import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.RangeSlicesQuery;
 
 /**
@@ -20,6 +24,7 @@ public class RangeSlicesIterator<K, N, V> implements Iterator<Row<K, N, V>> {
 	private PeekingIterator<Row<K, N, V>> iterator;
 	private SliceFilter<Row<K, N, V>> filter = null;
 	private int rows = 0;
+	private AdaptivePageSize pageSize = null;
 
 	public RangeSlicesIterator(RangeSlicesQuery<K, N, V> query, K startKey, K endKey) {
 		this.query = query;
@@ -33,10 +38,10 @@ public class RangeSlicesIterator<K, N, V> implements Iterator<Row<K, N, V>> {
 	public boolean hasNext() {
 		if (iterator == null) {
 			// First time through
-			iterator = Iterators.peekingIterator(query.execute().get().getList().iterator());
+			iterator = fetch();
 		} else if (!iterator.hasNext() && rows == query.getRowCount()) {  // only need to do another query if maximum rows were retrieved
 			query.setKeys(startKey, endKey);
-			iterator = Iterators.peekingIterator(query.execute().get().getList().iterator());
+			iterator = fetch();
 			rows = 0;
 
 			if (iterator.hasNext()) {
@@ -75,10 +80,23 @@ public class RangeSlicesIterator<K, N, V> implements Iterator<Row<K, N, V>> {
 
 		return this;
 	}
+
+	/**
+	 * Size the pages from the latency and size of the ones fetched so far,
+	 * instead of fetching the row count of the query at a time, and fetch a
+	 * page which timed out again with fewer rows.
+	 *
+	 * @param pageSize Sizes the pages of this iterator only
+	 */
+	public RangeSlicesIterator<K, N, V> setAdaptivePageSize(AdaptivePageSize pageSize) {
+		this.pageSize = pageSize;
+
+		return this;
+	}
 	
 	private void refresh() {
 		query.setKeys(startKey, endKey);
-		iterator = Iterators.peekingIterator(query.execute().get().getList().iterator());
+		iterator = fetch();
 		rows = 0;
 
 		if (iterator.hasNext()) {
@@ -86,4 +104,25 @@ public class RangeSlicesIterator<K, N, V> implements Iterator<Row<K, N, V>> {
 			next();
 		}
 	}
+
+	private PeekingIterator<Row<K, N, V>> fetch() {
+		while (true) {
+			if (pageSize != null) {
+				// one more after the first page, whose first row is the last of the previous page
+				query.setRowCount(iterator == null ? pageSize.getPageSize() : pageSize.getPageSize() + 1);
+			}
+			try {
+				QueryResult<OrderedRows<K, N, V>> result = query.execute();
+				List<Row<K, N, V>> list = result.get().getList();
+				if (pageSize != null) {
+					pageSize.pageFetched(list.size(), result.getExecutionTimeNano(), AdaptivePageSize.bytesOfRows(list));
+				}
+				return Iterators.peekingIterator(list.iterator());
+			} catch (HTimedOutException e) {
+				if (pageSize == null || !pageSize.timedOut()) {
+					throw e;
+				}
+			}
+		}
+	}
 }
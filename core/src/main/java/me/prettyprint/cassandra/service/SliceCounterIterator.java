@@ -5,7 +5,10 @@ import com.google.common.collect.PeekingIterator;
 import java.util.Iterator;
 import java.util.List;
 import me.prettyprint.cassandra.service.template.SliceFilter;
+import me.prettyprint.hector.api.beans.CounterSlice;
 import me.prettyprint.hector.api.beans.HCounterColumn;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
+import me.prettyprint.hector.api.query.QueryResult;
 import me.prettyprint.hector.api.query.SliceCounterQuery;
 
 /**
@@ -27,6 +30,7 @@ public class SliceCounterIterator<K, N> implements Iterator<HCounterColumn<N>> {
 	private boolean reversed;
 	private int count = DEFAULT_COUNT;
 	private int columns = 0;
+	private AdaptivePageSize pageSize = null;
 
 	/**
 	 * Constructor
@@ -102,10 +106,23 @@ public class SliceCounterIterator<K, N> implements Iterator<HCounterColumn<N>> {
 		return this;
 	}
 
+	/**
+	 * Size the pages from the latency and size of the ones fetched so far,
+	 * instead of fetching count columns at a time, and fetch a page which
+	 * timed out again with fewer columns.
+	 *
+	 * @param pageSize Sizes the pages of this iterator only
+	 * @return &lt;this&gt;
+	 */
+	public SliceCounterIterator<K, N> setAdaptivePageSize(AdaptivePageSize pageSize) {
+		this.pageSize = pageSize;
+		return this;
+	}
+
 	@Override
 	public boolean hasNext() {
 		if (iterator == null) {
-			iterator = Iterators.peekingIterator(query.execute().get().getColumns().iterator());
+			iterator = Iterators.peekingIterator(fetch().iterator());
 		} else if (!iterator.hasNext() && columns == count) {  // only need to do another query if maximum columns were retrieved
 			refresh();
 		}
@@ -138,7 +155,7 @@ public class SliceCounterIterator<K, N> implements Iterator<HCounterColumn<N>> {
 	private void refresh() {
 		query.setRange(start, finish.function(), reversed, count);
 		columns = 0;
-		List<HCounterColumn<N>> list = query.execute().get().getColumns();
+		List<HCounterColumn<N>> list = fetch();
 		iterator = Iterators.peekingIterator(list.iterator());
 
 		if (iterator.hasNext()) {
@@ -151,6 +168,28 @@ public class SliceCounterIterator<K, N> implements Iterator<HCounterColumn<N>> {
 			}
 		}
 	}
+	private List<HCounterColumn<N>> fetch() {
+		while (true) {
+			if (pageSize != null) {
+				// one more after the first page, whose first column is the last of the previous page
+				count = iterator == null ? pageSize.getPageSize() : pageSize.getPageSize() + 1;
+				query.setRange(start, finish.function(), reversed, count);
+			}
+			try {
+				QueryResult<CounterSlice<N>> result = query.execute();
+				List<HCounterColumn<N>> list = result.get().getColumns();
+				if (pageSize != null) {
+					pageSize.pageFetched(list.size(), result.getExecutionTimeNano(), AdaptivePageSize.bytesOfCounterColumns(list));
+				}
+				return list;
+			} catch (HTimedOutException e) {
+				if (pageSize == null || !pageSize.timedOut()) {
+					throw e;
+				}
+			}
+		}
+	}
+
 	/**
 	 * When iterating over a SliceCounter, it may be desirable to move the finish
 	 * point for each query. This interface allows for a user defined function
@@ -17,6 +17,9 @@ public class VirtualKeyspaceOperation<T> extends Operation<T> {
   public VirtualKeyspaceOperation(Operation<T> operation, ByteBuffer prefixBytes) {
     super(operation.operationType, operation.failoverPolicy,
         operation.keyspaceName, operation.credentials);
+    this.columnFamilyName = operation.columnFamilyName;
+    this.keyCount = operation.keyCount;
+    this.slicePredicate = operation.slicePredicate;
     this.operation = operation;
     this.prefixBytes = prefixBytes;
   }
@@ -44,6 +47,11 @@ public class VirtualKeyspaceOperation<T> extends Operation<T> {
     return operation.getExecutionResult();
   }
 
+  @Override
+  public OperationTimings getTimings() {
+    return operation.getTimings();
+  }
+
   @Override
   public void executeAndSetResult(Client cassandra, CassandraHost cassandraHost)
       throws Exception {
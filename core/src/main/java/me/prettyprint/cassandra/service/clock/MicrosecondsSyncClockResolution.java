@@ -1,10 +1,13 @@
 package me.prettyprint.cassandra.service.clock;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import me.prettyprint.hector.api.ClockResolution;
 
 
 /**
- * Synchronized Milliseconds Resolution used to create clocks.
+ * Synchronized Microseconds Resolution used to create clocks. Timestamps are unique
+ * and increasing across all instances and threads of the JVM, without locking.
  *
  * @author Patricio Echague (pechague@gmail.com)
  */
@@ -16,25 +19,24 @@ public class MicrosecondsSyncClockResolution extends AbstractClockResolution imp
   /**
    * The last time value issued. Used to try to prevent duplicates.
    */
-  private static long lastTime = -1;
+  private static final AtomicLong lastTime = new AtomicLong(-1);
 
   @Override
   public long createClock() {
     // The following simulates a microseconds resolution by advancing a static counter
     // every time a client calls the createClock method, simulating a tick.
     long us = getSystemMilliseconds() * ONE_THOUSAND;
-    // Synchronized to guarantee unique time within and across threads.
-    synchronized (MicrosecondsSyncClockResolution.class) {
-      if (us > lastTime) {
-        lastTime = us;
-      } else {
-        // the time i got from the system is equals or less
-        // (hope not - clock going backwards)
-        // One more "microsecond"
-        us = ++lastTime;
+    // Compare and set rather than a lock to guarantee unique time within and across
+    // threads, every mutation without an explicit clock comes through here.
+    while (true) {
+      long last = lastTime.get();
+      // when the time from the system is equal or less (hope not - clock going
+      // backwards) take one more "microsecond"
+      long next = us > last ? us : last + 1;
+      if (lastTime.compareAndSet(last, next)) {
+        return next;
       }
     }
-    return us;
   }
 
 }
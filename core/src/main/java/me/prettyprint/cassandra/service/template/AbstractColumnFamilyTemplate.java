@@ -11,6 +11,7 @@ import me.prettyprint.hector.api.ColumnFactory;
 import me.prettyprint.hector.api.ConsistencyLevelPolicy;
 import me.prettyprint.hector.api.Keyspace;
 import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 import me.prettyprint.hector.api.factory.HFactory;
 import me.prettyprint.hector.api.mutation.MutationResult;
 import me.prettyprint.hector.api.mutation.Mutator;
@@ -44,6 +45,13 @@ public class AbstractColumnFamilyTemplate<K, N> {
    */
   protected boolean batched;
 
+  /**
+   * If true, query results keep the columns of standard rows serialized and
+   * only decode the ones which are read.
+   */
+  protected boolean lazyResults;
+  protected ComparatorType lazyNameComparator;
+
   /**
    * An optional clock value to pass to deletes. If null, the default value
    * generated by Hector is used
@@ -99,6 +107,34 @@ public class AbstractColumnFamilyTemplate<K, N> {
     return this;
   }
 
+  public boolean isLazyResults() {
+    return lazyResults;
+  }
+
+  /**
+   * Keep the columns of query results in their serialized form, looking them
+   * up by serialized name and decoding only the columns which are read.
+   * @param lazyResults
+   * @return
+   */
+  public AbstractColumnFamilyTemplate<K, N> setLazyResults(boolean lazyResults) {
+    this.lazyResults = lazyResults;
+    this.lazyNameComparator = null;
+    return this;
+  }
+
+  /**
+   * Lazy results whose columns are looked up with a binary search over their
+   * serialized names, ordered by the comparator of the column family.
+   * @param nameComparator the comparator type of the column family
+   * @return
+   */
+  public AbstractColumnFamilyTemplate<K, N> setLazyResults(ComparatorType nameComparator) {
+    this.lazyResults = true;
+    this.lazyNameComparator = nameComparator;
+    return this;
+  }
+
   public String getColumnFamily() {
     return columnFamily;
   }
@@ -14,6 +14,7 @@ import me.prettyprint.cassandra.serializers.LongSerializer;
 import me.prettyprint.cassandra.serializers.StringSerializer;
 import me.prettyprint.cassandra.serializers.UUIDSerializer;
 import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.OperationTimings;
 import me.prettyprint.hector.api.ResultStatus;
 import me.prettyprint.hector.api.Serializer;
 
@@ -103,5 +104,10 @@ public abstract class AbstractResultWrapper<K, N> implements ColumnFamilyResult<
   public CassandraHost getHostUsed() {
     return resultStatus.getHostUsed();
   }
+
+  @Override
+  public OperationTimings getTimings() {
+    return resultStatus.getTimings();
+  }
   
 }
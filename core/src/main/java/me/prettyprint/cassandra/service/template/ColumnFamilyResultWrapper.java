@@ -5,9 +5,11 @@ import java.util.*;
 
 import me.prettyprint.cassandra.model.ExecutionResult;
 import me.prettyprint.cassandra.model.HColumnImpl;
+import me.prettyprint.cassandra.model.LazyColumnSliceImpl;
 import me.prettyprint.cassandra.serializers.ByteBufferSerializer;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 import org.apache.cassandra.thrift.Column;
 import org.apache.cassandra.thrift.ColumnOrSuperColumn;
 
@@ -15,6 +17,11 @@ import org.apache.cassandra.thrift.ColumnOrSuperColumn;
  * Wraps the results with as an Iterator. The underlying Iterator has already been advanced
  * to the first row upon construction.
  * 
+ * In lazy mode the columns of a standard row are kept as returned by thrift
+ * and looked up by their serialized name (see {@link LazyColumnSliceImpl}),
+ * so only the columns actually read are deserialized. Rows holding super
+ * columns are always flattened eagerly.
+ * 
  * @author zznate
  */
 public class ColumnFamilyResultWrapper<K,N> extends AbstractResultWrapper<K,N> {
@@ -23,17 +30,39 @@ public class ColumnFamilyResultWrapper<K,N> extends AbstractResultWrapper<K,N> {
   private Iterator<Map.Entry<ByteBuffer, List<ColumnOrSuperColumn>>> rows;
   private Map.Entry<ByteBuffer, List<ColumnOrSuperColumn>> entry;
   private boolean hasEntries;
+  private final boolean lazy;
+  private final ComparatorType nameComparator;
+  private final boolean reversed;
+  private LazyColumnSliceImpl<N,ByteBuffer> lazySlice;
   
   public ColumnFamilyResultWrapper(Serializer<K> keySerializer,
       Serializer<N> columnNameSerializer,
       ExecutionResult<Map<ByteBuffer,List<ColumnOrSuperColumn>>> executionResult) {
+    this(keySerializer, columnNameSerializer, executionResult, false, null, false);
+  }
+
+  /**
+   * @param lazy keep standard columns serialized until they are read
+   * @param nameComparator the comparator of the column family, to binary
+   *          search the names of lazy columns, null to scan them
+   * @param reversed true if the slice was requested in reversed order
+   */
+  public ColumnFamilyResultWrapper(Serializer<K> keySerializer,
+      Serializer<N> columnNameSerializer,
+      ExecutionResult<Map<ByteBuffer,List<ColumnOrSuperColumn>>> executionResult,
+      boolean lazy, ComparatorType nameComparator, boolean reversed) {
     super(keySerializer, columnNameSerializer, executionResult);    
+    this.lazy = lazy;
+    this.nameComparator = nameComparator;
+    this.reversed = reversed;
     this.rows = executionResult.get().entrySet().iterator();    
 		if(hasNext()) {
 			next();
 		}
 
-    hasEntries = getColumnNames() != null && getColumnNames().size() > 0;
+    if ( lazySlice == null ) {
+      hasEntries = getColumnNames() != null && getColumnNames().size() > 0;
+    }
   }
    
   /**
@@ -41,6 +70,9 @@ public class ColumnFamilyResultWrapper<K,N> extends AbstractResultWrapper<K,N> {
    * @return
    */
   public Collection<N> getColumnNames() {
+    if ( lazySlice != null ) {
+      return lazySlice.getColumnNames();
+    }
     return columns == null ? null : columns.keySet();
   }
   
@@ -50,6 +82,9 @@ public class ColumnFamilyResultWrapper<K,N> extends AbstractResultWrapper<K,N> {
   }
 
   public HColumn<N,ByteBuffer> getColumn( N columnName ) {
+    if ( lazySlice != null ) {
+      return lazySlice.getColumnByName( columnName );
+    }
     return columns.get( columnName );
   }
   
@@ -88,6 +123,32 @@ public class ColumnFamilyResultWrapper<K,N> extends AbstractResultWrapper<K,N> {
     columns.put(colName, column);  
   }
 
+  private static boolean isStandardRow(List<ColumnOrSuperColumn> cosclist) {
+    for (ColumnOrSuperColumn cosc : cosclist) {
+      if ( !cosc.isSetColumn() ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /*
+   * View of the thrift columns held by the ColumnOrSuperColumn list
+   */
+  private static List<Column> standardColumns(final List<ColumnOrSuperColumn> cosclist) {
+    return new AbstractList<Column>() {
+      @Override
+      public Column get(int index) {
+        return cosclist.get(index).getColumn();
+      }
+
+      @Override
+      public int size() {
+        return cosclist.size();
+      }
+    };
+  }
+
   @Override
   public K getKey() {    
     return keySerializer.fromByteBuffer(entry.getKey().duplicate());
@@ -99,6 +160,14 @@ public class ColumnFamilyResultWrapper<K,N> extends AbstractResultWrapper<K,N> {
       throw new NoSuchElementException("No more rows left on this HColumnFamily");
     }
     entry = rows.next();   
+    if ( lazy && isStandardRow(entry.getValue()) ) {
+      columns = null;
+      lazySlice = new LazyColumnSliceImpl<N, ByteBuffer>(standardColumns(entry.getValue()),
+          columnNameSerializer, ByteBufferSerializer.get(), nameComparator, reversed);
+      hasEntries = entry.getValue().size() > 0;
+      return this;
+    }
+    lazySlice = null;
     columns = new LinkedHashMap<N,HColumn<N,ByteBuffer>>();
     applyToRow(entry.getValue());
     return this;
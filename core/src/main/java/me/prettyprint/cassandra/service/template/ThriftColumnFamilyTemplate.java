@@ -44,12 +44,12 @@ public class ThriftColumnFamilyTemplate<K, N> extends ColumnFamilyTemplate<K, N>
 
   public ColumnFamilyResult<K, N> doExecuteSlice(final K key, final HSlicePredicate<N> workingSlicePredicate) {    
     return new ColumnFamilyResultWrapper<K, N>(keySerializer, topSerializer, 
-        sliceInternal(key, workingSlicePredicate));
+        sliceInternal(key, workingSlicePredicate), lazyResults, lazyNameComparator, workingSlicePredicate.isReversed());
   }
 
   public ColumnFamilyResult<K, N> doExecuteMultigetSlice(final Iterable<K> keys, final HSlicePredicate<N> workingSlicePredicate) {    
     return new ColumnFamilyResultWrapper<K, N>(keySerializer, topSerializer, 
-        multigetSliceInternal(keys, workingSlicePredicate));
+        multigetSliceInternal(keys, workingSlicePredicate), lazyResults, lazyNameComparator, workingSlicePredicate.isReversed());
   }
 
   public <V> MappedColumnFamilyResult<K, N, V> doExecuteMultigetSlice(final Iterable<K> keys, 
@@ -61,13 +61,13 @@ public class ThriftColumnFamilyTemplate<K, N> extends ColumnFamilyTemplate<K, N>
 
   protected <V> ColumnFamilyResult<K, N> doExecuteIndexedSlices(final IndexedSlicesPredicate<K, N, V> predicate) {
     return new ColumnFamilyResultWrapper<K, N>(keySerializer, topSerializer,
-        indexedSlicesInternal(predicate, activeSlicePredicate));
+        indexedSlicesInternal(predicate, activeSlicePredicate), lazyResults, lazyNameComparator, activeSlicePredicate.isReversed());
   }
 
   protected <V> ColumnFamilyResult<K, N> doExecuteIndexedSlices(IndexedSlicesPredicate<K, N, V> predicate,
       HSlicePredicate<N> slicePredicate) {
     return new ColumnFamilyResultWrapper<K, N>(keySerializer, topSerializer,
-        indexedSlicesInternal(predicate, slicePredicate));
+        indexedSlicesInternal(predicate, slicePredicate), lazyResults, lazyNameComparator, slicePredicate.isReversed());
   }
 
   protected <R,V> MappedColumnFamilyResult<K, N, R> doExecuteIndexedSlices(
@@ -85,7 +85,7 @@ public class ThriftColumnFamilyTemplate<K, N> extends ColumnFamilyTemplate<K, N>
 
   private ExecutionResult<Map<ByteBuffer, List<ColumnOrSuperColumn>>> sliceInternal(final K key,
       final HSlicePredicate<N> workingSlicePredicate) {
-    return ((ExecutingKeyspace)keyspace).doExecuteOperation(new Operation<Map<ByteBuffer,List<ColumnOrSuperColumn>>>(OperationType.READ) {
+    return ((ExecutingKeyspace)keyspace).doExecuteOperation(new Operation<Map<ByteBuffer,List<ColumnOrSuperColumn>>>(OperationType.READ, columnFamily) {
       @Override
       public Map<ByteBuffer,List<ColumnOrSuperColumn>> execute(Cassandra.Client cassandra) throws HectorException {
         Map<ByteBuffer,List<ColumnOrSuperColumn>> cosc = new LinkedHashMap<ByteBuffer, List<ColumnOrSuperColumn>>();
@@ -107,7 +107,7 @@ public class ThriftColumnFamilyTemplate<K, N> extends ColumnFamilyTemplate<K, N>
 
   private ExecutionResult<Map<ByteBuffer, List<ColumnOrSuperColumn>>> multigetSliceInternal(final Iterable<K> keys,
       final HSlicePredicate<N> workingSlicePredicate) {
-    return ((ExecutingKeyspace)keyspace).doExecuteOperation(new Operation<Map<ByteBuffer,List<ColumnOrSuperColumn>>>(OperationType.READ) {
+    return ((ExecutingKeyspace)keyspace).doExecuteOperation(new Operation<Map<ByteBuffer,List<ColumnOrSuperColumn>>>(OperationType.READ, columnFamily) {
       @Override
       public Map<ByteBuffer,List<ColumnOrSuperColumn>> execute(Cassandra.Client cassandra) throws HectorException {
         try {          
@@ -126,7 +126,7 @@ public class ThriftColumnFamilyTemplate<K, N> extends ColumnFamilyTemplate<K, N>
   private <V> ExecutionResult<Map<ByteBuffer, List<ColumnOrSuperColumn>>> indexedSlicesInternal(
       final IndexedSlicesPredicate<K, N, V> predicate, 
       final HSlicePredicate<N> workingSlicePredicate) {
-    return ((ExecutingKeyspace)keyspace).doExecuteOperation(new Operation<Map<ByteBuffer,List<ColumnOrSuperColumn>>>(OperationType.READ) {
+    return ((ExecutingKeyspace)keyspace).doExecuteOperation(new Operation<Map<ByteBuffer,List<ColumnOrSuperColumn>>>(OperationType.READ, columnFamily) {
       @Override
       public Map<ByteBuffer, List<ColumnOrSuperColumn>> execute(Client cassandra) throws HectorException {
         try {
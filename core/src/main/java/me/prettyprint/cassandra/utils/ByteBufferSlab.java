@@ -0,0 +1,152 @@
+package me.prettyprint.cassandra.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import me.prettyprint.cassandra.serializers.AbstractSerializer;
+import me.prettyprint.hector.api.BufferSerializer;
+import me.prettyprint.hector.api.Serializer;
+
+/**
+ * Hands out small ByteBuffers as slices of larger chunks, so serializing many
+ * names, values or keys costs one allocation per chunk rather than one per
+ * value. Values are written in place by a {@link BufferSerializer}; other
+ * serializers, and those which only inherit the fallbacks of
+ * {@link AbstractSerializer}, go through their own toByteBuffer.
+ *
+ * A slice keeps its whole chunk reachable, so a slab should live as long as
+ * the values written into it, typically one batch or one predicate. It is not
+ * thread safe.
+ */
+public final class ByteBufferSlab {
+
+  public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+  private static final ConcurrentMap<Class<?>, Boolean> writesInPlace = new ConcurrentHashMap<Class<?>, Boolean>();
+
+  private final int chunkSize;
+  private ByteBuffer chunk;
+
+  public ByteBufferSlab() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  public ByteBufferSlab(int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "chunkSize must be positive");
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * @return a buffer of size bytes with position 0 and limit size. Sizes over
+   *         a quarter of the chunk size get a buffer of their own.
+   */
+  public ByteBuffer allocate(int size) {
+    if (size > chunkSize / 4) {
+      return ByteBuffer.allocate(size);
+    }
+    if (chunk == null || chunk.remaining() < size) {
+      chunk = ByteBuffer.allocate(chunkSize);
+    }
+    ByteBuffer slice = chunk.slice();
+    slice.limit(size);
+    chunk.position(chunk.position() + size);
+    return slice;
+  }
+
+  /**
+   * Serializes value into the slab.
+   * @return the bytes of value, or null for a null value
+   */
+  public <T> ByteBuffer serialize(T value, Serializer<T> serializer) {
+    if (value == null) {
+      return null;
+    }
+    if (!writesInPlace(serializer)) {
+      return serializer.toByteBuffer(value);
+    }
+    BufferSerializer<T> bufferSerializer = (BufferSerializer<T>) serializer;
+    ByteBuffer bytes = allocate(bufferSerializer.serializedSize(value));
+    bufferSerializer.writeTo(value, bytes);
+    bytes.flip();
+    return bytes;
+  }
+
+  /**
+   * Serializes all the values, in iteration order, next to each other in the
+   * slab.
+   */
+  public <T> List<ByteBuffer> serializeAll(Collection<T> values, Serializer<T> serializer) {
+    if (!writesInPlace(serializer)) {
+      return toByteBuffers(values, serializer);
+    }
+    BufferSerializer<T> bufferSerializer = (BufferSerializer<T>) serializer;
+    return writeAll(values, bufferSerializer, allocate(serializedSize(values, bufferSerializer)));
+  }
+
+  /**
+   * Serializes all the values, in iteration order, into a single buffer of
+   * exactly their size.
+   */
+  public static <T> List<ByteBuffer> pack(Collection<T> values, Serializer<T> serializer) {
+    if (!writesInPlace(serializer)) {
+      return toByteBuffers(values, serializer);
+    }
+    BufferSerializer<T> bufferSerializer = (BufferSerializer<T>) serializer;
+    return writeAll(values, bufferSerializer, ByteBuffer.allocate(serializedSize(values, bufferSerializer)));
+  }
+
+  /**
+   * Sizing a value with the fallback of {@link AbstractSerializer} serializes
+   * it, which would then happen twice.
+   */
+  static boolean writesInPlace(Serializer<?> serializer) {
+    if (!(serializer instanceof BufferSerializer)) {
+      return false;
+    }
+    Class<?> type = serializer.getClass();
+    Boolean writes = writesInPlace.get(type);
+    if (writes == null) {
+      try {
+        writes = type.getMethod("serializedSize", Object.class).getDeclaringClass() != AbstractSerializer.class;
+      } catch (NoSuchMethodException e) {
+        writes = false;
+      }
+      writesInPlace.put(type, writes);
+    }
+    return writes;
+  }
+
+  private static <T> int serializedSize(Collection<T> values, BufferSerializer<T> serializer) {
+    int size = 0;
+    for (T value : values) {
+      size += serializer.serializedSize(value);
+    }
+    return size;
+  }
+
+  private static <T> List<ByteBuffer> writeAll(Collection<T> values, BufferSerializer<T> serializer, ByteBuffer slab) {
+    List<ByteBuffer> bytes = new ArrayList<ByteBuffer>(values.size());
+    for (T value : values) {
+      if (value == null) {
+        bytes.add(null);
+        continue;
+      }
+      ByteBuffer slice = slab.slice();
+      slice.limit(serializer.writeTo(value, slab));
+      bytes.add(slice);
+    }
+    return bytes;
+  }
+
+  private static <T> List<ByteBuffer> toByteBuffers(Collection<T> values, Serializer<T> serializer) {
+    List<ByteBuffer> bytes = new ArrayList<ByteBuffer>(values.size());
+    for (T value : values) {
+      bytes.add(serializer.toByteBuffer(value));
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,604 @@
+package me.prettyprint.cassandra.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import me.prettyprint.hector.api.beans.AbstractComposite;
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Comparators which order serialized column names the same way the matching
+ * Cassandra comparator does, without deserializing them. Used to search the
+ * raw thrift columns of a result for a given name, to merge the results of
+ * several queries or to sort names on the client.
+ *
+ * The buffers are read with absolute gets between position and limit, so
+ * they are never modified. Components of composites are compared in place,
+ * see {@link #compare(Comparator, ByteBuffer, int, int, ByteBuffer, int, int)}.
+ */
+public final class ByteComparators {
+
+  private static final String MARSHAL_PACKAGE = "org.apache.cassandra.db.marshal.";
+  private static final String REVERSED_SUFFIX = "(reversed=true)";
+  // time high, time mid then time low
+  private static final int[] TIMESTAMP_BYTES = { 7, 4, 5, 0, 1, 2, 3 };
+
+  /** Unsigned lexical order, as used by BytesType, AsciiType and UTF8Type */
+  public static final Comparator<ByteBuffer> BYTES = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      int length = Math.min(l1, l2);
+      for (int i = 0; i < length; i++) {
+        int b1 = o1.get(s1 + i) & 0xFF;
+        int b2 = o2.get(s2 + i) & 0xFF;
+        if ( b1 != b2 ) {
+          return b1 - b2;
+        }
+      }
+      return l1 - l2;
+    }
+  };
+
+  /** Signed 64 bit order, as used by LongType */
+  public static final Comparator<ByteBuffer> LONG = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 != 8 || l2 != 8 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      long v1 = o1.getLong(s1);
+      long v2 = o2.getLong(s2);
+      return v1 < v2 ? -1 : (v1 == v2 ? 0 : 1);
+    }
+  };
+
+  /** Signed 32 bit order, as used by Int32Type */
+  public static final Comparator<ByteBuffer> INT32 = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 != 4 || l2 != 4 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      int v1 = o1.getInt(s1);
+      int v2 = o2.getInt(s2);
+      return v1 < v2 ? -1 : (v1 == v2 ? 0 : 1);
+    }
+  };
+
+  /** Two's complement integers of any length, as used by IntegerType */
+  public static final Comparator<ByteBuffer> VARINT = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 == 0 || l2 == 0 ) {
+        return l1 - l2;
+      }
+      boolean negative1 = o1.get(s1) < 0;
+      boolean negative2 = o2.get(s2) < 0;
+      if ( negative1 != negative2 ) {
+        return negative1 ? -1 : 1;
+      }
+      // leading sign bytes carry no value
+      int skip1 = signBytes(o1, s1, l1, negative1);
+      int skip2 = signBytes(o2, s2, l2, negative2);
+      int length1 = l1 - skip1;
+      int length2 = l2 - skip2;
+      if ( length1 != length2 ) {
+        // a longer positive number is larger, a longer negative one smaller
+        return (length1 < length2) != negative1 ? -1 : 1;
+      }
+      return unsigned(o1, s1 + skip1, length1, o2, s2 + skip2, length2);
+    }
+  };
+
+  /** A 4 byte scale then the unscaled value, as used by DecimalType */
+  public static final Comparator<ByteBuffer> DECIMAL = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 < 5 || l2 < 5 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      // scales differ too often to compare the bytes directly
+      return decimal(o1, s1, l1).compareTo(decimal(o2, s2, l2));
+    }
+  };
+
+  /** As used by DoubleType */
+  public static final Comparator<ByteBuffer> DOUBLE = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 != 8 || l2 != 8 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      return Double.compare(o1.getDouble(s1), o2.getDouble(s2));
+    }
+  };
+
+  /** As used by FloatType */
+  public static final Comparator<ByteBuffer> FLOAT = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 != 4 || l2 != 4 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      return Float.compare(o1.getFloat(s1), o2.getFloat(s2));
+    }
+  };
+
+  /** As used by BooleanType */
+  public static final Comparator<ByteBuffer> BOOLEAN = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 == 0 || l2 == 0 ) {
+        return l1 - l2;
+      }
+      return o1.get(s1) - o2.get(s2);
+    }
+  };
+
+  /** Signed most then least significant bits, as used by LexicalUUIDType */
+  public static final Comparator<ByteBuffer> LEXICAL_UUID = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 != 16 || l2 != 16 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      long msb1 = o1.getLong(s1);
+      long msb2 = o2.getLong(s2);
+      if ( msb1 != msb2 ) {
+        return msb1 < msb2 ? -1 : 1;
+      }
+      long lsb1 = o1.getLong(s1 + 8);
+      long lsb2 = o2.getLong(s2 + 8);
+      return lsb1 < lsb2 ? -1 : (lsb1 == lsb2 ? 0 : 1);
+    }
+  };
+
+  /** Timestamp then signed bytes, as used by TimeUUIDType */
+  public static final Comparator<ByteBuffer> TIME_UUID = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 != 16 || l2 != 16 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      int cmp = timestamps(o1, s1, o2, s2);
+      return cmp != 0 ? cmp : signed(o1, s1, o2, s2, 16);
+    }
+  };
+
+  /**
+   * Version, then timestamp for time uuids, then unsigned bytes, as used by
+   * UUIDType
+   */
+  public static final Comparator<ByteBuffer> UUID = new RangeComparator() {
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 != 16 || l2 != 16 ) {
+        return unsigned(o1, s1, l1, o2, s2, l2);
+      }
+      int version1 = (o1.get(s1 + 6) >> 4) & 0x0F;
+      int version2 = (o2.get(s2 + 6) >> 4) & 0x0F;
+      if ( version1 != version2 ) {
+        return version1 - version2;
+      }
+      if ( version1 == 1 ) {
+        int cmp = timestamps(o1, s1, o2, s2);
+        if ( cmp != 0 ) {
+          return cmp;
+        }
+      }
+      return unsigned(o1, s1, 16, o2, s2, 16);
+    }
+  };
+
+  private static final ConcurrentMap<String, Typed> byName = new ConcurrentHashMap<String, Typed>();
+
+  /**
+   * DynamicCompositeType with the aliases Hector writes by default, see
+   * {@link AbstractComposite#DEFAULT_ALIAS_TO_COMPARATOR_MAPPING}
+   */
+  public static final Comparator<ByteBuffer> DYNAMIC_COMPOSITE =
+      dynamicComposite(AbstractComposite.DEFAULT_ALIAS_TO_COMPARATOR_MAPPING);
+
+  private ByteComparators() {
+  }
+
+  /**
+   * The byte comparator for the given comparator type, or null if the type
+   * has none (in which case callers should fall back to byte equality).
+   * Types carrying parameters, such as
+   * <code>CompositeType(LongType,ReversedType(UTF8Type))</code>, are parsed.
+   */
+  public static Comparator<ByteBuffer> forType(ComparatorType comparatorType) {
+    if ( comparatorType == null ) {
+      return null;
+    }
+    return forTypeName(comparatorType.getClassName());
+  }
+
+  /**
+   * The byte comparator for a comparator as written in a column family
+   * definition, with or without its package, or null if it has none
+   */
+  public static Comparator<ByteBuffer> forTypeName(String typeName) {
+    Typed typed = typed(typeName);
+    return typed == null ? null : typed.comparator;
+  }
+
+  /**
+   * Orders the other way round, except that an empty name still sorts
+   * first, as ReversedType does
+   */
+  public static Comparator<ByteBuffer> reversed(final Comparator<ByteBuffer> comparator) {
+    Assert.notNull(comparator, "comparator is null");
+    return new RangeComparator() {
+      @Override
+      int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+        if ( l1 == 0 || l2 == 0 ) {
+          return l1 - l2;
+        }
+        return ByteComparators.compare(comparator, o2, s2, l2, o1, s1, l1);
+      }
+    };
+  }
+
+  /**
+   * Orders CompositeType names whose components have the given comparators
+   */
+  @SuppressWarnings("unchecked")
+  public static Comparator<ByteBuffer> composite(List<Comparator<ByteBuffer>> components) {
+    Assert.isTrue(!components.isEmpty(), "a composite needs at least one component");
+    Assert.noneNull(components.toArray());
+    return new CompositeComparator(components.toArray(new Comparator[components.size()]), null);
+  }
+
+  /**
+   * Orders DynamicCompositeType names, with the given alias to comparator
+   * type mapping. An upper case alias missing from the mapping stands for
+   * the reversed type of its lower case one, as Hector writes it.
+   */
+  public static Comparator<ByteBuffer> dynamicComposite(Map<Byte, String> aliases) {
+    Typed[] types = new Typed[256];
+    for (Map.Entry<Byte, String> alias : aliases.entrySet()) {
+      types[alias.getKey() & 0xFF] = typed(alias.getValue());
+    }
+    for (char c = 'a'; c <= 'z'; c++) {
+      Typed lower = types[c];
+      if ( types[Character.toUpperCase(c)] == null && lower != null ) {
+        types[Character.toUpperCase(c)] = new Typed("ReversedType", reversed(lower.comparator));
+      }
+    }
+    return new CompositeComparator(null, types);
+  }
+
+  /**
+   * Compares length1 bytes of o1 at the absolute start1 with length2 bytes
+   * of o2 at start2, without slicing the buffers for the comparators of this
+   * class.
+   */
+  public static int compare(Comparator<ByteBuffer> comparator, ByteBuffer o1, int start1, int length1,
+      ByteBuffer o2, int start2, int length2) {
+    if ( comparator instanceof RangeComparator ) {
+      return ((RangeComparator) comparator).compare(o1, start1, length1, o2, start2, length2);
+    }
+    return comparator.compare(slice(o1, start1, length1), slice(o2, start2, length2));
+  }
+
+  /**
+   * Compares the remaining bytes of both buffers as unsigned values, the
+   * shorter buffer sorting first when one is a prefix of the other.
+   */
+  public static int compareUnsigned(ByteBuffer o1, ByteBuffer o2) {
+    return unsigned(o1, o1.position(), o1.remaining(), o2, o2.position(), o2.remaining());
+  }
+
+  private static int unsigned(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+    return ((RangeComparator) BYTES).compare(o1, s1, l1, o2, s2, l2);
+  }
+
+  private static int signed(ByteBuffer o1, int s1, ByteBuffer o2, int s2, int length) {
+    for (int i = 0; i < length; i++) {
+      int cmp = o1.get(s1 + i) - o2.get(s2 + i);
+      if ( cmp != 0 ) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Compares the 60 bit timestamps of two version 1 uuids, stored as time
+   * low, time mid then time high
+   */
+  private static int timestamps(ByteBuffer o1, int s1, ByteBuffer o2, int s2) {
+    int cmp = (o1.get(s1 + 6) & 0x0F) - (o2.get(s2 + 6) & 0x0F);
+    if ( cmp != 0 ) {
+      return cmp;
+    }
+    for (int i : TIMESTAMP_BYTES) {
+      cmp = (o1.get(s1 + i) & 0xFF) - (o2.get(s2 + i) & 0xFF);
+      if ( cmp != 0 ) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private static int signBytes(ByteBuffer bb, int start, int length, boolean negative) {
+    byte sign = negative ? (byte) 0xFF : 0;
+    int skip = 0;
+    while ( skip < length - 1 && bb.get(start + skip) == sign
+        && (bb.get(start + skip + 1) < 0) == negative ) {
+      skip++;
+    }
+    return skip;
+  }
+
+  private static BigDecimal decimal(ByteBuffer bb, int start, int length) {
+    byte[] unscaled = new byte[length - 4];
+    for (int i = 0; i < unscaled.length; i++) {
+      unscaled[i] = bb.get(start + 4 + i);
+    }
+    return new BigDecimal(new BigInteger(unscaled), bb.getInt(start));
+  }
+
+  private static ByteBuffer slice(ByteBuffer bb, int start, int length) {
+    ByteBuffer slice = bb.duplicate();
+    slice.clear();
+    slice.position(start);
+    slice.limit(start + length);
+    return slice;
+  }
+
+  private static int shortAt(ByteBuffer bb, int index) {
+    return ((bb.get(index) & 0xFF) << 8) | (bb.get(index + 1) & 0xFF);
+  }
+
+  private static Typed typed(String typeName) {
+    if ( typeName == null ) {
+      return null;
+    }
+    Typed typed = byName.get(typeName);
+    if ( typed == null ) {
+      typed = parse(typeName.trim());
+      byName.putIfAbsent(typeName, typed);
+    }
+    return typed.comparator == null ? null : typed;
+  }
+
+  private static Typed parse(String typeName) {
+    if ( typeName.endsWith(REVERSED_SUFFIX) ) {
+      Typed base = typed(typeName.substring(0, typeName.length() - REVERSED_SUFFIX.length()));
+      return new Typed("ReversedType", base == null ? null : reversed(base.comparator));
+    }
+    int open = typeName.indexOf('(');
+    String name = typeName.substring(0, open < 0 ? typeName.length() : open).trim();
+    if ( name.startsWith(MARSHAL_PACKAGE) ) {
+      name = name.substring(MARSHAL_PACKAGE.length());
+    }
+    if ( open >= 0 ) {
+      List<String> parameters = parameters(typeName.substring(open + 1, typeName.lastIndexOf(')')));
+      return new Typed(name, parameterized(name, parameters));
+    }
+    if ( name.equals("BytesType") || name.equals("AsciiType") || name.equals("UTF8Type")
+        || name.equals("DateType") || name.equals("TimestampType") ) {
+      // DateType orders its longs as unsigned bytes
+      return new Typed(name, BYTES);
+    }
+    if ( name.equals("LongType") ) {
+      return new Typed(name, LONG);
+    }
+    if ( name.equals("Int32Type") ) {
+      return new Typed(name, INT32);
+    }
+    if ( name.equals("IntegerType") ) {
+      return new Typed(name, VARINT);
+    }
+    if ( name.equals("DecimalType") ) {
+      return new Typed(name, DECIMAL);
+    }
+    if ( name.equals("DoubleType") ) {
+      return new Typed(name, DOUBLE);
+    }
+    if ( name.equals("FloatType") ) {
+      return new Typed(name, FLOAT);
+    }
+    if ( name.equals("BooleanType") ) {
+      return new Typed(name, BOOLEAN);
+    }
+    if ( name.equals("LexicalUUIDType") ) {
+      return new Typed(name, LEXICAL_UUID);
+    }
+    if ( name.equals("TimeUUIDType") ) {
+      return new Typed(name, TIME_UUID);
+    }
+    if ( name.equals("UUIDType") ) {
+      return new Typed(name, UUID);
+    }
+    if ( name.equals("DynamicCompositeType") ) {
+      return new Typed(name, DYNAMIC_COMPOSITE);
+    }
+    // CompositeType without its components, collections, counters
+    return new Typed(name, null);
+  }
+
+  private static Comparator<ByteBuffer> parameterized(String name, List<String> parameters) {
+    if ( name.equals("ReversedType") && parameters.size() == 1 ) {
+      Comparator<ByteBuffer> base = forTypeName(parameters.get(0));
+      return base == null ? null : reversed(base);
+    }
+    if ( name.equals("CompositeType") ) {
+      List<Comparator<ByteBuffer>> components = new ArrayList<Comparator<ByteBuffer>>(parameters.size());
+      for (String parameter : parameters) {
+        Comparator<ByteBuffer> component = forTypeName(parameter);
+        if ( component == null ) {
+          return null;
+        }
+        components.add(component);
+      }
+      return composite(components);
+    }
+    if ( name.equals("DynamicCompositeType") ) {
+      Map<Byte, String> aliases = new HashMap<Byte, String>();
+      for (String parameter : parameters) {
+        int arrow = parameter.indexOf("=>");
+        if ( arrow != 1 ) {
+          return null;
+        }
+        aliases.put((byte) parameter.charAt(0), parameter.substring(arrow + 2));
+      }
+      return dynamicComposite(aliases);
+    }
+    return null;
+  }
+
+  /**
+   * Splits on the commas which are not nested in parentheses
+   */
+  private static List<String> parameters(String parameters) {
+    List<String> split = new ArrayList<String>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < parameters.length(); i++) {
+      char c = parameters.charAt(i);
+      if ( c == '(' ) {
+        depth++;
+      } else if ( c == ')' ) {
+        depth--;
+      } else if ( c == ',' && depth == 0 ) {
+        split.add(parameters.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    split.add(parameters.substring(start).trim());
+    return split;
+  }
+
+  /**
+   * Compares ranges of buffers, so composites need no slice per component
+   */
+  private abstract static class RangeComparator implements Comparator<ByteBuffer> {
+
+    @Override
+    public int compare(ByteBuffer o1, ByteBuffer o2) {
+      return compare(o1, o1.position(), o1.remaining(), o2, o2.position(), o2.remaining());
+    }
+
+    abstract int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2);
+  }
+
+  /**
+   * A comparator along with the simple name of its type, which orders
+   * components of different types in a dynamic composite
+   */
+  private static final class Typed {
+    final String name;
+    final Comparator<ByteBuffer> comparator;
+
+    Typed(String name, Comparator<ByteBuffer> comparator) {
+      this.name = name;
+      this.comparator = comparator;
+    }
+  }
+
+  /**
+   * CompositeType when given the comparators of its components,
+   * DynamicCompositeType when given the types of its aliases
+   */
+  private static final class CompositeComparator extends RangeComparator {
+
+    private final Comparator<ByteBuffer>[] components;
+    private final Typed[] aliases;
+
+    CompositeComparator(Comparator<ByteBuffer>[] components, Typed[] aliases) {
+      this.components = components;
+      this.aliases = aliases;
+    }
+
+    @Override
+    int compare(ByteBuffer o1, int s1, int l1, ByteBuffer o2, int s2, int l2) {
+      if ( l1 == 0 || l2 == 0 ) {
+        return l1 - l2;
+      }
+      int p1 = s1;
+      int p2 = s2;
+      int end1 = s1 + l1;
+      int end2 = s2 + l2;
+      int i = 0;
+      while ( p1 < end1 && p2 < end2 ) {
+        Comparator<ByteBuffer> comparator;
+        if ( aliases == null ) {
+          comparator = components[Math.min(i, components.length - 1)];
+        } else {
+          Typed t1 = typeAt(o1, p1);
+          Typed t2 = typeAt(o2, p2);
+          p1 += headerLength(o1, p1);
+          p2 += headerLength(o2, p2);
+          // components of different types are ordered by type name
+          int cmp = t1.name.compareTo(t2.name);
+          if ( cmp != 0 ) {
+            return cmp < 0 ? -1 : 1;
+          }
+          comparator = t1.comparator;
+        }
+        int len1 = shortAt(o1, p1);
+        int len2 = shortAt(o2, p2);
+        int cmp = ByteComparators.compare(comparator, o1, p1 + 2, len1, o2, p2 + 2, len2);
+        if ( cmp != 0 ) {
+          return cmp;
+        }
+        p1 += 2 + len1;
+        p2 += 2 + len2;
+        byte e1 = p1 < end1 ? o1.get(p1++) : 0;
+        byte e2 = p2 < end2 ? o2.get(p2++) : 0;
+        if ( e1 < 0 ) {
+          if ( e2 >= 0 ) {
+            return -1;
+          }
+        } else if ( e1 > 0 ) {
+          if ( e2 <= 0 ) {
+            return 1;
+          }
+        } else if ( e2 != 0 ) {
+          return -e2;
+        }
+        i++;
+      }
+      if ( p1 >= end1 ) {
+        return p2 >= end2 ? 0 : -1;
+      }
+      return 1;
+    }
+
+    private Typed typeAt(ByteBuffer bb, int p) {
+      int header = shortAt(bb, p);
+      if ( (header & 0x8000) != 0 ) {
+        Typed typed = aliases[header & 0xFF];
+        if ( typed == null ) {
+          throw new IllegalArgumentException("Unknown dynamic composite alias " + (char) (header & 0xFF));
+        }
+        return typed;
+      }
+      byte[] name = new byte[header];
+      for (int i = 0; i < header; i++) {
+        name[i] = bb.get(p + 2 + i);
+      }
+      Typed typed = typed(new String(name, Charsets.UTF_8));
+      return typed != null ? typed : new Typed(new String(name, Charsets.UTF_8), BYTES);
+    }
+
+    private static int headerLength(ByteBuffer bb, int p) {
+      int header = shortAt(bb, p);
+      return (header & 0x8000) != 0 ? 2 : 2 + header;
+    }
+  }
+}
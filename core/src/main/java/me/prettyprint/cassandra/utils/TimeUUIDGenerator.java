@@ -0,0 +1,86 @@
+package me.prettyprint.cassandra.utils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.eaio.uuid.UUIDGen;
+
+/**
+ * Generates unique time uuids (type 1) without a lock. The space of 100ns
+ * intervals which, along with the clock sequence and node of this JVM, makes
+ * a time uuid unique is handed out to threads in blocks. A thread then issues
+ * uuids from its own block and only goes back to the shared counter once the
+ * block is used up or the system clock has moved past it.
+ *
+ * Uuids are increasing within a thread, and across threads their time is at
+ * most a block behind the system clock. Every generator reserves from the same
+ * counter, so uuids are unique across generators as well.
+ */
+public final class TimeUUIDGenerator {
+
+  public static final int DEFAULT_BLOCK_SIZE = 64;
+
+  private static final long INTERVALS_PER_MILLISECOND = 10000L;
+  private static final AtomicLong reserved = new AtomicLong();
+  private static final TimeUUIDGenerator INSTANCE = new TimeUUIDGenerator();
+
+  private final long clockSeqAndNode = UUIDGen.getClockSeqAndNode();
+  private final int blockSize;
+  private final ThreadLocal<long[]> blocks = new ThreadLocal<long[]>() {
+    @Override
+    protected long[] initialValue() {
+      // next interval to issue, end of the block
+      return new long[2];
+    }
+  };
+
+  public TimeUUIDGenerator() {
+    this(DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * @param blockSize number of uuids a thread takes from the shared counter at
+   *          once, a millisecond holds 10000 of them
+   */
+  public TimeUUIDGenerator(int blockSize) {
+    Assert.isTrue(blockSize > 0 && blockSize <= INTERVALS_PER_MILLISECOND,
+        "blockSize must be between 1 and " + INTERVALS_PER_MILLISECOND);
+    this.blockSize = blockSize;
+  }
+
+  public static TimeUUIDGenerator get() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return a new and unique time uuid
+   */
+  public UUID next() {
+    return new UUID(TimeUUIDUtils.timeFields(nextInterval()), clockSeqAndNode);
+  }
+
+  /**
+   * @return a unique count of 100ns intervals since the uuid epoch
+   */
+  long nextInterval() {
+    long now = System.currentTimeMillis() * INTERVALS_PER_MILLISECOND
+        + TimeUUIDUtils.NUM_100NS_INTERVALS_SINCE_UUID_EPOCH;
+    long[] block = blocks.get();
+    if ( block[0] >= block[1] || block[0] < now ) {
+      reserve(block, now);
+    }
+    return block[0]++;
+  }
+
+  private void reserve(long[] block, long now) {
+    while (true) {
+      long last = reserved.get();
+      long start = last > now ? last : now;
+      if ( reserved.compareAndSet(last, start + blockSize) ) {
+        block[0] = start;
+        block[1] = start + blockSize;
+        return;
+      }
+    }
+  }
+}
@@ -20,11 +20,12 @@ public final class TimeUUIDUtils {
 
   /**
    * Gets a new and unique time uuid in milliseconds. It is useful to use in a TimeUUIDType sorted column family.
+   * Uuids come from the shared {@link TimeUUIDGenerator}.
    *
    * @return the time uuid
    */
   public static java.util.UUID getUniqueTimeUUIDinMillis() {
-    return new java.util.UUID(UUIDGen.newTime(), UUIDGen.getClockSeqAndNode());
+    return TimeUUIDGenerator.get().next();
   }
 
   /**
@@ -53,10 +54,16 @@ public final class TimeUUIDUtils {
   }
 
   private static long createTime(long currentTime) {
-    long time;
-
     // UTC time
-    long timeToUse = (currentTime * 10000) + NUM_100NS_INTERVALS_SINCE_UUID_EPOCH;
+    return timeFields((currentTime * 10000) + NUM_100NS_INTERVALS_SINCE_UUID_EPOCH);
+  }
+
+  /**
+   * Lays out a count of 100ns intervals since the uuid epoch as the most
+   * significant bits of a version 1 uuid.
+   */
+  static long timeFields(long timeToUse) {
+    long time;
 
     // time low
     time = timeToUse << 32;
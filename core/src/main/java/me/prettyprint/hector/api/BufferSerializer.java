@@ -0,0 +1,41 @@
+package me.prettyprint.hector.api;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Serializer} which can write into, and read from, a buffer owned by
+ * the caller instead of allocating one per value. This lets many names or
+ * values share a single slab, see
+ * {@link me.prettyprint.cassandra.utils.ByteBufferSlab}.
+ *
+ * All the serializers in me.prettyprint.cassandra.serializers implement it
+ * through AbstractSerializer. A null value has a size of 0 and writes
+ * nothing.
+ *
+ * @param <T>
+ *          The type to which data extraction should work.
+ */
+public interface BufferSerializer<T> extends Serializer<T> {
+
+  /**
+   * @return the number of bytes {@link #writeTo(Object, ByteBuffer)} will
+   *         write for obj
+   */
+  int serializedSize(T obj);
+
+  /**
+   * Writes obj at the position of out, advancing it by
+   * {@link #serializedSize(Object)} bytes.
+   *
+   * @return the number of bytes written
+   * @throws java.nio.BufferOverflowException
+   *           if out has less room than {@link #serializedSize(Object)}
+   */
+  int writeTo(T obj, ByteBuffer out);
+
+  /**
+   * Reads a value from length bytes of buffer at the absolute offset,
+   * leaving the position and limit of buffer untouched.
+   */
+  T read(ByteBuffer buffer, int offset, int length);
+}
@@ -1,6 +1,7 @@
 package me.prettyprint.hector.api;
 
 import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.OperationTimings;
 
 /**
  * Common interface for tracking the {@link CassandraHost} used
@@ -26,4 +27,13 @@ public interface ResultStatus {
    * was successful
    */
   CassandraHost getHostUsed();
+
+  /**
+   * Where the time of the operation went: waiting for a connection, setting
+   * it up, serializing, on the network, deserializing and converting the
+   * result. Meant for debugging single slow calls, the same phases are
+   * aggregated over all calls in the connection manager's
+   * {@link me.prettyprint.cassandra.connection.OperationLatencies}.
+   */
+  OperationTimings getTimings();
 }
@@ -16,9 +16,12 @@ import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import me.prettyprint.cassandra.serializers.AsciiSerializer;
 import me.prettyprint.cassandra.serializers.BigIntegerSerializer;
@@ -28,6 +31,7 @@ import me.prettyprint.cassandra.serializers.SerializerTypeInferer;
 import me.prettyprint.cassandra.serializers.StringSerializer;
 import me.prettyprint.cassandra.serializers.UUIDSerializer;
 import me.prettyprint.cassandra.utils.ByteBufferOutputStream;
+import me.prettyprint.cassandra.utils.ByteComparators;
 import me.prettyprint.hector.api.Serializer;
 
 import org.slf4j.Logger;
@@ -37,6 +41,7 @@ import com.google.common.base.Charsets;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableClassToInstanceMap;
+import com.google.common.collect.ImmutableMap;
 
 /**
  * Parent class of Composite and DynamicComposite. Acts as a list of objects
@@ -108,6 +113,13 @@ public abstract class AbstractComposite extends AbstractList<Object> implements
       .put((byte) 's', UTF8TYPE.getTypeName())
       .put((byte) 'u', UUIDTYPE.getTypeName()).build();
 
+  /** CompositeType comparators by the comparator types of their components */
+  private static final ConcurrentMap<List<String>, Comparator<ByteBuffer>> LAYOUT_COMPARATORS =
+      new ConcurrentHashMap<List<String>, Comparator<ByteBuffer>>();
+  /** DynamicCompositeType comparators by immutable copies of alias mappings */
+  private static final ConcurrentMap<Map<Byte, String>, Comparator<ByteBuffer>> ALIAS_COMPARATORS =
+      new ConcurrentHashMap<Map<Byte, String>, Comparator<ByteBuffer>>();
+
   BiMap<Class<? extends Serializer>, String> serializerToComparatorMapping = DEFAULT_SERIALIZER_TO_COMPARATOR_MAPPING;
 
   BiMap<Byte, String> aliasToComparatorMapping = DEFAULT_ALIAS_TO_COMPARATOR_MAPPING;
@@ -295,9 +307,157 @@ public abstract class AbstractComposite extends AbstractList<Object> implements
     comparatorsByPosition.set(index, c);
   }
 
+  /**
+   * Orders composites the way CompositeType or DynamicCompositeType orders
+   * their serialized forms. Components are compared with the comparators of
+   * their types, and where the types of two composites differ, they are
+   * ordered by type name as DynamicCompositeType does. A static composite
+   * and a dynamic one, or dynamic composites with different alias mappings,
+   * have no common order and are compared by their serialized bytes.
+   */
   @Override
   public int compareTo(AbstractComposite o) {
-    return serialize().compareTo(o.serialize());
+    if (dynamic != o.dynamic) {
+      return serialize().compareTo(o.serialize());
+    }
+    Layout l1 = layout();
+    Layout l2 = o.layout();
+    if (l1.comparator == l2.comparator) {
+      return l1.comparator.compare(serialize(), o.serialize());
+    }
+    if (dynamic) {
+      return serialize().compareTo(o.serialize());
+    }
+    int common = Math.min(l1.types.length, l2.types.length);
+    for (int i = 0; i < common; i++) {
+      if (!l1.types[i].equals(l2.types[i])) {
+        // the components before, of the same types on both sides, decide first
+        if (i > 0) {
+          int cmp = layoutComparator(Arrays.copyOf(l1.types, i)).compare(prefix(serialize(), i),
+              prefix(o.serialize(), i));
+          if (cmp != 0) {
+            return cmp;
+          }
+        }
+        return l1.types[i].compareTo(l2.types[i]) < 0 ? -1 : 1;
+      }
+    }
+    // one has more components, with the same types otherwise
+    Layout longer = l1.types.length >= l2.types.length ? l1 : l2;
+    return longer.comparator.compare(serialize(), o.serialize());
+  }
+
+  /**
+   * The comparator of the last comparison, along with the types of the
+   * components or the alias mapping it was built for
+   */
+  private transient Layout layout;
+
+  private static final class Layout {
+    final String[] types;
+    /** the alias mapping as set, and an immutable copy of its entries then */
+    final Map<Byte, String> source;
+    final Map<Byte, String> aliases;
+    final Comparator<ByteBuffer> comparator;
+
+    Layout(String[] types, Map<Byte, String> source, Map<Byte, String> aliases,
+        Comparator<ByteBuffer> comparator) {
+      this.types = types;
+      this.source = source;
+      this.aliases = aliases;
+      this.comparator = comparator;
+    }
+
+    /**
+     * Whether the mapping is the one this layout was built for, with the
+     * same entries, as a mutable mapping may have changed in place
+     */
+    boolean isFor(Map<Byte, String> mapping) {
+      return source == mapping && (mapping instanceof ImmutableMap || aliases.equals(mapping));
+    }
+  }
+
+  /**
+   * The comparator of this composite's layout, shared by the composites of
+   * the same layout and only looked up again once the layout changed
+   */
+  private Layout layout() {
+    Layout cached = layout;
+    if (dynamic) {
+      if (cached == null || !cached.isFor(aliasToComparatorMapping)) {
+        Map<Byte, String> aliases = ImmutableMap.copyOf(aliasToComparatorMapping);
+        Comparator<ByteBuffer> comparator = ALIAS_COMPARATORS.get(aliases);
+        if (comparator == null) {
+          comparator = aliases.equals(DEFAULT_ALIAS_TO_COMPARATOR_MAPPING)
+              ? ByteComparators.DYNAMIC_COMPOSITE : ByteComparators.dynamicComposite(aliases);
+          ALIAS_COMPARATORS.putIfAbsent(aliases, comparator);
+          comparator = ALIAS_COMPARATORS.get(aliases);
+        }
+        cached = new Layout(null, aliasToComparatorMapping, aliases, comparator);
+        layout = cached;
+      }
+      return cached;
+    }
+    int size = components.size();
+    if (cached != null && cached.types.length == size) {
+      int i = 0;
+      while (i < size && cached.types[i].equals(componentType(i))) {
+        i++;
+      }
+      if (i == size) {
+        return cached;
+      }
+    }
+    String[] types = new String[size];
+    for (int i = 0; i < size; i++) {
+      types[i] = componentType(i);
+    }
+    cached = new Layout(types, null, null, layoutComparator(types));
+    layout = cached;
+    return cached;
+  }
+
+  private static Comparator<ByteBuffer> layoutComparator(String[] types) {
+    if (types.length == 0) {
+      return ByteComparators.BYTES;
+    }
+    List<String> layout = Arrays.asList(types);
+    Comparator<ByteBuffer> comparator = LAYOUT_COMPARATORS.get(layout);
+    if (comparator == null) {
+      List<Comparator<ByteBuffer>> comparators = new ArrayList<Comparator<ByteBuffer>>(types.length);
+      for (String type : types) {
+        Comparator<ByteBuffer> c = ByteComparators.forTypeName(type);
+        comparators.add(c != null ? c : ByteComparators.BYTES);
+      }
+      LAYOUT_COMPARATORS.putIfAbsent(layout, ByteComparators.composite(comparators));
+      comparator = LAYOUT_COMPARATORS.get(layout);
+    }
+    return comparator;
+  }
+
+  private String componentType(int i) {
+    String name = comparatorForPosition(i);
+    Component<?> c = components.get(i);
+    if (name == null) {
+      name = c.getComparator();
+    }
+    if (name == null && c.getSerializer() != null) {
+      name = comparatorForSerializer(c.getSerializer());
+    }
+    return name != null ? name : BYTESTYPE.getTypeName();
+  }
+
+  /**
+   * The first components of a serialized static composite
+   */
+  private static ByteBuffer prefix(ByteBuffer serialized, int components) {
+    int end = serialized.position();
+    for (int i = 0; i < components && end < serialized.limit(); i++) {
+      end += 2 + (serialized.getShort(end) & 0xFFFF) + 1;
+    }
+    ByteBuffer prefix = serialized.duplicate();
+    prefix.limit(Math.min(end, serialized.limit()));
+    return prefix;
   }
 
   private String comparatorForSerializer(Serializer<?> s) {
@@ -16,6 +16,8 @@ import me.prettyprint.cassandra.model.QuorumAllConsistencyLevelPolicy;
 import me.prettyprint.cassandra.model.thrift.ThriftColumnQuery;
 import me.prettyprint.cassandra.model.thrift.ThriftCountQuery;
 import me.prettyprint.cassandra.model.thrift.ThriftCounterColumnQuery;
+import me.prettyprint.cassandra.model.thrift.ThriftLongDoubleSliceQuery;
+import me.prettyprint.cassandra.model.thrift.ThriftLongLongSliceQuery;
 import me.prettyprint.cassandra.model.thrift.ThriftMultigetSliceCounterQuery;
 import me.prettyprint.cassandra.model.thrift.ThriftMultigetSliceQuery;
 import me.prettyprint.cassandra.model.thrift.ThriftMultigetSubSliceQuery;
@@ -510,6 +512,24 @@ public final class HFactory {
     return new ThriftSliceQuery<K, N, V>(keyspace, keySerializer,
         nameSerializer, valueSerializer);
   }
+
+  /**
+   * A slice query on a column family with long names and long values which
+   * decodes the columns into primitive arrays
+   */
+  public static <K> ThriftLongLongSliceQuery<K> createLongLongSliceQuery(
+      Keyspace keyspace, Serializer<K> keySerializer) {
+    return new ThriftLongLongSliceQuery<K>(keyspace, keySerializer);
+  }
+
+  /**
+   * A slice query on a column family with long names and double values which
+   * decodes the columns into primitive arrays
+   */
+  public static <K> ThriftLongDoubleSliceQuery<K> createLongDoubleSliceQuery(
+      Keyspace keyspace, Serializer<K> keySerializer) {
+    return new ThriftLongDoubleSliceQuery<K>(keyspace, keySerializer);
+  }
   
   public static <K, N> SliceCounterQuery<K, N> createCounterSliceQuery(
       Keyspace keyspace, Serializer<K> keySerializer, Serializer<N> nameSerializer) {
@@ -66,6 +66,32 @@ public interface Mutator<K> {
    */
   <SN, N, V> Mutator<K> addInsertion(K key, String cf, HSuperColumn<SN, N, V> sc);
 
+  /**
+   * Schedule the insertion of a run of columns with long names and long values,
+   * values[i] under names[i], all with the keyspace's current clock. The
+   * columns are written straight to their thrift form, without an HColumn
+   * per value.
+   */
+  Mutator<K> addInsertions(K key, String cf, long[] names, long[] values);
+
+  /**
+   * Same as {@link #addInsertions(Object, String, long[], long[])} with an
+   * explicit clock, and a ttl in seconds unless it is 0
+   */
+  Mutator<K> addInsertions(K key, String cf, long[] names, long[] values, long clock, int ttl);
+
+  /**
+   * Schedule the insertion of a run of columns with long names and double
+   * values, values[i] under names[i], all with the keyspace's current clock.
+   */
+  Mutator<K> addInsertions(K key, String cf, long[] names, double[] values);
+
+  /**
+   * Same as {@link #addInsertions(Object, String, long[], double[])} with an
+   * explicit clock, and a ttl in seconds unless it is 0
+   */
+  Mutator<K> addInsertions(K key, String cf, long[] names, double[] values, long clock, int ttl);
+
   /**
    * Adds a Deletion to the underlying batch_mutate call. The columnName argument can be null
    * in which case Deletion is created with only the Clock, in this case user defined,
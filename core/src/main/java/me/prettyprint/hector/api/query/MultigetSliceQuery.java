@@ -3,6 +3,7 @@ package me.prettyprint.hector.api.query;
 import java.util.Collection;
 
 import me.prettyprint.hector.api.beans.Rows;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 
 /**
  * A query wrapper for the multiget_slice call
@@ -35,4 +36,17 @@ public interface MultigetSliceQuery<K, N, V> extends Query<Rows<K, N, V>> {
    * @return
    */
   MultigetSliceQuery<K, N, V> setRange(N start, N finish, boolean reversed, int count);
+
+  /**
+   * Keep the returned rows and columns in their serialized form, decoding
+   * keys, names and values only when accessed
+   */
+  MultigetSliceQuery<K, N, V> setLazyResults(boolean lazyResults);
+
+  /**
+   * Lazy results whose columns are looked up by name with a binary search,
+   * ordered by the comparator of the column family
+   * @param nameComparator the comparator type of the column family
+   */
+  MultigetSliceQuery<K, N, V> setLazyResults(ComparatorType nameComparator);
 }
\ No newline at end of file
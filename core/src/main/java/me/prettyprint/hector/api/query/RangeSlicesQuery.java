@@ -3,6 +3,7 @@ package me.prettyprint.hector.api.query;
 import java.util.Collection;
 
 import me.prettyprint.hector.api.beans.OrderedRows;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 
 /**
  * A query for the call get_range_slices.<br>
@@ -34,6 +35,19 @@ public interface RangeSlicesQuery<K, N, V> extends Query<OrderedRows<K, N,V>>{
   RangeSlicesQuery<K, N, V> setRange(N start, N finish, boolean reversed, int count);
   
   RangeSlicesQuery<K, N, V> setReturnKeysOnly();
+
+  /**
+   * Keep the returned rows and columns in their serialized form, decoding
+   * keys, names and values only when accessed
+   */
+  RangeSlicesQuery<K, N, V> setLazyResults(boolean lazyResults);
+
+  /**
+   * Lazy results whose columns are looked up by name with a binary search,
+   * ordered by the comparator of the column family
+   * @param nameComparator the comparator type of the column family
+   */
+  RangeSlicesQuery<K, N, V> setLazyResults(ComparatorType nameComparator);
   
   RangeSlicesQuery<K, N, V> addEqualsExpression(N columnName, V columnValue);
 
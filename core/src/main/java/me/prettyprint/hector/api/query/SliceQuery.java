@@ -1,6 +1,7 @@
 package me.prettyprint.hector.api.query;
 
 import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.ddl.ComparatorType;
 
 /**
  * A query for the thrift call get_slice
@@ -19,4 +20,17 @@ public interface SliceQuery<K, N, V> extends Query<ColumnSlice<N, V>> {
 
   SliceQuery<K, N, V> setColumnFamily(String cf);
 
+  /**
+   * Keep the returned columns in their serialized form, decoding names and
+   * values only when accessed
+   */
+  SliceQuery<K, N, V> setLazyResults(boolean lazyResults);
+
+  /**
+   * Lazy results whose columns are looked up by name with a binary search,
+   * ordered by the comparator of the column family
+   * @param nameComparator the comparator type of the column family
+   */
+  SliceQuery<K, N, V> setLazyResults(ComparatorType nameComparator);
+
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package me.prettyprint.cassandra.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.CassandraHostConfigurator;
+import me.prettyprint.cassandra.service.OperationType;
+import me.prettyprint.cassandra.service.ThriftCluster;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.exceptions.HUnavailableException;
+import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.api.mutation.Mutator;
+import me.prettyprint.hector.api.query.ColumnQuery;
+import me.prettyprint.hector.testutils.FakeCassandraCluster;
+import me.prettyprint.hector.testutils.FakeCassandraServer;
+import me.prettyprint.hector.testutils.LatencyDistribution;
+
+import org.apache.cassandra.thrift.TokenRange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FakeCassandraClusterTest {
+
+  private FakeCassandraCluster fakeCluster;
+  private ThriftCluster cluster;
+  private Keyspace keyspace;
+
+  @Before
+  public void setUp() throws Exception {
+    fakeCluster = new FakeCassandraCluster(3, 0);
+    fakeCluster.start();
+    CassandraHostConfigurator configurator = new CassandraHostConfigurator(fakeCluster.getHosts());
+    configurator.setMaxActive(2);
+    configurator.setRetryDownedHostsDelayInSeconds(60);
+    cluster = new ThriftCluster("Fake Cluster", configurator);
+    keyspace = HFactory.createKeyspace("Keyspace1", cluster);
+  }
+
+  @After
+  public void tearDown() {
+    cluster.getConnectionManager().shutdown();
+    fakeCluster.stop();
+  }
+
+  @Test
+  public void testWriteAndRead() {
+    for (int i = 0; i < 20; i++) {
+      insert("key" + i);
+    }
+    for (int i = 0; i < 20; i++) {
+      assertEquals("value", read("key" + i));
+    }
+    List<TokenRange> ring = cluster.describeRing("Keyspace1");
+    assertEquals(3, ring.size());
+    assertEquals(3, ring.get(0).getEndpointsSize());
+    for (FakeCassandraServer server : fakeCluster.getServers()) {
+      assertTrue(server.getRequestCount() > 0);
+    }
+  }
+
+  @Test
+  public void testResetConnectionsFailOver() {
+    FakeCassandraServer resetting = fakeCluster.getServer(1);
+    resetting.setResetRate(1);
+    for (int i = 0; i < 10; i++) {
+      insert("key" + i);
+    }
+    assertTrue(resetting.getRequestCount() > 0);
+    assertTrue(cluster.getConnectionManager().getDownedHosts().contains(
+        new CassandraHost(resetting.toString())));
+  }
+
+  @Test
+  public void testTimeoutsAreRetried() {
+    FakeCassandraServer slow = fakeCluster.getServer(0);
+    slow.setLatency(LatencyDistribution.fixed(5));
+    slow.setTimedOutRate(1);
+    for (int i = 0; i < 10; i++) {
+      insert("key" + i);
+    }
+    assertTrue(slow.getRequestCount() > 0);
+  }
+
+  @Test
+  public void testUnavailable() {
+    for (FakeCassandraServer server : fakeCluster.getServers()) {
+      server.setUnavailableRate(1);
+    }
+    try {
+      insert("key");
+      fail();
+    } catch (HUnavailableException e) {
+      // not retried, another host cannot meet the consistency level either
+    }
+  }
+
+  @Test
+  public void testHotKeys() {
+    HotKeys hotKeys = cluster.getConnectionManager().getHotKeys();
+    hotKeys.setSampleRate(1);
+    for (int i = 0; i < 20; i++) {
+      insert(i % 2 == 0 ? "hot" : "key" + i);
+      read("hot");
+    }
+
+    HotKeys.Entry write = hotKeys.get("Keyspace1", "Standard1", OperationType.WRITE).get(0);
+    assertEquals("hot", StringSerializer.get().fromByteBuffer(write.getKey()));
+    HotKeys.Entry read = hotKeys.get("Keyspace1", "Standard1", OperationType.READ).get(0);
+    assertEquals("hot", StringSerializer.get().fromByteBuffer(read.getKey()));
+    assertTrue(read.getRate() > write.getRate());
+    List<String> jmx = new CassandraClientMonitor(cluster.getConnectionManager()).getHotKeys();
+    assertTrue(jmx.toString(), jmx.toString().contains("Keyspace1/Standard1 READ key=hot ~"));
+  }
+
+  private void insert(String key) {
+    Mutator<String> mutator = HFactory.createMutator(keyspace, StringSerializer.get());
+    mutator.insert(key, "Standard1", HFactory.createStringColumn("name", "value"));
+  }
+
+  private String read(String key) {
+    ColumnQuery<String, String, String> query = HFactory.createStringColumnQuery(keyspace);
+    return query.setColumnFamily("Standard1").setKey(key).setName("name").execute().get().getValue();
+  }
+}
@@ -0,0 +1,75 @@
+package me.prettyprint.cassandra.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.List;
+
+import me.prettyprint.cassandra.connection.FlightRecorder.Event;
+import me.prettyprint.cassandra.connection.FlightRecorder.EventType;
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.Operation;
+import me.prettyprint.cassandra.service.OperationType;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
+import me.prettyprint.hector.api.exceptions.HectorException;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.junit.Test;
+
+public class FlightRecorderTest {
+
+  private final CassandraHost host = new CassandraHost("127.0.0.1:9170");
+
+  @Test
+  public void testKeepsTheLastEvents() {
+    FlightRecorder recorder = new FlightRecorder(3);
+    for (int i = 0; i < 5; i++) {
+      recorder.record(EventType.HOST_SUSPENDED, host);
+      recorder.record(EventType.HOST_UNSUSPENDED, host);
+    }
+    recorder.record(EventType.ALL_HOSTS_DOWN, null);
+
+    // rounded up to 4
+    List<Event> events = recorder.getEvents();
+    assertEquals(4, events.size());
+    assertEquals(EventType.HOST_UNSUSPENDED, events.get(0).getType());
+    assertEquals(EventType.ALL_HOSTS_DOWN, events.get(3).getType());
+    assertNull(events.get(3).getHost());
+    assertEquals(11, recorder.getRecordedCount());
+  }
+
+  @Test
+  public void testDump() throws Exception {
+    FlightRecorder recorder = new FlightRecorder(FlightRecorder.DEF_SIZE);
+    Operation<Void> op = new Operation<Void>(OperationType.READ, "Standard1") {
+      @Override
+      public Void execute(Cassandra.Client cassandra) throws HectorException {
+        return null;
+      }
+    };
+    op.keyspaceName = "Keyspace1";
+    recorder.record(EventType.RETRY, host, op, new HTimedOutException("timed out"), null);
+    recorder.record(EventType.HOST_DOWN, host);
+
+    List<String> lines = recorder.dump();
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0), lines.get(0).endsWith(" RETRY host=" + host.getName()
+        + " operation=READ Keyspace1/Standard1 exception=" + HTimedOutException.class.getName()));
+
+    File file = File.createTempFile("flight-recorder", ".log");
+    file.deleteOnExit();
+    recorder.dumpTo(file);
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      assertEquals(lines.get(0), reader.readLine());
+      assertEquals(lines.get(1), reader.readLine());
+      assertNull(reader.readLine());
+    } finally {
+      reader.close();
+    }
+  }
+}
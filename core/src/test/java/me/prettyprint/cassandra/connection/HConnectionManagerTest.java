@@ -74,6 +74,36 @@ public class HConnectionManagerTest extends BaseEmbededServerSetupTest {
     connectionManager.operateWithFailover(new TimeoutOp(fp));
   }
 
+  @Test
+  public void testOperationLatencies() {
+    setupClient();
+    StubOp op = new StubOp(OperationType.READ) {
+      @Override
+      public String execute(Client cassandra) throws HectorException {
+        return "ok";
+      }
+    };
+    op.keyspaceName = "Keyspace1";
+    op.columnFamilyName = "Standard1";
+    long reads = connectionManager.getOperationLatencies().get("Keyspace1", "Standard1", OperationType.READ)
+        .getHistogram().getCount();
+    connectionManager.operateWithFailover(op);
+    try {
+      connectionManager.operateWithFailover(new TimeoutOp(FailoverPolicy.FAIL_FAST));
+      fail();
+    } catch (HTimedOutException e) {
+      // expected
+    }
+
+    OperationLatency latency = connectionManager.getOperationLatencies().get(op);
+    assertSame(latency, connectionManager.getOperationLatencies().get("Keyspace1", "Standard1", OperationType.READ));
+    assertEquals(reads + 1, latency.getHistogram().getCount());
+    assertEquals(1, latency.getHostHistograms().size());
+    OperationLatency meta = connectionManager.getOperationLatencies().get(null, null, OperationType.META_READ);
+    assertTrue(meta.getFailures() >= 1);
+    assertTrue(meta.getFailures(op.getCassandraHost()) >= 1);
+  }
+
   @Test
   public void clientPoolShouldBeSuspendedWhenExhaustedForTooLong() throws InterruptedException {
 
@@ -0,0 +1,89 @@
+package me.prettyprint.cassandra.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.service.OperationType;
+
+import org.junit.Test;
+
+public class HotKeysTest {
+
+  @Test
+  public void testFindsHotKeysAmongManyColdOnes() {
+    HotKeys hotKeys = new HotKeys(3, 1, 60, TimeUnit.SECONDS);
+    Random random = new Random(1);
+    for (int i = 0; i < 100000; i++) {
+      String key;
+      int r = random.nextInt(100);
+      if ( r < 10 ) {
+        key = "hot1";
+      } else if ( r < 15 ) {
+        key = "hot2";
+      } else if ( r < 18 ) {
+        key = "hot3";
+      } else {
+        key = "cold" + random.nextInt(50000);
+      }
+      hotKeys.record("Keyspace1", "Standard1", OperationType.READ, StringSerializer.get().toByteBuffer(key));
+    }
+
+    List<HotKeys.Entry> entries = hotKeys.get("Keyspace1", "Standard1", OperationType.READ);
+    assertEquals(3, entries.size());
+    assertEquals("hot1", StringSerializer.get().fromByteBuffer(entries.get(0).getKey()));
+    assertEquals("hot2", StringSerializer.get().fromByteBuffer(entries.get(1).getKey()));
+    assertEquals("hot3", StringSerializer.get().fromByteBuffer(entries.get(2).getKey()));
+    assertTrue(entries.get(0).getRate() > entries.get(1).getRate());
+    assertTrue(entries.get(0).toString(), entries.get(0).toString().startsWith("Keyspace1/Standard1 READ key=hot1 ~"));
+    assertTrue(hotKeys.get("Keyspace1", "Standard1", OperationType.WRITE).isEmpty());
+  }
+
+  @Test
+  public void testReadsAndWritesAreKeptApart() {
+    HotKeys hotKeys = new HotKeys(1, 1, 60, TimeUnit.SECONDS);
+    ByteBuffer binary = ByteBuffer.wrap(new byte[] { 0, 1, (byte) 0xff });
+    for (int i = 0; i < 10; i++) {
+      hotKeys.record("Keyspace1", "Standard1", OperationType.WRITE, binary);
+      hotKeys.record("Keyspace1", "Standard1", OperationType.READ, StringSerializer.get().toByteBuffer("read"));
+      hotKeys.record("Keyspace1", "Standard1", OperationType.META_READ, binary);
+    }
+
+    assertEquals(2, hotKeys.get().size());
+    HotKeys.Entry write = hotKeys.get("Keyspace1", "Standard1", OperationType.WRITE).get(0);
+    assertEquals(binary, write.getKey());
+    assertTrue(write.toString(), write.toString().contains("key=0x0001ff "));
+  }
+
+  @Test
+  public void testCandidateKeyIsCopied() {
+    HotKeys hotKeys = new HotKeys(1, 1, 60, TimeUnit.SECONDS);
+    ByteBuffer key = ByteBuffer.wrap("abc".getBytes());
+    hotKeys.record("Keyspace1", "Standard1", OperationType.READ, key);
+    key.put(0, (byte) 'x');
+
+    assertEquals("abc", StringSerializer.get().fromByteBuffer(
+        hotKeys.get("Keyspace1", "Standard1", OperationType.READ).get(0).getKey()));
+  }
+
+  @Test
+  public void testSampling() {
+    HotKeys hotKeys = new HotKeys(1, 0.25, 60, TimeUnit.SECONDS);
+    int sampled = 0;
+    for (int i = 0; i < 100; i++) {
+      if ( hotKeys.sample() ) {
+        sampled++;
+      }
+    }
+    assertEquals(25, sampled);
+
+    hotKeys.setSampleRate(0);
+    assertFalse(hotKeys.sample());
+  }
+}
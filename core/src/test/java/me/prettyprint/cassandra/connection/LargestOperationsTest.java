@@ -0,0 +1,42 @@
+package me.prettyprint.cassandra.connection;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.Operation;
+import me.prettyprint.cassandra.service.OperationType;
+import me.prettyprint.hector.api.exceptions.HectorException;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.junit.Test;
+
+public class LargestOperationsTest {
+
+  @Test
+  public void testKeepsLargestFirst() {
+    LargestOperations largest = new LargestOperations(3);
+    CassandraHost host = new CassandraHost("127.0.0.1:9170");
+    Operation<Void> op = new Operation<Void>(OperationType.WRITE, "Standard1") {
+      @Override
+      public Void execute(Cassandra.Client cassandra) throws HectorException {
+        return null;
+      }
+    };
+    op.keyspaceName = "Keyspace1";
+    op.keyCount = 50;
+    for (long bytes : new long[] { 10, 500, 0, 30, 20, 400, 30 }) {
+      largest.offer(op, host, bytes);
+    }
+
+    List<LargestOperations.Entry> entries = largest.get();
+    assertEquals(3, entries.size());
+    assertEquals(500, entries.get(0).getBytes());
+    assertEquals(400, entries.get(1).getBytes());
+    assertEquals(30, entries.get(2).getBytes());
+    assertEquals("Standard1", entries.get(0).getColumnFamily());
+    assertEquals("500B WRITE on Keyspace1/Standard1, keys=50, host=127.0.0.1(127.0.0.1):9170, at ",
+        entries.get(0).toString().substring(0, entries.get(0).toString().lastIndexOf(' ') + 1));
+  }
+}
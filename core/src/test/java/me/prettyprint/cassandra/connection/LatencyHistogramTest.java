@@ -0,0 +1,77 @@
+package me.prettyprint.cassandra.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testBucketsCoverEveryValue() {
+    for (long value = 0; value < 100000; value++) {
+      int index = LatencyHistogram.indexOf(value);
+      assertTrue(value <= LatencyHistogram.highestValueOf(index));
+      assertTrue(index == 0 || value > LatencyHistogram.highestValueOf(index - 1));
+    }
+    long value = (1L << 32) - 1;
+    assertEquals(value, LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value)));
+  }
+
+  @Test
+  public void testPercentilesWithinPrecision() {
+    Random random = new Random(3);
+    long[] values = new long[10000];
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.abs(random.nextGaussian() * 20000);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    for (double percentile : new double[] { 1, 50, 90, 99, 99.9 }) {
+      long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+      long actual = histogram.getValueAtPercentile(percentile);
+      assertTrue(percentile + ": " + actual + " vs " + expected,
+          actual >= expected && actual <= expected + expected / 32 + 1);
+    }
+    assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+    assertEquals(values[values.length - 1], histogram.getMax());
+    assertEquals(values.length, histogram.getCount());
+
+    histogram.record(5, TimeUnit.SECONDS);
+    assertEquals(5000000, histogram.getMax());
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final CountDownLatch done = new CountDownLatch(4);
+    for (int t = 0; t < 4; t++) {
+      new Thread() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 10000; i++) {
+            histogram.record(i % 1000);
+          }
+          done.countDown();
+        }
+      }.start();
+    }
+    done.await();
+    assertEquals(40000, histogram.getCount());
+    assertEquals(999, histogram.getMax());
+    assertEquals(499.5, histogram.getMean(), 0.001);
+
+    LatencyHistogram sum = new LatencyHistogram();
+    sum.record(5000);
+    sum.add(histogram);
+    assertEquals(40001, sum.getCount());
+    assertEquals(5000, sum.getMax());
+  }
+}
@@ -0,0 +1,35 @@
+package me.prettyprint.cassandra.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.OperationTimings;
+import me.prettyprint.cassandra.service.OperationTimings.Phase;
+import me.prettyprint.cassandra.service.OperationType;
+
+import org.junit.Test;
+
+public class OperationLatencyTest {
+
+  @Test
+  public void testPhaseAndByteHistogramsAreCreatedOnFirstUse() {
+    CassandraHost host = new CassandraHost("127.0.0.1", 9170);
+    OperationLatency latency = new OperationLatency("Keyspace1", "Standard1", OperationType.READ);
+    latency.record(host, 2000000, true);
+    latency.recordBytes(host, 0, 0);
+    assertNull(latency.getPhaseHistogram(Phase.NETWORK));
+    assertNull(latency.getRequestBytes());
+    assertNull(latency.getResponseBytes());
+
+    OperationTimings timings = new OperationTimings();
+    timings.add(Phase.NETWORK, 1000000);
+    latency.recordPhases(timings);
+    latency.recordBytes(host, 100, 4000);
+    assertEquals(1, latency.getPhaseHistogram(Phase.NETWORK).getCount());
+    assertNull(latency.getPhaseHistogram(Phase.CONNECTION_SETUP));
+    assertEquals(100, latency.getRequestBytes().getMax());
+    assertEquals(4000, latency.getResponseBytes().getMax());
+    assertEquals(1, latency.getHistogram().getCount());
+  }
+}
@@ -0,0 +1,126 @@
+package me.prettyprint.cassandra.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.connection.client.FrameSlicingProtocol;
+import me.prettyprint.cassandra.serializers.UUIDSerializer;
+import me.prettyprint.cassandra.service.CassandraHostConfigurator;
+import me.prettyprint.cassandra.service.Operation;
+import me.prettyprint.cassandra.service.OperationType;
+import me.prettyprint.cassandra.utils.TimeUUIDUtils;
+import me.prettyprint.hector.api.exceptions.HectorException;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.apache.cassandra.thrift.SliceRange;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.junit.Test;
+
+public class SlowOperationLogTest {
+
+  @Test
+  public void testThresholdAndRateLimit() {
+    CassandraHostConfigurator configurator = new CassandraHostConfigurator();
+    SlowOperationLog slowLog = new SlowOperationLog(configurator);
+    Operation<String> op = op();
+    assertFalse(slowLog.isSlow(TimeUnit.SECONDS.toNanos(100)));
+
+    slowLog.setThresholdMillis(50);
+    slowLog.setMaxLogsPerSecond(2);
+    assertFalse(slowLog.logIfSlow(op, TimeUnit.MILLISECONDS.toNanos(50), true));
+    int logged = 0;
+    for (int i = 0; i < 5; i++) {
+      if ( slowLog.logIfSlow(op, TimeUnit.MILLISECONDS.toNanos(51), true) ) {
+        logged++;
+      }
+    }
+    // a second boundary may fall in the loop
+    assertTrue(logged >= 2 && logged <= 4);
+  }
+
+  @Test
+  public void testDescribe() {
+    Operation<String> op = op();
+    op.keyCount = 20;
+    op.slicePredicate = new SlicePredicate().setSlice_range(
+        new SliceRange().setStart(new byte[8]).setFinish(new byte[0]).setCount(100).setReversed(true));
+    op.attempted();
+    op.attempted();
+    String description = SlowOperationLog.describe(op, TimeUnit.MILLISECONDS.toNanos(1500), false);
+    assertTrue(description, description.startsWith(
+        "READ on Keyspace1/Standard1 failed after 1500ms, keys=20, predicate=range(8B..-, count=100, reversed), "
+        + "host=[none], attempts=2, OperationTimings<"));
+
+    op.slicePredicate = new SlicePredicate().setColumn_names(Arrays.asList(UUIDSerializer.get().toByteBuffer(
+        TimeUUIDUtils.getUniqueTimeUUIDinMillis())));
+    assertTrue(SlowOperationLog.describe(op, 0, true).contains(" took 0ms, keys=20, predicate=1 columns"));
+  }
+
+  @Test
+  public void testSampling() {
+    CassandraHostConfigurator configurator = new CassandraHostConfigurator();
+    configurator.setTraceSampleRate(0.25);
+    SlowOperationLog slowLog = new SlowOperationLog(configurator);
+    int sampled = 0;
+    for (int i = 0; i < 100; i++) {
+      if ( slowLog.sample() ) {
+        sampled++;
+      }
+    }
+    assertEquals(25, sampled);
+    slowLog.setTraceSampleRate(0);
+    assertFalse(slowLog.sample());
+  }
+
+  @Test
+  public void testTraceNextQuery() throws TException {
+    UUID session = TimeUUIDUtils.getUniqueTimeUUIDinMillis();
+    TMemoryBuffer buffer = new TMemoryBuffer(64);
+    reply(buffer, 1, new Cassandra.trace_next_query_result().setSuccess(UUIDSerializer.get().toByteBuffer(session)));
+    SlowOperationLog slowLog = new SlowOperationLog(new CassandraHostConfigurator());
+    slowLog.setTraceSampleRate(1);
+    Cassandra.Client client = new Cassandra.Client(new FrameSlicingProtocol(buffer));
+    assertEquals(session, slowLog.traceNextQuery(client));
+    assertTrue(slowLog.sample());
+
+    // servers without tracing turn sampling off
+    buffer = new TMemoryBuffer(64);
+    TBinaryProtocol protocol = new TBinaryProtocol(buffer);
+    protocol.writeMessageBegin(new TMessage("trace_next_query", TMessageType.EXCEPTION, 1));
+    new TApplicationException(TApplicationException.UNKNOWN_METHOD, "Invalid method name").write(protocol);
+    protocol.writeMessageEnd();
+    assertNull(slowLog.traceNextQuery(new Cassandra.Client(new FrameSlicingProtocol(buffer))));
+    assertFalse(slowLog.sample());
+  }
+
+  private static void reply(TMemoryBuffer buffer, int seqid, TBase<?, ?> result) throws TException {
+    TBinaryProtocol protocol = new TBinaryProtocol(buffer);
+    protocol.writeMessageBegin(new TMessage("trace_next_query", TMessageType.REPLY, seqid));
+    result.write(protocol);
+    protocol.writeMessageEnd();
+  }
+
+  private static Operation<String> op() {
+    Operation<String> op = new Operation<String>(OperationType.READ, "Standard1") {
+      @Override
+      public String execute(Cassandra.Client cassandra) throws HectorException {
+        return null;
+      }
+    };
+    op.keyspaceName = "Keyspace1";
+    return op;
+  }
+}
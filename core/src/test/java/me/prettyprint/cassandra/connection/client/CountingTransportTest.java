@@ -0,0 +1,53 @@
+package me.prettyprint.cassandra.connection.client;
+
+import static org.junit.Assert.assertEquals;
+
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.Operation;
+import me.prettyprint.cassandra.service.OperationType;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.junit.Test;
+
+public class CountingTransportTest {
+
+  @Test
+  public void testOperationBytesIncludeFrameHeaders() throws Exception {
+    // the response is read from the start of the buffer, the request appended after it
+    TMemoryBuffer buffer = new TMemoryBuffer(256);
+    TFramedTransport responseFrame = new TFramedTransport(buffer);
+    TBinaryProtocol response = new TBinaryProtocol(responseFrame);
+    response.writeMessageBegin(new TMessage("describe_cluster_name", TMessageType.REPLY, 1));
+    new Cassandra.describe_cluster_name_result().setSuccess("Test Cluster").write(response);
+    response.writeMessageEnd();
+    responseFrame.flush();
+    int responseLength = buffer.length();
+
+    TMemoryBuffer requestBuffer = new TMemoryBuffer(64);
+    TFramedTransport requestFrame = new TFramedTransport(requestBuffer);
+    new Cassandra.Client(new TBinaryProtocol(requestFrame)).send_describe_cluster_name();
+    int requestLength = requestBuffer.length();
+
+    CountingTransport counter = new CountingTransport(buffer);
+    Cassandra.Client client = new Cassandra.Client(
+        new FrameSlicingProtocol(new PooledFramedTransport(counter, Integer.MAX_VALUE), counter));
+    Operation<String> op = new Operation<String>(OperationType.META_READ) {
+      @Override
+      public String execute(Cassandra.Client cassandra) throws Exception {
+        return cassandra.describe_cluster_name();
+      }
+    };
+    op.executeAndSetResult(client, new CassandraHost("127.0.0.1:9170"));
+
+    assertEquals("Test Cluster", op.getResult());
+    assertEquals(requestLength, op.getRequestBytes());
+    assertEquals(responseLength, op.getResponseBytes());
+    assertEquals(requestLength, counter.getBytesWritten());
+    assertEquals(responseLength, counter.getBytesRead());
+  }
+}
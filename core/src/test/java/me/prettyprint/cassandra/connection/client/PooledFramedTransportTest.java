@@ -0,0 +1,146 @@
+package me.prettyprint.cassandra.connection.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.InvalidRequestException;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.Test;
+
+public class PooledFramedTransportTest {
+
+  @Test
+  public void testFramesMatchTFramedTransport() throws TException {
+    Column column = column(10000);
+    TMemoryBuffer pooled = new TMemoryBuffer(64);
+    FrameBufferPool pool = new FrameBufferPool(FrameBufferPool.DEFAULT_MAX_CLASS_SIZE, 1 << 20);
+    write(column, new PooledFramedTransport(pooled, Integer.MAX_VALUE, pool));
+    TMemoryBuffer framed = new TMemoryBuffer(64);
+    write(column, new TFramedTransport(framed));
+
+    assertArrayEquals(Arrays.copyOf(framed.getArray(), framed.length()),
+        Arrays.copyOf(pooled.getArray(), pooled.length()));
+    // the first buffer went back when the write grew, the grown one after the flush
+    assertEquals(4096 + 16384, pool.getRetainedBytes());
+  }
+
+  @Test
+  public void testSlicedFramesAreNotReleased() throws TException {
+    TMemoryBuffer buffer = new TMemoryBuffer(64);
+    write(column(100), new TFramedTransport(buffer));
+    FrameBufferPool pool = new FrameBufferPool(FrameBufferPool.DEFAULT_MAX_CLASS_SIZE, 1 << 20);
+    PooledFramedTransport transport = new PooledFramedTransport(buffer, Integer.MAX_VALUE, pool);
+    FrameSlicingProtocol protocol = new FrameSlicingProtocol(transport);
+
+    Column read = new Column();
+    read.read(protocol);
+    protocol.readMessageEnd();
+    assertEquals(column(100), read);
+    assertSame(transport.getBuffer(), read.bufferForValue().array());
+    assertEquals(0, pool.getRetainedBytes());
+  }
+
+  @Test
+  public void testUnslicedFramesAreReleased() throws TException {
+    TMemoryBuffer buffer = new TMemoryBuffer(64);
+    TFramedTransport framed = new TFramedTransport(buffer);
+    write(new InvalidRequestException("first"), framed);
+    write(new InvalidRequestException("second"), framed);
+    FrameBufferPool pool = new FrameBufferPool(FrameBufferPool.DEFAULT_MAX_CLASS_SIZE, 1 << 20);
+    PooledFramedTransport transport = new PooledFramedTransport(buffer, Integer.MAX_VALUE, pool);
+    FrameSlicingProtocol protocol = new FrameSlicingProtocol(transport);
+
+    InvalidRequestException first = new InvalidRequestException();
+    first.read(protocol);
+    protocol.readMessageEnd();
+    assertEquals("first", first.getWhy());
+    assertEquals(FrameBufferPool.MIN_CLASS_SIZE, pool.getRetainedBytes());
+
+    InvalidRequestException second = new InvalidRequestException();
+    second.read(protocol);
+    assertEquals(0, pool.getRetainedBytes());
+    protocol.readMessageEnd();
+    assertEquals("second", second.getWhy());
+    assertEquals(FrameBufferPool.MIN_CLASS_SIZE, pool.getRetainedBytes());
+  }
+
+  @Test
+  public void testFrameLargerThanMaxLength() throws TException {
+    TMemoryBuffer buffer = new TMemoryBuffer(64);
+    write(column(1000), new TFramedTransport(buffer));
+    PooledFramedTransport transport = new PooledFramedTransport(buffer, 512);
+    try {
+      new Column().read(new FrameSlicingProtocol(transport));
+      fail("Frame should exceed the max length");
+    } catch (TTransportException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testPoolSizeClasses() {
+    FrameBufferPool pool = new FrameBufferPool(16384, 16384);
+    assertEquals(4096, pool.acquire(1).length);
+    assertEquals(8192, pool.acquire(4097).length);
+    assertEquals(16384, pool.acquire(16384).length);
+    assertEquals(16385, pool.acquire(16385).length);
+
+    byte[] buffer = pool.acquire(8192);
+    pool.release(buffer);
+    pool.release(pool.acquire(8192));
+    pool.release(new byte[8192]);
+    pool.release(new byte[8192]);
+    // at most 16384 bytes are retained
+    assertEquals(16384, pool.getRetainedBytes());
+    assertSame(buffer, pool.acquire(5000));
+    // arrays not of a class size are ignored
+    pool.release(new byte[5000]);
+    assertEquals(8192, pool.getRetainedBytes());
+  }
+
+  @Test
+  public void testRetainedBytesAreLimitedOverAllClasses() {
+    FrameBufferPool pool = new FrameBufferPool(FrameBufferPool.DEFAULT_MAX_CLASS_SIZE, 16384);
+    pool.release(new byte[4096]);
+    pool.release(new byte[8192]);
+    pool.release(new byte[8192]);
+    pool.release(new byte[16384]);
+    assertEquals(4096 + 8192, pool.getRetainedBytes());
+    pool.acquire(8192);
+    pool.release(new byte[4096]);
+    assertEquals(8192, pool.getRetainedBytes());
+  }
+
+  @Test
+  public void testPoolsAreSharedByLimits() {
+    assertSame(FrameBufferPool.get(), FrameBufferPool.get(FrameBufferPool.DEFAULT_MAX_CLASS_SIZE,
+        FrameBufferPool.DEFAULT_RETAINED_BYTES));
+    FrameBufferPool small = FrameBufferPool.get(16384, 65536);
+    assertSame(small, FrameBufferPool.get(16384, 65536));
+    assertNotSame(small, FrameBufferPool.get(16384, 32768));
+  }
+
+  private static void write(TBase<?, ?> struct, TTransport transport) throws TException {
+    struct.write(new TBinaryProtocol(transport));
+    transport.flush();
+  }
+
+  private static Column column(int size) {
+    byte[] value = new byte[size];
+    Arrays.fill(value, (byte) 7);
+    return new Column(ByteBuffer.wrap(new byte[] { 1, 2, 3 })).setValue(value).setTimestamp(42);
+  }
+}
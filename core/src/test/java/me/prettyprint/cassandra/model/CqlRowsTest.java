@@ -0,0 +1,115 @@
+package me.prettyprint.cassandra.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.nio.ByteBuffer;
+
+import me.prettyprint.cassandra.serializers.ByteBufferSerializer;
+import me.prettyprint.cassandra.serializers.IntegerSerializer;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.hector.api.beans.Row;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.CqlMetadata;
+import org.apache.cassandra.thrift.CqlResult;
+import org.apache.cassandra.thrift.CqlResultType;
+import org.apache.cassandra.thrift.CqlRow;
+import org.junit.Test;
+
+public class CqlRowsTest {
+  private static final StringSerializer se = StringSerializer.get();
+  private static final LongSerializer le = LongSerializer.get();
+
+  @Test
+  public void testRowsKeepServerOrderAndDuplicateKeys() {
+    CqlResult result = new CqlResult(CqlResultType.ROWS);
+    result.addToRows(row("k1", column("KEY", se.toByteBuffer("k1")), column("a", le.toByteBuffer(1L))));
+    result.addToRows(row("k2", column("KEY", se.toByteBuffer("k2")), column("a", le.toByteBuffer(2L))));
+    result.addToRows(row("k1", column("KEY", se.toByteBuffer("k1")), column("a", le.toByteBuffer(3L))));
+
+    CqlRows<String, String, Long> rows = new CqlRows<String, String, Long>(result, se, se, le, true);
+    assertEquals(3, rows.getCount());
+    assertEquals("k2", rows.getList().get(1).getKey());
+    assertEquals(Long.valueOf(3L), rows.peekLast().getColumnSlice().getColumnByName("a").getValue());
+    assertEquals(Long.valueOf(1L), rows.getByKey("k1").getColumnSlice().getColumnByName("a").getValue());
+    assertNull(rows.getByKey("k3"));
+    assertSame(rows.getList().get(0), rows.getByKey("k1"));
+    // suppressed key column, thrift row untouched
+    assertNull(rows.getList().get(0).getColumnSlice().getColumnByName("KEY"));
+    assertEquals(2, result.getRows().get(0).getColumnsSize());
+  }
+
+  @Test
+  public void testTypedValueFromMetadata() {
+    CqlMetadata schema = new CqlMetadata(new HashMap<ByteBuffer, String>(),
+        new HashMap<ByteBuffer, String>(), "UTF8Type", "BytesType");
+    schema.putToValue_types(se.toByteBuffer("age"), "org.apache.cassandra.db.marshal.Int32Type");
+    schema.putToValue_types(se.toByteBuffer("name"), "org.apache.cassandra.db.marshal.UTF8Type");
+    CqlResult result = new CqlResult(CqlResultType.ROWS);
+    result.setSchema(schema);
+    result.addToRows(row("k1", column("age", IntegerSerializer.get().toByteBuffer(42)),
+        column("name", se.toByteBuffer("bob"))));
+
+    CqlRows<String, String, ByteBuffer> rows = new CqlRows<String, String, ByteBuffer>(result, se, se,
+        ByteBufferSerializer.get(), false);
+    Row<String, String, ByteBuffer> row = rows.getList().get(0);
+    Integer age = rows.getTypedValue(row.getColumnSlice().getColumnByName("age"));
+    String name = rows.getTypedValue(row.getColumnSlice().getColumnByName("name"));
+    assertEquals(Integer.valueOf(42), age);
+    assertEquals("bob", name);
+    assertSame(IntegerSerializer.get(), rows.getValueSerializer("age"));
+  }
+
+  @Test
+  public void testCounts() {
+    CqlResult intResult = new CqlResult(CqlResultType.INT);
+    intResult.setNum(7);
+    assertEquals(7, new CqlRows<String, String, Long>(intResult, se, se, le, false).getAsCount());
+
+    CqlResult countResult = new CqlResult(CqlResultType.ROWS);
+    countResult.addToRows(row("count", column("count", le.toByteBuffer(2L))));
+    assertEquals(2, new CqlRows<String, String, Long>(countResult, se, se, le, false).getAsCount());
+
+    assertEquals(0, new CqlRows<String, String, Long>().getCount());
+  }
+
+  @SuppressWarnings("deprecation")
+  @Test
+  public void testDecodedRowsOfTheMapConstructor() {
+    LinkedHashMap<String, List<Column>> decoded = new LinkedHashMap<String, List<Column>>();
+    decoded.put("k2", Arrays.asList(column("a", le.toByteBuffer(2L))));
+    decoded.put("k1", Arrays.asList(column("a", le.toByteBuffer(1L))));
+    OrderedRowsImpl<String, String, Long> rows = new CqlRows<String, String, Long>(decoded, se, le);
+    assertEquals(2, rows.getCount());
+    assertEquals("k2", rows.getList().get(0).getKey());
+    assertEquals("k1", rows.peekLast().getKey());
+    assertEquals(Long.valueOf(1L), rows.getByKey("k1").getColumnSlice().getColumnByName("a").getValue());
+
+    LinkedHashMap<String, List<Column>> count = new LinkedHashMap<String, List<Column>>();
+    count.put("count", Arrays.asList(column("count", le.toByteBuffer(3L))));
+    assertEquals(3, new CqlRows<String, String, Long>(count, se, le).getAsCount());
+  }
+
+  private static CqlRow row(String key, Column... columns) {
+    List<Column> list = new ArrayList<Column>();
+    for (Column column : columns) {
+      list.add(column);
+    }
+    return new CqlRow(se.toByteBuffer(key), list);
+  }
+
+  private static Column column(String name, ByteBuffer value) {
+    Column column = new Column(se.toByteBuffer(name));
+    column.setValue(value);
+    column.setTimestamp(0L);
+    return column;
+  }
+}
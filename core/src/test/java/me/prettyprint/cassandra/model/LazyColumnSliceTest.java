@@ -0,0 +1,147 @@
+package me.prettyprint.cassandra.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import me.prettyprint.cassandra.serializers.CompositeSerializer;
+import me.prettyprint.cassandra.serializers.IntegerSerializer;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.serializers.UUIDSerializer;
+import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.beans.Composite;
+import me.prettyprint.hector.api.beans.OrderedRows;
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+import org.apache.cassandra.thrift.Column;
+import org.junit.Test;
+
+public class LazyColumnSliceTest {
+  private static final StringSerializer se = StringSerializer.get();
+  private static final LongSerializer le = LongSerializer.get();
+
+  @Test
+  public void testBinarySearchStringNames() {
+    List<Column> tColumns = new ArrayList<Column>();
+    for (String name : Arrays.asList("a", "b", "email", "lastLogin", "zé")) {
+      tColumns.add(column(se.toByteBuffer(name), le.toByteBuffer((long) name.length())));
+    }
+    LazyColumnSliceImpl<String, Long> slice = new LazyColumnSliceImpl<String, Long>(tColumns, se, le,
+        ComparatorType.UTF8TYPE, false);
+    assertEquals(Long.valueOf(5L), slice.getColumnByName("email").getValue());
+    assertEquals(Long.valueOf(2L), slice.getColumnByName("zé").getValue());
+    assertNull(slice.getColumnByName("c"));
+    assertEquals(5, slice.getColumns().size());
+    assertSame(slice.getColumns().get(2), slice.getColumnByName("email"));
+    assertEquals(Arrays.asList("a", "b", "email", "lastLogin", "zé"), slice.getColumnNames());
+  }
+
+  @Test
+  public void testBinarySearchReversedLongNames() {
+    List<Column> tColumns = new ArrayList<Column>();
+    for (long name : new long[] { 300L, 2L, 0L, -1L, -500L }) {
+      tColumns.add(column(le.toByteBuffer(name), se.toByteBuffer("v" + name)));
+    }
+    ColumnSlice<Long, String> slice = new LazyColumnSliceImpl<Long, String>(tColumns, le, se,
+        ComparatorType.LONGTYPE, true);
+    assertEquals("v-1", slice.getColumnByName(-1L).getValue());
+    assertEquals("v300", slice.getColumnByName(300L).getValue());
+    assertEquals("v-500", slice.getColumnByName(-500L).getValue());
+    assertNull(slice.getColumnByName(1L));
+  }
+
+  @Test
+  public void testNegativeNamesWithTheColumnFamilyComparator() {
+    // IntegerSerializer reports BytesType, only the column family says Int32Type
+    IntegerSerializer ie = IntegerSerializer.get();
+    List<Column> intColumns = new ArrayList<Column>();
+    List<Column> longColumns = new ArrayList<Column>();
+    for (int name : new int[] { Integer.MIN_VALUE, -500, -1, 0, 2, 300 }) {
+      intColumns.add(column(ie.toByteBuffer(name), se.toByteBuffer("v" + name)));
+      longColumns.add(column(le.toByteBuffer((long) name), se.toByteBuffer("v" + name)));
+    }
+    List<ColumnSlice<Integer, String>> intSlices = Arrays.<ColumnSlice<Integer, String>> asList(
+        new LazyColumnSliceImpl<Integer, String>(intColumns, ie, se, ComparatorType.INT32TYPE, false),
+        new LazyColumnSliceImpl<Integer, String>(intColumns, ie, se));
+    for (ColumnSlice<Integer, String> slice : intSlices) {
+      assertEquals("v-500", slice.getColumnByName(-500).getValue());
+      assertEquals("v-1", slice.getColumnByName(-1).getValue());
+      assertEquals("v" + Integer.MIN_VALUE, slice.getColumnByName(Integer.MIN_VALUE).getValue());
+      assertEquals("v300", slice.getColumnByName(300).getValue());
+      assertNull(slice.getColumnByName(-2));
+    }
+    List<ColumnSlice<Long, String>> longSlices = Arrays.<ColumnSlice<Long, String>> asList(
+        new LazyColumnSliceImpl<Long, String>(longColumns, le, se, ComparatorType.LONGTYPE, false),
+        new LazyColumnSliceImpl<Long, String>(longColumns, le, se));
+    for (ColumnSlice<Long, String> slice : longSlices) {
+      assertEquals("v-500", slice.getColumnByName(-500L).getValue());
+      assertEquals("v-1", slice.getColumnByName(-1L).getValue());
+      assertEquals("v0", slice.getColumnByName(0L).getValue());
+      assertNull(slice.getColumnByName(-2L));
+    }
+  }
+
+  @Test
+  public void testLinearScanWithoutByteComparator() {
+    // CompositeType does not say which components it is made of
+    CompositeSerializer ce = CompositeSerializer.get();
+    Composite first = new Composite("b", 1L);
+    Composite second = new Composite("a", 2L);
+    List<Column> tColumns = new ArrayList<Column>();
+    tColumns.add(column(ce.toByteBuffer(first), se.toByteBuffer("first")));
+    tColumns.add(column(ce.toByteBuffer(second), se.toByteBuffer("second")));
+    ColumnSlice<Composite, String> slice = new LazyColumnSliceImpl<Composite, String>(tColumns, ce, se,
+        ComparatorType.COMPOSITETYPE, false);
+    assertEquals("second", slice.getColumnByName(new Composite("a", 2L)).getValue());
+    assertNull(slice.getColumnByName(new Composite("c", 3L)));
+  }
+
+  @Test
+  public void testNamesAreScannedWithoutComparator() {
+    // UUIDSerializer is used for LexicalUUIDType too, which orders by signed
+    // most then least significant bits, unlike UUIDType
+    UUIDSerializer ue = UUIDSerializer.get();
+    List<UUID> names = Arrays.asList(new UUID(0x8000000000004000L, 1L), new UUID(0x4000L, -1L),
+        new UUID(0x4000L, 1L), new UUID(0x7000000000004000L, 1L));
+    List<Column> tColumns = new ArrayList<Column>();
+    for (UUID name : names) {
+      tColumns.add(column(ue.toByteBuffer(name), se.toByteBuffer(name.toString())));
+    }
+    ColumnSlice<UUID, String> slice = new LazyColumnSliceImpl<UUID, String>(tColumns, ue, se);
+    for (UUID name : names) {
+      assertEquals(name.toString(), slice.getColumnByName(name).getValue());
+    }
+    assertNull(slice.getColumnByName(UUID.randomUUID()));
+  }
+
+  @Test
+  public void testLazyRows() {
+    Map<ByteBuffer, List<Column>> thriftRet = new LinkedHashMap<ByteBuffer, List<Column>>();
+    thriftRet.put(se.toByteBuffer("k2"), Arrays.asList(column(se.toByteBuffer("a"), le.toByteBuffer(2L))));
+    thriftRet.put(se.toByteBuffer("k1"), Arrays.asList(column(se.toByteBuffer("a"), le.toByteBuffer(1L))));
+    OrderedRows<String, String, Long> rows = new LazyRowsImpl<String, String, Long>(thriftRet, se, se, le,
+        ComparatorType.UTF8TYPE, false);
+    assertEquals(2, rows.getCount());
+    assertEquals("k2", rows.getList().get(0).getKey());
+    assertEquals("k1", rows.peekLast().getKey());
+    assertEquals(Long.valueOf(1L), rows.getByKey("k1").getColumnSlice().getColumnByName("a").getValue());
+    assertSame(rows.getByKey("k2"), rows.getList().get(0));
+    assertNull(rows.getByKey("k3"));
+  }
+
+  private static Column column(ByteBuffer name, ByteBuffer value) {
+    Column column = new Column(name);
+    column.setValue(value);
+    column.setTimestamp(0L);
+    return column;
+  }
+}
@@ -0,0 +1,70 @@
+package me.prettyprint.cassandra.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import me.prettyprint.cassandra.serializers.DoubleSerializer;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
+
+import org.apache.cassandra.thrift.Column;
+import org.junit.Test;
+
+public class LongColumnSliceTest {
+
+  @Test
+  public void testLongValues() {
+    List<Column> columns = new ArrayList<Column>();
+    for (long t = -2; t <= 2; t++) {
+      columns.add(column(t * 1000, LongSerializer.get().toByteBuffer(t * t), 10 + t));
+    }
+    columns.get(4).setTtl(60);
+    LongLongColumnSlice slice = new LongLongColumnSlice(columns, false);
+
+    assertEquals(5, slice.size());
+    assertEquals(-2000L, slice.getName(0));
+    assertEquals(4L, slice.getValue(0));
+    assertEquals(8L, slice.getClock(0));
+    assertEquals(0, slice.getTtl(0));
+    assertEquals(60, slice.getTtl(4));
+    assertEquals(3, slice.indexOf(1000L));
+    assertTrue(slice.indexOf(1500L) < 0);
+    assertEquals(1L, slice.getValue(-1000L, -1L));
+    assertEquals(-1L, slice.getValue(7L, -1L));
+  }
+
+  @Test
+  public void testReversedDoubleValues() {
+    List<Column> columns = new ArrayList<Column>();
+    for (long t = 5; t > 0; t--) {
+      columns.add(column(t, DoubleSerializer.get().toByteBuffer(t / 2.0), 0));
+    }
+    LongDoubleColumnSlice slice = new LongDoubleColumnSlice(columns, true);
+    assertEquals(5L, slice.getName(0));
+    assertEquals(1, slice.indexOf(4L));
+    assertEquals(4, slice.indexOf(1L));
+    assertTrue(slice.indexOf(6L) < 0);
+    assertTrue(slice.indexOf(0L) < 0);
+    assertEquals(1.5, slice.getValue(3L, 0.0), 0.0);
+    assertEquals(2.5, slice.getValues()[0], 0.0);
+  }
+
+  @Test(expected = HectorSerializationException.class)
+  public void testValueWhichIsNotALong() {
+    List<Column> columns = new ArrayList<Column>();
+    columns.add(column(1L, StringSerializer.get().toByteBuffer("one"), 0));
+    new LongLongColumnSlice(columns, false);
+  }
+
+  private static Column column(long name, ByteBuffer value, long clock) {
+    Column column = new Column(LongSerializer.get().toByteBuffer(name));
+    column.setValue(value);
+    column.setTimestamp(clock);
+    return column;
+  }
+}
@@ -0,0 +1,126 @@
+package me.prettyprint.cassandra.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.connection.HConnectionManager;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.Mutation;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.apache.cassandra.thrift.SliceRange;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class NearCacheTest {
+  private static final StringSerializer se = StringSerializer.get();
+
+  private CassandraClientMonitor monitor;
+  private NearCache cache;
+  private SlicePredicate all;
+
+  @Before
+  public void setup() {
+    monitor = new CassandraClientMonitor(Mockito.mock(HConnectionManager.class));
+    cache = new NearCache(monitor);
+    cache.enable("Standard1", 1024 * 1024, 1, TimeUnit.MINUTES);
+    all = new SlicePredicate();
+    all.setSlice_range(new SliceRange(ByteBuffer.allocate(0), ByteBuffer.allocate(0), false, 100));
+  }
+
+  @Test
+  public void testHitsAndMisses() {
+    ByteBuffer key = se.toByteBuffer("k1");
+    assertNull(cache.get("Standard1", key, all));
+    cache.put("Standard1", key, all, Arrays.asList(column("a", "1")), cache.stamp("Standard1", key));
+
+    List<Column> cached = cache.get("Standard1", se.toByteBuffer("k1"), all);
+    assertEquals("1", se.fromByteBuffer(cached.get(0).value.duplicate()));
+    assertNull(cache.get("Standard1", key, names("a")));
+    assertEquals(1, monitor.getNearCacheHitCount());
+    assertEquals(2, monitor.getNearCacheMissCount());
+    assertEquals(1.0 / 3, monitor.getNearCacheHitRatio(), 0.0001);
+
+    // other column families are not cached, nor counted
+    assertFalse(cache.isEnabled("Standard2"));
+    cache.put("Standard2", key, all, Arrays.asList(column("a", "1")), 0);
+    assertNull(cache.get("Standard2", key, all));
+    assertEquals(2, monitor.getNearCacheMissCount());
+  }
+
+  @Test
+  public void testServedColumnsAreCopies() {
+    ByteBuffer key = se.toByteBuffer("k1");
+    cache.put("Standard1", key, all, Arrays.asList(column("a", "1")), cache.stamp("Standard1", key));
+    cache.get("Standard1", key, all).get(0).setValue(se.toByteBuffer("changed"));
+    assertEquals("1", se.fromByteBuffer(cache.get("Standard1", key, all).get(0).value.duplicate()));
+  }
+
+  @Test
+  public void testMutationInvalidatesAllPredicatesOfRow() {
+    ByteBuffer key = se.toByteBuffer("k1");
+    ByteBuffer other = se.toByteBuffer("k2");
+    cache.put("Standard1", key, all, Arrays.asList(column("a", "1")), cache.stamp("Standard1", key));
+    cache.put("Standard1", key, names("a"), Arrays.asList(column("a", "1")), cache.stamp("Standard1", key));
+    cache.put("Standard1", other, all, Collections.<Column>emptyList(), cache.stamp("Standard1", other));
+
+    Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
+    mutationMap.put(se.toByteBuffer("k1"), Collections.singletonMap("Standard1", Collections.<Mutation>emptyList()));
+    cache.invalidate(mutationMap);
+
+    assertNull(cache.get("Standard1", key, all));
+    assertNull(cache.get("Standard1", key, names("a")));
+    assertTrue(cache.get("Standard1", other, all).isEmpty());
+  }
+
+  @Test
+  public void testReadRacingWriteIsNotCached() {
+    ByteBuffer key = se.toByteBuffer("k1");
+    long stamp = cache.stamp("Standard1", key);
+    cache.invalidate("Standard1", key);
+    cache.put("Standard1", key, all, Arrays.asList(column("a", "stale")), stamp);
+    assertNull(cache.get("Standard1", key, all));
+    assertEquals(0, cache.size("Standard1"));
+  }
+
+  @Test
+  public void testWeightBound() {
+    cache.enable("Standard1", 2000, 1, TimeUnit.MINUTES);
+    char[] chars = new char[500];
+    Arrays.fill(chars, 'x');
+    String big = new String(chars);
+    for (int i = 0; i < 20; i++) {
+      ByteBuffer key = se.toByteBuffer("k" + i);
+      cache.put("Standard1", key, all, Arrays.asList(column("a", big)), cache.stamp("Standard1", key));
+    }
+    assertTrue(cache.size("Standard1") < 20);
+  }
+
+  private static SlicePredicate names(String... names) {
+    SlicePredicate predicate = new SlicePredicate();
+    for (String name : names) {
+      predicate.addToColumn_names(se.toByteBuffer(name));
+    }
+    return predicate;
+  }
+
+  private static Column column(String name, String value) {
+    Column column = new Column(se.toByteBuffer(name));
+    column.setValue(se.toByteBuffer(value));
+    column.setTimestamp(0L);
+    return column;
+  }
+}
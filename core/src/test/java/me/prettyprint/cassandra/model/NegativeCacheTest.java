@@ -0,0 +1,114 @@
+package me.prettyprint.cassandra.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.connection.HConnectionManager;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+
+import org.apache.cassandra.thrift.Mutation;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class NegativeCacheTest {
+  private static final StringSerializer se = StringSerializer.get();
+
+  private CassandraClientMonitor monitor;
+  private NegativeCache cache;
+
+  @Before
+  public void setup() {
+    monitor = new CassandraClientMonitor(Mockito.mock(HConnectionManager.class));
+    cache = new NegativeCache(monitor);
+    cache.enable("Standard1", 10000, 0.001, 1, TimeUnit.MINUTES);
+  }
+
+  @Test
+  public void testEmptyReadsAreRemembered() {
+    ByteBuffer key = se.toByteBuffer("missing");
+    assertFalse(cache.isKnownEmpty("Standard1", key, names("a")));
+    cache.putEmpty("Standard1", key, names("a"), cache.stamp());
+
+    assertTrue(cache.isKnownEmpty("Standard1", se.toByteBuffer("missing"), names("a")));
+    assertFalse(cache.isKnownEmpty("Standard1", key, names("b")));
+    assertFalse(cache.isKnownEmpty("Standard1", se.toByteBuffer("other"), names("a")));
+    assertEquals(1, monitor.getNegativeCacheHitCount());
+
+    assertFalse(cache.isEnabled("Standard2"));
+    cache.putEmpty("Standard2", key, names("a"), cache.stamp());
+    assertFalse(cache.isKnownEmpty("Standard2", key, names("a")));
+  }
+
+  @Test
+  public void testLocalWriteClearsRow() {
+    ByteBuffer key = se.toByteBuffer("k1");
+    cache.putEmpty("Standard1", key, names("a"), cache.stamp());
+    cache.putEmpty("Standard1", key, names("b"), cache.stamp());
+
+    Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap = new HashMap<ByteBuffer, Map<String, List<Mutation>>>();
+    mutationMap.put(se.toByteBuffer("k1"), Collections.singletonMap("Standard1", Collections.<Mutation>emptyList()));
+    cache.invalidate(mutationMap);
+
+    assertFalse(cache.isKnownEmpty("Standard1", key, names("a")));
+    assertFalse(cache.isKnownEmpty("Standard1", key, names("b")));
+  }
+
+  @Test
+  public void testReadRacingWriteIsNotRemembered() {
+    ByteBuffer key = se.toByteBuffer("k1");
+    long stamp = cache.stamp();
+    cache.invalidate("Standard1", key);
+    cache.putEmpty("Standard1", key, names("a"), stamp);
+    assertFalse(cache.isKnownEmpty("Standard1", key, names("a")));
+  }
+
+  @Test
+  public void testWritesOnlyHideReadsOfTheirStripe() {
+    for (int i = 0; i < 100; i++) {
+      cache.putEmpty("Standard1", se.toByteBuffer("missing" + i), names("a"), cache.stamp());
+    }
+    for (int i = 0; i < 10; i++) {
+      cache.invalidate("Standard1", se.toByteBuffer("missing" + i));
+    }
+
+    int hits = 0;
+    for (int i = 0; i < 100; i++) {
+      boolean knownEmpty = cache.isKnownEmpty("Standard1", se.toByteBuffer("missing" + i), names("a"));
+      if ( i < 10 ) {
+        assertFalse(knownEmpty);
+      } else if ( knownEmpty ) {
+        hits++;
+      }
+    }
+    assertTrue("" + hits, hits >= 85);
+  }
+
+  @Test
+  public void testEntriesExpire() throws InterruptedException {
+    cache.enable("Standard1", 10000, 0.001, 40, TimeUnit.MILLISECONDS);
+    ByteBuffer key = se.toByteBuffer("k1");
+    cache.putEmpty("Standard1", key, names("a"), cache.stamp());
+    assertTrue(cache.isKnownEmpty("Standard1", key, names("a")));
+    Thread.sleep(100);
+    assertFalse(cache.isKnownEmpty("Standard1", key, names("a")));
+  }
+
+  private static SlicePredicate names(String... names) {
+    SlicePredicate predicate = new SlicePredicate();
+    for (String name : names) {
+      predicate.addToColumn_names(se.toByteBuffer(name));
+    }
+    return predicate;
+  }
+}
@@ -0,0 +1,200 @@
+package me.prettyprint.cassandra.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.prettyprint.cassandra.connection.HConnectionManager;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.service.CassandraClientMonitor;
+import me.prettyprint.cassandra.service.FailoverPolicy;
+import me.prettyprint.hector.api.HConsistencyLevel;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
+
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ReadCoalescerTest {
+  private static final StringSerializer se = StringSerializer.get();
+  private static final int READERS = 8;
+
+  private CassandraClientMonitor monitor;
+  private ReadCoalescer coalescer;
+  private ExecutorService executor;
+  private SlicePredicate predicate;
+
+  @Before
+  public void setup() {
+    monitor = new CassandraClientMonitor(Mockito.mock(HConnectionManager.class));
+    coalescer = new ReadCoalescer(monitor);
+    coalescer.enable("Standard1");
+    executor = Executors.newFixedThreadPool(READERS);
+    predicate = new SlicePredicate();
+    predicate.addToColumn_names(se.toByteBuffer("a"));
+  }
+
+  @After
+  public void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentIdenticalReadsShareOneRequest() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger requests = new AtomicInteger();
+    final Callable<List<Column>> read = new Callable<List<Column>>() {
+      @Override
+      public List<Column> call() throws Exception {
+        requests.incrementAndGet();
+        release.await();
+        return Arrays.asList(column("a", "1"));
+      }
+    };
+    List<Future<List<Column>>> results = new ArrayList<Future<List<Column>>>();
+    for (int i = 0; i < READERS; i++) {
+      results.add(executor.submit(readTask("Standard1", read)));
+    }
+    waitForWaiters(READERS - 1);
+    release.countDown();
+
+    List<Column> first = results.get(0).get(5, TimeUnit.SECONDS);
+    for (Future<List<Column>> result : results) {
+      List<Column> columns = result.get(5, TimeUnit.SECONDS);
+      assertEquals("1", se.fromByteBuffer(columns.get(0).value.duplicate()));
+      if ( columns != first ) {
+        assertNotSame(first.get(0), columns.get(0));
+      }
+    }
+    assertEquals(1, requests.get());
+    assertEquals(READERS - 1, monitor.getCoalescedReadCount());
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  @Test
+  public void testWaitersSeeFailure() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    Callable<List<Column>> read = new Callable<List<Column>>() {
+      @Override
+      public List<Column> call() throws Exception {
+        release.await();
+        throw new HTimedOutException("timed out");
+      }
+    };
+    Future<List<Column>> leader = executor.submit(readTask("Standard1", read));
+    waitForInFlight();
+    Future<List<Column>> waiter = executor.submit(readTask("Standard1", read));
+    waitForWaiters(1);
+    release.countDown();
+    for (Future<List<Column>> result : Arrays.asList(leader, waiter)) {
+      try {
+        result.get(5, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        assertSame(HTimedOutException.class, e.getCause().getClass());
+      }
+    }
+  }
+
+  @Test
+  public void testDisabledColumnFamilyIsNotCoalesced() throws Exception {
+    final AtomicInteger requests = new AtomicInteger();
+    Callable<List<Column>> read = new Callable<List<Column>>() {
+      @Override
+      public List<Column> call() {
+        requests.incrementAndGet();
+        return Arrays.asList(column("a", "1"));
+      }
+    };
+    coalescer.read("Standard2", se.toByteBuffer("k1"), predicate, HConsistencyLevel.ONE, read);
+    coalescer.read("Standard2", se.toByteBuffer("k1"), predicate, HConsistencyLevel.ONE, read);
+    assertEquals(2, requests.get());
+    assertEquals(0, monitor.getCoalescedReadCount());
+  }
+
+  @Test
+  public void testWaiterJoiningAfterWriteDoesNotCacheStaleRow() throws Exception {
+    HConnectionManager connectionManager = Mockito.mock(HConnectionManager.class);
+    NearCache nearCache = new NearCache(monitor);
+    nearCache.enable("Standard1", 1 << 20, 1, TimeUnit.MINUTES);
+    Mockito.when(connectionManager.getNearCache("Keyspace1")).thenReturn(nearCache);
+    Mockito.when(connectionManager.getNegativeCache("Keyspace1")).thenReturn(new NegativeCache(monitor));
+    Mockito.when(connectionManager.getReadCoalescer("Keyspace1")).thenReturn(coalescer);
+    final ExecutingKeyspace keyspace = new ExecutingKeyspace("Keyspace1", connectionManager,
+        new QuorumAllConsistencyLevelPolicy(), FailoverPolicy.ON_FAIL_TRY_ALL_AVAILABLE);
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final Callable<List<Column>> read = new Callable<List<Column>>() {
+      @Override
+      public List<Column> call() throws Exception {
+        release.await();
+        return Arrays.asList(column("a", "before write"));
+      }
+    };
+    Callable<List<Column>> readThrough = new Callable<List<Column>>() {
+      @Override
+      public List<Column> call() {
+        return keyspace.readThrough("Standard1", se.toByteBuffer("k1"), predicate, read);
+      }
+    };
+    Future<List<Column>> leader = executor.submit(readThrough);
+    waitForInFlight();
+    keyspace.invalidateReads("Standard1", se.toByteBuffer("k1"));
+    Future<List<Column>> waiter = executor.submit(readThrough);
+    waitForWaiters(1);
+    release.countDown();
+
+    assertNotNull(leader.get(5, TimeUnit.SECONDS));
+    assertEquals("before write", se.fromByteBuffer(waiter.get(5, TimeUnit.SECONDS).get(0).value.duplicate()));
+    assertNull(nearCache.get("Standard1", se.toByteBuffer("k1"), predicate));
+  }
+
+  private Callable<List<Column>> readTask(final String columnFamily, final Callable<List<Column>> read) {
+    return new Callable<List<Column>>() {
+      @Override
+      public List<Column> call() {
+        return coalescer.read(columnFamily, se.toByteBuffer("k1"), predicate, HConsistencyLevel.ONE, read);
+      }
+    };
+  }
+
+  private void waitForInFlight() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while ( coalescer.getInFlightCount() == 0 && System.currentTimeMillis() < deadline ) {
+      Thread.sleep(5);
+    }
+  }
+
+  private void waitForWaiters(int waiters) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while ( monitor.getCoalescedReadCount() < waiters && System.currentTimeMillis() < deadline ) {
+      Thread.sleep(5);
+    }
+  }
+
+  private static Column column(String name, String value) {
+    Column column = new Column(se.toByteBuffer(name));
+    column.setValue(se.toByteBuffer(value));
+    column.setTimestamp(0L);
+    return column;
+  }
+}
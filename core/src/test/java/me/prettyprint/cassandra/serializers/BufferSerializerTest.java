@@ -0,0 +1,165 @@
+package me.prettyprint.cassandra.serializers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import me.prettyprint.cassandra.utils.ByteBufferSlab;
+import me.prettyprint.hector.api.BufferSerializer;
+
+import org.junit.Test;
+
+public class BufferSerializerTest {
+
+  private static final String[] STRINGS = { "", "plain ascii", "caf\u00e9", "\u05e9\u05dc\u05d5\u05dd",
+      "\u20ac 100", "clef \uD834\uDD1E", "lone \uD834 surrogate", "\uDD1E" };
+
+  @Test
+  public void testUtf8MatchesGetBytes() throws Exception {
+    StringSerializer se = StringSerializer.get();
+    for (String s : STRINGS) {
+      byte[] expected = s.getBytes("UTF-8");
+      assertEquals(s, expected.length, se.serializedSize(s));
+      assertArrayEquals(s, expected, se.toBytes(s));
+      assertEquals(new String(expected, "UTF-8"), se.fromBytes(expected));
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(expected.length + 3);
+      direct.position(3);
+      assertEquals(expected.length, se.writeTo(s, direct));
+      assertEquals(new String(expected, "UTF-8"), se.read(direct, 3, expected.length));
+    }
+  }
+
+  @Test
+  public void testAsciiMatchesGetBytes() throws Exception {
+    AsciiSerializer as = AsciiSerializer.get();
+    for (String s : new String[] { "", "plain ascii", "caf\u00e9" }) {
+      byte[] expected = s.getBytes("US-ASCII");
+      assertArrayEquals(expected, as.toBytes(s));
+      assertEquals(new String(expected, "US-ASCII"), as.fromBytes(expected));
+    }
+    assertEquals("\ufffd", as.fromBytes(new byte[] { (byte) 0xe9 }));
+  }
+
+  @Test
+  public void testWriteAndReadInPlace() {
+    ByteBuffer slab = ByteBuffer.allocate(64);
+    UUID uuid = UUID.randomUUID();
+    int longAt = write(slab, LongSerializer.get(), -3L);
+    int uuidAt = write(slab, UUIDSerializer.get(), uuid);
+    int stringAt = write(slab, StringSerializer.get(), "abc");
+    int intAt = write(slab, IntegerSerializer.get(), 9);
+    assertEquals(8 + 16 + 3 + 4, slab.position());
+
+    assertEquals(Long.valueOf(-3L), LongSerializer.get().read(slab, longAt, 8));
+    assertEquals(uuid, UUIDSerializer.get().read(slab, uuidAt, 16));
+    assertEquals("abc", StringSerializer.get().read(slab, stringAt, 3));
+    assertEquals(Integer.valueOf(9), IntegerSerializer.get().read(slab, intAt, 4));
+    assertEquals(8 + 16 + 3 + 4, slab.position());
+
+    assertEquals(0, StringSerializer.get().writeTo(null, slab));
+    assertEquals(0, LongSerializer.get().serializedSize(null));
+  }
+
+  @Test
+  public void testSlab() {
+    ByteBufferSlab slab = new ByteBufferSlab(64);
+    ByteBuffer a = slab.serialize("a", StringSerializer.get());
+    ByteBuffer b = slab.serialize(7L, LongSerializer.get());
+    assertEquals(StringSerializer.get().toByteBuffer("a"), a);
+    assertEquals(LongSerializer.get().toByteBuffer(7L), b);
+    assertEquals(0, b.position());
+    assertNull(slab.serialize(null, StringSerializer.get()));
+    // larger than a quarter chunk, allocated on its own
+    assertEquals(32, slab.allocate(32).capacity());
+
+    List<ByteBuffer> names = ByteBufferSlab.pack(Arrays.asList("x", "yz", null, "\u00e9"), StringSerializer.get());
+    assertEquals(StringSerializer.get().toByteBuffer("x"), names.get(0));
+    assertEquals(StringSerializer.get().toByteBuffer("yz"), names.get(1));
+    assertNull(names.get(2));
+    assertEquals(StringSerializer.get().toByteBuffer("\u00e9"), names.get(3));
+    assertEquals("\u00e9", StringSerializer.get().fromByteBuffer(names.get(3)));
+  }
+
+  @Test
+  public void testBulkEncodingSharesOneBuffer() {
+    List<Long> keys = Arrays.asList(3L, null, -1L, 7L);
+    List<ByteBuffer> bytes = LongSerializer.get().toBytesList(keys);
+    assertEquals(LongSerializer.get().toByteBuffer(3L), bytes.get(0));
+    assertNull(bytes.get(1));
+    assertEquals(LongSerializer.get().toByteBuffer(7L), bytes.get(3));
+    assertSame(bytes.get(0).array(), bytes.get(3).array());
+
+    Set<ByteBuffer> names = StringSerializer.get().toBytesSet(Arrays.asList("a", "bc", "a"));
+    assertEquals(2, names.size());
+    assertTrue(names.contains(StringSerializer.get().toByteBuffer("bc")));
+
+    Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+    map.put("x", 1);
+    map.put("yz", 2);
+    Map<ByteBuffer, Integer> bytesMap = StringSerializer.get().toBytesMap(map);
+    assertEquals(map, StringSerializer.get().fromBytesMap(bytesMap));
+
+    // serializers without their own writeTo keep a buffer per element
+    List<BigInteger> numbers = Arrays.asList(BigInteger.ONE, BigInteger.TEN);
+    assertEquals(numbers, BigIntegerSerializer.get().fromBytesList(BigIntegerSerializer.get().toBytesList(numbers)));
+    List<ByteBuffer> objects = ObjectSerializer.get().toBytesList(Arrays.<Object>asList("a", 1));
+    assertEquals("a", ObjectSerializer.get().fromByteBuffer(objects.get(0)));
+    assertEquals(1, ObjectSerializer.get().fromByteBuffer(objects.get(1)));
+  }
+
+  @Test
+  public void testPrimitiveListsReuseArrays() {
+    long[] longs = new long[8];
+    List<ByteBuffer> bytes = LongSerializer.get().toBytesList(Arrays.asList(5L, -6L));
+    assertSame(longs, LongSerializer.get().fromBytesList(bytes, longs));
+    assertEquals(-6L, longs[1]);
+    assertEquals(2, LongSerializer.get().fromBytesList(bytes, new long[1]).length);
+    // the buffers are not consumed
+    assertEquals(Long.valueOf(5L), LongSerializer.get().fromByteBuffer(bytes.get(0)));
+
+    int[] ints = IntegerSerializer.get().fromBytesList(IntegerSerializer.get().toBytesList(Arrays.asList(1, 2)), null);
+    assertEquals(2, ints[1]);
+    double[] doubles = DoubleSerializer.get().fromBytesList(DoubleSerializer.get().toBytesList(Arrays.asList(0.5d)), null);
+    assertEquals(0.5d, doubles[0], 0d);
+  }
+
+  @Test
+  public void testInterningReturnsCanonicalNames() throws Exception {
+    StringSerializer se = StringSerializer.interning(4);
+    String first = se.fromByteBuffer(ByteBuffer.wrap("email".getBytes("UTF-8")));
+    ByteBuffer direct = ByteBuffer.allocateDirect(8);
+    direct.put((byte) 0).put("email".getBytes("UTF-8")).flip().position(1);
+    assertSame(first, se.fromByteBuffer(direct));
+    assertEquals("caf\u00e9", se.fromBytes("caf\u00e9".getBytes("UTF-8")));
+
+    // colliding or evicted names are decoded again, never mixed up
+    for (int i = 0; i < 100; i++) {
+      assertEquals("name" + i, se.fromBytes(("name" + i).getBytes("UTF-8")));
+    }
+    assertEquals("email", se.fromBytes("email".getBytes("UTF-8")));
+    assertEquals("", se.fromBytes(new byte[0]));
+
+    AsciiSerializer as = AsciiSerializer.interning(16);
+    String name = as.fromBytes("lastLogin".getBytes("US-ASCII"));
+    assertSame(name, as.fromBytes("lastLogin".getBytes("US-ASCII")));
+    assertEquals(StringSerializer.get().getComparatorType(), se.getComparatorType());
+  }
+
+  private static <T> int write(ByteBuffer slab, BufferSerializer<T> serializer, T value) {
+    int at = slab.position();
+    assertEquals(serializer.serializedSize(value), serializer.writeTo(value, slab));
+    return at;
+  }
+}
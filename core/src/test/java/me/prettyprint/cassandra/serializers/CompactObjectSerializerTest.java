@@ -0,0 +1,123 @@
+package me.prettyprint.cassandra.serializers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class CompactObjectSerializerTest {
+
+  @Test
+  public void testBuiltInTypes() {
+    CompactObjectSerializer ser = new CompactObjectSerializer();
+    Map<String, Object> map = new HashMap<String, Object>();
+    map.put("list", new ArrayList<Object>(Arrays.asList(1, "two", 3L)));
+    map.put("set", new LinkedHashSet<Object>(Arrays.asList('c', (short) -4, (byte) 5)));
+    map.put("sorted", new TreeMap<String, Object>(map));
+    Object[] values = { null, "text", Long.MIN_VALUE, -1, Integer.MAX_VALUE, true, 2.5d, 1.5f,
+        new byte[] { 1, 2 }, UUID.randomUUID(), new Date(), new BigInteger("-123456789012345678901234567890"),
+        new BigDecimal("-3.14159"), map };
+    for (Object value : values) {
+      Object read = ser.fromByteBuffer(ser.toByteBuffer(value));
+      if ( value instanceof byte[] ) {
+        assertTrue(Arrays.equals((byte[]) value, (byte[]) read));
+      } else {
+        assertEquals(value, read);
+      }
+    }
+    assertEquals(3, ser.toBytes(1).length);
+  }
+
+  @Test
+  public void testRegisteredClassIsSmallerThanJavaSerialization() {
+    CompactObjectSerializer ser = new CompactObjectSerializer().register(Reading.class, 64).register(Unit.class, 65);
+    Reading reading = new Reading();
+    reading.sensor = "s-1";
+    reading.value = 21;
+    reading.unit = Unit.CELSIUS;
+    reading.tags = new ArrayList<String>(Arrays.asList("a", "b"));
+    reading.cached = "not written";
+
+    byte[] bytes = ser.toBytes(reading);
+    Reading read = (Reading) ser.fromBytes(bytes);
+    assertEquals("s-1", read.sensor);
+    assertEquals(21, read.value);
+    assertEquals(Unit.CELSIUS, read.unit);
+    assertEquals(reading.tags, read.tags);
+    assertNull(read.cached);
+    assertTrue(bytes.length * 4 < ObjectSerializer.get().toBytes(reading).length);
+  }
+
+  @Test
+  public void testAddedAndRemovedFields() {
+    CompactObjectSerializer v1 = new CompactObjectSerializer().register(ReadingV1.class, 64);
+    CompactObjectSerializer v2 = new CompactObjectSerializer().register(ReadingV2.class, 64);
+    ReadingV1 old = new ReadingV1();
+    old.sensor = "s-1";
+    old.value = 7;
+    old.location = "roof";
+
+    ReadingV2 read = (ReadingV2) v2.fromByteBuffer(v1.toByteBuffer(old));
+    assertEquals("s-1", read.sensor);
+    assertEquals(7, read.value);
+    assertEquals(60L, read.intervalSeconds);
+
+    ReadingV1 back = (ReadingV1) v1.fromByteBuffer(v2.toByteBuffer(read));
+    assertEquals(7, back.value);
+    assertNull(back.location);
+  }
+
+  @Test
+  public void testReadsJavaSerializedValues() {
+    CompactObjectSerializer ser = new CompactObjectSerializer();
+    Reading reading = new Reading();
+    reading.sensor = "legacy";
+    ByteBuffer legacy = ObjectSerializer.get().toByteBuffer(reading);
+    assertEquals("legacy", ((Reading) ser.fromByteBuffer(legacy)).sensor);
+
+    // unregistered Serializable classes are embedded
+    Reading embedded = (Reading) ser.fromBytes(ser.toBytes(reading));
+    assertEquals("legacy", embedded.sensor);
+    List<Object> list = new ArrayList<Object>(Arrays.<Object>asList(reading));
+    assertEquals("legacy", ((Reading) ((List<?>) ser.fromBytes(ser.toBytes(list))).get(0)).sensor);
+  }
+
+  enum Unit {
+    CELSIUS, FAHRENHEIT
+  }
+
+  static class Reading implements java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+    String sensor;
+    int value;
+    Unit unit;
+    List<String> tags;
+    transient String cached;
+  }
+
+  static class ReadingV1 {
+    String sensor;
+    int value;
+    String location;
+  }
+
+  static class ReadingV2 {
+    String sensor;
+    int value;
+    long intervalSeconds = 60;
+  }
+}
@@ -0,0 +1,132 @@
+package me.prettyprint.cassandra.serializers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import me.prettyprint.cassandra.utils.TimeUUIDUtils;
+import me.prettyprint.hector.api.beans.AbstractComposite.ComponentEquality;
+import me.prettyprint.hector.api.beans.Composite;
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+import org.junit.Test;
+
+public class CompositeCodecTest {
+
+  private final CompositeCodec codec = CompositeCodec.of(StringSerializer.get(), LongSerializer.get(),
+      UUIDSerializer.get());
+
+  @Test
+  public void testSameBytesAsComposite() {
+    UUID uuid = UUID.randomUUID();
+    Composite composite = new Composite();
+    composite.addComponent("sensor-1", StringSerializer.get());
+    composite.addComponent(-42L, LongSerializer.get());
+    composite.addComponent(uuid, UUIDSerializer.get());
+
+    ByteBuffer encoded = codec.encode("sensor-1", -42L, uuid);
+    assertEquals(composite.serialize(), encoded);
+    assertEquals(encoded.remaining(), codec.serializedSize("sensor-1", -42L, uuid));
+
+    ByteBuffer slab = ByteBuffer.allocate(256);
+    slab.put((byte) 7);
+    int written = codec.writeTo(slab, "sensor-1", -42L, uuid);
+    assertEquals(encoded.remaining(), written);
+    slab.flip().position(1);
+    assertEquals(encoded, slab);
+  }
+
+  @Test
+  public void testLazyDecode() {
+    UUID uuid = UUID.randomUUID();
+    ByteBuffer encoded = codec.encode("sensor-1", 42L, uuid);
+    int position = encoded.position();
+    assertEquals(Long.valueOf(42L), codec.<Long>decode(encoded, 1));
+    assertEquals(uuid, codec.<UUID>decode(encoded, 2));
+    assertEquals("sensor-1", codec.<String>decode(encoded, 0));
+    assertEquals(position, encoded.position());
+
+    CompositeCodec.Decoded decoded = codec.wrap(codec.encode("sensor-2", 7L));
+    assertEquals(2, decoded.size());
+    assertEquals("sensor-2", decoded.<String>get(0));
+    assertEquals(Long.valueOf(7L), decoded.<Long>get(1));
+    assertNull(codec.decode(codec.encode("sensor-2", 7L), 2));
+  }
+
+  @Test
+  public void testCompareInComparatorOrder() {
+    UUID uuid = UUID.randomUUID();
+    List<ByteBuffer> expected = new ArrayList<ByteBuffer>();
+    expected.add(codec.encode("a", -5L, uuid));
+    expected.add(codec.encode("a", 0L, uuid));
+    expected.add(codec.encode("a", 3L, uuid));
+    expected.add(codec.encode("b", Long.MIN_VALUE, uuid));
+    expected.add(codec.encode("ba", -1L, uuid));
+
+    List<ByteBuffer> sorted = new ArrayList<ByteBuffer>(expected);
+    Collections.reverse(sorted);
+    Collections.sort(sorted, codec);
+    assertEquals(expected, sorted);
+  }
+
+  @Test
+  public void testMixedSignNumbersInComparatorOrder() {
+    CompositeCodec numbers = CompositeCodec.of(IntegerSerializer.get(), DoubleSerializer.get());
+    List<ByteBuffer> expected = new ArrayList<ByteBuffer>();
+    expected.add(numbers.encode(Integer.MIN_VALUE, 1.0));
+    expected.add(numbers.encode(-1, -2.5));
+    expected.add(numbers.encode(-1, 0.0));
+    expected.add(numbers.encode(-1, 0.5));
+    expected.add(numbers.encode(0, -1.0));
+    expected.add(numbers.encode(1, 1.0));
+    expected.add(numbers.encode(Integer.MAX_VALUE, 1.0));
+
+    List<ByteBuffer> sorted = new ArrayList<ByteBuffer>(expected);
+    Collections.reverse(sorted);
+    Collections.sort(sorted, numbers);
+    assertEquals(expected, sorted);
+  }
+
+  @Test
+  public void testBuiltFromComparatorTypes() {
+    CompositeCodec codec = CompositeCodec.of(ComparatorType.INT32TYPE, ComparatorType.UTF8TYPE);
+    assertTrue(codec.compare(codec.encode(-1, "a"), codec.encode(1, "a")) < 0);
+    assertEquals("b", codec.<String>decode(codec.encode(-7, "b"), 1));
+    assertEquals(Integer.valueOf(-7), codec.<Integer>decode(codec.encode(-7, "b"), 0));
+
+    CompositeCodec newestFirst = CompositeCodec.of("UTF8Type",
+        "org.apache.cassandra.db.marshal.ReversedType(org.apache.cassandra.db.marshal.LongType)");
+    assertTrue(newestFirst.compare(newestFirst.encode("a", -10L), newestFirst.encode("a", 20L)) > 0);
+    assertTrue(newestFirst.compare(newestFirst.encode("a", -10L), newestFirst.encode("b", 20L)) < 0);
+
+    CompositeCodec byTime = CompositeCodec.of(ComparatorType.TIMEUUIDTYPE);
+    UUID earlier = TimeUUIDUtils.getTimeUUID(1000L);
+    UUID later = TimeUUIDUtils.getTimeUUID(2000L);
+    assertTrue(byTime.compare(byTime.encode(earlier), byTime.encode(later)) < 0);
+  }
+
+  @Test
+  public void testSliceBoundsAndReversed() {
+    CompositeCodec timeline = CompositeCodec.of(StringSerializer.get(), LongSerializer.get());
+    ByteBuffer column = timeline.encode("a", 10L);
+
+    ByteBuffer start = ByteBuffer.allocate(32);
+    timeline.writeTo(start, ComponentEquality.EQUAL, "a");
+    start.flip();
+    ByteBuffer end = ByteBuffer.allocate(32);
+    timeline.writeTo(end, ComponentEquality.GREATER_THAN_EQUAL, "a");
+    end.flip();
+    assertTrue(timeline.compare(start, column) < 0);
+    assertTrue(timeline.compare(column, end) < 0);
+
+    CompositeCodec newestFirst = timeline.reversed(1);
+    assertTrue(newestFirst.compare(timeline.encode("a", 10L), timeline.encode("a", 20L)) > 0);
+    assertTrue(newestFirst.compare(timeline.encode("a", 10L), timeline.encode("b", 20L)) < 0);
+  }
+}
@@ -0,0 +1,132 @@
+package me.prettyprint.cassandra.serializers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import me.prettyprint.hector.api.exceptions.HectorSerializationException;
+
+import org.junit.Test;
+
+public class CompressingSerializerTest {
+
+  private static final StringSerializer se = StringSerializer.get();
+
+  @Test
+  public void testSmallValuesPassThrough() {
+    CompressingSerializer<String> ser = new CompressingSerializer<String>(se, 64);
+    ByteBuffer bytes = ser.toByteBuffer("short");
+    assertEquals(1 + 5, bytes.remaining());
+    assertEquals(0, bytes.get(0));
+    assertEquals("short", ser.fromByteBuffer(bytes));
+    assertNull(ser.toByteBuffer(null));
+    assertNull(ser.fromByteBuffer(null));
+  }
+
+  @Test
+  public void testLargeValuesAreCompressed() {
+    CompressingSerializer<String> ser = new CompressingSerializer<String>(se, 64);
+    StringBuilder array = new StringBuilder("[");
+    for (int i = 0; i < 100; i++) {
+      array.append(json(i)).append(',');
+    }
+    String json = array.append(']').toString();
+    ByteBuffer bytes = ser.toByteBuffer(json);
+    assertEquals(1, bytes.get(bytes.position()));
+    assertTrue(bytes.remaining() * 4 < se.toByteBuffer(json).remaining());
+    assertEquals(json, ser.fromByteBuffer(bytes));
+
+    // incompressible values are kept as they are
+    StringBuilder random = new StringBuilder();
+    Random r = new Random(1);
+    for (int i = 0; i < 200; i++) {
+      random.append((char) (' ' + r.nextInt(90)));
+    }
+    ByteBuffer kept = ser.toByteBuffer(random.toString());
+    assertEquals(0, kept.get(kept.position()));
+    assertEquals(random.toString(), ser.fromByteBuffer(kept));
+  }
+
+  @Test
+  public void testDictionaryForSmallValues() {
+    List<String> samples = new ArrayList<String>();
+    for (int i = 0; i < 50; i++) {
+      samples.add(json(i));
+    }
+    byte[] dictionary = CompressingSerializer.trainDictionary(samples, se, 2048);
+    assertTrue(dictionary.length > 0);
+
+    String value = json(3);
+    CompressingSerializer<String> plain = new CompressingSerializer<String>(se, 32);
+    // the dictionary applies below the threshold
+    CompressingSerializer<String> trained = new CompressingSerializer<String>(se,
+        CompressingSerializer.DEFAULT_THRESHOLD, dictionary, 1024);
+    ByteBuffer bytes = trained.toByteBuffer(value);
+    assertEquals(2, bytes.get(bytes.position()));
+    assertTrue(bytes.remaining() < plain.toByteBuffer(value).remaining());
+    assertEquals(value, trained.fromByteBuffer(bytes.duplicate()));
+
+    CompressingSerializer<String> other = new CompressingSerializer<String>(se, 32, new byte[] { 1, 2, 3 }, 1024);
+    try {
+      other.fromByteBuffer(bytes.duplicate());
+      throw new AssertionError("read with the wrong dictionary");
+    } catch (HectorSerializationException e) {
+      // expected
+    }
+  }
+
+  @Test(expected = HectorSerializationException.class)
+  public void testCorruptLz4Value() {
+    CompressingSerializer<String> ser = new CompressingSerializer<String>(se, 64);
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      value.append(json(i));
+    }
+    ByteBuffer bytes = ser.toByteBuffer(value.toString());
+    ByteBuffer corrupt = ByteBuffer.allocate(bytes.remaining() / 2);
+    corrupt.put((ByteBuffer) bytes.duplicate().limit(bytes.position() + corrupt.capacity())).flip();
+    ser.fromByteBuffer(corrupt);
+  }
+
+  @Test
+  public void testUntrustedLengthsAreRejected() {
+    CompressingSerializer<String> ser = new CompressingSerializer<String>(se, 64);
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      value.append(json(i));
+    }
+    ByteBuffer bytes = ser.toByteBuffer(value.toString());
+    assertEquals(1, bytes.get(0));
+
+    List<ByteBuffer> corrupt = new ArrayList<ByteBuffer>();
+    // negative, far too big for the block and longer than the block holds
+    for (int length : new int[] { -1, Integer.MAX_VALUE, value.length() + 1 }) {
+      ByteBuffer copy = ByteBuffer.allocate(bytes.remaining());
+      copy.put(bytes.duplicate()).flip();
+      copy.putInt(1, length);
+      corrupt.add(copy);
+    }
+    // a value written without a header which happens to start with 1
+    corrupt.add(ByteBuffer.wrap(new byte[] { 1, 0, 0, 0, 16, 'l', 'e', 'g', 'a', 'c', 'y' }));
+    corrupt.add(ByteBuffer.wrap(new byte[] { 1, 0, 0 }));
+    for (ByteBuffer bb : corrupt) {
+      try {
+        ser.fromByteBuffer(bb);
+        fail();
+      } catch (HectorSerializationException e) {
+        // expected
+      }
+    }
+  }
+
+  private static String json(int i) {
+    return "{\"id\":" + i + ",\"type\":\"temperature\",\"unit\":\"celsius\",\"location\":{\"site\":\"north\","
+        + "\"floor\":" + (i % 3) + "},\"tags\":[\"calibrated\",\"outdoor\"],\"value\":" + (i * 7 % 40) + "}";
+  }
+}
@@ -0,0 +1,176 @@
+package me.prettyprint.cassandra.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import me.prettyprint.cassandra.model.HColumnImpl;
+import me.prettyprint.cassandra.model.QueryResultImpl;
+import me.prettyprint.cassandra.serializers.IntegerSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.hector.api.beans.ColumnSlice;
+import me.prettyprint.hector.api.beans.HColumn;
+import me.prettyprint.hector.api.exceptions.HTimedOutException;
+import me.prettyprint.hector.api.query.QueryResult;
+import me.prettyprint.hector.api.query.SliceQuery;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class AdaptivePageSizeTest {
+
+  private static final long MILLIS = 1000000;
+
+  @Test
+  public void testGrowsAtMostTwiceAfterFullPages() {
+    AdaptivePageSize pageSize = new AdaptivePageSize(100, 10, 1000);
+    pageSize.pageFetched(100, 10 * MILLIS, 10000);
+    assertEquals(200, pageSize.getPageSize());
+    pageSize.pageFetched(150, 10 * MILLIS, 10000);
+    assertEquals(200, pageSize.getPageSize());
+    pageSize.pageFetched(200, 10 * MILLIS, 10000);
+    pageSize.pageFetched(400, 10 * MILLIS, 10000);
+    assertEquals(800, pageSize.getPageSize());
+    pageSize.pageFetched(800, 10 * MILLIS, 10000);
+    assertEquals(1000, pageSize.getPageSize());
+  }
+
+  @Test
+  public void testShrinksTowardTargetLatencyAndBytes() {
+    AdaptivePageSize pageSize = new AdaptivePageSize(500, 10, 1000).setTargetLatencyMillis(100)
+        .setTargetBytes(1000000);
+    pageSize.pageFetched(500, 250 * MILLIS, 100000);
+    assertEquals(200, pageSize.getPageSize());
+    pageSize.pageFetched(200, 10 * MILLIS, 4000000);
+    assertEquals(50, pageSize.getPageSize());
+    pageSize.pageFetched(50, 10 * MILLIS, 100000000);
+    assertEquals(10, pageSize.getPageSize());
+    pageSize.pageFetched(0, 10 * MILLIS, 0);
+    assertEquals(10, pageSize.getPageSize());
+  }
+
+  @Test
+  public void testTimeoutsHalveUntilGivingUp() {
+    AdaptivePageSize pageSize = new AdaptivePageSize(40, 10, 100).setMaxTimeouts(2);
+    assertTrue(pageSize.timedOut());
+    assertEquals(20, pageSize.getPageSize());
+    assertTrue(pageSize.timedOut());
+    assertEquals(10, pageSize.getPageSize());
+    assertTrue(pageSize.timedOut());
+    assertTrue(pageSize.timedOut());
+    assertFalse(pageSize.timedOut());
+
+    pageSize.pageFetched(10, 10 * MILLIS, 1000);
+    assertTrue(pageSize.timedOut());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBounds() {
+    new AdaptivePageSize(5, 10, 100);
+  }
+
+  @Test
+  public void testColumnSliceIteratorBacksOffOnTimeouts() {
+    PagedRow row = new PagedRow(1000, 300);
+    ColumnSliceIterator<String, Integer, String> it = new ColumnSliceIterator<String, Integer, String>(
+        row.query, null, (Integer) null, false, 100).setAdaptivePageSize(new AdaptivePageSize(100, 5, 1000));
+
+    int expected = 0;
+    while (it.hasNext()) {
+      assertEquals(expected++, it.next().getName().intValue());
+    }
+    assertEquals(1000, expected);
+    assertTrue(row.timeouts > 0);
+    assertTrue(row.largestPage > 100 && row.largestPage <= 300);
+  }
+
+  @Test
+  public void testColumnSliceIteratorCompletesAtSmallestPages() {
+    PagedRow row = new PagedRow(50, 1000);
+    AdaptivePageSize pageSize = new AdaptivePageSize(10, 1, 100).setTargetBytes(1);
+    ColumnSliceIterator<String, Integer, String> it = new ColumnSliceIterator<String, Integer, String>(
+        row.query, null, (Integer) null, false, 10).setAdaptivePageSize(pageSize);
+
+    int expected = 0;
+    while (it.hasNext()) {
+      assertEquals(expected++, it.next().getName().intValue());
+    }
+    assertEquals(50, expected);
+    assertEquals(1, pageSize.getPageSize());
+  }
+
+  @Test
+  public void testTimeoutFailsScanWithoutAdaptivePaging() {
+    PagedRow row = new PagedRow(1000, 300);
+    ColumnSliceIterator<String, Integer, String> it = new ColumnSliceIterator<String, Integer, String>(
+        row.query, null, (Integer) null, false, 500);
+    try {
+      it.hasNext();
+      fail();
+    } catch (HTimedOutException e) {
+      assertEquals(1, row.timeouts);
+    }
+  }
+
+  /**
+   * A slice query over a row of numbered columns, timing out when asked for
+   * more than a number of them.
+   */
+  private static class PagedRow {
+    @SuppressWarnings("unchecked")
+    final SliceQuery<String, Integer, String> query = mock(SliceQuery.class);
+    int timeouts;
+    int largestPage;
+    private Integer start;
+    private int count;
+
+    PagedRow(final int columns, final int timeoutAbove) {
+      Answer<Object> setRange = new Answer<Object>() {
+        @Override
+        public Object answer(InvocationOnMock invocation) {
+          start = (Integer) invocation.getArguments()[0];
+          count = (Integer) invocation.getArguments()[3];
+          return query;
+        }
+      };
+      when(query.setRange(any(Integer.class), any(Integer.class), anyBoolean(), anyInt())).thenAnswer(setRange);
+      when(query.execute()).thenAnswer(new Answer<QueryResult<ColumnSlice<Integer, String>>>() {
+        @Override
+        public QueryResult<ColumnSlice<Integer, String>> answer(InvocationOnMock invocation) {
+          if ( count > timeoutAbove ) {
+            timeouts++;
+            throw new HTimedOutException("asked for " + count + " columns");
+          }
+          largestPage = Math.max(largestPage, count);
+          final List<HColumn<Integer, String>> page = new ArrayList<HColumn<Integer, String>>();
+          for (int name = start == null ? 0 : start; name < columns && page.size() < count; name++) {
+            page.add(new HColumnImpl<Integer, String>(name, "value", 0, IntegerSerializer.get(),
+                StringSerializer.get()));
+          }
+          ColumnSlice<Integer, String> slice = new ColumnSlice<Integer, String>() {
+            @Override
+            public List<HColumn<Integer, String>> getColumns() {
+              return page;
+            }
+
+            @Override
+            public HColumn<Integer, String> getColumnByName(Integer columnName) {
+              throw new UnsupportedOperationException();
+            }
+          };
+          return new QueryResultImpl<ColumnSlice<Integer, String>>(slice, MILLIS, null, null);
+        }
+      });
+    }
+  }
+}
@@ -54,6 +54,23 @@ public class BatchMutationTest {
     assertEquals(2, mutationMap.get(StringSerializer.get().toByteBuffer("key1")).get("Standard1").size());
   }
 
+  @Test
+  public void testAddInsertions() {
+    List<Column> columns = new ArrayList<Column>();
+    for (int i = 0; i < 3; i++) {
+      Column column = new Column(StringSerializer.get().toByteBuffer("c_name" + i));
+      column.setValue(StringSerializer.get().toByteBuffer("c_val"));
+      column.setTimestamp(System.currentTimeMillis());
+      columns.add(column);
+    }
+    batchMutate.addInsertions("key1", columnFamilies, columns.subList(0, 2));
+    batchMutate.addInsertions("key1", columnFamilies, columns.subList(2, 3));
+    Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap = batchMutate.getMutationMap();
+    List<Mutation> mutations = mutationMap.get(StringSerializer.get().toByteBuffer("key1")).get("Standard1");
+    assertEquals(3, mutations.size());
+    assertEquals(columns.get(2), mutations.get(2).getColumn_or_supercolumn().getColumn());
+  }
+
   @Test
   public void testAddInsertionWithHint() {
 	  BatchMutation<String> batchMutate = new BatchMutation<String>(StringSerializer.get(), new BatchSizeHint(1, 50));
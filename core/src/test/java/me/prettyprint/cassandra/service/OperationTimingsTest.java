@@ -0,0 +1,69 @@
+package me.prettyprint.cassandra.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import me.prettyprint.cassandra.connection.client.FrameSlicingProtocol;
+import me.prettyprint.cassandra.service.OperationTimings.Phase;
+import me.prettyprint.hector.api.exceptions.HectorException;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.junit.Test;
+
+public class OperationTimingsTest {
+
+  private static final long SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  @Test
+  public void testExecuteIsSplitAtMessageBoundaries() throws Exception {
+    // the response is read from the start of the buffer, the request appended after it
+    TMemoryBuffer buffer = new TMemoryBuffer(256);
+    TBinaryProtocol response = new TBinaryProtocol(buffer);
+    response.writeMessageBegin(new TMessage("describe_cluster_name", TMessageType.REPLY, 1));
+    new Cassandra.describe_cluster_name_result().setSuccess("Test Cluster").write(response);
+    response.writeMessageEnd();
+    Cassandra.Client client = new Cassandra.Client(new FrameSlicingProtocol(buffer));
+
+    Operation<String> op = new Operation<String>(OperationType.META_READ) {
+      @Override
+      public String execute(Cassandra.Client cassandra) throws HectorException {
+        try {
+          Thread.sleep(5);
+          String name = cassandra.describe_cluster_name();
+          Thread.sleep(5);
+          return name;
+        } catch (Exception e) {
+          throw new HectorException(e);
+        }
+      }
+    };
+    op.executeAndSetResult(client, new CassandraHost("127.0.0.1:9170"));
+
+    assertEquals("Test Cluster", op.getResult());
+    OperationTimings timings = op.getTimings();
+    assertTrue(timings.toString(), timings.get(Phase.SERIALIZATION) >= SLEEP_NANOS);
+    assertTrue(timings.toString(), timings.get(Phase.DESERIALIZATION) >= SLEEP_NANOS);
+    assertEquals(op.getExecutionResult().getExecutionTimeNano(), timings.getTotal());
+    assertEquals(timings, op.getExecutionResult().getTimings());
+  }
+
+  @Test
+  public void testAdd() {
+    OperationTimings first = new OperationTimings();
+    first.add(Phase.POOL_WAIT, 10);
+    first.add(Phase.NETWORK, -5);
+    OperationTimings second = new OperationTimings();
+    second.add(Phase.POOL_WAIT, 5);
+    second.add(Phase.CONVERSION, 7);
+    first.add(second);
+    assertEquals(15, first.get(Phase.POOL_WAIT));
+    assertEquals(0, first.get(Phase.NETWORK));
+    assertEquals(22, first.getTotal());
+  }
+}
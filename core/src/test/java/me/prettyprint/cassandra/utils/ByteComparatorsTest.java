@@ -0,0 +1,236 @@
+package me.prettyprint.cassandra.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import me.prettyprint.cassandra.serializers.BigDecimalSerializer;
+import me.prettyprint.cassandra.serializers.BigIntegerSerializer;
+import me.prettyprint.cassandra.serializers.DoubleSerializer;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.cassandra.serializers.UUIDSerializer;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.beans.AbstractComposite;
+import me.prettyprint.hector.api.beans.Composite;
+import me.prettyprint.hector.api.beans.DynamicComposite;
+import me.prettyprint.hector.api.ddl.ComparatorType;
+
+import org.junit.Test;
+
+public class ByteComparatorsTest {
+
+  private final Random random = new Random(7);
+
+  @Test
+  public void testNumbersSortLikeTheirValues() {
+    List<BigInteger> integers = new ArrayList<BigInteger>();
+    List<BigDecimal> decimals = new ArrayList<BigDecimal>();
+    List<Long> longs = new ArrayList<Long>();
+    List<Double> doubles = new ArrayList<Double>();
+    for (int i = 0; i < 200; i++) {
+      BigInteger integer = new BigInteger(1 + random.nextInt(80), random);
+      integers.add(random.nextBoolean() ? integer : integer.negate());
+      decimals.add(new BigDecimal(integers.get(i), random.nextInt(6)));
+      longs.add(random.nextLong());
+      doubles.add(random.nextGaussian() * 1000);
+    }
+    integers.add(BigInteger.valueOf(-128));
+    integers.add(BigInteger.valueOf(128));
+    integers.add(BigInteger.ZERO);
+    assertSortsLike(integers, BigIntegerSerializer.get(), ByteComparators.forType(ComparatorType.INTEGERTYPE));
+    assertSortsLike(decimals, BigDecimalSerializer.get(), ByteComparators.forType(ComparatorType.DECIMALTYPE));
+    assertSortsLike(longs, LongSerializer.get(), ByteComparators.forType(ComparatorType.LONGTYPE));
+    assertSortsLike(doubles, DoubleSerializer.get(), ByteComparators.forType(ComparatorType.DOUBLETYPE));
+  }
+
+  @Test
+  public void testUuids() {
+    List<UUID> timeUuids = new ArrayList<UUID>();
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < 100; i++) {
+      timeUuids.add(TimeUUIDUtils.getTimeUUID(now - random.nextInt(1000000000)));
+    }
+    Comparator<ByteBuffer> timeUuid = ByteComparators.forType(ComparatorType.TIMEUUIDTYPE);
+    List<ByteBuffer> sorted = sorted(timeUuids, UUIDSerializer.get(), timeUuid);
+    for (int i = 1; i < sorted.size(); i++) {
+      assertTrue(uuid(sorted.get(i - 1)).timestamp() <= uuid(sorted.get(i)).timestamp());
+    }
+
+    // random uuids sort after time uuids, by version
+    Comparator<ByteBuffer> uuid = ByteComparators.forType(ComparatorType.UUIDTYPE);
+    assertTrue(uuid.compare(bytes(timeUuids.get(0)), bytes(UUID.randomUUID())) < 0);
+
+    List<UUID> lexical = new ArrayList<UUID>();
+    for (int i = 0; i < 100; i++) {
+      lexical.add(UUID.randomUUID());
+    }
+    assertSortsLike(lexical, UUIDSerializer.get(), ByteComparators.forType(ComparatorType.LEXICALUUIDTYPE));
+  }
+
+  @Test
+  public void testReversedAndParameterizedTypes() {
+    Comparator<ByteBuffer> reversed = ByteComparators.forTypeName("ReversedType(LongType)");
+    assertTrue(reversed.compare(bytes(1L), bytes(2L)) > 0);
+    // empty names sort first either way
+    assertTrue(reversed.compare(ByteBuffer.allocate(0), bytes(2L)) < 0);
+    assertTrue(ByteComparators.forTypeName("LongType(reversed=true)").compare(bytes(1L), bytes(2L)) > 0);
+
+    assertSame(ByteComparators.LONG, ByteComparators.forTypeName("org.apache.cassandra.db.marshal.LongType"));
+    assertNull(ByteComparators.forType(ComparatorType.COMPOSITETYPE));
+    assertNull(ByteComparators.forType(ComparatorType.COUNTERTYPE));
+  }
+
+  @Test
+  public void testCompositesSortLikeCassandra() {
+    Comparator<ByteBuffer> comparator = ByteComparators.forType(ComparatorType.getByClassName(
+        "org.apache.cassandra.db.marshal.CompositeType(LongType,ReversedType(UTF8Type))"));
+    List<ByteBuffer> names = new ArrayList<ByteBuffer>();
+    names.add(composite(2L, "a"));
+    names.add(composite(1L, "a"));
+    names.add(composite(1L, "b"));
+    names.add(composite(-5L, "z"));
+    Collections.sort(names, comparator);
+    assertEquals(Arrays.asList(composite(-5L, "z"), composite(1L, "b"), composite(1L, "a"), composite(2L, "a")),
+        names);
+
+    // a slice bound on the first component only
+    Composite start = new Composite();
+    start.addComponent(1L, LongSerializer.get(), "LongType", Composite.ComponentEquality.LESS_THAN_EQUAL);
+    assertTrue(comparator.compare(start.serialize(), composite(1L, "b")) < 0);
+    assertTrue(comparator.compare(start.serialize(), composite(-5L, "z")) > 0);
+
+    // Composite.compareTo no longer compares the length prefixes first
+    Composite small = new Composite(1000L, "a");
+    Composite large = new Composite(1000000L, "a");
+    assertTrue(small.compareTo(large) < 0);
+  }
+
+  @Test
+  public void testCompositesOfDifferentLayouts() {
+    // types differing at a position are ordered by type name, LongType before UTF8Type
+    Composite longFirst = new Composite(1L, "a");
+    Composite textFirst = new Composite("a", 1L);
+    assertTrue(longFirst.compareTo(textFirst) < 0);
+    assertTrue(textFirst.compareTo(longFirst) > 0);
+
+    // after the components of the same types
+    assertTrue(new Composite("a", 1L).compareTo(new Composite("a", "b")) < 0);
+    assertTrue(new Composite("a", "b").compareTo(new Composite("a", 1L)) > 0);
+    assertTrue(new Composite("b", 1L).compareTo(new Composite("a", "z")) > 0);
+    assertTrue(new Composite("a", "z").compareTo(new Composite("b", 1L)) < 0);
+
+    // a prefix of the same types
+    assertTrue(new Composite("a").compareTo(new Composite("a", 1L)) < 0);
+    assertTrue(new Composite("a", 1L).compareTo(new Composite("a")) > 0);
+
+    // the comparator follows changes to the components
+    Composite changing = new Composite(5L);
+    assertTrue(changing.compareTo(new Composite(1000L)) < 0);
+    changing.setComponent(0, "5", StringSerializer.get());
+    assertTrue(changing.compareTo(new Composite(1000L)) > 0);
+
+    // static and dynamic composites have no common order, their bytes decide
+    DynamicComposite dynamic = new DynamicComposite(1L, "a");
+    assertEquals(Integer.signum(longFirst.serialize().compareTo(dynamic.serialize())),
+        Integer.signum(longFirst.compareTo(dynamic)));
+    assertEquals(-Integer.signum(longFirst.compareTo(dynamic)), Integer.signum(dynamic.compareTo(longFirst)));
+  }
+
+  @Test
+  public void testDynamicCompositesOfDifferentAliases() {
+    Map<Byte, String> aliases = new HashMap<Byte, String>(AbstractComposite.DEFAULT_ALIAS_TO_COMPARATOR_MAPPING);
+    aliases.put((byte) 'd', ComparatorType.DOUBLETYPE.getTypeName());
+    DynamicComposite a = new DynamicComposite(-5L);
+    DynamicComposite b = new DynamicComposite();
+    b.setAliasesToComparatorMapping(aliases);
+    b.addComponent(3L, LongSerializer.get());
+    // the comparators of different mappings may disagree, the bytes decide
+    assertEquals(Integer.signum(a.serialize().compareTo(b.serialize())), Integer.signum(a.compareTo(b)));
+    assertEquals(-Integer.signum(a.compareTo(b)), Integer.signum(b.compareTo(a)));
+
+    // the same mapping again orders by the components
+    DynamicComposite c = new DynamicComposite();
+    c.setAliasesToComparatorMapping(aliases);
+    c.addComponent(-5L, LongSerializer.get());
+    assertTrue(c.compareTo(b) < 0);
+    assertTrue(b.compareTo(c) > 0);
+  }
+
+  @Test
+  public void testDynamicComposites() {
+    DynamicComposite a = new DynamicComposite(5L, "x");
+    DynamicComposite b = new DynamicComposite(5L, "y");
+    DynamicComposite c = new DynamicComposite(500L);
+    DynamicComposite text = new DynamicComposite("text");
+    Comparator<ByteBuffer> comparator = ByteComparators.DYNAMIC_COMPOSITE;
+    assertTrue(comparator.compare(a.serialize(), b.serialize()) < 0);
+    assertTrue(comparator.compare(b.serialize(), c.serialize()) < 0);
+    // components of different types are ordered by type name, LongType before UTF8Type
+    assertTrue(comparator.compare(c.serialize(), text.serialize()) < 0);
+    assertTrue(a.compareTo(c) < 0);
+    assertEquals(0, a.compareTo(new DynamicComposite(5L, "x")));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> void assertSortsLike(List<T> values, Serializer<T> serializer, Comparator<ByteBuffer> comparator) {
+    List<ByteBuffer> sorted = sorted(values, serializer, comparator);
+    List<T> expected = new ArrayList<T>(values);
+    Collections.sort(expected, new Comparator<T>() {
+      @Override
+      public int compare(T o1, T o2) {
+        return ((Comparable<T>) o1).compareTo(o2);
+      }
+    });
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(0, ((Comparable<T>) expected.get(i)).compareTo(serializer.fromByteBuffer(sorted.get(i))));
+    }
+  }
+
+  private static <T> List<ByteBuffer> sorted(List<T> values, Serializer<T> serializer,
+      Comparator<ByteBuffer> comparator) {
+    List<ByteBuffer> bytes = new ArrayList<ByteBuffer>();
+    for (T value : values) {
+      bytes.add(serializer.toByteBuffer(value));
+    }
+    Collections.sort(bytes, comparator);
+    List<ByteBuffer> read = new ArrayList<ByteBuffer>();
+    for (ByteBuffer b : bytes) {
+      read.add(b.duplicate());
+    }
+    return read;
+  }
+
+  private static ByteBuffer composite(long l, String s) {
+    Composite composite = new Composite();
+    composite.addComponent(l, LongSerializer.get());
+    composite.addComponent(s, StringSerializer.get());
+    return composite.serialize();
+  }
+
+  private static ByteBuffer bytes(long l) {
+    return LongSerializer.get().toByteBuffer(l);
+  }
+
+  private static ByteBuffer bytes(UUID uuid) {
+    return UUIDSerializer.get().toByteBuffer(uuid);
+  }
+
+  private static UUID uuid(ByteBuffer bytes) {
+    return UUIDSerializer.get().fromByteBuffer(bytes.duplicate());
+  }
+}
@@ -3,8 +3,13 @@ package me.prettyprint.cassandra.utils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import me.prettyprint.cassandra.service.clock.MicrosecondsClockResolution;
 import me.prettyprint.cassandra.service.clock.MicrosecondsSyncClockResolution;
@@ -115,4 +120,39 @@ public class TimeUUIDUtilsTest {
     assertEquals(originalTime, actual1);
     assertEquals(originalTime, actual2);
   }
+
+  @Test
+  public void testGeneratorIsUniqueAcrossThreads() throws Exception {
+    final TimeUUIDGenerator generator = new TimeUUIDGenerator(16);
+    final Set<UUID> uuids = Collections.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+    final AtomicInteger failures = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(4);
+    long before = System.currentTimeMillis();
+    for (int t = 0; t < 4; t++) {
+      new Thread() {
+        @Override
+        public void run() {
+          UUID[] previous = new UUID[2];
+          for (int i = 0; i < 10000; i++) {
+            // the shared generator reserves from the same counter, uuids only
+            // increase within each generator
+            UUID current = i % 2 == 0 ? generator.next() : TimeUUIDUtils.getUniqueTimeUUIDinMillis();
+            if (previous[i % 2] != null && current.timestamp() <= previous[i % 2].timestamp()
+                || !uuids.add(current)) {
+              failures.incrementAndGet();
+            }
+            previous[i % 2] = current;
+          }
+          done.countDown();
+        }
+      }.start();
+    }
+    done.await();
+    assertEquals(0, failures.get());
+    assertEquals(40000, uuids.size());
+
+    UUID uuid = generator.next();
+    assertEquals(1, uuid.version());
+    assertTrue(TimeUUIDUtils.getTimeFromUUID(uuid) >= before);
+  }
 }
@@ -1,7 +1,14 @@
 package me.prettyprint.hector.api;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import me.prettyprint.hector.api.ClockResolution;
 import me.prettyprint.hector.api.factory.HFactory;
 
@@ -38,4 +45,34 @@ public class ClockResolutionTest {
     }
   }
 
+  /**
+   * Test that concurrent calls never see the same clock
+   */
+  @Test
+  public void testMicrosecondsSyncAcrossThreads() throws Exception {
+    final ClockResolution clockResolution = HFactory.createClockResolution(ClockResolution.MICROSECONDS_SYNC);
+    final Set<Long> clocks = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+    final AtomicInteger failures = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(4);
+    for (int t = 0; t < 4; t++) {
+      new Thread() {
+        @Override
+        public void run() {
+          long previous = -1;
+          for (int i = 0; i < 10000; i++) {
+            long current = clockResolution.createClock();
+            if (current <= previous || !clocks.add(current)) {
+              failures.incrementAndGet();
+            }
+            previous = current;
+          }
+          done.countDown();
+        }
+      }.start();
+    }
+    done.await();
+    assertEquals(0, failures.get());
+    assertEquals(40000, clocks.size());
+  }
+
 }
@@ -12,6 +12,7 @@ import javax.persistence.DiscriminatorType;
 import javax.persistence.Entity;
 import javax.persistence.InheritanceType;
 
+import me.prettyprint.cassandra.serializers.StringSerializer;
 import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hom.cache.HectorObjectMapperException;
 
@@ -26,6 +27,8 @@ import com.google.common.collect.Sets;
  * @param <T>
  */
 public class CFMappingDef<T> {
+  private static final int COLUMN_NAME_CACHE_SIZE = 256;
+
   private Class<T> realClass;
   private Class<T> effectiveClass;
   private CFMappingDef<? super T> cfBaseMapDef;
@@ -45,6 +48,9 @@ public class CFMappingDef<T> {
   private String[] sliceColumnNameArr;
   private KeyDefinition keyDef;
 
+  // every row of the column family repeats the same few column names
+  private final StringSerializer columnNameSerializer = StringSerializer.interning(COLUMN_NAME_CACHE_SIZE);
+
   private Map<Object, CFMappingDef<? extends T>> derivedClassMap = new HashMap<Object, CFMappingDef<? extends T>>();
   private Collection<PropertyMappingDefinition> allMappedProps;
 
@@ -277,6 +283,10 @@ public class CFMappingDef<T> {
     return sliceColumnNameArr;
   }
 
+  public StringSerializer getColumnNameSerializer() {
+    return columnNameSerializer;
+  }
+
   public void setSliceColumnNameArr(String[] sliceColumnNameArr) {
     this.sliceColumnNameArr = sliceColumnNameArr;
   }
@@ -7,6 +7,7 @@ import java.util.Collection;
 import java.util.Iterator;
 
 import me.prettyprint.cassandra.serializers.ObjectSerializer;
+import me.prettyprint.hector.api.Serializer;
 import me.prettyprint.hector.api.beans.HColumn;
 import me.prettyprint.hom.cache.HectorObjectMapperException;
 
@@ -14,7 +15,7 @@ import com.google.common.base.Splitter;
 
 public class CollectionMapperHelper {
   private ReflectionHelper reflectionHelper = new ReflectionHelper();
-  private ObjectSerializer objSer = ObjectSerializer.get();
+  private Serializer<Object> objSer = ObjectSerializer.get();
 
   public String createCollectionItemColName(String propName, int order) {
     return propName + ":" + order;
@@ -119,6 +120,16 @@ public class CollectionMapperHelper {
     return true;
   }
 
+  /**
+   * Sets the serializer of the items of collections, {@link ObjectSerializer}
+   * by default. Every client reading the items must be able to decode what it
+   * writes, such as {@link me.prettyprint.cassandra.serializers.CompactObjectSerializer}
+   * which also reads the default format.
+   */
+  public void setItemSerializer(Serializer<Object> itemSerializer) {
+    this.objSer = itemSerializer;
+  }
+
   public byte[] serializeCollectionValue(Object obj) {
     return objSer.toBytes(obj);
   }
@@ -86,7 +86,7 @@ public class HectorObjectMapper {
     byte[] colFamKey = generateColumnFamilyKeyFromPkObj(cfMapDef, pkObj);
 
     SliceQuery<byte[], String, byte[]> q = HFactory.createSliceQuery(keyspace,
-        BytesArraySerializer.get(), StringSerializer.get(), BytesArraySerializer.get());
+        BytesArraySerializer.get(), cfMapDef.getColumnNameSerializer(), BytesArraySerializer.get());
     q.setColumnFamily(colFamName);
     q.setKey(colFamKey);
 
@@ -684,4 +684,14 @@ public class HectorObjectMapper {
     this.keyConcatStrategy = keyConcatStrategy;
   }
 
+  /**
+   * Sets the serializer of the items of mapped collections, see
+   * {@link CollectionMapperHelper#setItemSerializer(Serializer)}. Switch to
+   * {@link me.prettyprint.cassandra.serializers.CompactObjectSerializer} only
+   * once every client reading the column families is able to decode it.
+   */
+  public void setCollectionItemSerializer(Serializer<Object> itemSerializer) {
+    collMapperHelper.setItemSerializer(itemSerializer);
+  }
+
 }
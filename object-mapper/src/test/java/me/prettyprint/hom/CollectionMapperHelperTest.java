@@ -0,0 +1,33 @@
+package me.prettyprint.hom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+
+import me.prettyprint.cassandra.serializers.CompactObjectSerializer;
+
+import org.junit.Test;
+
+public class CollectionMapperHelperTest {
+
+  @Test
+  public void testItemsUseJavaSerializationByDefault() {
+    byte[] bytes = new CollectionMapperHelper().serializeCollectionValue("an item");
+    assertEquals((byte) 0xac, bytes[0]);
+    assertEquals((byte) 0xed, bytes[1]);
+  }
+
+  @Test
+  public void testCompactItemsAreOptInAndReadTheDefaultFormat() {
+    byte[] javaSerialized = new CollectionMapperHelper().serializeCollectionValue(Arrays.asList(1L, 2L));
+
+    CollectionMapperHelper compact = new CollectionMapperHelper();
+    compact.setItemSerializer(CompactObjectSerializer.get());
+    assertEquals(Arrays.asList(1L, 2L), compact.deserializeCollectionValue(javaSerialized));
+
+    byte[] bytes = compact.serializeCollectionValue("an item");
+    assertFalse(bytes[0] == (byte) 0xac);
+    assertEquals("an item", compact.deserializeCollectionValue(bytes));
+  }
+}
@@ -0,0 +1,149 @@
+package me.prettyprint.cassandra.stress;
+
+import java.util.Random;
+
+/**
+ * Picks which of a fixed number of keys an operation works on. Key 0 is
+ * the most popular one in the skewed distributions.
+ */
+public abstract class KeyDistribution {
+
+  protected final long keys;
+
+  protected KeyDistribution(long keys) {
+    if ( keys < 1 ) {
+      throw new IllegalArgumentException("keys must be positive, was " + keys);
+    }
+    this.keys = keys;
+  }
+
+  public long getKeys() {
+    return keys;
+  }
+
+  /**
+   * @return a key between 0 and {@link #getKeys()}, exclusive
+   */
+  public abstract long next(Random random);
+
+  /**
+   * @param spec uniform, zipf[:theta] or hotset[:hotFraction:hotOperations]
+   */
+  public static KeyDistribution parse(String spec, long keys) {
+    String[] parts = spec.split(":");
+    String name = parts[0].toLowerCase();
+    if ( "uniform".equals(name) ) {
+      return uniform(keys);
+    } else if ( "zipf".equals(name) || "zipfian".equals(name) ) {
+      return zipfian(keys, parts.length > 1 ? Double.parseDouble(parts[1]) : Zipfian.DEF_THETA);
+    } else if ( "hotset".equals(name) ) {
+      return hotSet(keys, parts.length > 1 ? Double.parseDouble(parts[1]) : 0.2,
+          parts.length > 2 ? Double.parseDouble(parts[2]) : 0.8);
+    }
+    throw new IllegalArgumentException("Unknown key distribution: " + spec);
+  }
+
+  public static KeyDistribution uniform(long keys) {
+    return new KeyDistribution(keys) {
+      @Override
+      public long next(Random random) {
+        return nextLong(random, this.keys);
+      }
+
+      @Override
+      public String toString() {
+        return "uniform over " + this.keys + " keys";
+      }
+    };
+  }
+
+  /**
+   * @param theta the skew, between 0 and 1 exclusive; the YCSB default of
+   *          0.99 sends 6.5% of the operations on a million keys to the most
+   *          popular one
+   */
+  public static KeyDistribution zipfian(long keys, double theta) {
+    return new Zipfian(keys, theta);
+  }
+
+  /**
+   * @param hotFraction the fraction of the keys which are hot
+   * @param hotOperations the fraction of the operations on hot keys
+   */
+  public static KeyDistribution hotSet(long keys, final double hotFraction, final double hotOperations) {
+    final long hotKeys = Math.max(1, Math.min(keys, (long) (keys * hotFraction)));
+    return new KeyDistribution(keys) {
+      @Override
+      public long next(Random random) {
+        if ( hotKeys == this.keys || random.nextDouble() < hotOperations ) {
+          return nextLong(random, hotKeys);
+        }
+        return hotKeys + nextLong(random, this.keys - hotKeys);
+      }
+
+      @Override
+      public String toString() {
+        return String.format("%.0f%% of operations on %d of %d keys", hotOperations * 100, hotKeys, this.keys);
+      }
+    };
+  }
+
+  static long nextLong(Random random, long bound) {
+    if ( bound <= Integer.MAX_VALUE ) {
+      return random.nextInt((int) bound);
+    }
+    return (long) (random.nextDouble() * bound);
+  }
+
+  /**
+   * The generator of Gray et al., "Quickly Generating Billion-Record
+   * Synthetic Databases", as used by YCSB. Creating one takes a pass over
+   * the keys to compute zeta.
+   */
+  static final class Zipfian extends KeyDistribution {
+
+    static final double DEF_THETA = 0.99;
+
+    private final double theta;
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+
+    Zipfian(long keys, double theta) {
+      super(keys);
+      if ( theta <= 0 || theta >= 1 ) {
+        throw new IllegalArgumentException("theta must be between 0 and 1 exclusive, was " + theta);
+      }
+      this.theta = theta;
+      this.zetan = zeta(keys, theta);
+      this.alpha = 1.0 / (1.0 - theta);
+      this.eta = (1 - Math.pow(2.0 / keys, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+    }
+
+    @Override
+    public long next(Random random) {
+      double u = random.nextDouble();
+      double uz = u * zetan;
+      if ( uz < 1.0 ) {
+        return 0;
+      }
+      if ( uz < 1.0 + Math.pow(0.5, theta) ) {
+        return Math.min(1, keys - 1);
+      }
+      return Math.min(keys - 1, (long) (keys * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    private static double zeta(long n, double theta) {
+      double sum = 0;
+      for (long i = 1; i <= n; i++) {
+        sum += 1 / Math.pow(i, theta);
+      }
+      return sum;
+    }
+
+    @Override
+    public String toString() {
+      return "zipfian(" + theta + ") over " + keys + " keys";
+    }
+  }
+}
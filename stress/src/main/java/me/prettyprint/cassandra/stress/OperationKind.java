@@ -0,0 +1,26 @@
+package me.prettyprint.cassandra.stress;
+
+/**
+ * The operations a workload mixes, named in -mix by their lower case name.
+ */
+public enum OperationKind {
+  /** a batch of rows, each as wide as the row width */
+  WRITE,
+  /** a slice of a row */
+  READ,
+  /** slices of as many rows as the fan-out */
+  MULTIGET,
+  /** slices of consecutive rows, starting at a key */
+  RANGE,
+  /** an increment of every counter of a batch of rows */
+  COUNTER;
+
+  public static OperationKind parse(String name) {
+    return valueOf(name.trim().toUpperCase());
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+}
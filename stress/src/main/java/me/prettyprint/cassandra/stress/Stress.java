@@ -0,0 +1,77 @@
+package me.prettyprint.cassandra.stress;
+
+import java.io.PrintWriter;
+
+import me.prettyprint.hector.api.Cluster;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.testutils.EmbeddedServerHelper;
+import me.prettyprint.hector.testutils.FakeCassandraCluster;
+
+import org.apache.commons.cli.ParseException;
+
+/**
+ * Drives a mixed workload against a cluster, an embedded Cassandra or
+ * in-process fake nodes, through the load balancing policy, pool and
+ * consistency settings given. Run with -help for the options.
+ */
+public class Stress {
+
+  /** the rpc_port of the embedded server's cassandra.yaml */
+  private static final String EMBEDDED_HOST = "127.0.0.1:9170";
+
+  public static void main(String[] args) throws Exception {
+    StressSettings settings;
+    try {
+      settings = StressSettings.parse(args);
+    } catch (ParseException e) {
+      usage(e.getMessage());
+      return;
+    } catch (IllegalArgumentException e) {
+      usage(e.getMessage());
+      return;
+    }
+    if ( settings.isHelp() ) {
+      usage(null);
+      return;
+    }
+
+    FakeCassandraCluster fakeCluster = null;
+    String hosts = settings.getHosts();
+    if ( settings.getFakeNodes() > 0 ) {
+      fakeCluster = new FakeCassandraCluster(settings.getFakeNodes(), 0);
+      fakeCluster.start();
+      hosts = fakeCluster.getHosts();
+    } else if ( settings.isEmbedded() ) {
+      new EmbeddedServerHelper().setup();
+      hosts = EMBEDDED_HOST;
+    }
+
+    Cluster cluster = HFactory.getOrCreateCluster(settings.getClusterName(), settings.createConfigurator(hosts));
+    long errors;
+    try {
+      Keyspace keyspace = HFactory.createKeyspace(settings.getKeyspace(), cluster,
+          settings.createConsistencyLevelPolicy());
+      System.out.println("Stressing " + hosts + " with " + settings);
+      errors = new StressRunner(settings, new Workload(settings, keyspace), System.out).run().getErrorCount();
+    } finally {
+      HFactory.shutdownCluster(cluster);
+      if ( fakeCluster != null ) {
+        fakeCluster.stop();
+      }
+      if ( settings.isEmbedded() ) {
+        EmbeddedServerHelper.teardown();
+      }
+    }
+    // the embedded server does not stop its threads
+    System.exit(errors == 0 ? 0 : 2);
+  }
+
+  private static void usage(String error) {
+    if ( error != null ) {
+      System.err.println(error);
+    }
+    StressSettings.printUsage(new PrintWriter(System.err));
+    System.exit(error == null ? 0 : 1);
+  }
+}
@@ -0,0 +1,118 @@
+package me.prettyprint.cassandra.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import me.prettyprint.cassandra.connection.LatencyHistogram;
+
+/**
+ * The latencies and errors of a stress run per kind of operation, for the
+ * current interval and the whole run. Closing an interval swaps in fresh
+ * histograms, so an operation finishing during the swap may be missing from
+ * the interval's line, never from the run's.
+ */
+public class StressMetrics {
+
+  private static final int KINDS = OperationKind.values().length;
+  static final String HEADER = String.format("%7s  %-8s %10s %8s %8s %8s %8s %8s %8s", "time", "op", "ops/s",
+      "errors", "mean", "p50", "p95", "p99", "max(ms)");
+
+  private final AtomicReferenceArray<LatencyHistogram> interval = new AtomicReferenceArray<LatencyHistogram>(KINDS);
+  private final LatencyHistogram[] total = new LatencyHistogram[KINDS];
+  private final AtomicLongArray intervalErrors = new AtomicLongArray(KINDS);
+  private final AtomicLongArray totalErrors = new AtomicLongArray(KINDS);
+
+  public StressMetrics() {
+    for (int i = 0; i < KINDS; i++) {
+      interval.set(i, new LatencyHistogram());
+      total[i] = new LatencyHistogram();
+    }
+  }
+
+  public void record(OperationKind kind, long nanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    interval.get(kind.ordinal()).record(micros);
+    total[kind.ordinal()].record(micros);
+  }
+
+  public void error(OperationKind kind) {
+    intervalErrors.incrementAndGet(kind.ordinal());
+    totalErrors.incrementAndGet(kind.ordinal());
+  }
+
+  /**
+   * Ends the current interval.
+   * @param seconds the length of the interval
+   * @param elapsedSeconds the time since the run started
+   * @return a line for all operations and one per kind run in the interval
+   */
+  public synchronized List<String> closeInterval(double seconds, long elapsedSeconds) {
+    LatencyHistogram all = new LatencyHistogram();
+    long allErrors = 0;
+    List<String> lines = new ArrayList<String>();
+    lines.add(null);
+    for (OperationKind kind : OperationKind.values()) {
+      int i = kind.ordinal();
+      LatencyHistogram histogram = interval.getAndSet(i, new LatencyHistogram());
+      long errors = intervalErrors.getAndSet(i, 0);
+      all.add(histogram);
+      allErrors += errors;
+      if ( histogram.getCount() > 0 || errors > 0 ) {
+        lines.add(line(elapsedSeconds + "s", kind.toString(), histogram, errors, seconds));
+      }
+    }
+    lines.set(0, line(elapsedSeconds + "s", "total", all, allErrors, seconds));
+    return lines;
+  }
+
+  /**
+   * @return the lines of the whole run
+   */
+  public List<String> summarize(double seconds) {
+    LatencyHistogram all = new LatencyHistogram();
+    long allErrors = 0;
+    List<String> lines = new ArrayList<String>();
+    lines.add(null);
+    for (OperationKind kind : OperationKind.values()) {
+      int i = kind.ordinal();
+      long errors = totalErrors.get(i);
+      all.add(total[i]);
+      allErrors += errors;
+      if ( total[i].getCount() > 0 || errors > 0 ) {
+        lines.add(line("run", kind.toString(), total[i], errors, seconds));
+      }
+    }
+    lines.set(0, line("run", "total", all, allErrors, seconds));
+    return lines;
+  }
+
+  public long getOperationCount() {
+    long count = 0;
+    for (LatencyHistogram histogram : total) {
+      count += histogram.getCount();
+    }
+    return count;
+  }
+
+  public long getErrorCount() {
+    long count = 0;
+    for (int i = 0; i < KINDS; i++) {
+      count += totalErrors.get(i);
+    }
+    return count;
+  }
+
+  private static String line(String time, String op, LatencyHistogram histogram, long errors, double seconds) {
+    return String.format("%7s  %-8s %10.1f %8d %8.2f %8.2f %8.2f %8.2f %8.2f", time, op,
+        seconds > 0 ? histogram.getCount() / seconds : 0, errors, histogram.getMean() / 1000,
+        millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+        millis(histogram.getValueAtPercentile(99)), millis(histogram.getMax()));
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,130 @@
+package me.prettyprint.cassandra.stress;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import me.prettyprint.hector.api.exceptions.HectorException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a {@link Workload} from a number of threads until the duration or
+ * the number of operations of the settings is reached, printing the
+ * throughput and latencies of every interval and then of the whole run.
+ */
+public class StressRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(StressRunner.class);
+
+  private final StressSettings settings;
+  private final Workload workload;
+  private final PrintStream out;
+  private final StressMetrics metrics = new StressMetrics();
+  private final OperationKind[] kinds;
+  private final double[] cumulativeWeights;
+  private final AtomicLong remaining;
+  private volatile boolean stopped;
+
+  public StressRunner(StressSettings settings, Workload workload, PrintStream out) {
+    this.settings = settings;
+    this.workload = workload;
+    this.out = out;
+    Map<OperationKind, Double> mix = settings.getMix();
+    this.kinds = mix.keySet().toArray(new OperationKind[mix.size()]);
+    this.cumulativeWeights = new double[kinds.length];
+    double sum = 0;
+    for (int i = 0; i < kinds.length; i++) {
+      sum += mix.get(kinds[i]);
+      cumulativeWeights[i] = sum;
+    }
+    this.remaining = new AtomicLong(settings.getOperations() > 0 ? settings.getOperations() : Long.MAX_VALUE);
+  }
+
+  public StressMetrics run() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(settings.getThreads());
+    for (int i = 0; i < settings.getThreads(); i++) {
+      Thread thread = new Thread(new Client(new Random(settings.getSeed() + i), done), "stress-" + i);
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    out.println(StressMetrics.HEADER);
+    long start = System.nanoTime();
+    long deadline = settings.getDurationSeconds() > 0
+        ? start + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds()) : Long.MAX_VALUE;
+    long intervalNanos = TimeUnit.SECONDS.toNanos(settings.getIntervalSeconds());
+    long intervalStart = start;
+    boolean finished = false;
+    while ( !finished ) {
+      long now = System.nanoTime();
+      long wait = Math.min(intervalStart + intervalNanos, deadline) - now;
+      finished = done.await(Math.max(0, wait), TimeUnit.NANOSECONDS) || System.nanoTime() >= deadline;
+      if ( finished ) {
+        stopped = true;
+        done.await();
+      }
+      now = System.nanoTime();
+      print(metrics.closeInterval(seconds(now - intervalStart), TimeUnit.NANOSECONDS.toSeconds(now - start)));
+      intervalStart = now;
+    }
+    out.println();
+    print(metrics.summarize(seconds(System.nanoTime() - start)));
+    return metrics;
+  }
+
+  OperationKind pick(Random random) {
+    double r = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+    for (int i = 0; i < kinds.length - 1; i++) {
+      if ( r < cumulativeWeights[i] ) {
+        return kinds[i];
+      }
+    }
+    return kinds[kinds.length - 1];
+  }
+
+  private void print(Iterable<String> lines) {
+    for (String line : lines) {
+      out.println(line);
+    }
+    out.flush();
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / 1e9;
+  }
+
+  private class Client implements Runnable {
+
+    private final Random random;
+    private final CountDownLatch done;
+
+    Client(Random random, CountDownLatch done) {
+      this.random = random;
+      this.done = done;
+    }
+
+    @Override
+    public void run() {
+      try {
+        while ( !stopped && remaining.decrementAndGet() >= 0 ) {
+          OperationKind kind = pick(random);
+          long start = System.nanoTime();
+          try {
+            workload.execute(kind, random);
+            metrics.record(kind, System.nanoTime() - start);
+          } catch (HectorException e) {
+            metrics.error(kind);
+            log.debug("{} failed", kind, e);
+          }
+        }
+      } finally {
+        done.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package me.prettyprint.cassandra.stress;
+
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Map;
+
+import me.prettyprint.cassandra.connection.DynamicLoadBalancingPolicy;
+import me.prettyprint.cassandra.connection.LeastActiveBalancingPolicy;
+import me.prettyprint.cassandra.connection.LoadBalancingPolicy;
+import me.prettyprint.cassandra.connection.RoundRobinBalancingPolicy;
+import me.prettyprint.cassandra.model.ConfigurableConsistencyLevel;
+import me.prettyprint.cassandra.service.CassandraHost;
+import me.prettyprint.cassandra.service.CassandraHostConfigurator;
+import me.prettyprint.hector.api.HConsistencyLevel;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.GnuParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * What a stress run does and how its client is set up, from the command
+ * line. The defaults write and read 5 columns of 34 bytes in rows of
+ * Keyspace1/Standard1, the schema of the embedded server.
+ */
+public class StressSettings {
+
+  private String hosts = "localhost:9160";
+  private int fakeNodes;
+  private boolean embedded;
+  private String clusterName = "Test Cluster";
+  private String keyspace = "Keyspace1";
+  private String columnFamily = "Standard1";
+  private String counterColumnFamily = "Counter1";
+  private int threads = 50;
+  private int durationSeconds = 60;
+  private long operations;
+  private int intervalSeconds = 10;
+  private Map<OperationKind, Double> mix = parseMix("write=1,read=1");
+  private long keys = 100000;
+  private String distribution = "uniform";
+  private KeyDistribution keyDistribution;
+  private int columns = 5;
+  private int columnSize = 34;
+  private int batchSize = 1;
+  private int fanOut = 10;
+  private int rangeRows = 100;
+  private String keyType = "string";
+  private String policy = "roundrobin";
+  private int maxActive = CassandraHost.DEFAULT_MAX_ACTIVE;
+  private int socketTimeoutMillis;
+  private HConsistencyLevel consistencyLevel = HConsistencyLevel.ONE;
+  private long seed = System.nanoTime();
+  private boolean help;
+
+  public static StressSettings parse(String... args) throws ParseException {
+    CommandLine line = new GnuParser().parse(options(), args);
+    StressSettings settings = new StressSettings();
+    settings.help = line.hasOption("help");
+    settings.hosts = line.getOptionValue("hosts", settings.hosts);
+    settings.fakeNodes = intValue(line, "fake", settings.fakeNodes);
+    settings.embedded = line.hasOption("embedded");
+    settings.clusterName = line.getOptionValue("cluster", settings.clusterName);
+    settings.keyspace = line.getOptionValue("keyspace", settings.keyspace);
+    settings.columnFamily = line.getOptionValue("cf", settings.columnFamily);
+    settings.counterColumnFamily = line.getOptionValue("counterCf", settings.counterColumnFamily);
+    settings.threads = intValue(line, "threads", settings.threads);
+    settings.durationSeconds = intValue(line, "duration", settings.durationSeconds);
+    settings.operations = Long.parseLong(line.getOptionValue("operations", String.valueOf(settings.operations)));
+    settings.intervalSeconds = intValue(line, "interval", settings.intervalSeconds);
+    if ( line.hasOption("mix") ) {
+      settings.mix = parseMix(line.getOptionValue("mix"));
+    }
+    settings.keys = Long.parseLong(line.getOptionValue("keys", String.valueOf(settings.keys)));
+    settings.distribution = line.getOptionValue("distribution", settings.distribution);
+    settings.columns = intValue(line, "columns", settings.columns);
+    settings.columnSize = intValue(line, "columnSize", settings.columnSize);
+    settings.batchSize = intValue(line, "batch", settings.batchSize);
+    settings.fanOut = intValue(line, "fanout", settings.fanOut);
+    settings.rangeRows = intValue(line, "rangeRows", settings.rangeRows);
+    settings.keyType = line.getOptionValue("keyType", settings.keyType).toLowerCase();
+    settings.policy = line.getOptionValue("policy", settings.policy).toLowerCase();
+    settings.maxActive = intValue(line, "maxActive", settings.maxActive);
+    settings.socketTimeoutMillis = intValue(line, "timeout", settings.socketTimeoutMillis);
+    if ( line.hasOption("consistency") ) {
+      settings.consistencyLevel = HConsistencyLevel.valueOf(line.getOptionValue("consistency").toUpperCase());
+    }
+    if ( line.hasOption("seed") ) {
+      settings.seed = Long.parseLong(line.getOptionValue("seed"));
+    }
+    settings.validate();
+    return settings;
+  }
+
+  static Options options() {
+    Options options = new Options();
+    options.addOption("help", false, "print this message");
+    options.addOption("hosts", true, "host:port,... of the cluster, default localhost:9160");
+    options.addOption("fake", true, "run against this many in-process fake nodes instead");
+    options.addOption("embedded", false, "run against an embedded Cassandra instead");
+    options.addOption("cluster", true, "cluster name, default Test Cluster");
+    options.addOption("keyspace", true, "default Keyspace1");
+    options.addOption("cf", true, "column family, default Standard1");
+    options.addOption("counterCf", true, "counter column family, default Counter1");
+    options.addOption("threads", true, "client threads, default 50");
+    options.addOption("duration", true, "seconds to run for, 0 for no limit, default 60");
+    options.addOption("operations", true, "operations to run, 0 for no limit, default 0");
+    options.addOption("interval", true, "seconds between reports, default 10");
+    options.addOption("mix", true, "operation=weight,... of write, read, multiget, range and counter, "
+        + "default write=1,read=1");
+    options.addOption("keys", true, "number of distinct row keys, default 100000");
+    options.addOption("distribution", true, "uniform, zipf[:theta] or hotset[:hotFraction:hotOperations], "
+        + "default uniform");
+    options.addOption("columns", true, "columns per row, default 5");
+    options.addOption("columnSize", true, "bytes per column value, default 34");
+    options.addOption("batch", true, "rows per write or counter batch, default 1");
+    options.addOption("fanout", true, "rows per multiget, default 10");
+    options.addOption("rangeRows", true, "rows per range scan, default 100");
+    options.addOption("keyType", true, "string or long, default string");
+    options.addOption("policy", true, "roundrobin, leastactive or dynamic, default roundrobin");
+    options.addOption("maxActive", true, "connections per host, default "
+        + CassandraHost.DEFAULT_MAX_ACTIVE);
+    options.addOption("timeout", true, "socket timeout in ms, default 0 for none");
+    options.addOption("consistency", true, "read and write consistency level, default ONE");
+    options.addOption("seed", true, "seed of the key and operation choices");
+    return options;
+  }
+
+  public static void printUsage(PrintWriter out) {
+    new HelpFormatter().printHelp(out, HelpFormatter.DEFAULT_WIDTH, "stress", null, options(),
+        HelpFormatter.DEFAULT_LEFT_PAD, HelpFormatter.DEFAULT_DESC_PAD, null, true);
+    out.flush();
+  }
+
+  static Map<OperationKind, Double> parseMix(String spec) {
+    Map<OperationKind, Double> mix = new EnumMap<OperationKind, Double>(OperationKind.class);
+    for (String part : spec.split(",")) {
+      String[] kindAndWeight = part.split("=");
+      double weight = kindAndWeight.length > 1 ? Double.parseDouble(kindAndWeight[1]) : 1;
+      if ( weight < 0 ) {
+        throw new IllegalArgumentException("Negative weight in mix: " + part);
+      }
+      if ( weight > 0 ) {
+        mix.put(OperationKind.parse(kindAndWeight[0]), weight);
+      }
+    }
+    if ( mix.isEmpty() ) {
+      throw new IllegalArgumentException("No operations in mix: " + spec);
+    }
+    return mix;
+  }
+
+  private void validate() {
+    if ( threads < 1 || columns < 1 || columnSize < 0 || batchSize < 1 || fanOut < 1 || rangeRows < 1
+        || intervalSeconds < 1 ) {
+      throw new IllegalArgumentException("threads, columns, batch, fanout, rangeRows and interval must be positive");
+    }
+    if ( !"string".equals(keyType) && !"long".equals(keyType) ) {
+      throw new IllegalArgumentException("Unknown key type: " + keyType);
+    }
+    createLoadBalancingPolicy();
+    keyDistribution = KeyDistribution.parse(distribution, keys);
+  }
+
+  private static int intValue(CommandLine line, String option, int defaultValue) {
+    return Integer.parseInt(line.getOptionValue(option, String.valueOf(defaultValue)));
+  }
+
+  public CassandraHostConfigurator createConfigurator(String hosts) {
+    CassandraHostConfigurator configurator = new CassandraHostConfigurator(hosts);
+    configurator.setLoadBalancingPolicy(createLoadBalancingPolicy());
+    configurator.setMaxActive(maxActive);
+    if ( socketTimeoutMillis > 0 ) {
+      configurator.setCassandraThriftSocketTimeout(socketTimeoutMillis);
+    }
+    return configurator;
+  }
+
+  public LoadBalancingPolicy createLoadBalancingPolicy() {
+    if ( "roundrobin".equals(policy) ) {
+      return new RoundRobinBalancingPolicy();
+    } else if ( "leastactive".equals(policy) ) {
+      return new LeastActiveBalancingPolicy();
+    } else if ( "dynamic".equals(policy) ) {
+      return new DynamicLoadBalancingPolicy();
+    }
+    throw new IllegalArgumentException("Unknown load balancing policy: " + policy);
+  }
+
+  public ConfigurableConsistencyLevel createConsistencyLevelPolicy() {
+    ConfigurableConsistencyLevel consistency = new ConfigurableConsistencyLevel();
+    consistency.setDefaultReadConsistencyLevel(consistencyLevel);
+    consistency.setDefaultWriteConsistencyLevel(consistencyLevel);
+    return consistency;
+  }
+
+  public KeyDistribution getKeyDistribution() {
+    return keyDistribution;
+  }
+
+  public String getHosts() {
+    return hosts;
+  }
+
+  public int getFakeNodes() {
+    return fakeNodes;
+  }
+
+  public boolean isEmbedded() {
+    return embedded;
+  }
+
+  public String getClusterName() {
+    return clusterName;
+  }
+
+  public String getKeyspace() {
+    return keyspace;
+  }
+
+  public String getColumnFamily() {
+    return columnFamily;
+  }
+
+  public String getCounterColumnFamily() {
+    return counterColumnFamily;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public int getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  public long getOperations() {
+    return operations;
+  }
+
+  public int getIntervalSeconds() {
+    return intervalSeconds;
+  }
+
+  public Map<OperationKind, Double> getMix() {
+    return mix;
+  }
+
+  public int getColumns() {
+    return columns;
+  }
+
+  public int getColumnSize() {
+    return columnSize;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public int getFanOut() {
+    return fanOut;
+  }
+
+  public int getRangeRows() {
+    return rangeRows;
+  }
+
+  public String getKeyType() {
+    return keyType;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public boolean isHelp() {
+    return help;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("mix=%s keys=%s columns=%dx%dB batch=%d fanout=%d rangeRows=%d keyType=%s "
+        + "threads=%d policy=%s maxActive=%d consistency=%s seed=%d", mix, keyDistribution, columns,
+        columnSize, batchSize, fanOut, rangeRows, keyType, threads, policy, maxActive, consistencyLevel, seed);
+  }
+}
@@ -0,0 +1,116 @@
+package me.prettyprint.cassandra.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import me.prettyprint.cassandra.serializers.BytesArraySerializer;
+import me.prettyprint.cassandra.serializers.LongSerializer;
+import me.prettyprint.cassandra.serializers.StringSerializer;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.Serializer;
+import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.api.mutation.Mutator;
+
+/**
+ * Runs the operations of a {@link StressSettings} on a keyspace. Safe to
+ * share between threads, each passing its own {@link Random}.
+ *
+ * String keys are zero padded so that they sort as their numbers do, and
+ * column values are drawn from a few random arrays so that they neither
+ * compress nor cost the client an allocation each.
+ */
+public class Workload {
+
+  private static final int VALUES = 16;
+
+  private final Keyspace keyspace;
+  private final String columnFamily;
+  private final String counterColumnFamily;
+  private final KeyDistribution keys;
+  private final Serializer<Object> keySerializer;
+  private final boolean longKeys;
+  private final String[] columnNames;
+  private final byte[][] values;
+  private final int batchSize;
+  private final int fanOut;
+  private final int rangeRows;
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public Workload(StressSettings settings, Keyspace keyspace) {
+    this.keyspace = keyspace;
+    this.columnFamily = settings.getColumnFamily();
+    this.counterColumnFamily = settings.getCounterColumnFamily();
+    this.keys = settings.getKeyDistribution();
+    this.longKeys = "long".equals(settings.getKeyType());
+    this.keySerializer = (Serializer) (longKeys ? LongSerializer.get() : StringSerializer.get());
+    this.columnNames = new String[settings.getColumns()];
+    for (int i = 0; i < columnNames.length; i++) {
+      columnNames[i] = String.format("C%05d", i);
+    }
+    Random random = new Random(settings.getSeed());
+    this.values = new byte[VALUES][settings.getColumnSize()];
+    for (byte[] value : values) {
+      random.nextBytes(value);
+    }
+    this.batchSize = settings.getBatchSize();
+    this.fanOut = settings.getFanOut();
+    this.rangeRows = settings.getRangeRows();
+  }
+
+  public void execute(OperationKind kind, Random random) {
+    switch (kind) {
+    case WRITE:
+      write(random);
+      break;
+    case READ:
+      HFactory.createSliceQuery(keyspace, keySerializer, StringSerializer.get(), BytesArraySerializer.get())
+          .setColumnFamily(columnFamily).setKey(nextKey(random))
+          .setRange(null, null, false, columnNames.length).execute();
+      break;
+    case MULTIGET:
+      List<Object> multigetKeys = new ArrayList<Object>(fanOut);
+      for (int i = 0; i < fanOut; i++) {
+        multigetKeys.add(nextKey(random));
+      }
+      HFactory.createMultigetSliceQuery(keyspace, keySerializer, StringSerializer.get(), BytesArraySerializer.get())
+          .setColumnFamily(columnFamily).setKeys(multigetKeys)
+          .setRange(null, null, false, columnNames.length).execute();
+      break;
+    case RANGE:
+      HFactory.createRangeSlicesQuery(keyspace, keySerializer, StringSerializer.get(), BytesArraySerializer.get())
+          .setColumnFamily(columnFamily).setKeys(nextKey(random), null).setRowCount(rangeRows)
+          .setRange(null, null, false, columnNames.length).execute();
+      break;
+    case COUNTER:
+      Mutator<Object> counters = HFactory.createMutator(keyspace, keySerializer);
+      for (int row = 0; row < batchSize; row++) {
+        Object key = nextKey(random);
+        for (String name : columnNames) {
+          counters.addCounter(key, counterColumnFamily, HFactory.createCounterColumn(name, 1));
+        }
+      }
+      counters.execute();
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown operation: " + kind);
+    }
+  }
+
+  private void write(Random random) {
+    Mutator<Object> mutator = HFactory.createMutator(keyspace, keySerializer);
+    for (int row = 0; row < batchSize; row++) {
+      Object key = nextKey(random);
+      for (String name : columnNames) {
+        mutator.addInsertion(key, columnFamily, HFactory.createColumn(name, values[random.nextInt(VALUES)],
+            StringSerializer.get(), BytesArraySerializer.get()));
+      }
+    }
+    mutator.execute();
+  }
+
+  Object nextKey(Random random) {
+    long key = keys.next(random);
+    return longKeys ? Long.valueOf(key) : String.format("%012d", key);
+  }
+}
@@ -0,0 +1,62 @@
+package me.prettyprint.cassandra.stress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class KeyDistributionTest {
+
+  private static final int DRAWS = 100000;
+
+  @Test
+  public void testUniformStaysInBounds() {
+    KeyDistribution keys = KeyDistribution.parse("uniform", 1000);
+    Random random = new Random(1);
+    long[] counts = new long[1000];
+    for (int i = 0; i < DRAWS; i++) {
+      counts[(int) keys.next(random)]++;
+    }
+    for (long count : counts) {
+      assertTrue(count > 0);
+    }
+  }
+
+  @Test
+  public void testZipfFavoursTheFirstKeys() {
+    KeyDistribution keys = KeyDistribution.parse("zipf", 10000);
+    Random random = new Random(1);
+    long[] counts = new long[10000];
+    for (int i = 0; i < DRAWS; i++) {
+      long key = keys.next(random);
+      assertTrue(key >= 0 && key < 10000);
+      counts[(int) key]++;
+    }
+    for (int i = 1; i < counts.length; i++) {
+      assertTrue(counts[0] >= counts[i]);
+    }
+    assertTrue(counts[0] > counts[100] * 10);
+  }
+
+  @Test
+  public void testHotSet() {
+    KeyDistribution keys = KeyDistribution.parse("hotset:0.1:0.9", 1000);
+    Random random = new Random(1);
+    int hot = 0;
+    for (int i = 0; i < DRAWS; i++) {
+      long key = keys.next(random);
+      assertTrue(key >= 0 && key < 1000);
+      if ( key < 100 ) {
+        hot++;
+      }
+    }
+    assertEquals(0.9, hot / (double) DRAWS, 0.01);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownDistribution() {
+    KeyDistribution.parse("gaussian", 1000);
+  }
+}
@@ -0,0 +1,68 @@
+package me.prettyprint.cassandra.stress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import me.prettyprint.hector.api.Cluster;
+import me.prettyprint.hector.api.Keyspace;
+import me.prettyprint.hector.api.factory.HFactory;
+import me.prettyprint.hector.testutils.FakeCassandraCluster;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StressRunnerTest {
+
+  private FakeCassandraCluster fakeCluster;
+  private Cluster cluster;
+
+  @Before
+  public void setUp() throws Exception {
+    fakeCluster = new FakeCassandraCluster(2, 0);
+    fakeCluster.start();
+  }
+
+  @After
+  public void tearDown() {
+    if ( cluster != null ) {
+      HFactory.shutdownCluster(cluster);
+    }
+    fakeCluster.stop();
+  }
+
+  @Test
+  public void testMixedRunAgainstFakeCluster() throws Exception {
+    StressSettings settings = StressSettings.parse("-threads", "4", "-operations", "2000", "-duration", "0",
+        "-mix", "write=2,read=1,multiget=1,range=1", "-keys", "500", "-distribution", "zipf", "-seed", "7",
+        "-policy", "leastactive");
+    cluster = HFactory.getOrCreateCluster("StressRunnerTest", settings.createConfigurator(fakeCluster.getHosts()));
+    Keyspace keyspace = HFactory.createKeyspace(settings.getKeyspace(), cluster,
+        settings.createConsistencyLevelPolicy());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    StressMetrics metrics = new StressRunner(settings, new Workload(settings, keyspace),
+        new PrintStream(out, true)).run();
+
+    assertEquals(2000, metrics.getOperationCount());
+    assertEquals(0, metrics.getErrorCount());
+    String report = out.toString();
+    assertTrue(report, report.contains("run  total"));
+    assertTrue(report, report.contains("multiget"));
+    assertTrue(fakeCluster.getServer(0).getRequestCount() > 0);
+    assertTrue(fakeCluster.getServer(1).getRequestCount() > 0);
+  }
+
+  @Test
+  public void testParseMix() {
+    assertEquals(2, StressSettings.parseMix("read=3,write=1,counter=0").size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownPolicy() throws Exception {
+    StressSettings.parse("-policy", "random");
+  }
+}
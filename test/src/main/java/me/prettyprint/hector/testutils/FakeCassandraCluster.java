@@ -0,0 +1,132 @@
+package me.prettyprint.hector.testutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cassandra.thrift.EndpointDetails;
+import org.apache.cassandra.thrift.TokenRange;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * Several {@link FakeCassandraServer}s sharing their data, as if every key
+ * were replicated to every node, and a ring of evenly spread
+ * ByteOrderedPartitioner tokens.
+ *
+ * Node auto discovery reads the addresses of the ring and connects to them
+ * on the configured port, so it needs nodes on the same port with their own
+ * addresses. On Linux every 127.x.x.x address is local:
+ *
+ * <pre>
+ * new FakeCassandraCluster("127.0.0.1:9170", "127.0.0.2:9170", "127.0.0.3:9170")
+ * </pre>
+ */
+public class FakeCassandraCluster {
+
+  private final List<FakeCassandraServer> servers = new ArrayList<FakeCassandraServer>();
+  private final int replicationFactor;
+
+  /**
+   * @param nodes the number of nodes, on 127.0.0.1
+   * @param firstPort the port of the first node, the others following it,
+   *          or 0 for free ports
+   */
+  public FakeCassandraCluster(int nodes, int firstPort) {
+    this(localHosts(nodes, firstPort));
+  }
+
+  /**
+   * @param hosts the address:port of each node
+   */
+  public FakeCassandraCluster(String... hosts) {
+    FakeColumnStore store = new FakeColumnStore();
+    for (String host : hosts) {
+      int colon = host.lastIndexOf(':');
+      servers.add(new FakeCassandraServer(host.substring(0, colon), Integer.parseInt(host.substring(colon + 1)), store));
+    }
+    this.replicationFactor = Math.min(3, hosts.length);
+  }
+
+  private static String[] localHosts(int nodes, int firstPort) {
+    String[] hosts = new String[nodes];
+    for (int i = 0; i < nodes; i++) {
+      hosts[i] = "127.0.0.1:" + (firstPort == 0 ? 0 : firstPort + i);
+    }
+    return hosts;
+  }
+
+  public void start() throws TTransportException {
+    List<String> addresses = new ArrayList<String>();
+    for (int i = 0; i < servers.size(); i++) {
+      servers.get(i).setSeed(i);
+      addresses.add(servers.get(i).getAddress());
+    }
+    setRing(ring(addresses, replicationFactor));
+    for (FakeCassandraServer server : servers) {
+      server.start();
+    }
+  }
+
+  public void stop() {
+    for (FakeCassandraServer server : servers) {
+      server.stop();
+    }
+  }
+
+  public FakeCassandraServer getServer(int i) {
+    return servers.get(i);
+  }
+
+  public List<FakeCassandraServer> getServers() {
+    return Collections.unmodifiableList(servers);
+  }
+
+  /**
+   * @return the nodes as a CassandraHostConfigurator takes them, valid once
+   *         started
+   */
+  public String getHosts() {
+    StringBuilder hosts = new StringBuilder();
+    for (FakeCassandraServer server : servers) {
+      if ( hosts.length() > 0 ) {
+        hosts.append(',');
+      }
+      hosts.append(server);
+    }
+    return hosts.toString();
+  }
+
+  /**
+   * Changes what every node answers to describe_ring.
+   */
+  public void setRing(List<TokenRange> ring) {
+    for (FakeCassandraServer server : servers) {
+      server.setRing(ring);
+    }
+  }
+
+  /**
+   * The range ending at the token of each address, replicated to it and the
+   * addresses following it.
+   */
+  public static List<TokenRange> ring(List<String> addresses, int replicationFactor) {
+    int nodes = addresses.size();
+    List<String> tokens = new ArrayList<String>(nodes);
+    for (int i = 0; i < nodes; i++) {
+      tokens.add(String.format("%02x", 256 * i / nodes));
+    }
+    List<TokenRange> ring = new ArrayList<TokenRange>(nodes);
+    for (int i = 0; i < nodes; i++) {
+      List<String> endpoints = new ArrayList<String>(replicationFactor);
+      List<EndpointDetails> details = new ArrayList<EndpointDetails>(replicationFactor);
+      for (int r = 0; r < replicationFactor; r++) {
+        String address = addresses.get((i + r) % nodes);
+        endpoints.add(address);
+        details.add(new EndpointDetails().setHost(address).setDatacenter("datacenter1").setRack("rack1"));
+      }
+      ring.add(new TokenRange(tokens.get((i + nodes - 1) % nodes), tokens.get(i), endpoints)
+          .setRpc_endpoints(endpoints).setEndpoint_details(details));
+    }
+    return ring;
+  }
+}
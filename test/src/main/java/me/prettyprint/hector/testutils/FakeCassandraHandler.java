@@ -0,0 +1,455 @@
+package me.prettyprint.hector.testutils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import org.apache.cassandra.thrift.AuthenticationRequest;
+import org.apache.cassandra.thrift.CASResult;
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.CfDef;
+import org.apache.cassandra.thrift.CfSplit;
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.ColumnOrSuperColumn;
+import org.apache.cassandra.thrift.ColumnParent;
+import org.apache.cassandra.thrift.ColumnPath;
+import org.apache.cassandra.thrift.Compression;
+import org.apache.cassandra.thrift.ConsistencyLevel;
+import org.apache.cassandra.thrift.CounterColumn;
+import org.apache.cassandra.thrift.CqlPreparedResult;
+import org.apache.cassandra.thrift.CqlResult;
+import org.apache.cassandra.thrift.Deletion;
+import org.apache.cassandra.thrift.InvalidRequestException;
+import org.apache.cassandra.thrift.KeyRange;
+import org.apache.cassandra.thrift.KeySlice;
+import org.apache.cassandra.thrift.KsDef;
+import org.apache.cassandra.thrift.Mutation;
+import org.apache.cassandra.thrift.NotFoundException;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.apache.cassandra.thrift.SliceRange;
+import org.apache.cassandra.thrift.TokenRange;
+import org.apache.cassandra.thrift.cassandraConstants;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.apache.cassandra.utils.UUIDGen;
+
+/**
+ * Answers the requests of one connection to a {@link FakeCassandraServer}
+ * from the cluster's {@link FakeColumnStore}. Counters, CQL, secondary
+ * indexes, super columns and schema changes are not supported.
+ */
+@SuppressWarnings("deprecation")
+class FakeCassandraHandler implements Cassandra.Iface {
+
+  static final String PARTITIONER = "org.apache.cassandra.dht.ByteOrderedPartitioner";
+
+  private final FakeCassandraServer server;
+  private final FakeColumnStore store;
+  private String keyspace;
+
+  FakeCassandraHandler(FakeCassandraServer server) {
+    this.server = server;
+    this.store = server.getStore();
+  }
+
+  @Override
+  public void login(AuthenticationRequest authRequest) {
+  }
+
+  @Override
+  public void set_keyspace(String keyspace) {
+    store.keyspace(keyspace);
+    this.keyspace = keyspace;
+  }
+
+  @Override
+  public ColumnOrSuperColumn get(ByteBuffer key, ColumnPath columnPath, ConsistencyLevel consistencyLevel)
+      throws InvalidRequestException, NotFoundException {
+    if ( columnPath.isSetSuper_column() || !columnPath.isSetColumn() ) {
+      throw unsupported("super columns");
+    }
+    NavigableMap<ByteBuffer, Column> row = store.row(keyspace(), columnPath.getColumn_family(), key);
+    Column column = row == null ? null : row.get(columnPath.bufferForColumn());
+    if ( column == null ) {
+      throw new NotFoundException();
+    }
+    return new ColumnOrSuperColumn().setColumn(column);
+  }
+
+  @Override
+  public List<ColumnOrSuperColumn> get_slice(ByteBuffer key, ColumnParent columnParent, SlicePredicate predicate,
+      ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    return slice(store.row(keyspace(), columnFamily(columnParent), key), predicate);
+  }
+
+  @Override
+  public int get_count(ByteBuffer key, ColumnParent columnParent, SlicePredicate predicate,
+      ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    return get_slice(key, columnParent, predicate, consistencyLevel).size();
+  }
+
+  @Override
+  public Map<ByteBuffer, List<ColumnOrSuperColumn>> multiget_slice(List<ByteBuffer> keys, ColumnParent columnParent,
+      SlicePredicate predicate, ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    Map<ByteBuffer, List<ColumnOrSuperColumn>> slices = new LinkedHashMap<ByteBuffer, List<ColumnOrSuperColumn>>();
+    for (ByteBuffer key : keys) {
+      slices.put(key, get_slice(key, columnParent, predicate, consistencyLevel));
+    }
+    return slices;
+  }
+
+  @Override
+  public Map<ByteBuffer, Integer> multiget_count(List<ByteBuffer> keys, ColumnParent columnParent,
+      SlicePredicate predicate, ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    Map<ByteBuffer, Integer> counts = new LinkedHashMap<ByteBuffer, Integer>();
+    for (ByteBuffer key : keys) {
+      counts.put(key, get_count(key, columnParent, predicate, consistencyLevel));
+    }
+    return counts;
+  }
+
+  /**
+   * Keys are in byte order, as with the ByteOrderedPartitioner, whose tokens
+   * are the hex of the keys.
+   */
+  @Override
+  public List<KeySlice> get_range_slices(ColumnParent columnParent, SlicePredicate predicate, KeyRange range,
+      ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    NavigableMap<ByteBuffer, ? extends NavigableMap<ByteBuffer, Column>> rows = store.rows(keyspace(),
+        columnFamily(columnParent));
+    if ( range.isSetStart_key() && range.bufferForStart_key().hasRemaining() ) {
+      rows = rows.tailMap(range.bufferForStart_key(), true);
+    } else if ( range.isSetStart_token() && range.getStart_token().length() > 0 ) {
+      rows = rows.tailMap(ByteBufferUtil.hexToBytes(range.getStart_token()), false);
+    }
+    if ( range.isSetEnd_key() && range.bufferForEnd_key().hasRemaining() ) {
+      rows = rows.headMap(range.bufferForEnd_key(), true);
+    } else if ( range.isSetEnd_token() && range.getEnd_token().length() > 0 ) {
+      rows = rows.headMap(ByteBufferUtil.hexToBytes(range.getEnd_token()), true);
+    }
+    List<KeySlice> slices = new ArrayList<KeySlice>();
+    for (Map.Entry<ByteBuffer, ? extends NavigableMap<ByteBuffer, Column>> row : rows.entrySet()) {
+      if ( slices.size() >= range.getCount() ) {
+        break;
+      }
+      if ( !row.getValue().isEmpty() ) {
+        slices.add(new KeySlice(row.getKey(), slice(row.getValue(), predicate)));
+      }
+    }
+    return slices;
+  }
+
+  @Override
+  public List<KeySlice> get_paged_slice(String columnFamily, KeyRange range, ByteBuffer startColumn,
+      ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    throw unsupported("get_paged_slice");
+  }
+
+  @Override
+  public List<KeySlice> get_indexed_slices(ColumnParent columnParent,
+      org.apache.cassandra.thrift.IndexClause indexClause,
+      SlicePredicate columnPredicate, ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    throw unsupported("secondary indexes");
+  }
+
+  @Override
+  public void insert(ByteBuffer key, ColumnParent columnParent, Column column, ConsistencyLevel consistencyLevel)
+      throws InvalidRequestException {
+    if ( !column.isSetTimestamp() ) {
+      throw new InvalidRequestException("Column timestamp is required");
+    }
+    store.insert(keyspace(), columnFamily(columnParent), key, column);
+  }
+
+  @Override
+  public void add(ByteBuffer key, ColumnParent columnParent, CounterColumn column, ConsistencyLevel consistencyLevel)
+      throws InvalidRequestException {
+    throw unsupported("counters");
+  }
+
+  @Override
+  public CASResult cas(ByteBuffer key, String columnFamily, List<Column> expected, List<Column> updates,
+      ConsistencyLevel serialConsistencyLevel, ConsistencyLevel commitConsistencyLevel)
+      throws InvalidRequestException {
+    throw unsupported("cas");
+  }
+
+  @Override
+  public void remove(ByteBuffer key, ColumnPath columnPath, long timestamp, ConsistencyLevel consistencyLevel)
+      throws InvalidRequestException {
+    if ( columnPath.isSetSuper_column() ) {
+      throw unsupported("super columns");
+    }
+    store.delete(keyspace(), columnPath.getColumn_family(), key,
+        columnPath.isSetColumn() ? columnPath.bufferForColumn() : null, timestamp);
+  }
+
+  @Override
+  public void remove_counter(ByteBuffer key, ColumnPath path, ConsistencyLevel consistencyLevel)
+      throws InvalidRequestException {
+    throw unsupported("counters");
+  }
+
+  @Override
+  public void batch_mutate(Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap,
+      ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    String ks = keyspace();
+    for (Map.Entry<ByteBuffer, Map<String, List<Mutation>>> row : mutationMap.entrySet()) {
+      for (Map.Entry<String, List<Mutation>> columnFamily : row.getValue().entrySet()) {
+        for (Mutation mutation : columnFamily.getValue()) {
+          if ( mutation.isSetColumn_or_supercolumn() ) {
+            if ( !mutation.getColumn_or_supercolumn().isSetColumn() ) {
+              throw unsupported("super and counter columns");
+            }
+            store.insert(ks, columnFamily.getKey(), row.getKey(), mutation.getColumn_or_supercolumn().getColumn());
+          } else {
+            delete(ks, columnFamily.getKey(), row.getKey(), mutation.getDeletion());
+          }
+        }
+      }
+    }
+  }
+
+  private void delete(String ks, String columnFamily, ByteBuffer key, Deletion deletion)
+      throws InvalidRequestException {
+    if ( deletion.isSetSuper_column() ) {
+      throw unsupported("super columns");
+    }
+    if ( !deletion.isSetPredicate() ) {
+      store.delete(ks, columnFamily, key, null, deletion.getTimestamp());
+    } else if ( deletion.getPredicate().isSetColumn_names() ) {
+      for (ByteBuffer name : deletion.getPredicate().getColumn_names()) {
+        store.delete(ks, columnFamily, key, name, deletion.getTimestamp());
+      }
+    } else {
+      throw unsupported("range deletions");
+    }
+  }
+
+  @Override
+  public void atomic_batch_mutate(Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap,
+      ConsistencyLevel consistencyLevel) throws InvalidRequestException {
+    batch_mutate(mutationMap, consistencyLevel);
+  }
+
+  @Override
+  public void truncate(String columnFamily) throws InvalidRequestException {
+    store.truncate(keyspace(), columnFamily);
+  }
+
+  @Override
+  public Map<String, List<String>> describe_schema_versions() {
+    List<String> endpoints = new ArrayList<String>();
+    for (TokenRange range : server.getRing()) {
+      for (String endpoint : range.getEndpoints()) {
+        if ( !endpoints.contains(endpoint) ) {
+          endpoints.add(endpoint);
+        }
+      }
+    }
+    return Collections.singletonMap(FakeCassandraServer.SCHEMA_VERSION, endpoints);
+  }
+
+  @Override
+  public List<KsDef> describe_keyspaces() {
+    List<KsDef> keyspaces = new ArrayList<KsDef>();
+    for (String name : store.getKeyspaces()) {
+      keyspaces.add(ksDef(name));
+    }
+    return keyspaces;
+  }
+
+  @Override
+  public String describe_cluster_name() {
+    return server.getClusterName();
+  }
+
+  @Override
+  public String describe_version() {
+    return cassandraConstants.VERSION;
+  }
+
+  @Override
+  public List<TokenRange> describe_ring(String keyspace) {
+    return server.getRing();
+  }
+
+  @Override
+  public List<TokenRange> describe_local_ring(String keyspace) {
+    return server.getRing();
+  }
+
+  @Override
+  public Map<String, String> describe_token_map() {
+    Map<String, String> tokens = new HashMap<String, String>();
+    for (TokenRange range : server.getRing()) {
+      tokens.put(range.getEnd_token(), range.getEndpoints().get(0));
+    }
+    return tokens;
+  }
+
+  @Override
+  public String describe_partitioner() {
+    return PARTITIONER;
+  }
+
+  @Override
+  public String describe_snitch() {
+    return "org.apache.cassandra.locator.SimpleSnitch";
+  }
+
+  @Override
+  public KsDef describe_keyspace(String keyspace) throws NotFoundException {
+    if ( !store.hasKeyspace(keyspace) ) {
+      throw new NotFoundException();
+    }
+    return ksDef(keyspace);
+  }
+
+  @Override
+  public List<String> describe_splits(String cfName, String startToken, String endToken, int keysPerSplit)
+      throws InvalidRequestException {
+    throw unsupported("describe_splits");
+  }
+
+  @Override
+  public ByteBuffer trace_next_query() {
+    return ByteBuffer.wrap(UUIDGen.getTimeUUIDBytes());
+  }
+
+  @Override
+  public List<CfSplit> describe_splits_ex(String cfName, String startToken, String endToken, int keysPerSplit)
+      throws InvalidRequestException {
+    throw unsupported("describe_splits_ex");
+  }
+
+  @Override
+  public String system_add_column_family(CfDef cfDef) throws InvalidRequestException {
+    throw unsupported("schema changes");
+  }
+
+  @Override
+  public String system_drop_column_family(String columnFamily) throws InvalidRequestException {
+    throw unsupported("schema changes");
+  }
+
+  @Override
+  public String system_add_keyspace(KsDef ksDef) throws InvalidRequestException {
+    throw unsupported("schema changes");
+  }
+
+  @Override
+  public String system_drop_keyspace(String keyspace) throws InvalidRequestException {
+    throw unsupported("schema changes");
+  }
+
+  @Override
+  public String system_update_keyspace(KsDef ksDef) throws InvalidRequestException {
+    throw unsupported("schema changes");
+  }
+
+  @Override
+  public String system_update_column_family(CfDef cfDef) throws InvalidRequestException {
+    throw unsupported("schema changes");
+  }
+
+  @Override
+  public CqlResult execute_cql_query(ByteBuffer query, Compression compression) throws InvalidRequestException {
+    throw unsupported("CQL");
+  }
+
+  @Override
+  public CqlResult execute_cql3_query(ByteBuffer query, Compression compression, ConsistencyLevel consistency)
+      throws InvalidRequestException {
+    throw unsupported("CQL");
+  }
+
+  @Override
+  public CqlPreparedResult prepare_cql_query(ByteBuffer query, Compression compression)
+      throws InvalidRequestException {
+    throw unsupported("CQL");
+  }
+
+  @Override
+  public CqlPreparedResult prepare_cql3_query(ByteBuffer query, Compression compression)
+      throws InvalidRequestException {
+    throw unsupported("CQL");
+  }
+
+  @Override
+  public CqlResult execute_prepared_cql_query(int itemId, List<ByteBuffer> values) throws InvalidRequestException {
+    throw unsupported("CQL");
+  }
+
+  @Override
+  public CqlResult execute_prepared_cql3_query(int itemId, List<ByteBuffer> values, ConsistencyLevel consistency)
+      throws InvalidRequestException {
+    throw unsupported("CQL");
+  }
+
+  @Override
+  public void set_cql_version(String version) {
+  }
+
+  private String keyspace() throws InvalidRequestException {
+    if ( keyspace == null ) {
+      throw new InvalidRequestException("You have not set a keyspace for this session");
+    }
+    return keyspace;
+  }
+
+  private static String columnFamily(ColumnParent columnParent) throws InvalidRequestException {
+    if ( columnParent.isSetSuper_column() ) {
+      throw unsupported("super columns");
+    }
+    return columnParent.getColumn_family();
+  }
+
+  private static List<ColumnOrSuperColumn> slice(NavigableMap<ByteBuffer, Column> row, SlicePredicate predicate) {
+    List<ColumnOrSuperColumn> columns = new ArrayList<ColumnOrSuperColumn>();
+    if ( row == null ) {
+      return columns;
+    }
+    if ( predicate.isSetColumn_names() ) {
+      for (ByteBuffer name : predicate.getColumn_names()) {
+        Column column = row.get(name);
+        if ( column != null ) {
+          columns.add(new ColumnOrSuperColumn().setColumn(column));
+        }
+      }
+      return columns;
+    }
+    SliceRange range = predicate.getSlice_range();
+    NavigableMap<ByteBuffer, Column> view = range.isReversed() ? row.descendingMap() : row;
+    if ( range.bufferForStart().hasRemaining() ) {
+      view = view.tailMap(range.bufferForStart(), true);
+    }
+    if ( range.bufferForFinish().hasRemaining() ) {
+      view = view.headMap(range.bufferForFinish(), true);
+    }
+    for (Column column : view.values()) {
+      if ( columns.size() >= range.getCount() ) {
+        break;
+      }
+      columns.add(new ColumnOrSuperColumn().setColumn(column));
+    }
+    return columns;
+  }
+
+  private KsDef ksDef(String name) {
+    List<CfDef> cfDefs = new ArrayList<CfDef>();
+    for (String columnFamily : store.getColumnFamilies(name)) {
+      cfDefs.add(new CfDef(name, columnFamily));
+    }
+    return new KsDef(name, "org.apache.cassandra.locator.SimpleStrategy", cfDefs).setStrategy_options(
+        Collections.singletonMap("replication_factor", String.valueOf(server.getReplicationFactor())));
+  }
+
+  private static InvalidRequestException unsupported(String what) {
+    return new InvalidRequestException(what + " not supported by " + FakeCassandraServer.class.getSimpleName());
+  }
+}
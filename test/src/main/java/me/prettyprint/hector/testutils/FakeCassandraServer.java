@@ -0,0 +1,328 @@
+package me.prettyprint.hector.testutils;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.TimedOutException;
+import org.apache.cassandra.thrift.TokenRange;
+import org.apache.cassandra.thrift.UnavailableException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.TProcessorFactory;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Cassandra node speaking framed Thrift from memory, for testing and
+ * benchmarking how the client routes, retries and fails over without a
+ * cluster. Each request can be delayed by a {@link LatencyDistribution},
+ * answered with a TimedOutException or UnavailableException, or have its
+ * connection reset; all of it can be changed while the server runs and
+ * is drawn from a seeded {@link Random}.
+ *
+ * Use {@link FakeCassandraCluster} to run several nodes sharing their data.
+ */
+public class FakeCassandraServer {
+
+  private static final Logger log = LoggerFactory.getLogger(FakeCassandraServer.class);
+
+  static final String SCHEMA_VERSION = "59adb24e-f3cd-3e02-97f0-5b395827453f";
+
+  private final String address;
+  private final FakeColumnStore store;
+  private final Set<Socket> connections = Collections.newSetFromMap(new ConcurrentHashMap<Socket, Boolean>());
+  private final AtomicLong requests = new AtomicLong();
+  private final Random random;
+  private int port;
+  private volatile String clusterName = "Fake Cluster";
+  private volatile List<TokenRange> ring;
+  private volatile LatencyDistribution latency = LatencyDistribution.NONE;
+  private volatile double timedOutRate;
+  private volatile double unavailableRate;
+  private volatile double resetRate;
+  private TThreadPoolServer server;
+  private Thread serverThread;
+
+  /**
+   * @param port 0 for any free port, see {@link #getPort()}
+   */
+  public FakeCassandraServer(String address, int port) {
+    this(address, port, new FakeColumnStore());
+  }
+
+  FakeCassandraServer(String address, int port, FakeColumnStore store) {
+    this.address = address;
+    this.port = port;
+    this.store = store;
+    this.random = new Random(port);
+  }
+
+  public synchronized void start() throws TTransportException {
+    if ( server != null ) {
+      return;
+    }
+    TServerSocket serverSocket = new TServerSocket(new InetSocketAddress(address, port));
+    port = serverSocket.getServerSocket().getLocalPort();
+    if ( ring == null ) {
+      ring = FakeCassandraCluster.ring(Arrays.asList(address), 1);
+    }
+    TThreadPoolServer.Args args = new TThreadPoolServer.Args(serverSocket);
+    args.processorFactory(new ConnectionProcessorFactory());
+    args.transportFactory(new TFramedTransport.Factory());
+    args.protocolFactory(new TBinaryProtocol.Factory());
+    args.stopTimeoutVal = 1;
+    server = new TThreadPoolServer(args);
+    serverThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        server.serve();
+      }
+    }, "FakeCassandraServer-" + this);
+    serverThread.setDaemon(true);
+    serverThread.start();
+    log.info("Started {}", this);
+  }
+
+  /**
+   * Stops listening and closes every open connection, as a node going down
+   * would. The server can be started again on the same port.
+   */
+  public synchronized void stop() {
+    if ( server == null ) {
+      return;
+    }
+    server.stop();
+    for (Socket socket : connections) {
+      close(socket, false);
+    }
+    connections.clear();
+    try {
+      serverThread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    server = null;
+    serverThread = null;
+    log.info("Stopped {}", this);
+  }
+
+  public synchronized boolean isRunning() {
+    return server != null;
+  }
+
+  public String getAddress() {
+    return address;
+  }
+
+  /**
+   * @return the port listened on, once started when it was 0
+   */
+  public synchronized int getPort() {
+    return port;
+  }
+
+  FakeColumnStore getStore() {
+    return store;
+  }
+
+  public String getClusterName() {
+    return clusterName;
+  }
+
+  public void setClusterName(String clusterName) {
+    this.clusterName = clusterName;
+  }
+
+  /**
+   * @return what describe_ring answers, by default a single range owned by
+   *         this server or the ring of its {@link FakeCassandraCluster}
+   */
+  public List<TokenRange> getRing() {
+    List<TokenRange> r = ring;
+    return r == null ? Collections.<TokenRange> emptyList() : r;
+  }
+
+  public void setRing(List<TokenRange> ring) {
+    this.ring = ring;
+  }
+
+  int getReplicationFactor() {
+    List<TokenRange> r = getRing();
+    return r.isEmpty() ? 1 : r.get(0).getEndpointsSize();
+  }
+
+  public LatencyDistribution getLatency() {
+    return latency;
+  }
+
+  public void setLatency(LatencyDistribution latency) {
+    this.latency = latency;
+  }
+
+  /**
+   * @param timedOutRate the fraction of reads and writes answered with a
+   *          TimedOutException, once their latency has passed
+   */
+  public void setTimedOutRate(double timedOutRate) {
+    this.timedOutRate = timedOutRate;
+  }
+
+  /**
+   * @param unavailableRate the fraction of reads and writes answered right
+   *          away with an UnavailableException
+   */
+  public void setUnavailableRate(double unavailableRate) {
+    this.unavailableRate = unavailableRate;
+  }
+
+  /**
+   * @param resetRate the fraction of requests of any kind whose connection
+   *          is reset instead of answered
+   */
+  public void setResetRate(double resetRate) {
+    this.resetRate = resetRate;
+  }
+
+  public void setSeed(long seed) {
+    random.setSeed(seed);
+  }
+
+  /**
+   * @return the requests received since the server was created
+   */
+  public long getRequestCount() {
+    return requests.get();
+  }
+
+  /**
+   * @return the connections currently open
+   */
+  public int getConnectionCount() {
+    int open = 0;
+    for (Socket socket : connections) {
+      if ( !socket.isClosed() ) {
+        open++;
+      }
+    }
+    return open;
+  }
+
+  @Override
+  public String toString() {
+    return address + ":" + port;
+  }
+
+  private boolean roll(double rate) {
+    return rate > 0 && random.nextDouble() < rate;
+  }
+
+  private static void close(Socket socket, boolean reset) {
+    try {
+      if ( reset ) {
+        // the peer gets a RST rather than a FIN
+        socket.setSoLinger(true, 0);
+      }
+      socket.close();
+    } catch (IOException e) {
+      log.debug("Closing {} failed: {}", socket, e.getMessage());
+    }
+  }
+
+  /**
+   * Gives every connection its own handler, which holds its keyspace, behind
+   * the faults of the server.
+   */
+  private class ConnectionProcessorFactory extends TProcessorFactory {
+
+    ConnectionProcessorFactory() {
+      super(null);
+    }
+
+    @Override
+    public TProcessor getProcessor(TTransport transport) {
+      for (Socket socket : connections) {
+        if ( socket.isClosed() ) {
+          connections.remove(socket);
+        }
+      }
+      Socket socket = ((TSocket) transport).getSocket();
+      connections.add(socket);
+      Cassandra.Iface iface = (Cassandra.Iface) Proxy.newProxyInstance(Cassandra.Iface.class.getClassLoader(),
+          new Class<?>[] { Cassandra.Iface.class },
+          new FaultInjector(new FakeCassandraHandler(FakeCassandraServer.this), socket));
+      return new Cassandra.Processor<Cassandra.Iface>(iface);
+    }
+  }
+
+  private class FaultInjector implements InvocationHandler {
+
+    private final FakeCassandraHandler handler;
+    private final Socket socket;
+
+    FaultInjector(FakeCassandraHandler handler, Socket socket) {
+      this.handler = handler;
+      this.socket = socket;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if ( method.getDeclaringClass() == Object.class ) {
+        return method.invoke(handler, args);
+      }
+      requests.incrementAndGet();
+      if ( roll(resetRate) ) {
+        // writing the response fails, which ends the connection quietly
+        close(socket, true);
+        return method.getReturnType() == int.class ? Integer.valueOf(0) : null;
+      }
+      if ( declares(method, UnavailableException.class) && roll(unavailableRate) ) {
+        throw new UnavailableException();
+      }
+      long micros = latency.nextMicros(random);
+      if ( micros > 0 ) {
+        try {
+          TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if ( declares(method, TimedOutException.class) && roll(timedOutRate) ) {
+        throw new TimedOutException();
+      }
+      try {
+        return method.invoke(handler, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    private boolean declares(Method method, Class<? extends Exception> exception) {
+      for (Class<?> declared : method.getExceptionTypes()) {
+        if ( declared == exception ) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
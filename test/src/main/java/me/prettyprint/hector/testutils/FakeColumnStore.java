@@ -0,0 +1,115 @@
+package me.prettyprint.hector.testutils;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.cassandra.db.marshal.BytesType;
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.utils.ByteBufferUtil;
+
+/**
+ * The standard column families of the {@link FakeCassandraServer}s of a
+ * cluster, in memory. Rows and columns are in byte order, the newest write
+ * of a column wins and deletes apply to columns written before them.
+ */
+class FakeColumnStore {
+
+  private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>>> keyspaces =
+      new ConcurrentHashMap<String, ConcurrentMap<String, ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>>>();
+
+  ConcurrentMap<String, ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>> keyspace(String keyspace) {
+    ConcurrentMap<String, ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>> columnFamilies = keyspaces.get(keyspace);
+    if ( columnFamilies == null ) {
+      columnFamilies = new ConcurrentHashMap<String, ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>>();
+      ConcurrentMap<String, ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>> existing = keyspaces.putIfAbsent(keyspace, columnFamilies);
+      if ( existing != null ) {
+        columnFamilies = existing;
+      }
+    }
+    return columnFamilies;
+  }
+
+  boolean hasKeyspace(String keyspace) {
+    return keyspaces.containsKey(keyspace);
+  }
+
+  Set<String> getKeyspaces() {
+    return Collections.unmodifiableSet(keyspaces.keySet());
+  }
+
+  Set<String> getColumnFamilies(String keyspace) {
+    return Collections.unmodifiableSet(keyspace(keyspace).keySet());
+  }
+
+  ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>> rows(String keyspace, String columnFamily) {
+    ConcurrentMap<String, ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>> columnFamilies = keyspace(keyspace);
+    ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>> rows = columnFamilies.get(columnFamily);
+    if ( rows == null ) {
+      rows = new ConcurrentSkipListMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>>(BytesType.instance);
+      ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>> existing = columnFamilies.putIfAbsent(columnFamily, rows);
+      if ( existing != null ) {
+        rows = existing;
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * @return the row, null when it was never written
+   */
+  NavigableMap<ByteBuffer, Column> row(String keyspace, String columnFamily, ByteBuffer key) {
+    return rows(keyspace, columnFamily).get(key);
+  }
+
+  void insert(String keyspace, String columnFamily, ByteBuffer key, Column column) {
+    ConcurrentNavigableMap<ByteBuffer, ConcurrentNavigableMap<ByteBuffer, Column>> rows = rows(keyspace, columnFamily);
+    ConcurrentNavigableMap<ByteBuffer, Column> row = rows.get(key);
+    if ( row == null ) {
+      row = new ConcurrentSkipListMap<ByteBuffer, Column>(BytesType.instance);
+      ConcurrentNavigableMap<ByteBuffer, Column> existing = rows.putIfAbsent(ByteBufferUtil.clone(key), row);
+      if ( existing != null ) {
+        row = existing;
+      }
+    }
+    Column copy = column.deepCopy();
+    ByteBuffer name = copy.bufferForName();
+    for (;;) {
+      Column current = row.putIfAbsent(name, copy);
+      if ( current == null || current.getTimestamp() > copy.getTimestamp() || row.replace(name, current, copy) ) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @param name the column to delete, null for the whole row
+   */
+  void delete(String keyspace, String columnFamily, ByteBuffer key, ByteBuffer name, long timestamp) {
+    NavigableMap<ByteBuffer, Column> row = row(keyspace, columnFamily, key);
+    if ( row == null ) {
+      return;
+    }
+    if ( name != null ) {
+      Column current = row.get(name);
+      if ( current != null && current.getTimestamp() <= timestamp ) {
+        row.remove(name, current);
+      }
+      return;
+    }
+    for (Column current : row.values()) {
+      if ( current.getTimestamp() <= timestamp ) {
+        row.remove(current.bufferForName(), current);
+      }
+    }
+  }
+
+  void truncate(String keyspace, String columnFamily) {
+    rows(keyspace, columnFamily).clear();
+  }
+}
@@ -0,0 +1,90 @@
+package me.prettyprint.hector.testutils;
+
+import java.util.Random;
+
+/**
+ * How long a {@link FakeCassandraServer} takes to answer a request. Draws
+ * come from the server's seeded {@link Random}, so a run can be repeated.
+ */
+public abstract class LatencyDistribution {
+
+  public static final LatencyDistribution NONE = fixed(0);
+
+  /**
+   * @return the next latency in microseconds
+   */
+  public abstract long nextMicros(Random random);
+
+  public static LatencyDistribution fixed(final double millis) {
+    final long micros = toMicros(millis);
+    return new LatencyDistribution() {
+      @Override
+      public long nextMicros(Random random) {
+        return micros;
+      }
+
+      @Override
+      public String toString() {
+        return "fixed(" + millis + "ms)";
+      }
+    };
+  }
+
+  public static LatencyDistribution uniform(final double minMillis, final double maxMillis) {
+    return new LatencyDistribution() {
+      @Override
+      public long nextMicros(Random random) {
+        return toMicros(minMillis + random.nextDouble() * (maxMillis - minMillis));
+      }
+
+      @Override
+      public String toString() {
+        return "uniform(" + minMillis + "ms.." + maxMillis + "ms)";
+      }
+    };
+  }
+
+  /**
+   * The long tailed distribution of most real latencies.
+   * @param sigma the spread, 0.5 puts the 99th percentile at about 3 times
+   *          the median
+   */
+  public static LatencyDistribution logNormal(final double medianMillis, final double sigma) {
+    final double mu = Math.log(medianMillis);
+    return new LatencyDistribution() {
+      @Override
+      public long nextMicros(Random random) {
+        return toMicros(Math.exp(mu + sigma * random.nextGaussian()));
+      }
+
+      @Override
+      public String toString() {
+        return "logNormal(median=" + medianMillis + "ms, sigma=" + sigma + ")";
+      }
+    };
+  }
+
+  /**
+   * Adds a pause, such as a GC, to a fraction of the requests.
+   */
+  public static LatencyDistribution withSpikes(final LatencyDistribution base, final double probability,
+      final double spikeMillis) {
+    final long spikeMicros = toMicros(spikeMillis);
+    return new LatencyDistribution() {
+      @Override
+      public long nextMicros(Random random) {
+        long micros = base.nextMicros(random);
+        return random.nextDouble() < probability ? micros + spikeMicros : micros;
+      }
+
+      @Override
+      public String toString() {
+        return base + " with " + spikeMillis + "ms spikes at " + probability;
+      }
+    };
+  }
+
+  private static long toMicros(double millis) {
+    return Math.max(0, Math.round(millis * 1000));
+  }
+}